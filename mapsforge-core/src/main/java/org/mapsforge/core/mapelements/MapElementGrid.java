@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.core.mapelements;
+
+import org.mapsforge.core.model.Point;
+import org.mapsforge.core.model.Rectangle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid over the absolute boundaries of MapElementContainers, which answers whether an element
+ * clashes with any of the elements added so far by testing only those in the grid cells around it.
+ * <p/>
+ * The answers are the same as testing {@link MapElementContainer#clashesWith(MapElementContainer)} of all
+ * added elements: elements clash only if their boundaries intersect or, for {@link PointTextContainer}s,
+ * if they show the same text close to each other, and both cases are covered by the cells that are
+ * searched.
+ */
+public class MapElementGrid {
+    private static final int CELL_SIZE = 256;
+
+    /**
+     * Elements which would cover more cells are tested for every query instead.
+     */
+    private static final int MAX_CELLS = 64;
+
+    private static boolean clashesWith(List<MapElementContainer> cell, MapElementContainer element) {
+        for (int i = 0, n = cell.size(); i < n; ++i) {
+            if (cell.get(i).clashesWith(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int getCell(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static Long getKey(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xffffffffL);
+    }
+
+    private final Map<Long, List<MapElementContainer>> cells = new HashMap<>();
+    private final List<MapElementContainer> oversized = new ArrayList<>();
+
+    /**
+     * Adds an element to this grid.
+     *
+     * @param element the element to add.
+     */
+    public void add(MapElementContainer element) {
+        Rectangle boundary = element.getBoundaryAbsolute();
+        int left = getCell(boundary.left);
+        int top = getCell(boundary.top);
+        int right = getCell(boundary.right);
+        int bottom = getCell(boundary.bottom);
+        if ((long) (right - left + 1) * (bottom - top + 1) > MAX_CELLS) {
+            this.oversized.add(element);
+            return;
+        }
+        for (int cellX = left; cellX <= right; ++cellX) {
+            for (int cellY = top; cellY <= bottom; ++cellY) {
+                add(cellX, cellY, element);
+            }
+        }
+        if (element instanceof PointTextContainer) {
+            // the point of a text must be found by texts nearby, even outside of its boundary
+            int cellX = getCell(element.xy.x);
+            int cellY = getCell(element.xy.y);
+            if (cellX < left || cellX > right || cellY < top || cellY > bottom) {
+                add(cellX, cellY, element);
+            }
+        }
+    }
+
+    /**
+     * Adds all elements to this grid.
+     *
+     * @param elements the elements to add.
+     */
+    public void addAll(Iterable<? extends MapElementContainer> elements) {
+        for (MapElementContainer element : elements) {
+            add(element);
+        }
+    }
+
+    /**
+     * Returns if an added element clashes with the given element, i.e. if any added element
+     * {@code e} returns true for {@code e.clashesWith(element)}.
+     *
+     * @param element the element to test.
+     * @return true if the element clashes with an added element.
+     */
+    public boolean clashesWith(MapElementContainer element) {
+        for (int i = 0, n = this.oversized.size(); i < n; ++i) {
+            if (this.oversized.get(i).clashesWith(element)) {
+                return true;
+            }
+        }
+
+        Rectangle boundary = element.getBoundaryAbsolute();
+        if (element instanceof PointTextContainer) {
+            Point point = element.xy;
+            double distance = PointTextContainer.SAME_TEXT_DISTANCE;
+            boundary = new Rectangle(Math.min(boundary.left, point.x - distance), Math.min(boundary.top, point.y - distance),
+                    Math.max(boundary.right, point.x + distance), Math.max(boundary.bottom, point.y + distance));
+        }
+        int left = getCell(boundary.left);
+        int top = getCell(boundary.top);
+        int right = getCell(boundary.right);
+        int bottom = getCell(boundary.bottom);
+        if ((long) (right - left + 1) * (bottom - top + 1) > this.cells.size()) {
+            // cheaper to look at every cell
+            for (List<MapElementContainer> cell : this.cells.values()) {
+                if (clashesWith(cell, element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int cellX = left; cellX <= right; ++cellX) {
+            for (int cellY = top; cellY <= bottom; ++cellY) {
+                List<MapElementContainer> cell = this.cells.get(getKey(cellX, cellY));
+                if (cell != null && clashesWith(cell, element)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void add(int cellX, int cellY, MapElementContainer element) {
+        Long key = getKey(cellX, cellY);
+        List<MapElementContainer> cell = this.cells.get(key);
+        if (cell == null) {
+            cell = new ArrayList<>(4);
+            this.cells.put(key, cell);
+        }
+        cell.add(element);
+    }
+}
@@ -21,6 +21,10 @@ import org.mapsforge.core.graphics.Position;
 import org.mapsforge.core.model.Point;
 
 public abstract class PointTextContainer extends MapElementContainer {
+    /**
+     * Containers with the same text clash if their points are closer than this distance in pixels.
+     */
+    static final double SAME_TEXT_DISTANCE = 200;
 
     public final boolean isVisible;
     public final int maxTextWidth;
@@ -65,7 +69,7 @@ public abstract class PointTextContainer extends MapElementContainer {
             return false;
         }
         PointTextContainer ptc = (PointTextContainer) other;
-        if (this.text.equals(ptc.text) && this.xy.distance(ptc.xy) < 200) {
+        if (this.text.equals(ptc.text) && this.xy.distance(ptc.xy) < SAME_TEXT_DISTANCE) {
             return true;
         }
         return false;
@@ -363,6 +363,40 @@ public class BoundingBox implements Serializable {
         return this.intersects(new BoundingBox(tmpMinLat, tmpMinLon, tmpMaxLat, tmpMaxLon));
     }
 
+    /**
+     * Same as {@link #intersectsArea(LatLong[][])} for points stored as latitude/longitude pairs.
+     *
+     * @param coordinates         the latitude/longitude pairs of the points that define an area
+     * @param numberOfCoordinates the number of points
+     * @return false if there is no intersection, true if there could be an intersection
+     */
+    public boolean intersectsArea(double[] coordinates, int numberOfCoordinates) {
+        if (numberOfCoordinates == 0) {
+            return false;
+        }
+        for (int i = 0; i < numberOfCoordinates; ++i) {
+            if (this.contains(coordinates[2 * i], coordinates[2 * i + 1])) {
+                // if any of the points is inside the bbox return early
+                return true;
+            }
+        }
+
+        // no fast solution, so accumulate boundary points
+        double tmpMinLat = coordinates[0];
+        double tmpMinLon = coordinates[1];
+        double tmpMaxLat = coordinates[0];
+        double tmpMaxLon = coordinates[1];
+
+        for (int i = 1; i < numberOfCoordinates; ++i) {
+            tmpMinLat = Math.min(tmpMinLat, coordinates[2 * i]);
+            tmpMaxLat = Math.max(tmpMaxLat, coordinates[2 * i]);
+            tmpMinLon = Math.min(tmpMinLon, coordinates[2 * i + 1]);
+            tmpMaxLon = Math.max(tmpMaxLon, coordinates[2 * i + 1]);
+        }
+        return this.maxLatitude >= tmpMinLat && this.maxLongitude >= tmpMinLon
+                && this.minLatitude <= tmpMaxLat && this.minLongitude <= tmpMaxLon;
+    }
+
     @Override
     public String toString() {
         StringBuilder stringBuilder = new StringBuilder();
@@ -29,18 +29,43 @@ public final class Parameters {
     public static int MAXIMUM_BUFFER_SIZE = 8000000;
 
     /**
-     * The default number of threads is one greater than the number of processors, as one thread is
-     * likely to be blocked on I/O reading map data. Technically this value can change to a better
-     * implementation, maybe one that also takes the available memory into account would be good.
-     * For stability reasons (see #591), we set default number of threads to 1.
+     * The render threads are shared by all tile renderer layers and sized by the {@code RenderExecutor}
+     * of the map module. A positive value is the maximum number of threads of each of its stages, 1 keeps
+     * rendering single-threaded. The default of 0 uses the number of processors. A changed value takes
+     * effect when the next tile renderer layer is created.
+     *
+     * @deprecated use {@code RenderExecutor.getDefault().setMaximumThreads(int)} instead.
      */
-    public static int NUMBER_OF_THREADS = 1;//Runtime.getRuntime().availableProcessors() + 1;
+    @Deprecated
+    public static int NUMBER_OF_THREADS = 0;
+
+    /**
+     * If true, consecutive ways of a layer and level that share their opaque paint and offset are drawn as one
+     * path, which saves draw calls on tiles with many similar roads. Ways with a translucent paint are always
+     * drawn one by one. Where opaque ways overlap, anti-aliased edges may differ slightly from drawing the
+     * ways one by one.
+     */
+    public static boolean PATH_BATCHING = false;
 
     /**
      * Parent tiles rendering mode.
      */
     public static ParentTilesRendering PARENT_TILES_RENDERING = ParentTilesRendering.QUALITY;
 
+    /**
+     * The margin in pixels around the drawn tiles outside of which the simplification collapses the vertices
+     * of a way, see {@link #SIMPLIFICATION_TOLERANCE}. It must exceed half of the widest stroke plus its offset.
+     */
+    public static int SIMPLIFICATION_MARGIN = 64;
+
+    /**
+     * The tolerance in pixels at which ways are simplified before they are drawn, 0 disables the simplification.
+     * Vertices closer than this to their predecessor are dropped, the rest are reduced with the Douglas-Peucker
+     * algorithm, and runs of vertices on the same side outside of the tiles plus {@link #SIMPLIFICATION_MARGIN}
+     * are collapsed. Labels are placed with the original coordinates.
+     */
+    public static float SIMPLIFICATION_TOLERANCE = 0;
+
     /**
      * If square frame buffer is enabled, the frame buffer allocated for drawing will be
      * large enough for drawing in either orientation, so no change is needed when the device
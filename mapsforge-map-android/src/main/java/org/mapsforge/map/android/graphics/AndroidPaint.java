@@ -120,6 +120,9 @@ class AndroidPaint implements Paint {
 
     final android.graphics.Paint paint;
 
+    // needed to create the bitmap shader of a copy
+    private android.graphics.Bitmap shaderBitmap;
+
     // needed to record size of bitmap shader to compute the shift
     private int shaderWidth;
     private int shaderHeight;
@@ -136,7 +139,15 @@ class AndroidPaint implements Paint {
     }
 
     AndroidPaint(Paint paint) {
-        this.paint = new android.graphics.Paint(((AndroidPaint) paint).paint);
+        AndroidPaint androidPaint = (AndroidPaint) paint;
+        this.paint = new android.graphics.Paint(androidPaint.paint);
+        this.shaderBitmap = androidPaint.shaderBitmap;
+        this.shaderWidth = androidPaint.shaderWidth;
+        this.shaderHeight = androidPaint.shaderHeight;
+        if (this.shaderBitmap != null) {
+            // the shader is not copied, so that shifting it does not shift the shader of the original
+            this.paint.setShader(new BitmapShader(this.shaderBitmap, TileMode.REPEAT, TileMode.REPEAT));
+        }
     }
 
     @Override
@@ -177,6 +188,7 @@ class AndroidPaint implements Paint {
             return;
         }
 
+        this.shaderBitmap = androidBitmap;
         this.shaderWidth = bitmap.getWidth();
         this.shaderHeight = bitmap.getHeight();
         if (!AndroidGraphicFactory.KEEP_RESOURCE_BITMAPS && Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
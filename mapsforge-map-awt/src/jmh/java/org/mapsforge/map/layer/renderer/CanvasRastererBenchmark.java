@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.TileBitmap;
+import org.mapsforge.core.model.Point;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.Parameters;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.reader.MapFile;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.RenderContext;
+import org.mapsforge.map.rendertheme.rule.RenderThemeFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Draws the ways of a road-heavy tile with the default render theme, with and without path batching.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CanvasRastererBenchmark {
+    private static final String[] HIGHWAYS = {"residential", "residential", "residential", "service", "footway"};
+    private static final byte ZOOM_LEVEL = 16;
+
+    @Param({"false", "true"})
+    public boolean pathBatching;
+
+    @Param({"500", "2000"})
+    public int roads;
+
+    private TileBitmap bitmap;
+    private RenderContext renderContext;
+    private RenderThemeFuture renderThemeFuture;
+
+    @Benchmark
+    public TileBitmap drawWays() {
+        this.renderContext.canvasRasterer.drawWays(this.renderContext);
+        return this.bitmap;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        GraphicFactory graphicFactory = AwtGraphicFactory.INSTANCE;
+        DisplayModel displayModel = new DisplayModel();
+        this.renderThemeFuture = new RenderThemeFuture(graphicFactory, InternalRenderTheme.DEFAULT, displayModel);
+        this.renderThemeFuture.run();
+        this.renderThemeFuture.get();
+        Tile tile = new Tile(34322, 22950, ZOOM_LEVEL, displayModel.getTileSize());
+        RendererJob rendererJob = new RendererJob(tile, MapFile.TEST_MAP_FILE, this.renderThemeFuture, displayModel,
+                1, false, false);
+        this.renderContext = new RenderContext(rendererJob, new CanvasRasterer(graphicFactory));
+        this.bitmap = graphicFactory.createTileBitmap(tile.tileSize, false);
+        this.renderContext.canvasRasterer.setCanvasBitmap(this.bitmap);
+
+        // short roads with a few nodes each, scattered over the tile
+        StandardRenderer standardRenderer = new StandardRenderer(MapFile.TEST_MAP_FILE, graphicFactory, false);
+        Point origin = tile.getOrigin();
+        Random random = new Random(42);
+        this.renderContext.setDrawingLayers((byte) 0);
+        for (int i = 0; i < this.roads; ++i) {
+            Point[] coordinates = new Point[5];
+            double x = origin.x + random.nextInt(tile.tileSize);
+            double y = origin.y + random.nextInt(tile.tileSize);
+            for (int j = 0; j < coordinates.length; ++j) {
+                coordinates[j] = new Point(x, y);
+                x += random.nextInt(41) - 20;
+                y += random.nextInt(41) - 20;
+            }
+            PolylineContainer way = new PolylineContainer(coordinates, tile, tile,
+                    Arrays.asList(new Tag("highway", HIGHWAYS[i % HIGHWAYS.length])));
+            this.renderContext.renderTheme.matchLinearWay(standardRenderer, this.renderContext, way);
+        }
+
+        Parameters.PATH_BATCHING = this.pathBatching;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Parameters.PATH_BATCHING = false;
+        this.renderContext.destroy();
+        this.bitmap.decrementRefCount();
+        this.renderThemeFuture.get().destroy();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.mapsforge.core.graphics.Color;
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.graphics.Style;
+import org.mapsforge.core.graphics.TileBitmap;
+import org.mapsforge.core.model.Point;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.Parameters;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.reader.MapFile;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.RenderContext;
+import org.mapsforge.map.rendertheme.rule.RenderThemeFuture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts and draws a large coastline polygon which crosses a tile, with and without the render-time
+ * simplification of {@link Parameters#SIMPLIFICATION_TOLERANCE}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimplificationBenchmark {
+    private static final byte ZOOM_LEVEL = 12;
+
+    @Param({"0", "0.5"})
+    public float simplificationTolerance;
+
+    @Param({"20000"})
+    public int vertices;
+
+    private TileBitmap bitmap;
+    private Point[] coordinates;
+    private Paint fill;
+    private RenderContext renderContext;
+    private RenderThemeFuture renderThemeFuture;
+    private Paint stroke;
+    private List<Tag> tags;
+    private Tile tile;
+
+    @Benchmark
+    public TileBitmap drawPolygon() {
+        // a new container for every invocation, as the container caches its drawn coordinates
+        PolylineContainer polygon = new PolylineContainer(this.coordinates, this.tile, this.tile, this.tags);
+        List<ShapePaintContainer> level = this.renderContext.ways.get(0).get(0);
+        level.clear();
+        level.add(new ShapePaintContainer(polygon, this.stroke));
+        level.add(new ShapePaintContainer(polygon, this.fill));
+        this.renderContext.canvasRasterer.drawWays(this.renderContext);
+        return this.bitmap;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        GraphicFactory graphicFactory = AwtGraphicFactory.INSTANCE;
+        DisplayModel displayModel = new DisplayModel();
+        this.renderThemeFuture = new RenderThemeFuture(graphicFactory, InternalRenderTheme.DEFAULT, displayModel);
+        this.renderThemeFuture.run();
+        this.renderThemeFuture.get();
+        this.tile = new Tile(2200, 1343, ZOOM_LEVEL, displayModel.getTileSize());
+        RendererJob rendererJob = new RendererJob(this.tile, MapFile.TEST_MAP_FILE, this.renderThemeFuture, displayModel,
+                1, false, false);
+        this.renderContext = new RenderContext(rendererJob, new CanvasRasterer(graphicFactory));
+        this.bitmap = graphicFactory.createTileBitmap(this.tile.tileSize, false);
+        this.renderContext.canvasRasterer.setCanvasBitmap(this.bitmap);
+
+        this.fill = graphicFactory.createPaint();
+        this.fill.setColor(Color.BLUE);
+        this.fill.setStyle(Style.FILL);
+        this.stroke = graphicFactory.createPaint();
+        this.stroke.setColor(Color.BLACK);
+        this.stroke.setStyle(Style.STROKE);
+        this.stroke.setStrokeWidth(2);
+        this.tags = Collections.singletonList(new Tag("natural", "water"));
+
+        // a ragged ring whose boundary runs through the middle of the tile, most of it far outside
+        Point origin = this.tile.getOrigin();
+        double radius = 4 * this.tile.tileSize;
+        double centerX = origin.x + this.tile.tileSize / 2 + radius;
+        double centerY = origin.y + this.tile.tileSize / 2;
+        Random random = new Random(42);
+        this.coordinates = new Point[this.vertices + 1];
+        for (int i = 0; i < this.vertices; ++i) {
+            double angle = 2 * Math.PI * i / this.vertices;
+            double r = radius + random.nextDouble() * 4;
+            this.coordinates[i] = new Point(centerX - r * Math.cos(angle), centerY + r * Math.sin(angle));
+        }
+        this.coordinates[this.vertices] = this.coordinates[0];
+
+        Parameters.SIMPLIFICATION_TOLERANCE = this.simplificationTolerance;
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Parameters.SIMPLIFICATION_TOLERANCE = 0;
+        this.renderContext.destroy();
+        this.bitmap.decrementRefCount();
+        this.renderThemeFuture.get().destroy();
+    }
+}
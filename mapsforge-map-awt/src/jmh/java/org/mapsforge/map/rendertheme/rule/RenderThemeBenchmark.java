@@ -0,0 +1,192 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import org.mapsforge.core.graphics.Bitmap;
+import org.mapsforge.core.graphics.Display;
+import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.graphics.Position;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Point;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.layer.renderer.CanvasRasterer;
+import org.mapsforge.map.layer.renderer.PolylineContainer;
+import org.mapsforge.map.layer.renderer.RendererJob;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.reader.MapFile;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.RenderCallback;
+import org.mapsforge.map.rendertheme.RenderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches the elements of a tile against the default render theme, as the renderer threads do. Compare the
+ * throughput for different numbers of threads, e.g. "-t 1" and "-t 4", to see how matching scales.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderThemeBenchmark {
+    private static final String[] HIGHWAYS = {"motorway", "trunk", "primary", "secondary", "tertiary",
+            "residential", "service", "footway", "cycleway", "track"};
+    private static final String[] LANDUSES = {"forest", "grass", "residential", "industrial", "farmland"};
+    private static final String[] POIS = {"restaurant", "cafe", "pharmacy", "bank", "fuel", "parking"};
+    private static final byte ZOOM_LEVEL = 16;
+
+    /**
+     * The elements and render context of one renderer thread.
+     */
+    @State(Scope.Thread)
+    public static class Renderer {
+        private final RenderCallback renderCallback = new CountingRenderCallback();
+        private RenderContext renderContext;
+
+        @Setup
+        public void setup(RenderThemeBenchmark benchmark) throws Exception {
+            RendererJob rendererJob = new RendererJob(benchmark.tile, MapFile.TEST_MAP_FILE,
+                    benchmark.renderThemeFuture, benchmark.displayModel, 1, false, false);
+            this.renderContext = new RenderContext(rendererJob, new CanvasRasterer(AwtGraphicFactory.INSTANCE));
+        }
+    }
+
+    /**
+     * Only counts the render calls, so that the benchmark measures matching.
+     */
+    private static class CountingRenderCallback implements RenderCallback {
+        int calls;
+
+        @Override
+        public void renderArea(RenderContext renderContext, Paint fill, Paint stroke, int level, PolylineContainer way) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderAreaCaption(RenderContext renderContext, Display display, int priority, String caption, float horizontalOffset, float verticalOffset, Paint fill, Paint stroke, Position position, int maxTextWidth, PolylineContainer way) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderAreaSymbol(RenderContext renderContext, Display display, int priority, Bitmap symbol, PolylineContainer way) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderPointOfInterestCaption(RenderContext renderContext, Display display, int priority, String caption, float horizontalOffset, float verticalOffset, Paint fill, Paint stroke, Position position, int maxTextWidth, PointOfInterest poi) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderPointOfInterestCircle(RenderContext renderContext, float radius, Paint fill, Paint stroke, int level, PointOfInterest poi) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderPointOfInterestSymbol(RenderContext renderContext, Display display, int priority, Bitmap symbol, PointOfInterest poi) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderWay(RenderContext renderContext, Paint stroke, float dy, int level, PolylineContainer way) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderWaySymbol(RenderContext renderContext, Display display, int priority, Bitmap symbol, float dy, boolean alignCenter, boolean repeat, float repeatGap, float repeatStart, boolean rotate, PolylineContainer way) {
+            ++this.calls;
+        }
+
+        @Override
+        public void renderWayText(RenderContext renderContext, Display display, int priority, String text, float dy, Paint fill, Paint stroke, boolean repeat, float repeatGap, float repeatStart, boolean rotate, PolylineContainer way) {
+            ++this.calls;
+        }
+    }
+
+    private final List<PolylineContainer> areas = new ArrayList<>();
+    private DisplayModel displayModel;
+    private final List<PolylineContainer> lines = new ArrayList<>();
+    private final List<PointOfInterest> pois = new ArrayList<>();
+    private RenderThemeFuture renderThemeFuture;
+    private Tile tile;
+
+    @Benchmark
+    public int matchTile(Renderer renderer) {
+        RenderTheme renderTheme = renderer.renderContext.renderTheme;
+        for (PolylineContainer area : this.areas) {
+            renderTheme.matchClosedWay(renderer.renderCallback, renderer.renderContext, area);
+        }
+        for (PolylineContainer line : this.lines) {
+            renderTheme.matchLinearWay(renderer.renderCallback, renderer.renderContext, line);
+        }
+        for (PointOfInterest poi : this.pois) {
+            renderTheme.matchNode(renderer.renderCallback, renderer.renderContext, poi);
+        }
+        return ((CountingRenderCallback) renderer.renderCallback).calls;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        this.displayModel = new DisplayModel();
+        this.renderThemeFuture = new RenderThemeFuture(AwtGraphicFactory.INSTANCE, InternalRenderTheme.DEFAULT,
+                this.displayModel);
+        this.renderThemeFuture.run();
+        this.renderThemeFuture.get();
+        this.tile = new Tile(34322, 22950, ZOOM_LEVEL, this.displayModel.getTileSize());
+
+        Point[] coordinates = {new Point(0, 0), new Point(100, 0), new Point(100, 100), new Point(0, 100),
+                new Point(0, 0)};
+        for (int i = 0; i < 400; ++i) {
+            // the names differ, but do not change the matching
+            Tag name = new Tag("name", "Element " + i);
+            this.lines.add(new PolylineContainer(coordinates, this.tile, this.tile, Arrays.asList(
+                    new Tag("highway", HIGHWAYS[i % HIGHWAYS.length]), new Tag("ref", Integer.toString(i % 50)), name)));
+            if (i % 2 == 0) {
+                this.areas.add(new PolylineContainer(coordinates, this.tile, this.tile, Arrays.asList(
+                        new Tag("landuse", LANDUSES[i % LANDUSES.length]), name)));
+                this.areas.add(new PolylineContainer(coordinates, this.tile, this.tile, Arrays.asList(
+                        new Tag("building", "yes"), name)));
+            }
+            if (i % 4 == 0) {
+                this.pois.add(new PointOfInterest((byte) 0, Arrays.asList(
+                        new Tag("amenity", POIS[i % POIS.length]), name), new LatLong(52.5, 13.4)));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        this.renderThemeFuture.get().destroy();
+    }
+}
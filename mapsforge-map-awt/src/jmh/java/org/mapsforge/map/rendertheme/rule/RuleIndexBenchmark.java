@@ -0,0 +1,115 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.renderinstruction.RenderInstruction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a matching cache miss with the rule index and with a walk of the whole rule tree.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RuleIndexBenchmark {
+    private static final byte ZOOM_LEVEL = 16;
+
+    private static void matchWay(Rule rule, List<Tag> tags, Closed closed, List<RenderInstruction> matchingList) {
+        if (rule.matchesWay(tags, ZOOM_LEVEL, closed)) {
+            matchingList.addAll(rule.renderInstructions);
+            for (Rule subRule : rule.subRules) {
+                matchWay(subRule, tags, closed, matchingList);
+            }
+        }
+    }
+
+    private RenderTheme renderTheme;
+    private RuleIndex ruleIndex;
+    private final List<Rule> rules = new ArrayList<>();
+    private final List<List<Tag>> tags = new ArrayList<>();
+
+    @Benchmark
+    public int ruleIndex() {
+        int instructions = 0;
+        for (List<Tag> t : this.tags) {
+            instructions += this.ruleIndex.matchWay(t, ZOOM_LEVEL, Closed.NO).size();
+            instructions += this.ruleIndex.matchWay(t, ZOOM_LEVEL, Closed.YES).size();
+        }
+        return instructions;
+    }
+
+    @Benchmark
+    public int ruleTree() {
+        int instructions = 0;
+        for (List<Tag> t : this.tags) {
+            for (Closed closed : new Closed[]{Closed.NO, Closed.YES}) {
+                List<RenderInstruction> matchingList = new ArrayList<>();
+                for (Rule rule : this.rules) {
+                    matchWay(rule, t, closed, matchingList);
+                }
+                instructions += matchingList.size();
+            }
+        }
+        return instructions;
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        this.renderTheme = RenderThemeHandler.getRenderTheme(AwtGraphicFactory.INSTANCE, new DisplayModel(),
+                InternalRenderTheme.DEFAULT);
+        this.renderTheme.traverseRules(new Rule.RuleVisitor() {
+            @Override
+            public void apply(Rule rule) {
+                rules.add(rule);
+            }
+        });
+        this.ruleIndex = new RuleIndex(this.rules);
+
+        String[][] tags = {{"highway", "residential"}, {"highway", "primary"}, {"building", "yes"},
+                {"landuse", "forest"}, {"natural", "water"}, {"waterway", "river"}, {"railway", "rail"},
+                {"leisure", "park"}, {"amenity", "parking"}, {"boundary", "administrative"}};
+        for (String[] tag : tags) {
+            this.tags.add(Arrays.asList(new Tag(tag[0], tag[1])));
+            this.tags.add(Arrays.asList(new Tag(tag[0], tag[1]), new Tag("name", "name"), new Tag("layer", "1")));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.renderTheme.destroy();
+    }
+}
@@ -143,6 +143,9 @@ public class AwtPaint implements Paint {
         this.strokeWidth = ap.strokeWidth;
         this.textSize = ap.textSize;
         this.strokeDasharray = ap.strokeDasharray;
+        this.texturePaint = ap.texturePaint;
+        this.shaderWidth = ap.shaderWidth;
+        this.shaderHeight = ap.shaderHeight;
     }
 
     @Override
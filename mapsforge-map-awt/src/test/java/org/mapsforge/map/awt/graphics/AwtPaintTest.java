@@ -19,8 +19,25 @@ import org.junit.Test;
 import org.mapsforge.core.graphics.Bitmap;
 import org.mapsforge.core.graphics.Color;
 import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.model.Point;
 
 public class AwtPaintTest {
+    @Test
+    public void bitmapShaderCopyTest() {
+        AwtPaint paint = new AwtPaint();
+        paint.setBitmapShader(AwtGraphicFactory.INSTANCE.createBitmap(10, 10));
+
+        AwtPaint copy = new AwtPaint(paint);
+        Assert.assertNotNull(copy.texturePaint);
+        Assert.assertFalse(copy.isTransparent());
+
+        // shifting the copy leaves the shader of the original untouched
+        copy.setBitmapShaderShift(new Point(3, 4));
+        Assert.assertEquals(0, paint.texturePaint.getAnchorRect().getX(), 0);
+        Assert.assertEquals(-3, copy.texturePaint.getAnchorRect().getX(), 0);
+        Assert.assertEquals(-4, copy.texturePaint.getAnchorRect().getY(), 0);
+    }
+
     @Test
     public void isTransparentTest() {
         Paint paint = new AwtPaint();
@@ -0,0 +1,495 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.TileBitmap;
+import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.model.BoundingBox;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.Parameters;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.datastore.MapDataStore;
+import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+import org.mapsforge.map.layer.cache.InMemoryTileCache;
+import org.mapsforge.map.layer.cache.TileCache;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.rendertheme.ExternalRenderTheme;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.RenderContext;
+import org.mapsforge.map.rendertheme.rule.RenderThemeFuture;
+import org.mapsforge.map.util.LayerUtil;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseRendererTest {
+    private static final GraphicFactory GRAPHIC_FACTORY = AwtGraphicFactory.INSTANCE;
+    private static final int TILE_SIZE = 256;
+
+    /**
+     * Returns the places within a tile, like a map file which stores them in the tile.
+     */
+    private static class PlaceMapDataStore extends MapDataStore {
+        private final List<PointOfInterest> places = new ArrayList<>();
+
+        PlaceMapDataStore(Tile upperLeft, Tile lowerRight, int count) {
+            BoundingBox boundingBox = Tile.getBoundingBox(upperLeft, lowerRight);
+            Random random = new Random(42);
+            for (int i = 0; i < count; ++i) {
+                double latitude = boundingBox.minLatitude + random.nextDouble() * boundingBox.getLatitudeSpan();
+                double longitude = boundingBox.minLongitude + random.nextDouble() * boundingBox.getLongitudeSpan();
+                List<Tag> tags = Arrays.asList(new Tag("place", random.nextInt(4) == 0 ? "town" : "village"),
+                        new Tag("name", "Place " + i));
+                this.places.add(new PointOfInterest((byte) 0, tags, new LatLong(latitude, longitude)));
+            }
+        }
+
+        @Override
+        public BoundingBox boundingBox() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public long getDataTimestamp(Tile tile) {
+            return 0;
+        }
+
+        @Override
+        public MapReadResult readMapData(Tile tile) {
+            BoundingBox boundingBox = tile.getBoundingBox();
+            MapReadResult mapReadResult = new MapReadResult();
+            for (PointOfInterest place : this.places) {
+                if (boundingBox.contains(place.position)) {
+                    mapReadResult.pointOfInterests.add(place);
+                }
+            }
+            return mapReadResult;
+        }
+
+        @Override
+        public MapReadResult readPoiData(Tile tile) {
+            return readMapData(tile);
+        }
+
+        @Override
+        public LatLong startPosition() {
+            return null;
+        }
+
+        @Override
+        public Byte startZoomLevel() {
+            return 14;
+        }
+
+        @Override
+        public boolean supportsTile(Tile tile) {
+            return true;
+        }
+    }
+
+    private static class TestMapDataStore extends MapDataStore {
+        private final BoundingBox boundingBox;
+        RendererJob cancelOnRead;
+        int reads;
+
+        TestMapDataStore(BoundingBox boundingBox) {
+            this.boundingBox = boundingBox;
+        }
+
+        @Override
+        public BoundingBox boundingBox() {
+            return this.boundingBox;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public long getDataTimestamp(Tile tile) {
+            return 0;
+        }
+
+        @Override
+        public synchronized MapReadResult readMapData(Tile tile) {
+            return readMapData(tile, tile);
+        }
+
+        @Override
+        public synchronized MapReadResult readMapData(Tile upperLeft, Tile lowerRight) {
+            ++this.reads;
+            if (this.cancelOnRead != null) {
+                this.cancelOnRead.cancel();
+            }
+            double north = this.boundingBox.maxLatitude;
+            double south = this.boundingBox.minLatitude;
+            double west = this.boundingBox.minLongitude;
+            double east = this.boundingBox.maxLongitude;
+            double latitude = this.boundingBox.getCenterPoint().latitude;
+            LatLong[][] lake = {{new LatLong(north, west), new LatLong(north, east), new LatLong(south, east),
+                    new LatLong(south, west), new LatLong(north, west)}};
+            LatLong[][] road = {{new LatLong(latitude, west), new LatLong(latitude - 0.01, east)}};
+
+            MapReadResult mapReadResult = new MapReadResult();
+            mapReadResult.ways.add(new Way((byte) 5, Collections.singletonList(new Tag("natural", "water")), lake, null));
+            mapReadResult.ways.add(new Way((byte) 5, Collections.singletonList(new Tag("highway", "primary")), road, null));
+            return mapReadResult;
+        }
+
+        @Override
+        public MapReadResult readPoiData(Tile tile) {
+            return new MapReadResult();
+        }
+
+        @Override
+        public LatLong startPosition() {
+            return this.boundingBox.getCenterPoint();
+        }
+
+        @Override
+        public Byte startZoomLevel() {
+            return 14;
+        }
+
+        @Override
+        public boolean supportsTile(Tile tile) {
+            return tile.getBoundingBox().intersects(this.boundingBox);
+        }
+    }
+
+    /**
+     * Adds parallel roads and two overlapping forests of opposite orientation to the map data.
+     */
+    private static class RoadMapDataStore extends TestMapDataStore {
+        RoadMapDataStore(BoundingBox boundingBox) {
+            super(boundingBox);
+        }
+
+        @Override
+        public synchronized MapReadResult readMapData(Tile upperLeft, Tile lowerRight) {
+            MapReadResult mapReadResult = super.readMapData(upperLeft, lowerRight);
+            BoundingBox boundingBox = boundingBox();
+            double north = boundingBox.maxLatitude;
+            double south = boundingBox.minLatitude;
+            double west = boundingBox.minLongitude;
+            double east = boundingBox.maxLongitude;
+            double height = north - south;
+            double width = east - west;
+            List<Tag> forest = Collections.singletonList(new Tag("landuse", "forest"));
+            LatLong[][] clockwise = {{new LatLong(north - 0.1 * height, west + 0.1 * width),
+                    new LatLong(north - 0.1 * height, west + 0.6 * width), new LatLong(north - 0.6 * height, west + 0.6 * width),
+                    new LatLong(north - 0.6 * height, west + 0.1 * width), new LatLong(north - 0.1 * height, west + 0.1 * width)}};
+            LatLong[][] counterClockwise = {{new LatLong(north - 0.4 * height, west + 0.4 * width),
+                    new LatLong(north - 0.9 * height, west + 0.4 * width), new LatLong(north - 0.9 * height, west + 0.9 * width),
+                    new LatLong(north - 0.4 * height, west + 0.9 * width), new LatLong(north - 0.4 * height, west + 0.4 * width)}};
+            mapReadResult.ways.add(new Way((byte) 5, forest, clockwise, null));
+            mapReadResult.ways.add(new Way((byte) 5, forest, counterClockwise, null));
+            for (int i = 1; i < 12; ++i) {
+                double latitude = north - i * height / 12;
+                LatLong[][] road = {{new LatLong(latitude, west - width), new LatLong(latitude, west + 0.5 * width),
+                        new LatLong(latitude, east + width)}};
+                mapReadResult.ways.add(new Way((byte) 5, Collections.singletonList(new Tag("highway", "residential")), road, null));
+            }
+            return mapReadResult;
+        }
+    }
+
+    private static class TunnelMapDataStore extends TestMapDataStore {
+        TunnelMapDataStore(BoundingBox boundingBox) {
+            super(boundingBox);
+        }
+
+        @Override
+        public synchronized MapReadResult readMapData(Tile upperLeft, Tile lowerRight) {
+            // no lake, which would cover the tunnels
+            MapReadResult mapReadResult = new MapReadResult();
+            BoundingBox boundingBox = boundingBox();
+            double north = boundingBox.maxLatitude;
+            double south = boundingBox.minLatitude;
+            double west = boundingBox.minLongitude;
+            double east = boundingBox.maxLongitude;
+            double height = north - south;
+            double width = east - west;
+            // a grid of tunnels, which the default theme draws with translucent dashed lines
+            List<Tag> tunnel = Arrays.asList(new Tag("highway", "residential"), new Tag("tunnel", "yes"));
+            for (int i = 1; i < 12; ++i) {
+                double latitude = north - i * height / 12;
+                double longitude = west + i * width / 12;
+                LatLong[][] horizontal = {{new LatLong(latitude, west - width), new LatLong(latitude, east + width)}};
+                LatLong[][] vertical = {{new LatLong(north + height, longitude), new LatLong(south - height, longitude)}};
+                mapReadResult.ways.add(new Way((byte) 5, tunnel, horizontal, null));
+                mapReadResult.ways.add(new Way((byte) 5, tunnel, vertical, null));
+            }
+            return mapReadResult;
+        }
+    }
+
+    private static void assertEquals(TileBitmap expected, TileBitmap actual) {
+        BufferedImage expectedImage = AwtGraphicFactory.getBitmap(expected);
+        BufferedImage actualImage = AwtGraphicFactory.getBitmap(actual);
+        Assert.assertEquals(expectedImage.getWidth(), actualImage.getWidth());
+        Assert.assertEquals(expectedImage.getHeight(), actualImage.getHeight());
+        for (int x = 0; x < expectedImage.getWidth(); ++x) {
+            for (int y = 0; y < expectedImage.getHeight(); ++y) {
+                Assert.assertEquals(expectedImage.getRGB(x, y), actualImage.getRGB(x, y));
+            }
+        }
+    }
+
+    private DisplayModel displayModel;
+    private RenderThemeFuture renderThemeFuture;
+    private Tile tile;
+
+    private DatabaseRenderer createDatabaseRenderer(MapDataStore mapDataStore, boolean renderLabels) {
+        return new DatabaseRenderer(mapDataStore, GRAPHIC_FACTORY, new InMemoryTileCache(16), null, renderLabels,
+                false, null);
+    }
+
+    private RendererJob createRendererJob(MapDataStore mapDataStore) {
+        return new RendererJob(this.tile, mapDataStore, this.renderThemeFuture, this.displayModel, 1, false, false);
+    }
+
+    @Before
+    public void setUp() {
+        this.tile = new Tile(8801, 5373, (byte) 14, TILE_SIZE);
+        this.displayModel = new DisplayModel();
+        this.renderThemeFuture = new RenderThemeFuture(GRAPHIC_FACTORY, InternalRenderTheme.DEFAULT, this.displayModel);
+        this.renderThemeFuture.run();
+    }
+
+    @Test
+    public void cancelTest() {
+        TestMapDataStore mapDataStore = new TestMapDataStore(this.tile.getBoundingBox());
+        DatabaseRenderer databaseRenderer = createDatabaseRenderer(mapDataStore, true);
+
+        // a job cancelled while its data is read is abandoned before it is drawn
+        RendererJob rendererJob = createRendererJob(mapDataStore);
+        mapDataStore.cancelOnRead = rendererJob;
+        Assert.assertNull(databaseRenderer.executeJob(rendererJob));
+        Assert.assertTrue(rendererJob.isCancelled());
+
+        databaseRenderer.setMetaTileSize(2);
+        rendererJob = createRendererJob(mapDataStore);
+        mapDataStore.cancelOnRead = rendererJob;
+        Assert.assertTrue(databaseRenderer.executeMetaTileJob(rendererJob).isEmpty());
+        Assert.assertEquals(2, mapDataStore.reads);
+
+        mapDataStore.cancelOnRead = null;
+        rendererJob = createRendererJob(mapDataStore);
+        Assert.assertEquals(4, databaseRenderer.executeMetaTileJob(rendererJob).size());
+        Assert.assertFalse(rendererJob.isCancelled());
+    }
+
+    @Test
+    public void labelConcurrencyTest() throws FileNotFoundException, InterruptedException {
+        final int size = 6;
+        Tile upperLeft = new Tile(8800, 5370, (byte) 14, TILE_SIZE);
+        Tile lowerRight = new Tile(8800 + size - 1, 5370 + size - 1, (byte) 14, TILE_SIZE);
+        final MapDataStore mapDataStore = new PlaceMapDataStore(upperLeft, lowerRight, 40 * size * size);
+        final DisplayModel displayModel = new DisplayModel();
+        final RenderThemeFuture renderThemeFuture = new RenderThemeFuture(GRAPHIC_FACTORY,
+                new ExternalRenderTheme(new File("src/test/resources/rendertheme/label-render-theme.xml")), displayModel);
+        renderThemeFuture.run();
+
+        Random random = new Random(42);
+        for (int round = 0; round < 5; ++round) {
+            List<Tile> tiles = new ArrayList<>(LayerUtil.getTiles(upperLeft, lowerRight));
+            Collections.shuffle(tiles, random);
+
+            final TileCache tileCache = new InMemoryTileCache(2 * size * size);
+            final Map<Tile, Set<MapElementContainer>> labels = new ConcurrentHashMap<>();
+            final DatabaseRenderer databaseRenderer = new DatabaseRenderer(mapDataStore, GRAPHIC_FACTORY, tileCache,
+                    null, true, false, null) {
+                @Override
+                Set<MapElementContainer> processLabels(RenderContext renderContext) throws InterruptedException {
+                    Set<MapElementContainer> labelsToDraw = super.processLabels(renderContext);
+                    labels.put(renderContext.rendererJob.tile, labelsToDraw);
+                    return labelsToDraw;
+                }
+            };
+
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (final Tile tile : tiles) {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        // what the MapWorkerPool does with a job
+                        RendererJob rendererJob = new RendererJob(tile, mapDataStore, renderThemeFuture, displayModel,
+                                1, false, false);
+                        TileBitmap bitmap = databaseRenderer.executeJob(rendererJob);
+                        tileCache.put(rendererJob, bitmap);
+                        databaseRenderer.removeTileInProgress(tile);
+                        bitmap.decrementRefCount();
+                    }
+                });
+            }
+            executor.shutdown();
+            Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+            Assert.assertEquals(tiles.size(), labels.size());
+            for (Tile tile : tiles) {
+                Assert.assertFalse(labels.get(tile).isEmpty());
+                for (Tile neighbour : tile.getNeighbours()) {
+                    if (!labels.containsKey(neighbour)) {
+                        continue;
+                    }
+                    // a label drawn across the edge of a tile is drawn on the neighbour as well, so it is not cut
+                    for (MapElementContainer label : labels.get(tile)) {
+                        if (label.intersects(neighbour.getBoundaryAbsolute())) {
+                            Assert.assertTrue(labels.get(neighbour).contains(label));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void metaTileTest() {
+        TestMapDataStore mapDataStore = new TestMapDataStore(new Tile(8799, 5371, (byte) 14, TILE_SIZE).getBoundingBox()
+                .extendBoundingBox(new Tile(8802, 5374, (byte) 14, TILE_SIZE).getBoundingBox()));
+        RendererJob rendererJob = createRendererJob(mapDataStore);
+
+        DatabaseRenderer databaseRenderer = createDatabaseRenderer(mapDataStore, true);
+        Map<RendererJob, TileBitmap> single = databaseRenderer.executeMetaTileJob(rendererJob);
+        Assert.assertEquals(Collections.singleton(rendererJob), single.keySet());
+        Assert.assertEquals(1, mapDataStore.reads);
+
+        databaseRenderer.setMetaTileSize(2);
+        Map<RendererJob, TileBitmap> metaTile = databaseRenderer.executeMetaTileJob(rendererJob);
+        Assert.assertEquals(2, mapDataStore.reads);
+        List<Tile> tiles = new ArrayList<>();
+        for (RendererJob job : metaTile.keySet()) {
+            tiles.add(job.tile);
+        }
+        Assert.assertEquals(4, tiles.size());
+        Assert.assertEquals(new Tile(8800, 5372, (byte) 14, TILE_SIZE), tiles.get(0));
+        Assert.assertEquals(new Tile(8801, 5372, (byte) 14, TILE_SIZE), tiles.get(1));
+        Assert.assertEquals(new Tile(8800, 5373, (byte) 14, TILE_SIZE), tiles.get(2));
+        Assert.assertEquals(this.tile, tiles.get(3));
+
+        // the slice of the metatile looks like the single tile
+        assertEquals(single.get(rendererJob), metaTile.get(rendererJob));
+    }
+
+    @Test
+    public void metaTileBoundsTest() {
+        Tile tile = new Tile(5, 6, (byte) 3, TILE_SIZE);
+        Assert.assertEquals(new Tile(4, 4, (byte) 3, TILE_SIZE), DatabaseRenderer.getMetaTileUpperLeft(tile, 4));
+        Assert.assertEquals(new Tile(7, 7, (byte) 3, TILE_SIZE), DatabaseRenderer.getMetaTileLowerRight(tile, 4));
+        Assert.assertEquals(new Tile(3, 6, (byte) 3, TILE_SIZE), DatabaseRenderer.getMetaTileUpperLeft(tile, 3));
+        Assert.assertEquals(new Tile(5, 7, (byte) 3, TILE_SIZE), DatabaseRenderer.getMetaTileLowerRight(tile, 3));
+
+        // metatiles do not extend beyond the world
+        Tile world = new Tile(0, 0, (byte) 0, TILE_SIZE);
+        Assert.assertEquals(world, DatabaseRenderer.getMetaTileUpperLeft(world, 4));
+        Assert.assertEquals(world, DatabaseRenderer.getMetaTileLowerRight(world, 4));
+    }
+
+    @Test
+    public void pathBatchingTest() {
+        RoadMapDataStore mapDataStore = new RoadMapDataStore(this.tile.getBoundingBox());
+        DatabaseRenderer databaseRenderer = createDatabaseRenderer(mapDataStore, false);
+
+        RendererJob rendererJob = createRendererJob(mapDataStore);
+        TileBitmap expected = databaseRenderer.executeJob(rendererJob);
+        Parameters.PATH_BATCHING = true;
+        try {
+            // roads which do not overlap are drawn exactly as one by one, overlapping areas are never merged
+            assertEquals(expected, databaseRenderer.executeJob(rendererJob));
+        } finally {
+            Parameters.PATH_BATCHING = false;
+        }
+
+        // crossing lines with a translucent paint are blended over each other, so they are not batched
+        TunnelMapDataStore tunnelMapDataStore = new TunnelMapDataStore(this.tile.getBoundingBox());
+        databaseRenderer = createDatabaseRenderer(tunnelMapDataStore, false);
+        rendererJob = createRendererJob(tunnelMapDataStore);
+        expected = databaseRenderer.executeJob(rendererJob);
+        Parameters.PATH_BATCHING = true;
+        try {
+            assertEquals(expected, databaseRenderer.executeJob(rendererJob));
+        } finally {
+            Parameters.PATH_BATCHING = false;
+        }
+    }
+
+    @Test
+    public void renderListenerTest() {
+        TestMapDataStore mapDataStore = new TestMapDataStore(this.tile.getBoundingBox());
+        DatabaseRenderer databaseRenderer = createDatabaseRenderer(mapDataStore, true);
+        final List<RenderStatistics> statistics = new ArrayList<>();
+        databaseRenderer.setRenderListener(new RenderListener() {
+            @Override
+            public void onJobRendered(RendererJob rendererJob, RenderStatistics renderStatistics) {
+                statistics.add(renderStatistics);
+            }
+        });
+
+        RendererJob rendererJob = createRendererJob(mapDataStore);
+        Assert.assertNotNull(databaseRenderer.executeJob(rendererJob));
+        Assert.assertEquals(1, statistics.size());
+        RenderStatistics renderStatistics = statistics.get(0);
+        Assert.assertEquals(1, renderStatistics.tiles);
+        Assert.assertEquals(2, renderStatistics.ways);
+        Assert.assertEquals(0, renderStatistics.pois);
+        Assert.assertTrue(renderStatistics.readTime > 0);
+        Assert.assertTrue(renderStatistics.matchTime > 0);
+        Assert.assertTrue(renderStatistics.drawTime > 0);
+        Assert.assertTrue(renderStatistics.labelTime > 0);
+        Assert.assertTrue(renderStatistics.bitmapTime > 0);
+
+        // a cancelled job is reported as well, with the phases it has reached
+        databaseRenderer.setMetaTileSize(2);
+        rendererJob = createRendererJob(mapDataStore);
+        mapDataStore.cancelOnRead = rendererJob;
+        Assert.assertTrue(databaseRenderer.executeMetaTileJob(rendererJob).isEmpty());
+        Assert.assertEquals(2, statistics.size());
+        renderStatistics = statistics.get(1);
+        Assert.assertTrue(renderStatistics.readTime > 0);
+        Assert.assertEquals(0, renderStatistics.matchTime);
+        Assert.assertEquals(0, renderStatistics.tiles);
+
+        mapDataStore.cancelOnRead = null;
+        databaseRenderer.setRenderListener(null);
+        rendererJob = createRendererJob(mapDataStore);
+        Assert.assertEquals(4, databaseRenderer.executeMetaTileJob(rendererJob).size());
+        Assert.assertEquals(2, statistics.size());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.model.Tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MatchingCacheTest {
+    private static MatchingCacheKey createKey(int i) {
+        return new MatchingCacheKey(Collections.singletonList(new Tag("highway", Integer.toString(i))), (byte) 14, Closed.NO);
+    }
+
+    @Test
+    public void capacityTest() {
+        MatchingCache<Integer> matchingCache = new MatchingCache<>(10);
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertEquals(Integer.valueOf(i), matchingCache.put(createKey(i), i));
+            Assert.assertTrue(matchingCache.size() <= 10);
+        }
+        Assert.assertEquals(10, matchingCache.size());
+
+        matchingCache.clear();
+        Assert.assertEquals(0, matchingCache.size());
+        Assert.assertNull(matchingCache.get(createKey(99)));
+    }
+
+    @Test
+    public void concurrentPutTest() throws InterruptedException {
+        final MatchingCache<Integer> matchingCache = new MatchingCache<>(50);
+        List<Thread> threads = new ArrayList<>();
+        final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+        for (int t = 0; t < 4; ++t) {
+            final int offset = t;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 10000; ++i) {
+                            int key = (i * 7 + offset) % 200;
+                            Integer value = matchingCache.get(createKey(key));
+                            if (value == null) {
+                                value = matchingCache.put(createKey(key), key);
+                            }
+                            // the value of a key never changes, whichever thread added it
+                            Assert.assertEquals(key, value.intValue());
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(Collections.emptyList(), errors);
+        Assert.assertTrue(matchingCache.size() <= 50);
+    }
+
+    @Test
+    public void putIfAbsentTest() {
+        MatchingCache<String> matchingCache = new MatchingCache<>(10);
+        Assert.assertEquals("first", matchingCache.put(createKey(1), "first"));
+        // an equal key, added by another thread in between
+        Assert.assertEquals("first", matchingCache.put(createKey(1), "second"));
+        Assert.assertEquals("first", matchingCache.get(createKey(1)));
+        Assert.assertEquals(1, matchingCache.size());
+    }
+}
@@ -18,6 +18,7 @@ package org.mapsforge.map.rendertheme.rule;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.model.Tag;
 import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
 import org.mapsforge.map.model.DisplayModel;
 import org.mapsforge.map.rendertheme.ExternalRenderTheme;
@@ -26,6 +27,8 @@ import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 public class RenderThemeTest {
     private static final GraphicFactory GRAPHIC_FACTORY = AwtGraphicFactory.INSTANCE;
@@ -42,6 +45,34 @@ public class RenderThemeTest {
         }
     }
 
+    @Test
+    public void elementFilterTest() throws XmlPullParserException, IOException {
+        XmlRenderTheme xmlRenderTheme = new ExternalRenderTheme(new File(RESOURCE_FOLDER, "test-render-theme.xml"));
+        RenderTheme renderTheme = RenderThemeHandler
+                .getRenderTheme(GRAPHIC_FACTORY, new DisplayModel(), xmlRenderTheme);
+
+        List<Tag> closedWayTags = Arrays.asList(new Tag("amenity", "parking"));
+        List<Tag> linearWayTags = Arrays.asList(new Tag("highway", "primary"), new Tag("oneway", "yes"));
+        List<Tag> cityTags = Arrays.asList(new Tag("place", "city"), new Tag("name", "city"));
+        List<Tag> unknownTags = Arrays.asList(new Tag("building", "yes"));
+
+        for (byte zoomLevel = 0; zoomLevel < 25; ++zoomLevel) {
+            // repeated to check the cached results as well
+            for (int i = 0; i < 2; ++i) {
+                Assert.assertTrue(renderTheme.acceptWay(closedWayTags, zoomLevel));
+                Assert.assertTrue(renderTheme.acceptWay(linearWayTags, zoomLevel));
+                Assert.assertFalse(renderTheme.acceptWay(cityTags, zoomLevel));
+                Assert.assertFalse(renderTheme.acceptWay(unknownTags, zoomLevel));
+
+                Assert.assertEquals(zoomLevel <= 15, renderTheme.acceptPointOfInterest(cityTags, zoomLevel));
+                Assert.assertFalse(renderTheme.acceptPointOfInterest(closedWayTags, zoomLevel));
+                Assert.assertFalse(renderTheme.acceptPointOfInterest(unknownTags, zoomLevel));
+            }
+        }
+
+        renderTheme.destroy();
+    }
+
     @Test
     public void invalidRenderThemeTest() throws XmlPullParserException, IOException {
         verifyInvalid(RESOURCE_FOLDER + "invalid-render-theme1.xml");
@@ -57,8 +88,8 @@ public class RenderThemeTest {
 
         Assert.assertEquals(3, renderTheme.getLevels());
 
-        renderTheme.scaleStrokeWidth(12.34f, (byte) 12);
-        renderTheme.scaleTextSize(56.78f, (byte) 12);
+        Assert.assertEquals(2.2f, renderTheme.getBaseStrokeWidth(), 0);
+        Assert.assertEquals(3.3f, renderTheme.getBaseTextSize(), 0);
 
         // RenderCallback renderCallback = new DummyRenderCallback();
 
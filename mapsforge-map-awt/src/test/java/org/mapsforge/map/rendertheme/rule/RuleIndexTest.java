@@ -0,0 +1,125 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+import org.mapsforge.map.model.DisplayModel;
+import org.mapsforge.map.rendertheme.InternalRenderTheme;
+import org.mapsforge.map.rendertheme.renderinstruction.RenderInstruction;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class RuleIndexTest {
+    private static final GraphicFactory GRAPHIC_FACTORY = AwtGraphicFactory.INSTANCE;
+    private static final byte[] ZOOM_LEVELS = {0, 5, 8, 10, 12, 13, 14, 15, 16, 17, 18, 20, 22};
+
+    /**
+     * Matches by walking the rule tree, as the render theme did before the index.
+     */
+    private static void matchNode(Rule rule, List<Tag> tags, byte zoomLevel, List<RenderInstruction> matchingList) {
+        if (rule.matchesNode(tags, zoomLevel)) {
+            matchingList.addAll(rule.renderInstructions);
+            for (Rule subRule : rule.subRules) {
+                matchNode(subRule, tags, zoomLevel, matchingList);
+            }
+        }
+    }
+
+    private static void matchWay(Rule rule, List<Tag> tags, byte zoomLevel, Closed closed, List<RenderInstruction> matchingList) {
+        if (rule.matchesWay(tags, zoomLevel, closed)) {
+            matchingList.addAll(rule.renderInstructions);
+            for (Rule subRule : rule.subRules) {
+                matchWay(subRule, tags, zoomLevel, closed, matchingList);
+            }
+        }
+    }
+
+    @Test
+    public void defaultThemeTest() throws XmlPullParserException, IOException {
+        RenderTheme renderTheme = RenderThemeHandler
+                .getRenderTheme(GRAPHIC_FACTORY, new DisplayModel(), InternalRenderTheme.DEFAULT);
+
+        final List<Rule> rules = new ArrayList<>();
+        final Set<String> keys = new TreeSet<>();
+        final Set<String> values = new TreeSet<>();
+        renderTheme.traverseRules(new Rule.RuleVisitor() {
+            @Override
+            public void apply(Rule rule) {
+                // only the top level rules are passed to the visitor
+                rules.add(rule);
+                collect(rule);
+            }
+
+            private void collect(Rule rule) {
+                if (rule instanceof PositiveRule) {
+                    PositiveRule positiveRule = (PositiveRule) rule;
+                    if (positiveRule.keyMatcher instanceof KeyMatcher) {
+                        keys.addAll(((KeyMatcher) positiveRule.keyMatcher).getKeys());
+                    }
+                    if (positiveRule.valueMatcher instanceof ValueMatcher) {
+                        values.addAll(((ValueMatcher) positiveRule.valueMatcher).getValues());
+                    }
+                }
+                for (Rule subRule : rule.subRules) {
+                    collect(subRule);
+                }
+            }
+        });
+        RuleIndex ruleIndex = new RuleIndex(rules);
+
+        List<String> keyList = new ArrayList<>(keys);
+        List<String> valueList = new ArrayList<>(values);
+        Random random = new Random(42);
+        for (int i = 0; i < 500; ++i) {
+            List<Tag> tags = new ArrayList<>();
+            for (int j = random.nextInt(4); j >= 0; --j) {
+                tags.add(new Tag(keyList.get(random.nextInt(keyList.size())), valueList.get(random.nextInt(valueList.size()))));
+            }
+            if (random.nextBoolean()) {
+                tags.add(new Tag("name", "name"));
+            }
+
+            for (byte zoomLevel : ZOOM_LEVELS) {
+                List<RenderInstruction> expected = new ArrayList<>();
+                for (Rule rule : rules) {
+                    matchNode(rule, tags, zoomLevel, expected);
+                }
+                Assert.assertEquals(tags.toString(), expected, ruleIndex.matchNode(tags, zoomLevel));
+                Assert.assertEquals(!expected.isEmpty(), ruleIndex.rendersNode(tags, zoomLevel));
+
+                for (Closed closed : new Closed[]{Closed.YES, Closed.NO}) {
+                    expected = new ArrayList<>();
+                    for (Rule rule : rules) {
+                        matchWay(rule, tags, zoomLevel, closed, expected);
+                    }
+                    Assert.assertEquals(tags.toString(), expected, ruleIndex.matchWay(tags, zoomLevel, closed));
+                    Assert.assertEquals(!expected.isEmpty(), ruleIndex.rendersWay(tags, zoomLevel, closed));
+                }
+            }
+        }
+
+        renderTheme.destroy();
+    }
+}
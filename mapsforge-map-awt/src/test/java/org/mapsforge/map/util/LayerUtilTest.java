@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.graphics.Display;
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Paint;
+import org.mapsforge.core.graphics.Position;
+import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.mapelements.SymbolContainer;
+import org.mapsforge.core.mapelements.WayTextContainer;
+import org.mapsforge.core.model.Point;
+import org.mapsforge.map.awt.graphics.AwtGraphicFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+public class LayerUtilTest {
+    private static final GraphicFactory GRAPHIC_FACTORY = AwtGraphicFactory.INSTANCE;
+    private static final String[] TEXTS = {"Main Street", "Park", "Station", "Museum"};
+
+    /**
+     * Removes clashing elements by testing every pair, as LayerUtil did before the grid.
+     */
+    private static List<MapElementContainer> collisionFreeOrderedByPairs(List<MapElementContainer> input) {
+        Collections.sort(input, Collections.reverseOrder());
+        List<MapElementContainer> output = new LinkedList<>();
+        for (MapElementContainer item : input) {
+            boolean hasSpace = true;
+            for (MapElementContainer outputElement : output) {
+                if (outputElement.clashesWith(item)) {
+                    hasSpace = false;
+                    break;
+                }
+            }
+            if (hasSpace) {
+                output.add(item);
+            }
+        }
+        return output;
+    }
+
+    private static List<MapElementContainer> createElements(Random random, int count, double size) {
+        Paint paint = GRAPHIC_FACTORY.createPaint();
+        paint.setTextSize(12);
+        List<MapElementContainer> elements = new ArrayList<>();
+        Display[] displays = {Display.IFSPACE, Display.IFSPACE, Display.IFSPACE, Display.ALWAYS};
+        for (int i = 0; i < count; ++i) {
+            // the offset makes the elements span cells with negative and positive indices
+            Point point = new Point(random.nextDouble() * size - size / 4, random.nextDouble() * size - size / 4);
+            Display display = displays[random.nextInt(displays.length)];
+            int priority = random.nextInt(10);
+            switch (random.nextInt(3)) {
+                case 0:
+                    elements.add(GRAPHIC_FACTORY.createPointTextContainer(point, display, priority,
+                            TEXTS[random.nextInt(TEXTS.length)], paint, null, null, Position.CENTER, 200));
+                    break;
+                case 1:
+                    int width = 4 + random.nextInt(40);
+                    elements.add(new SymbolContainer(point, display, priority,
+                            GRAPHIC_FACTORY.createBitmap(width, 4 + random.nextInt(40)), 0, random.nextBoolean()));
+                    break;
+                default:
+                    // some way texts are long enough to be tested for every element
+                    double length = random.nextInt(10) == 0 ? 5000 : random.nextDouble() * 300;
+                    Point end = point.offset(length, random.nextDouble() * 100 - 50);
+                    elements.add(new WayTextContainer(point, end, display, priority,
+                            TEXTS[random.nextInt(TEXTS.length)], paint, null, 12));
+                    break;
+            }
+        }
+        return elements;
+    }
+
+    @Test
+    public void collisionFreeOrderedTest() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; ++round) {
+            double size = round % 2 == 0 ? 1000 : 3000;
+            List<MapElementContainer> elements = createElements(random, 300, size);
+            List<MapElementContainer> expected = collisionFreeOrderedByPairs(new ArrayList<>(elements));
+            List<MapElementContainer> actual = LayerUtil.collisionFreeOrdered(new ArrayList<>(elements));
+            Assert.assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); ++i) {
+                // same elements in the same priority order
+                Assert.assertSame(expected.get(i), actual.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.MercatorProjection;
+import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PackedMapReadResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the blocks of the test map file. Run with "-prof gc" to see the bytes allocated per decoded block
+ * (gc.alloc.rate.norm).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapFileBenchmark {
+    private static final File MAP_FILE = new File("src/test/resources/with_data/output.map");
+
+    @Param({"false", "true"})
+    public boolean memoryMapped;
+
+    private MapFile mapFile;
+    private Tile tile;
+
+    @Setup
+    public void setup() {
+        this.mapFile = new MapFile(MAP_FILE, null, this.memoryMapped);
+        byte zoomLevel = 10;
+        this.tile = new Tile(MercatorProjection.longitudeToTileX(0.04, zoomLevel),
+                MercatorProjection.latitudeToTileY(0.04, zoomLevel), zoomLevel, 256);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.mapFile.close();
+    }
+
+    @Benchmark
+    public MapReadResult readMapData() {
+        return this.mapFile.readMapData(this.tile);
+    }
+
+    @Benchmark
+    public PackedMapReadResult readMapDataPacked() {
+        return this.mapFile.readMapDataPacked(this.tile);
+    }
+}
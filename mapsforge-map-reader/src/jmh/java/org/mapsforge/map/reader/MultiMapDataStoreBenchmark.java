@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.MercatorProjection;
+import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.MultiMapDataStore;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deduplicates the data of two overlapping maps. The two test maps cover the same area with the same
+ * data, stored with single and double delta encoding. As they only contain a single way, the merge of two
+ * synthetic read results with a given number of elements, half of them shared, is measured as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MultiMapDataStoreBenchmark {
+    private static final File MAP_FILE_DOUBLE_DELTA = new File("src/test/resources/double_delta_encoding/output.map");
+    private static final File MAP_FILE_SINGLE_DELTA = new File("src/test/resources/single_delta_encoding/output.map");
+    private static final int WAY_NODES = 20;
+
+    private static MapReadResult createMapReadResult(int from, int to) {
+        MapReadResult mapReadResult = new MapReadResult();
+        for (int i = from; i < to; ++i) {
+            List<Tag> tags = new ArrayList<>();
+            tags.add(new Tag("highway", "residential"));
+            tags.add(new Tag("name", "Street " + i));
+            LatLong[][] latLongs = new LatLong[1][WAY_NODES];
+            for (int j = 0; j < WAY_NODES; ++j) {
+                latLongs[0][j] = new LatLong(i * 0.001, j * 0.001);
+            }
+            mapReadResult.ways.add(new Way((byte) 5, tags, latLongs, null));
+            mapReadResult.pointOfInterests.add(new PointOfInterest((byte) 5, tags, new LatLong(i * 0.001, 0)));
+        }
+        return mapReadResult;
+    }
+
+    @Param({"100", "1000"})
+    public int elements;
+
+    private MultiMapDataStore multiMapDataStore;
+    private MapReadResult mapReadResult1;
+    private MapReadResult mapReadResult2;
+    private Tile tile;
+
+    @Setup
+    public void setup() {
+        this.multiMapDataStore = new MultiMapDataStore(MultiMapDataStore.DataPolicy.DEDUPLICATE);
+        this.multiMapDataStore.addMapDataStore(new MapFile(MAP_FILE_SINGLE_DELTA), false, false);
+        this.multiMapDataStore.addMapDataStore(new MapFile(MAP_FILE_DOUBLE_DELTA), false, false);
+        byte zoomLevel = 8;
+        this.tile = new Tile(MercatorProjection.longitudeToTileX(0, zoomLevel),
+                MercatorProjection.latitudeToTileY(0, zoomLevel), zoomLevel, 256);
+
+        // two thirds of the elements of each result are also part of the other result
+        this.mapReadResult1 = createMapReadResult(0, this.elements);
+        this.mapReadResult2 = createMapReadResult(this.elements / 3, this.elements + this.elements / 3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.multiMapDataStore.close();
+    }
+
+    @Benchmark
+    public MapReadResult deduplicate() {
+        MapReadResult result = new MapReadResult();
+        result.add(this.mapReadResult1, true);
+        result.add(this.mapReadResult2, true);
+        return result;
+    }
+
+    @Benchmark
+    public MapReadResult readMapData() {
+        return this.multiMapDataStore.readMapData(this.tile);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.util.LRUCache;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A thread-safe cache for decoded blocks with a fixed number of entries and LRU policy.
+ * <p/>
+ * Above the base zoom level of a sub-file many tiles are served by the same block. The block is
+ * decoded once without any tile specific filtering and every query only filters the cached elements.
+ * The cache is split into lock stripes, blocks are decoded outside of any lock.
+ */
+class BlockCache {
+    /**
+     * Number of lock stripes, must be a power of two.
+     */
+    private static final int STRIPES = 8;
+
+    private final List<LRUCache<BlockCacheEntryKey, Entry>> stripes;
+
+    /**
+     * @param capacity the maximum number of decoded blocks in the cache.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    BlockCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.stripes = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; ++i) {
+            this.stripes.add(new LRUCache<BlockCacheEntryKey, Entry>((capacity + STRIPES - 1) / STRIPES));
+        }
+    }
+
+    /**
+     * Destroy the cache at the end of its lifetime.
+     */
+    void destroy() {
+        for (LRUCache<BlockCacheEntryKey, Entry> stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * @param key the key of the decoded block.
+     * @return the decoded block or null if it is not cached.
+     */
+    Entry get(BlockCacheEntryKey key) {
+        LRUCache<BlockCacheEntryKey, Entry> stripe = getStripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    private LRUCache<BlockCacheEntryKey, Entry> getStripe(BlockCacheEntryKey key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return this.stripes.get(hash & (STRIPES - 1));
+    }
+
+    /**
+     * @param key   the key of the decoded block.
+     * @param entry the decoded block.
+     */
+    void put(BlockCacheEntryKey key, Entry entry) {
+        LRUCache<BlockCacheEntryKey, Entry> stripe = getStripe(key);
+        synchronized (stripe) {
+            stripe.put(key, entry);
+        }
+    }
+
+    /**
+     * A decoded block with all POIs and ways of the query zoom level, regardless of tile bitmask and bounding box.
+     */
+    static class Entry {
+        final List<PointOfInterest> pois;
+        final List<BlockWay> ways;
+
+        Entry(List<PointOfInterest> pois, List<BlockWay> ways) {
+            this.pois = pois;
+            this.ways = ways;
+        }
+    }
+
+    /**
+     * A decoded way together with the information needed to filter it for a query.
+     */
+    static class BlockWay {
+        /**
+         * True if the way has a name, house number or reference.
+         */
+        final boolean labelFeature;
+        final int tileBitmask;
+        final Way way;
+
+        BlockWay(Way way, int tileBitmask, boolean labelFeature) {
+            this.way = way;
+            this.tileBitmask = tileBitmask;
+            this.labelFeature = labelFeature;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the unfiltered elements of a single block into a {@link BlockCache.Entry}.
+ */
+class BlockCacheEntryCollector extends MapDataCollector {
+    private List<BlockCache.BlockWay> blockWays;
+    private BlockCache.Entry entry;
+    private List<PointOfInterest> pois;
+
+    @Override
+    void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude) {
+        this.pois.add(new PointOfInterest(layer, tags, new LatLong(latitude, longitude)));
+    }
+
+    @Override
+    void addWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude, int tileBitmask, boolean labelFeature) {
+        LatLong labelPosition = Double.isNaN(labelLatitude) ? null : new LatLong(labelLatitude, labelLongitude);
+        this.blockWays.add(new BlockCache.BlockWay(new Way(layer, tags, createLatLongs(), labelPosition),
+                tileBitmask, labelFeature));
+    }
+
+    @Override
+    void endBlock(boolean valid) {
+        this.entry = valid ? new BlockCache.Entry(this.pois, this.blockWays) : null;
+    }
+
+    /**
+     * @return the decoded block, or null if the block was invalid.
+     */
+    BlockCache.Entry getEntry() {
+        return this.entry;
+    }
+
+    @Override
+    void startBlock() {
+        this.blockWays = new ArrayList<>();
+        this.entry = null;
+        this.pois = new ArrayList<>();
+    }
+}
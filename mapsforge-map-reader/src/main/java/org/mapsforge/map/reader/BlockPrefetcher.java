@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reads contiguous blocks of a map file with a single read on a background thread and keeps
+ * their raw bytes for the following queries.
+ * <p/>
+ * The blocks of a sub-file are stored row by row, so all blocks of a row of a query are
+ * contiguous in the file. Every block is copied into a buffer of its own, so that evicting a
+ * block frees its memory. The cache is limited by the number of bytes of the blocks, blocks
+ * are evicted in LRU order.
+ */
+class BlockPrefetcher {
+    /**
+     * Maximum number of pending prefetch tasks, older tasks are discarded as they are likely outdated.
+     */
+    private static final int QUEUE_CAPACITY = 4;
+
+    private final Map<Long, ByteBuffer> blocks = new LinkedHashMap<>(16, 0.75f, true);
+    final int capacity;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong hits = new AtomicLong();
+    private final FileChannel inputChannel;
+    private final AtomicLong misses = new AtomicLong();
+    private int size;
+
+    /**
+     * @param inputChannel the map file channel to read from.
+     * @param capacity     the maximum number of bytes of all prefetched blocks.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    BlockPrefetcher(FileChannel inputChannel, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.inputChannel = inputChannel;
+        this.capacity = capacity;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "BlockPrefetcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * @return true if the block at the given file offset is prefetched.
+     */
+    synchronized boolean contains(long offset) {
+        return this.blocks.containsKey(offset);
+    }
+
+    /**
+     * Stops the background thread and releases all prefetched blocks. A running task is not interrupted,
+     * as an interrupted read would close the file channel.
+     */
+    void destroy() {
+        this.executor.getQueue().clear();
+        this.executor.shutdown();
+        synchronized (this) {
+            this.blocks.clear();
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Runs a task on the background thread, the oldest pending task is discarded if too many are queued.
+     */
+    void execute(Runnable task) {
+        if (!this.executor.isShutdown()) {
+            this.executor.execute(task);
+        }
+    }
+
+    /**
+     * @return the number of blocks served from the cache.
+     */
+    long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * @return the number of blocks not found in the cache.
+     */
+    long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Reads a run of contiguous blocks with one read and adds them to the cache.
+     *
+     * @param offset         the offset of the first block, measured in bytes from the beginning of the file.
+     * @param blockSizes     the sizes of the blocks in file order.
+     * @param numberOfBlocks the number of blocks to read.
+     * @return true if the blocks could be read, false otherwise.
+     * @throws IOException if an error occurs while reading the file.
+     */
+    boolean read(long offset, int[] blockSizes, int numberOfBlocks) throws IOException {
+        int length = 0;
+        for (int i = 0; i < numberOfBlocks; ++i) {
+            length += blockSizes[i];
+        }
+        if (length == 0 || length > this.capacity) {
+            return false;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (this.inputChannel.read(buffer, offset + buffer.position()) < 0) {
+                return false;
+            }
+        }
+
+        synchronized (this) {
+            int position = 0;
+            for (int i = 0; i < numberOfBlocks; ++i) {
+                if (blockSizes[i] > 0) {
+                    // a block sharing the buffer of the whole run would keep the run alive after its eviction
+                    byte[] block = Arrays.copyOfRange(buffer.array(), position, position + blockSizes[i]);
+                    ByteBuffer old = this.blocks.put(offset + position, ByteBuffer.wrap(block));
+                    if (old != null) {
+                        this.size -= old.capacity();
+                    }
+                    this.size += blockSizes[i];
+                }
+                position += blockSizes[i];
+            }
+            Iterator<ByteBuffer> iterator = this.blocks.values().iterator();
+            while (this.size > this.capacity && iterator.hasNext()) {
+                this.size -= iterator.next().capacity();
+                iterator.remove();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Points the given read buffer to a prefetched block.
+     *
+     * @param readBuffer the read buffer which should decode the block.
+     * @param offset     the offset of the block, measured in bytes from the beginning of the file.
+     * @param length     the length of the block in bytes.
+     * @return true if the block is prefetched, false otherwise.
+     */
+    boolean readToBuffer(ReadBuffer readBuffer, long offset, int length) {
+        ByteBuffer block;
+        synchronized (this) {
+            block = this.blocks.get(offset);
+        }
+        if (block == null || block.capacity() != length) {
+            this.misses.incrementAndGet();
+            return false;
+        }
+        this.hits.incrementAndGet();
+        readBuffer.setMappedBuffer(block, 0, length);
+        return true;
+    }
+}
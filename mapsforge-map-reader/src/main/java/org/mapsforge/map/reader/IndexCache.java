@@ -3,6 +3,7 @@
  * Copyright 2016 bvgastel
  * Copyright 2017 linuskr
  * Copyright 2017 devemux86
+ * Copyright 2026 mapsforge.org
  *
  * This program is free software: you can redistribute it and/or modify it under the
  * terms of the GNU Lesser General Public License as published by the Free Software
@@ -17,18 +18,33 @@
  */
 package org.mapsforge.map.reader;
 
-import org.mapsforge.core.util.LRUCache;
 import org.mapsforge.map.reader.header.SubFileParameter;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 /**
- * A cache for database index blocks with a fixed size and LRU policy.
+ * A thread-safe cache for database index blocks with a fixed size in bytes and LRU policy.
+ * <p/>
+ * The cache is split into lock stripes, each with its own LRU order and share of the capacity, so
+ * that threads looking up different index blocks rarely contend for the same lock. Index blocks are
+ * read from the file outside of any lock with positional reads.
+ * <p/>
+ * Optionally the complete index of sub-files can be preloaded, lookups in these sub-files are then
+ * plain array reads which never touch the file or the LRU stripes.
  */
 class IndexCache {
+    private static final Logger LOGGER = Logger.getLogger(IndexCache.class.getName());
+
     /**
      * Number of index entries that one index block consists of.
      */
@@ -37,31 +53,59 @@ class IndexCache {
     /**
      * Maximum size in bytes of one index block.
      */
-    private static final int SIZE_OF_INDEX_BLOCK = INDEX_ENTRIES_PER_BLOCK * SubFileParameter.BYTES_PER_INDEX_ENTRY;
+    static final int SIZE_OF_INDEX_BLOCK = INDEX_ENTRIES_PER_BLOCK * SubFileParameter.BYTES_PER_INDEX_ENTRY;
+
+    /**
+     * Number of lock stripes, must be a power of two.
+     */
+    private static final int STRIPES = 16;
 
-    private final Map<IndexCacheEntryKey, byte[]> map;
     private final FileChannel fileChannel;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Map<SubFileParameter, byte[]> preloadedIndex = Collections.emptyMap();
+    private final Stripe[] stripes;
 
     /**
      * @param inputChannel the map file from which the index should be read and cached.
-     * @param capacity     the maximum number of entries in the cache.
+     * @param capacity     the maximum size of the cache in bytes.
      * @throws IllegalArgumentException if the capacity is negative.
      */
     IndexCache(FileChannel inputChannel, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
         this.fileChannel = inputChannel;
-        this.map = new LRUCache<IndexCacheEntryKey, byte[]>(capacity);
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; ++i) {
+            this.stripes[i] = new Stripe(capacity / STRIPES);
+        }
     }
 
     /**
      * Destroy the cache at the end of its lifetime.
      */
     void destroy() {
-        this.map.clear();
+        this.preloadedIndex = Collections.emptyMap();
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+                stripe.bytes = 0;
+            }
+        }
     }
 
     /**
-     * Returns the index entry of a block in the given map file. If the required index entry is not cached, it will be
-     * read from the map file index and put in the cache.
+     * @return the number of index entry lookups that were served from the cache.
+     */
+    long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Returns the index entry of a block in the given map file. If the index of the sub-file has been preloaded the
+     * entry is taken from memory, otherwise if the required index entry is not cached, it will be read from the map
+     * file index and put in the cache.
      *
      * @param subFileParameter the parameters of the map file for which the index entry is needed.
      * @param blockNumber      the number of the block in the map file.
@@ -74,16 +118,32 @@ class IndexCache {
             throw new IOException("invalid block number: " + blockNumber);
         }
 
+        byte[] index = this.preloadedIndex.get(subFileParameter);
+        if (index != null) {
+            return Deserializer.getFiveBytesLong(index, (int) (blockNumber * SubFileParameter.BYTES_PER_INDEX_ENTRY));
+        }
+
+        return getCachedIndexEntry(subFileParameter, blockNumber);
+    }
+
+    private long getCachedIndexEntry(SubFileParameter subFileParameter, long blockNumber) throws IOException {
         // calculate the index block number
         long indexBlockNumber = blockNumber / INDEX_ENTRIES_PER_BLOCK;
 
         // create the cache entry key for this request
         IndexCacheEntryKey indexCacheEntryKey = new IndexCacheEntryKey(subFileParameter, indexBlockNumber);
+        Stripe stripe = getStripe(indexCacheEntryKey);
 
         // check for cached index block
-        byte[] indexBlock = this.map.get(indexCacheEntryKey);
+        byte[] indexBlock;
+        synchronized (stripe) {
+            indexBlock = stripe.get(indexCacheEntryKey);
+        }
         if (indexBlock == null) {
-            // cache miss, seek to the correct index block in the file and read it
+            this.misses.incrementAndGet();
+
+            // cache miss, read the correct index block from the file
+            // (concurrent misses on the same block may both read it, which is harmless)
             long indexBlockPosition = subFileParameter.indexStartAddress + indexBlockNumber * SIZE_OF_INDEX_BLOCK;
 
             int remainingIndexSize = (int) (subFileParameter.indexEndAddress - indexBlockPosition);
@@ -91,15 +151,14 @@ class IndexCache {
             indexBlock = new byte[indexBlockSize];
             ByteBuffer indexBlockWrapper = ByteBuffer.wrap(indexBlock, 0, indexBlockSize);
 
-            synchronized (this.fileChannel) {
-                this.fileChannel.position(indexBlockPosition);
-                if (this.fileChannel.read(indexBlockWrapper) != indexBlockSize) {
-                    throw new IOException("could not read index block with size: " + indexBlockSize);
-                }
-            }
+            readFully(indexBlockWrapper, indexBlockPosition);
 
             // put the index block in the map
-            this.map.put(indexCacheEntryKey, indexBlock);
+            synchronized (stripe) {
+                stripe.add(indexCacheEntryKey, indexBlock);
+            }
+        } else {
+            this.hits.incrementAndGet();
         }
 
         // calculate the address of the index entry inside the index block
@@ -109,4 +168,91 @@ class IndexCache {
         // return the real index entry
         return Deserializer.getFiveBytesLong(indexBlock, addressInIndexBlock);
     }
+
+    /**
+     * @return the number of index entry lookups that had to read from the file.
+     */
+    long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * @return the current size of all cached index blocks in bytes.
+     */
+    long getSize() {
+        long size = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.bytes;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reads the complete index of the given sub-files into memory. Sub-files whose index is larger than 2 GB
+     * are skipped and continue to use the LRU cache.
+     *
+     * @param subFileParameters the parameters of the sub-files whose index should be preloaded.
+     * @throws IOException if an I/O error occurs during reading.
+     */
+    void preload(Collection<SubFileParameter> subFileParameters) throws IOException {
+        Map<SubFileParameter, byte[]> index = new HashMap<>(this.preloadedIndex);
+        for (SubFileParameter subFileParameter : subFileParameters) {
+            long indexSize = subFileParameter.indexEndAddress - subFileParameter.indexStartAddress;
+            if (indexSize > Integer.MAX_VALUE) {
+                LOGGER.warning("index too large to be preloaded: " + indexSize);
+                continue;
+            }
+            byte[] subFileIndex = new byte[(int) indexSize];
+            readFully(ByteBuffer.wrap(subFileIndex), subFileParameter.indexStartAddress);
+            index.put(subFileParameter, subFileIndex);
+        }
+        this.preloadedIndex = index;
+    }
+
+    private void readFully(ByteBuffer byteBuffer, long position) throws IOException {
+        while (byteBuffer.hasRemaining()) {
+            if (this.fileChannel.read(byteBuffer, position + byteBuffer.position()) < 0) {
+                throw new IOException("could not read index data with size: " + byteBuffer.capacity());
+            }
+        }
+    }
+
+    private Stripe getStripe(IndexCacheEntryKey indexCacheEntryKey) {
+        int hash = indexCacheEntryKey.hashCode();
+        hash ^= hash >>> 16;
+        return this.stripes[hash & (STRIPES - 1)];
+    }
+
+    /**
+     * One lock stripe of the cache, an access-ordered map limited by the size of its values.
+     * All access must be synchronized on the stripe.
+     */
+    private static class Stripe extends LinkedHashMap<IndexCacheEntryKey, byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private int bytes;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        void add(IndexCacheEntryKey key, byte[] indexBlock) {
+            byte[] previous = put(key, indexBlock);
+            if (previous != null) {
+                this.bytes -= previous.length;
+            }
+            this.bytes += indexBlock.length;
+
+            // evict the least recently used index blocks until the stripe fits its capacity
+            Iterator<Map.Entry<IndexCacheEntryKey, byte[]>> iterator = entrySet().iterator();
+            while (this.bytes > this.capacity && iterator.hasNext()) {
+                this.bytes -= iterator.next().getValue().length;
+                iterator.remove();
+            }
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Receives the POIs and ways decoded by a {@link MapFile} query, block by block.
+ * <p/>
+ * The coordinates of a way are decoded into the reusable buffers of the collector, so that
+ * every implementation decides on its own how to store them. All elements added after
+ * {@link #startBlock()} must be discarded if the block turns out to be invalid.
+ */
+abstract class MapDataCollector {
+    /**
+     * The number of blocks read from the map file for the query.
+     */
+    int blocksRead;
+
+    /**
+     * The number of bytes read from the map file for the query.
+     */
+    long bytesRead;
+
+    /**
+     * The latitude/longitude pairs of all segments of the current way.
+     */
+    double[] coordinates = new double[32];
+
+    /**
+     * The number of coordinates of each segment of the current way.
+     */
+    int[] segmentLengths = new int[4];
+
+    /**
+     * The number of segments of the current way.
+     */
+    int segments;
+
+    /**
+     * Adds the elements of a cached block.
+     */
+    void add(List<PointOfInterest> pois, List<Way> ways) {
+        for (PointOfInterest poi : pois) {
+            addPointOfInterest(poi.layer, poi.tags, poi.position.latitude, poi.position.longitude);
+        }
+        for (Way way : ways) {
+            this.segments = 0;
+            int length = 0;
+            for (LatLong[] segment : way.latLongs) {
+                ensureCoordinates(length + segment.length);
+                for (LatLong latLong : segment) {
+                    this.coordinates[2 * length] = latLong.latitude;
+                    this.coordinates[2 * length + 1] = latLong.longitude;
+                    ++length;
+                }
+                addSegment(segment.length);
+            }
+            addWay(way.layer, way.tags, way.labelPosition != null ? way.labelPosition.latitude : Double.NaN,
+                    way.labelPosition != null ? way.labelPosition.longitude : Double.NaN, 0, false);
+        }
+    }
+
+    /**
+     * Adds a POI.
+     */
+    abstract void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude);
+
+    /**
+     * Adds the way whose coordinates are stored in the buffers of this collector.
+     *
+     * @param labelLatitude  the latitude of the label position, or NaN if the way has none.
+     * @param labelLongitude the longitude of the label position, or NaN if the way has none.
+     * @param tileBitmask    the tile bitmask of the way.
+     * @param labelFeature   true if the way has a name, house number or reference.
+     */
+    abstract void addWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude,
+                         int tileBitmask, boolean labelFeature);
+
+    /**
+     * Finishes a block.
+     *
+     * @param valid false if the elements added since the start of the block must be discarded.
+     */
+    abstract void endBlock(boolean valid);
+
+    /**
+     * Starts a new block.
+     */
+    abstract void startBlock();
+
+    /**
+     * Appends the length of a segment, whose coordinates must already be stored.
+     */
+    void addSegment(int length) {
+        if (this.segments == this.segmentLengths.length) {
+            this.segmentLengths = Arrays.copyOf(this.segmentLengths, 2 * this.segments);
+        }
+        this.segmentLengths[this.segments++] = length;
+    }
+
+    /**
+     * Creates the coordinates of the current way.
+     */
+    LatLong[][] createLatLongs() {
+        LatLong[][] latLongs = new LatLong[this.segments][];
+        int index = 0;
+        for (int segment = 0; segment < this.segments; ++segment) {
+            latLongs[segment] = new LatLong[this.segmentLengths[segment]];
+            for (int i = 0; i < latLongs[segment].length; ++i) {
+                latLongs[segment][i] = new LatLong(this.coordinates[2 * index], this.coordinates[2 * index + 1]);
+                ++index;
+            }
+        }
+        return latLongs;
+    }
+
+    /**
+     * Ensures that the coordinate buffer can store the given number of latitude/longitude pairs.
+     */
+    void ensureCoordinates(int numberOfCoordinates) {
+        if (2 * numberOfCoordinates > this.coordinates.length) {
+            this.coordinates = Arrays.copyOf(this.coordinates, Math.max(2 * numberOfCoordinates, 2 * this.coordinates.length));
+        }
+    }
+
+    /**
+     * @return the number of coordinates of all segments of the current way.
+     */
+    int getNumberOfCoordinates() {
+        int numberOfCoordinates = 0;
+        for (int i = 0; i < this.segments; ++i) {
+            numberOfCoordinates += this.segmentLengths[i];
+        }
+        return numberOfCoordinates;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.datastore.MapDataVisitor;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands the decoded elements to a {@link MapDataVisitor}.
+ * <p/>
+ * The elements of a block are held back until the block has been decoded completely, so that
+ * the visitor never sees elements of an invalid block. At most one block is kept in memory.
+ */
+class MapDataVisitorCollector extends MapDataCollector {
+    private final List<PointOfInterest> pois = new ArrayList<>();
+    private final MapDataVisitor visitor;
+    private final List<Way> ways = new ArrayList<>();
+
+    MapDataVisitorCollector(MapDataVisitor visitor) {
+        this.visitor = visitor;
+    }
+
+    @Override
+    void add(List<PointOfInterest> pois, List<Way> ways) {
+        // cached blocks are always valid
+        for (PointOfInterest poi : pois) {
+            this.visitor.visitPointOfInterest(poi);
+        }
+        for (Way way : ways) {
+            this.visitor.visitWay(way);
+        }
+    }
+
+    @Override
+    void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude) {
+        this.pois.add(new PointOfInterest(layer, tags, new LatLong(latitude, longitude)));
+    }
+
+    @Override
+    void addWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude, int tileBitmask, boolean labelFeature) {
+        LatLong labelPosition = Double.isNaN(labelLatitude) ? null : new LatLong(labelLatitude, labelLongitude);
+        this.ways.add(new Way(layer, tags, createLatLongs(), labelPosition));
+    }
+
+    @Override
+    void endBlock(boolean valid) {
+        if (valid) {
+            add(this.pois, this.ways);
+        }
+        this.pois.clear();
+        this.ways.clear();
+    }
+
+    @Override
+    void startBlock() {
+        this.pois.clear();
+        this.ways.clear();
+    }
+}
@@ -27,9 +27,11 @@ import org.mapsforge.core.model.Tile;
 import org.mapsforge.core.util.LatLongUtils;
 import org.mapsforge.core.util.MercatorProjection;
 import org.mapsforge.core.util.Parameters;
+import org.mapsforge.map.datastore.ElementFilter;
 import org.mapsforge.map.datastore.MapDataStore;
+import org.mapsforge.map.datastore.MapDataVisitor;
 import org.mapsforge.map.datastore.MapReadResult;
-import org.mapsforge.map.datastore.PoiWayBundle;
+import org.mapsforge.map.datastore.PackedMapReadResult;
 import org.mapsforge.map.datastore.PointOfInterest;
 import org.mapsforge.map.datastore.Way;
 import org.mapsforge.map.reader.header.MapFileException;
@@ -43,15 +45,21 @@ import java.io.IOException;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * A class for reading binary map files.
  * <p/>
- * The readMapData method is now thread safe, but care should be taken that not too much data is
- * read at the same time (keep simultaneous requests to minimum)
+ * The readMapData method is thread safe, one instance can be shared by many render threads.
+ * Care should be taken that not too much data is read at the same time.
  *
  * @see <a href="https://github.com/mapsforge/mapsforge/blob/master/docs/Specification-Binary-Map-File.md">Specification</a>
  */
@@ -72,9 +80,9 @@ public class MapFile extends MapDataStore {
      */
     private static final byte DEFAULT_START_ZOOM_LEVEL = 12;
     /**
-     * Amount of cache blocks that the index cache should store.
+     * Size in bytes of the index cache, enough for 256 index blocks.
      */
-    private static final int INDEX_CACHE_SIZE = 64;
+    private static final int INDEX_CACHE_SIZE = 256 * IndexCache.SIZE_OF_INDEX_BLOCK;
     /**
      * Error message for an invalid first way offset.
      */
@@ -103,6 +111,10 @@ public class MapFile extends MapDataStore {
      * Bitmask for the number of POI tags.
      */
     private static final int POI_NUMBER_OF_TAGS_BITMASK = 0x0f;
+    /**
+     * Maximum number of read buffers kept for reuse, enough for every decoding and rendering thread.
+     */
+    private static final int READ_BUFFER_POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
     /**
      * Length of the debug signature at the beginning of each block.
      */
@@ -179,10 +191,15 @@ public class MapFile extends MapDataStore {
     public static boolean wayFilterEnabled = true;
     public static int wayFilterDistance = 20;
 
+    private volatile BlockCache blockCache;
+    private volatile BlockPrefetcher blockPrefetcher;
     private final IndexCache databaseIndexCache;
+    private volatile ExecutorService decodingExecutor;
     private final long fileSize;
     private final FileChannel inputChannel;
     private final MapFileHeader mapFileHeader;
+    private final MemoryMappedFile memoryMappedFile;
+    private final ReadBufferPool readBufferPool;
     private final long timestamp;
 
     private byte zoomLevelMin = 0;
@@ -194,6 +211,8 @@ public class MapFile extends MapDataStore {
         fileSize = 0;
         inputChannel = null;
         mapFileHeader = null;
+        memoryMappedFile = null;
+        readBufferPool = null;
         timestamp = System.currentTimeMillis();
     }
 
@@ -215,6 +234,22 @@ public class MapFile extends MapDataStore {
      * @throws MapFileException if the given map file is null or invalid.
      */
     public MapFile(File mapFile, String language) {
+        this(mapFile, language, false);
+    }
+
+    /**
+     * Opens the given map file, reads its header data and validates them.
+     * <p/>
+     * A memory-mapped map file decodes its blocks directly from the mapping instead of reading them
+     * into a buffer first, which avoids a system call and an allocation per block. This is most
+     * effective if the map file is held in the page cache.
+     *
+     * @param mapFile      the map file.
+     * @param language     the language to use (may be null).
+     * @param memoryMapped true if the map file should be memory-mapped.
+     * @throws MapFileException if the given map file is null or invalid.
+     */
+    public MapFile(File mapFile, String language, boolean memoryMapped) {
         super(language);
         if (mapFile == null) {
             throw new MapFileException("mapFile must not be null");
@@ -239,6 +274,8 @@ public class MapFile extends MapDataStore {
             this.mapFileHeader = new MapFileHeader();
             this.mapFileHeader.readHeader(readBuffer, this.fileSize);
             this.databaseIndexCache = new IndexCache(this.inputChannel, INDEX_CACHE_SIZE);
+            this.memoryMappedFile = memoryMapped ? new MemoryMappedFile(this.inputChannel, this.fileSize) : null;
+            this.readBufferPool = new ReadBufferPool(this.inputChannel, this.memoryMappedFile, READ_BUFFER_POOL_SIZE);
 
             this.timestamp = mapFile.lastModified();
         } catch (Exception e) {
@@ -256,6 +293,18 @@ public class MapFile extends MapDataStore {
      * @throws MapFileException if the given map file channel is null or invalid.
      */
     public MapFile(FileChannel mapFileChannel, long lastModified, String language) {
+        this(mapFileChannel, lastModified, language, false);
+    }
+
+    /**
+     * Opens the given map file channel, reads its header data and validates them.
+     *
+     * @param mapFileChannel the map file channel.
+     * @param language       the language to use (may be null).
+     * @param memoryMapped   true if the map file channel should be memory-mapped.
+     * @throws MapFileException if the given map file channel is null or invalid.
+     */
+    public MapFile(FileChannel mapFileChannel, long lastModified, String language, boolean memoryMapped) {
         super(language);
         if (mapFileChannel == null) {
             throw new MapFileException("mapFileChannel must not be null");
@@ -268,6 +317,8 @@ public class MapFile extends MapDataStore {
             this.mapFileHeader = new MapFileHeader();
             this.mapFileHeader.readHeader(readBuffer, this.fileSize);
             this.databaseIndexCache = new IndexCache(this.inputChannel, INDEX_CACHE_SIZE);
+            this.memoryMappedFile = memoryMapped ? new MemoryMappedFile(this.inputChannel, this.fileSize) : null;
+            this.readBufferPool = new ReadBufferPool(this.inputChannel, this.memoryMappedFile, READ_BUFFER_POOL_SIZE);
 
             this.timestamp = lastModified;
         } catch (Exception e) {
@@ -304,6 +355,12 @@ public class MapFile extends MapDataStore {
         return getMapFileInfo().boundingBox;
     }
 
+    /**
+     * Closes the map file and releases its caches and read buffers.
+     * <p/>
+     * A memory-mapped file only drops its references to the mapped segments: Java offers no way to unmap a
+     * buffer explicitly, so the mapping is released once the segments are garbage collected.
+     */
     @Override
     public void close() {
         closeFileChannel();
@@ -315,9 +372,21 @@ public class MapFile extends MapDataStore {
      */
     private void closeFileChannel() {
         try {
+            if (this.blockCache != null) {
+                this.blockCache.destroy();
+            }
+            if (this.blockPrefetcher != null) {
+                this.blockPrefetcher.destroy();
+            }
             if (this.databaseIndexCache != null) {
                 this.databaseIndexCache.destroy();
             }
+            if (this.memoryMappedFile != null) {
+                this.memoryMappedFile.destroy();
+            }
+            if (this.readBufferPool != null) {
+                this.readBufferPool.destroy();
+            }
             if (this.inputChannel != null) {
                 this.inputChannel.close();
             }
@@ -326,7 +395,7 @@ public class MapFile extends MapDataStore {
         }
     }
 
-    private void decodeWayNodesDoubleDelta(LatLong[] waySegment, double tileLatitude, double tileLongitude, ReadBuffer readBuffer) {
+    private void decodeWayNodesDoubleDelta(double[] coordinates, int offset, int numberOfWayNodes, double tileLatitude, double tileLongitude, ReadBuffer readBuffer) {
         // get the first way node latitude offset (VBE-S)
         double wayNodeLatitude = tileLatitude
                 + LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
@@ -336,12 +405,13 @@ public class MapFile extends MapDataStore {
                 + LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
 
         // store the first way node
-        waySegment[0] = new LatLong(wayNodeLatitude, wayNodeLongitude);
+        coordinates[2 * offset] = wayNodeLatitude;
+        coordinates[2 * offset + 1] = wayNodeLongitude;
 
         double previousSingleDeltaLatitude = 0;
         double previousSingleDeltaLongitude = 0;
 
-        for (int wayNodesIndex = 1; wayNodesIndex < waySegment.length; ++wayNodesIndex) {
+        for (int wayNodesIndex = 1; wayNodesIndex < numberOfWayNodes; ++wayNodesIndex) {
             // get the way node latitude double-delta offset (VBE-S)
             double doubleDeltaLatitude = LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
 
@@ -363,14 +433,15 @@ public class MapFile extends MapDataStore {
                 wayNodeLongitude = LatLongUtils.LONGITUDE_MAX;
             }
 
-            waySegment[wayNodesIndex] = new LatLong(wayNodeLatitude, wayNodeLongitude);
+            coordinates[2 * (offset + wayNodesIndex)] = wayNodeLatitude;
+            coordinates[2 * (offset + wayNodesIndex) + 1] = wayNodeLongitude;
 
             previousSingleDeltaLatitude = singleDeltaLatitude;
             previousSingleDeltaLongitude = singleDeltaLongitude;
         }
     }
 
-    private void decodeWayNodesSingleDelta(LatLong[] waySegment, double tileLatitude, double tileLongitude, ReadBuffer readBuffer) {
+    private void decodeWayNodesSingleDelta(double[] coordinates, int offset, int numberOfWayNodes, double tileLatitude, double tileLongitude, ReadBuffer readBuffer) {
         // get the first way node latitude single-delta offset (VBE-S)
         double wayNodeLatitude = tileLatitude
                 + LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
@@ -380,9 +451,10 @@ public class MapFile extends MapDataStore {
                 + LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
 
         // store the first way node
-        waySegment[0] = new LatLong(wayNodeLatitude, wayNodeLongitude);
+        coordinates[2 * offset] = wayNodeLatitude;
+        coordinates[2 * offset + 1] = wayNodeLongitude;
 
-        for (int wayNodesIndex = 1; wayNodesIndex < waySegment.length; ++wayNodesIndex) {
+        for (int wayNodesIndex = 1; wayNodesIndex < numberOfWayNodes; ++wayNodesIndex) {
             // get the way node latitude offset (VBE-S)
             wayNodeLatitude = wayNodeLatitude + LatLongUtils.microdegreesToDegrees(readBuffer.readSignedInt());
 
@@ -398,10 +470,18 @@ public class MapFile extends MapDataStore {
                 wayNodeLongitude = LatLongUtils.LONGITUDE_MAX;
             }
 
-            waySegment[wayNodesIndex] = new LatLong(wayNodeLatitude, wayNodeLongitude);
+            coordinates[2 * (offset + wayNodesIndex)] = wayNodeLatitude;
+            coordinates[2 * (offset + wayNodesIndex) + 1] = wayNodeLongitude;
         }
     }
 
+    /**
+     * @return the prefetcher of this map file, or null if prefetching is disabled.
+     */
+    BlockPrefetcher getBlockPrefetcher() {
+        return this.blockPrefetcher;
+    }
+
     /**
      * Returns the creation timestamp of the map file.
      *
@@ -438,11 +518,235 @@ public class MapFile extends MapDataStore {
         return null;
     }
 
-    private PoiWayBundle processBlock(QueryParameters queryParameters, SubFileParameter subFileParameter,
-                                      BoundingBox boundingBox, double tileLatitude, double tileLongitude,
-                                      Selector selector, ReadBuffer readBuffer) {
+    /**
+     * Reads the blocks needed for an area on a background thread, so that the following queries for
+     * the area find them in memory. All blocks of a row of the area are contiguous in the file and are
+     * read with a single read, the rows nearest to the first tile are read first. A prefetch stops once
+     * it has read as many bytes as the prefetch cache holds, so that it never evicts its own blocks.
+     * Pending prefetches are discarded if newer ones pile up.
+     * <p/>
+     * Has no effect unless a prefetch cache has been set up with {@link #setPrefetchCacheSize(int)}.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the area.
+     * @param lowerRight tile that defines the lower right corner of the area.
+     * @param firstTile  the tile of the area whose data is needed first.
+     */
+    @Override
+    public void prefetch(Tile upperLeft, Tile lowerRight, Tile firstTile) {
+        final BlockPrefetcher blockPrefetcher = this.blockPrefetcher;
+        if (blockPrefetcher == null) {
+            return;
+        }
+
+        final QueryParameters queryParameters = new QueryParameters();
+        queryParameters.queryZoomLevel = this.mapFileHeader.getQueryZoomLevel(upperLeft.zoomLevel);
+        final SubFileParameter subFileParameter = this.mapFileHeader.getSubFileParameter(queryParameters.queryZoomLevel);
+        if (subFileParameter == null) {
+            return;
+        }
+        queryParameters.calculateBaseTiles(upperLeft, lowerRight, subFileParameter);
+        queryParameters.calculateBlocks(subFileParameter);
+
+        QueryParameters firstTileParameters = new QueryParameters();
+        firstTileParameters.calculateBaseTiles(firstTile, subFileParameter);
+        firstTileParameters.calculateBlocks(subFileParameter);
+        final long firstRow = Math.max(queryParameters.fromBlockY,
+                Math.min(queryParameters.toBlockY, firstTileParameters.fromBlockY));
+
+        blockPrefetcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    prefetchBlocks(blockPrefetcher, queryParameters, subFileParameter, firstRow);
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reads the blocks of a query into the prefetch cache, row by row starting with the given row and
+     * continuing with the rows nearest to it, until the capacity of the cache has been read.
+     */
+    private void prefetchBlocks(BlockPrefetcher blockPrefetcher, QueryParameters queryParameters,
+                                SubFileParameter subFileParameter, long firstRow) throws IOException {
+        if (queryParameters.toBlockX < queryParameters.fromBlockX) {
+            return;
+        }
+        int[] blockSizes = new int[(int) (queryParameters.toBlockX - queryParameters.fromBlockX + 1)];
+        long remaining = blockPrefetcher.capacity;
+
+        for (long distance = 0; ; ++distance) {
+            long rowAbove = firstRow - distance;
+            long rowBelow = firstRow + distance;
+            if (rowAbove < queryParameters.fromBlockY && rowBelow > queryParameters.toBlockY) {
+                return;
+            }
+            if (rowAbove >= queryParameters.fromBlockY) {
+                remaining = prefetchRow(blockPrefetcher, queryParameters, subFileParameter, rowAbove, blockSizes,
+                        remaining);
+            }
+            if (distance > 0 && remaining >= 0 && rowBelow <= queryParameters.toBlockY) {
+                remaining = prefetchRow(blockPrefetcher, queryParameters, subFileParameter, rowBelow, blockSizes,
+                        remaining);
+            }
+            if (remaining < 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the blocks of one row of a query into the prefetch cache, every run of contiguous blocks that
+     * are not cached yet with a single read.
+     *
+     * @return the number of bytes the prefetch may still read, or -1 if it has to stop: either the remaining
+     * bytes do not suffice for the next block, or an index entry is invalid, which is reported by the query.
+     */
+    private long prefetchRow(BlockPrefetcher blockPrefetcher, QueryParameters queryParameters,
+                             SubFileParameter subFileParameter, long row, int[] blockSizes,
+                             long remaining) throws IOException {
+        int maximumRead = Math.min(blockPrefetcher.capacity, Parameters.MAXIMUM_BUFFER_SIZE);
+        long runOffset = 0;
+        int runBlocks = 0;
+        int runLength = 0;
+        boolean stop = false;
+        for (long column = queryParameters.fromBlockX; column <= queryParameters.toBlockX; ++column) {
+            long blockNumber = row * subFileParameter.blocksWidth + column;
+            long blockPointer = this.databaseIndexCache.getIndexEntry(subFileParameter, blockNumber)
+                    & BITMASK_INDEX_OFFSET;
+            long nextBlockPointer = subFileParameter.subFileSize;
+            if (blockNumber + 1 < subFileParameter.numberOfBlocks) {
+                nextBlockPointer = this.databaseIndexCache.getIndexEntry(subFileParameter, blockNumber + 1)
+                        & BITMASK_INDEX_OFFSET;
+            }
+            if (blockPointer < 1 || nextBlockPointer > subFileParameter.subFileSize
+                    || nextBlockPointer < blockPointer) {
+                stop = true;
+                break;
+            }
+
+            int blockSize = (int) (nextBlockPointer - blockPointer);
+            long blockOffset = subFileParameter.startAddress + blockPointer;
+            boolean skip = blockSize > maximumRead || (blockSize > 0 && blockPrefetcher.contains(blockOffset));
+            if (!skip && runLength + blockSize > remaining) {
+                stop = true;
+                break;
+            }
+            if (runBlocks > 0 && (skip || runLength + blockSize > maximumRead)) {
+                blockPrefetcher.read(runOffset, blockSizes, runBlocks);
+                remaining -= runLength;
+                runBlocks = 0;
+                runLength = 0;
+            }
+            if (skip) {
+                continue;
+            }
+            if (runBlocks == 0) {
+                runOffset = blockOffset;
+            }
+            blockSizes[runBlocks++] = blockSize;
+            runLength += blockSize;
+        }
+        if (runBlocks > 0) {
+            blockPrefetcher.read(runOffset, blockSizes, runBlocks);
+            remaining -= runLength;
+        }
+        return stop ? -1 : remaining;
+    }
+
+    /**
+     * Loads the complete block index of every sub-file into memory, so that index lookups no longer
+     * read from the map file. The index needs 5 bytes per block, for most map files only a few MB.
+     * <p/>
+     * This is an opt-in alternative to the default LRU index cache, which is used for any sub-file
+     * whose index is too large to be preloaded.
+     *
+     * @throws MapFileException if the index cannot be read.
+     */
+    public void preloadIndex() {
+        Set<SubFileParameter> subFileParameters = new LinkedHashSet<>();
+        for (int zoomLevel = getMapFileInfo().zoomLevelMin; zoomLevel <= getMapFileInfo().zoomLevelMax; ++zoomLevel) {
+            SubFileParameter subFileParameter = this.mapFileHeader.getSubFileParameter(zoomLevel);
+            if (subFileParameter != null) {
+                subFileParameters.add(subFileParameter);
+            }
+        }
+
+        try {
+            this.databaseIndexCache.preload(subFileParameters);
+        } catch (IOException e) {
+            throw new MapFileException(e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for the blocks of a parallel query and adds them to the collector in the order of
+     * the blocks in the file, so that the result is the same as for a sequential query.
+     *
+     * @return true if all blocks could be read, false otherwise.
+     */
+    private boolean mergePendingBlocks(QueryParameters queryParameters, List<PendingBlock> pendingBlocks,
+                                       BoundingBox boundingBox, boolean filterRequired, Selector selector,
+                                       BlockCache blockCache, MapDataCollector collector) throws IOException {
+        try {
+            for (int i = 0, n = pendingBlocks.size(); i < n; ++i) {
+                PendingBlock pendingBlock = pendingBlocks.get(i);
+                BlockCache.Entry blockEntry = pendingBlock.blockEntry;
+                if (pendingBlock.future != null) {
+                    try {
+                        blockEntry = pendingBlock.future.get();
+                    } catch (ExecutionException e) {
+                        if (e.getCause() instanceof IOException) {
+                            throw (IOException) e.getCause();
+                        }
+                        throw new MapFileException(e.getCause().getMessage());
+                    }
+                    if (blockEntry == null) {
+                        // invalid block
+                        continue;
+                    }
+                    if (blockCache == null) {
+                        // the block has been decoded with the filters of the query
+                        List<Way> ways = new ArrayList<>(blockEntry.ways.size());
+                        for (BlockCache.BlockWay blockWay : blockEntry.ways) {
+                            ways.add(blockWay.way);
+                        }
+                        collector.add(blockEntry.pois, ways);
+                        continue;
+                    }
+                    blockCache.put(pendingBlock.blockCacheEntryKey, blockEntry);
+                }
+                processBlockEntry(queryParameters, blockEntry, boundingBox, filterRequired, selector, collector);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            for (int i = 0, n = pendingBlocks.size(); i < n; ++i) {
+                if (pendingBlocks.get(i).future != null) {
+                    pendingBlocks.get(i).future.cancel(false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decodes a block into the given collector. If unfiltered is true, the elements are neither filtered by
+     * the tile bitmask nor by the bounding box of the query, so that the result can be cached and filtered
+     * for every tile served by the block.
+     *
+     * @return true if the block could be decoded successfully, false otherwise.
+     */
+    private boolean processBlock(QueryParameters queryParameters, SubFileParameter subFileParameter,
+                                 BoundingBox boundingBox, double tileLatitude, double tileLongitude,
+                                 Selector selector, boolean unfiltered, ReadBuffer readBuffer,
+                                 MapDataCollector collector) {
         if (!processBlockSignature(readBuffer)) {
-            return null;
+            return false;
         }
 
         int[][] zoomTable = readZoomTable(subFileParameter, readBuffer);
@@ -454,44 +758,81 @@ public class MapFile extends MapDataStore {
         int firstWayOffset = readBuffer.readUnsignedInt();
         if (firstWayOffset < 0) {
             LOGGER.warning(INVALID_FIRST_WAY_OFFSET + firstWayOffset);
-            return null;
+            return false;
         }
 
         // add the current buffer position to the relative first way offset
         firstWayOffset += readBuffer.getBufferPosition();
         if (firstWayOffset > readBuffer.getBufferSize()) {
             LOGGER.warning(INVALID_FIRST_WAY_OFFSET + firstWayOffset);
-            return null;
+            return false;
         }
 
-        boolean filterRequired = queryParameters.queryZoomLevel > subFileParameter.baseZoomLevel;
+        boolean filterRequired = !unfiltered && queryParameters.queryZoomLevel > subFileParameter.baseZoomLevel;
+        ElementFilter elementFilter = unfiltered ? null : queryParameters.elementFilter;
 
-        List<PointOfInterest> pois = processPOIs(tileLatitude, tileLongitude, poisOnQueryZoomLevel, boundingBox, filterRequired, readBuffer);
-        if (pois == null) {
-            return null;
+        if (!processPOIs(queryParameters, tileLatitude, tileLongitude, poisOnQueryZoomLevel, boundingBox,
+                filterRequired, elementFilter, readBuffer, collector)) {
+            return false;
         }
 
-        List<Way> ways;
         if (Selector.POIS == selector) {
-            ways = Collections.emptyList();
-        } else {
-            // finished reading POIs, check if the current buffer position is valid
-            if (readBuffer.getBufferPosition() > firstWayOffset) {
-                LOGGER.warning("invalid buffer position: " + readBuffer.getBufferPosition());
-                return null;
+            return true;
+        }
+
+        // finished reading POIs, check if the current buffer position is valid
+        if (readBuffer.getBufferPosition() > firstWayOffset) {
+            LOGGER.warning("invalid buffer position: " + readBuffer.getBufferPosition());
+            return false;
+        }
+
+        // move the pointer to the first way
+        readBuffer.setBufferPosition(firstWayOffset);
+
+        return processWays(queryParameters, waysOnQueryZoomLevel, boundingBox, filterRequired, unfiltered,
+                elementFilter, tileLatitude, tileLongitude, selector, readBuffer, collector);
+    }
+
+    /**
+     * Filters a cached block by the tile bitmask, bounding box and element filter of the query,
+     * the same way as {@link #processBlock} filters while decoding.
+     */
+    private void processBlockEntry(QueryParameters queryParameters, BlockCache.Entry blockEntry,
+                                   BoundingBox boundingBox, boolean filterRequired, Selector selector,
+                                   MapDataCollector collector) {
+        List<PointOfInterest> pois = new ArrayList<>();
+        for (PointOfInterest poi : blockEntry.pois) {
+            if ((!filterRequired || boundingBox.contains(poi.position))
+                    && (queryParameters.elementFilter == null
+                    || queryParameters.elementFilter.acceptPointOfInterest(poi.tags, queryParameters.zoomLevel))) {
+                pois.add(poi);
             }
+        }
 
-            // move the pointer to the first way
-            readBuffer.setBufferPosition(firstWayOffset);
+        if (Selector.POIS == selector) {
+            collector.add(pois, Collections.<Way>emptyList());
+            return;
+        }
 
-            ways = processWays(queryParameters, waysOnQueryZoomLevel, boundingBox,
-                    filterRequired, tileLatitude, tileLongitude, selector, readBuffer);
-            if (ways == null) {
-                return null;
+        List<Way> ways = new ArrayList<>();
+        BoundingBox wayFilterBbox = boundingBox.extendMeters(wayFilterDistance);
+        for (BlockCache.BlockWay blockWay : blockEntry.ways) {
+            if (queryParameters.useTileBitmask && (queryParameters.queryTileBitmask & blockWay.tileBitmask) == 0) {
+                continue;
+            }
+            if (filterRequired && wayFilterEnabled && !wayFilterBbox.intersectsArea(blockWay.way.latLongs)) {
+                continue;
+            }
+            if (queryParameters.elementFilter != null
+                    && !queryParameters.elementFilter.acceptWay(blockWay.way.tags, queryParameters.zoomLevel)) {
+                continue;
+            }
+            if (Selector.ALL == selector || blockWay.labelFeature || wayAsLabelTagFilter(blockWay.way.tags)) {
+                ways.add(blockWay.way);
             }
         }
 
-        return new PoiWayBundle(pois, ways);
+        collector.add(pois, ways);
     }
 
     /**
@@ -511,12 +852,28 @@ public class MapFile extends MapDataStore {
         return true;
     }
 
-    private MapReadResult processBlocks(QueryParameters queryParameters, SubFileParameter subFileParameter,
-                                        BoundingBox boundingBox, Selector selector) throws IOException {
+    /**
+     * Decodes all blocks of a query into the given collector.
+     *
+     * @return true if the query could be processed, false if the index or the file is invalid.
+     */
+    private boolean processBlocks(QueryParameters queryParameters, SubFileParameter subFileParameter,
+                                  BoundingBox boundingBox, Selector selector, MapDataCollector collector)
+            throws IOException {
         boolean queryIsWater = true;
         boolean queryReadWaterInfo = false;
 
-        MapReadResult mapFileReadResult = new MapReadResult();
+        // decoded blocks are only shared by several tiles above the base zoom level
+        boolean filterRequired = queryParameters.queryZoomLevel > subFileParameter.baseZoomLevel;
+        BlockCache blockCache = filterRequired ? this.blockCache : null;
+
+        // queries with more than one block are decoded in parallel if an executor is set
+        ExecutorService executor = this.decodingExecutor;
+        List<PendingBlock> pendingBlocks = null;
+        if (executor != null && (queryParameters.fromBlockX < queryParameters.toBlockX
+                || queryParameters.fromBlockY < queryParameters.toBlockY)) {
+            pendingBlocks = new ArrayList<>();
+        }
 
         // read and process all blocks from top to bottom and from left to right
         for (long row = queryParameters.fromBlockY; row <= queryParameters.toBlockY; ++row) {
@@ -539,7 +896,7 @@ public class MapFile extends MapDataStore {
                 if (currentBlockPointer < 1 || currentBlockPointer > subFileParameter.subFileSize) {
                     LOGGER.warning("invalid current block pointer: " + currentBlockPointer);
                     LOGGER.warning("subFileSize: " + subFileParameter.subFileSize);
-                    return null;
+                    return false;
                 }
 
                 long nextBlockPointer;
@@ -554,7 +911,7 @@ public class MapFile extends MapDataStore {
                     if (nextBlockPointer > subFileParameter.subFileSize) {
                         LOGGER.warning("invalid next block pointer: " + nextBlockPointer);
                         LOGGER.warning("sub-file size: " + subFileParameter.subFileSize);
-                        return null;
+                        return false;
                     }
                 }
 
@@ -562,7 +919,7 @@ public class MapFile extends MapDataStore {
                 int currentBlockSize = (int) (nextBlockPointer - currentBlockPointer);
                 if (currentBlockSize < 0) {
                     LOGGER.warning("current block size must not be negative: " + currentBlockSize);
-                    return null;
+                    return false;
                 } else if (currentBlockSize == 0) {
                     // the current block is empty, continue with the next block
                     continue;
@@ -572,47 +929,68 @@ public class MapFile extends MapDataStore {
                     continue;
                 } else if (currentBlockPointer + currentBlockSize > this.fileSize) {
                     LOGGER.warning("current block largher than file size: " + currentBlockSize);
-                    return null;
+                    return false;
                 }
 
-                // seek to the current block in the map file
-                // read the current block into the buffer
-                ReadBuffer readBuffer = new ReadBuffer(inputChannel);
-                if (!readBuffer.readFromFile(subFileParameter.startAddress + currentBlockPointer, currentBlockSize)) {
-                    // skip the current block
-                    LOGGER.warning("reading current block has failed: " + currentBlockSize);
-                    return null;
+                BlockCacheEntryKey blockCacheEntryKey = null;
+                if (blockCache != null) {
+                    blockCacheEntryKey = new BlockCacheEntryKey(subFileParameter, blockNumber, queryParameters.queryZoomLevel);
+                    BlockCache.Entry blockEntry = blockCache.get(blockCacheEntryKey);
+                    if (blockEntry != null) {
+                        if (pendingBlocks != null) {
+                            // keep the order of the blocks
+                            pendingBlocks.add(new PendingBlock(null, blockEntry, null));
+                        } else {
+                            processBlockEntry(queryParameters, blockEntry, boundingBox, filterRequired, selector, collector);
+                        }
+                        continue;
+                    }
                 }
 
-                // calculate the top-left coordinates of the underlying tile
-                double tileLatitude = MercatorProjection.tileYToLatitude(subFileParameter.boundaryTileTop + row,
-                        subFileParameter.baseZoomLevel);
-                double tileLongitude = MercatorProjection.tileXToLongitude(subFileParameter.boundaryTileLeft + column,
-                        subFileParameter.baseZoomLevel);
+                ++collector.blocksRead;
+                collector.bytesRead += currentBlockSize;
+                if (pendingBlocks != null) {
+                    BlockDecoder blockDecoder = new BlockDecoder(queryParameters, subFileParameter, boundingBox,
+                            blockCache != null ? Selector.ALL : selector, blockCache != null, row, column,
+                            currentBlockPointer, currentBlockSize);
+                    pendingBlocks.add(new PendingBlock(blockCacheEntryKey, null, executor.submit(blockDecoder)));
+                    continue;
+                }
 
-                try {
-                    PoiWayBundle poiWayBundle = processBlock(queryParameters, subFileParameter, boundingBox,
-                            tileLatitude, tileLongitude, selector, readBuffer);
-                    if (poiWayBundle != null) {
-                        mapFileReadResult.add(poiWayBundle);
+                MapDataCollector blockCollector = blockCache != null ? new BlockCacheEntryCollector() : collector;
+                if (!readBlock(queryParameters, subFileParameter, boundingBox, blockCache != null ? Selector.ALL : selector,
+                        blockCache != null, row, column, currentBlockPointer, currentBlockSize, blockCollector)) {
+                    LOGGER.warning("reading current block has failed: " + currentBlockSize);
+                    return false;
+                }
+
+                if (blockCache != null) {
+                    BlockCache.Entry blockEntry = ((BlockCacheEntryCollector) blockCollector).getEntry();
+                    if (blockEntry != null) {
+                        blockCache.put(blockCacheEntryKey, blockEntry);
+                        processBlockEntry(queryParameters, blockEntry, boundingBox, filterRequired, selector, collector);
                     }
-                } catch (ArrayIndexOutOfBoundsException e) {
-                    LOGGER.log(Level.SEVERE, e.getMessage(), e);
                 }
             }
         }
 
+        if (pendingBlocks != null && !mergePendingBlocks(queryParameters, pendingBlocks, boundingBox,
+                filterRequired, selector, blockCache, collector)) {
+            return false;
+        }
+
         // the query is finished, was the water flag set for all blocks?
         if (queryIsWater && queryReadWaterInfo) {
             // Deprecate water tiles rendering
             //mapFileReadResult.isWater = true;
         }
 
-        return mapFileReadResult;
+        return true;
     }
 
-    private List<PointOfInterest> processPOIs(double tileLatitude, double tileLongitude, int numberOfPois, BoundingBox boundingBox, boolean filterRequired, ReadBuffer readBuffer) {
-        List<PointOfInterest> pois = new ArrayList<>();
+    private boolean processPOIs(QueryParameters queryParameters, double tileLatitude, double tileLongitude,
+                                int numberOfPois, BoundingBox boundingBox, boolean filterRequired,
+                                ElementFilter elementFilter, ReadBuffer readBuffer, MapDataCollector collector) {
         Tag[] poiTags = this.mapFileHeader.getMapFileInfo().poiTags;
 
         for (int elementCounter = numberOfPois; elementCounter != 0; --elementCounter) {
@@ -621,7 +999,7 @@ public class MapFile extends MapDataStore {
                 String signaturePoi = readBuffer.readUTF8EncodedString(SIGNATURE_LENGTH_POI);
                 if (!signaturePoi.startsWith("***POIStart")) {
                     LOGGER.warning("invalid POI signature: " + signaturePoi);
-                    return null;
+                    return false;
                 }
             }
 
@@ -642,7 +1020,7 @@ public class MapFile extends MapDataStore {
             // get the tags from IDs (VBE-U)
             List<Tag> tags = readBuffer.readTags(poiTags, numberOfTags);
             if (tags == null) {
-                return null;
+                return false;
             }
 
             // get the feature bitmask (1 byte)
@@ -668,27 +1046,30 @@ public class MapFile extends MapDataStore {
                 tags.add(new Tag(TAG_KEY_ELE, Integer.toString(readBuffer.readSignedInt())));
             }
 
-            LatLong position = new LatLong(latitude, longitude);
             // depending on the zoom level configuration the poi can lie outside
             // the tile requested, we filter them out here
-            if (!filterRequired || boundingBox.contains(position)) {
-                pois.add(new PointOfInterest(layer, tags, position));
+            if ((!filterRequired || boundingBox.contains(latitude, longitude))
+                    && (elementFilter == null || elementFilter.acceptPointOfInterest(tags, queryParameters.zoomLevel))) {
+                collector.addPointOfInterest(layer, tags, latitude, longitude);
             }
         }
 
-        return pois;
+        return true;
     }
 
-    private LatLong[][] processWayDataBlock(double tileLatitude, double tileLongitude, boolean doubleDeltaEncoding, ReadBuffer readBuffer) {
+    /**
+     * Decodes the coordinates of a way data block into the buffers of the collector.
+     */
+    private boolean processWayDataBlock(double tileLatitude, double tileLongitude, boolean doubleDeltaEncoding, ReadBuffer readBuffer, MapDataCollector collector) {
         // get and check the number of way coordinate blocks (VBE-U)
         int numberOfWayCoordinateBlocks = readBuffer.readUnsignedInt();
         if (numberOfWayCoordinateBlocks < 1 || numberOfWayCoordinateBlocks > Short.MAX_VALUE) {
             LOGGER.warning("invalid number of way coordinate blocks: " + numberOfWayCoordinateBlocks);
-            return null;
+            return false;
         }
 
-        // create the array which will store the different way coordinate blocks
-        LatLong[][] wayCoordinates = new LatLong[numberOfWayCoordinateBlocks][];
+        collector.segments = 0;
+        int numberOfCoordinates = 0;
 
         // read the way coordinate blocks
         for (int coordinateBlock = 0; coordinateBlock < numberOfWayCoordinateBlocks; ++coordinateBlock) {
@@ -696,31 +1077,35 @@ public class MapFile extends MapDataStore {
             int numberOfWayNodes = readBuffer.readUnsignedInt();
             if (numberOfWayNodes < 2 || numberOfWayNodes > Short.MAX_VALUE) {
                 LOGGER.warning("invalid number of way nodes: " + numberOfWayNodes);
-                // returning null here will actually leave the tile blank as the
+                // returning false here will actually leave the tile blank as the
                 // position on the ReadBuffer will not be advanced correctly. However,
                 // it will not crash the app.
-                return null;
+                return false;
             }
 
-            // create the array which will store the current way segment
-            LatLong[] waySegment = new LatLong[numberOfWayNodes];
-
+            collector.ensureCoordinates(numberOfCoordinates + numberOfWayNodes);
             if (doubleDeltaEncoding) {
-                decodeWayNodesDoubleDelta(waySegment, tileLatitude, tileLongitude, readBuffer);
+                decodeWayNodesDoubleDelta(collector.coordinates, numberOfCoordinates, numberOfWayNodes, tileLatitude, tileLongitude, readBuffer);
             } else {
-                decodeWayNodesSingleDelta(waySegment, tileLatitude, tileLongitude, readBuffer);
+                decodeWayNodesSingleDelta(collector.coordinates, numberOfCoordinates, numberOfWayNodes, tileLatitude, tileLongitude, readBuffer);
             }
 
-            wayCoordinates[coordinateBlock] = waySegment;
+            collector.addSegment(numberOfWayNodes);
+            numberOfCoordinates += numberOfWayNodes;
         }
 
-        return wayCoordinates;
+        return true;
     }
 
-    private List<Way> processWays(QueryParameters queryParameters, int numberOfWays, BoundingBox boundingBox,
-                                  boolean filterRequired, double tileLatitude, double tileLongitude,
-                                  Selector selector, ReadBuffer readBuffer) {
-        List<Way> ways = new ArrayList<>();
+    /**
+     * Decodes the ways of a block. If unfiltered is true, the tile bitmask is ignored, so that every way
+     * is collected together with its tile bitmask and label features, for caching. Ways rejected by the
+     * element filter are skipped before their coordinates are decoded.
+     */
+    private boolean processWays(QueryParameters queryParameters, int numberOfWays, BoundingBox boundingBox,
+                                boolean filterRequired, boolean unfiltered, ElementFilter elementFilter,
+                                double tileLatitude, double tileLongitude,
+                                Selector selector, ReadBuffer readBuffer, MapDataCollector collector) {
         Tag[] wayTags = this.mapFileHeader.getMapFileInfo().wayTags;
 
         BoundingBox wayFilterBbox = boundingBox.extendMeters(wayFilterDistance);
@@ -731,7 +1116,7 @@ public class MapFile extends MapDataStore {
                 String signatureWay = readBuffer.readUTF8EncodedString(SIGNATURE_LENGTH_WAY);
                 if (!signatureWay.startsWith("---WayStart")) {
                     LOGGER.warning("invalid way signature: " + signatureWay);
-                    return null;
+                    return false;
                 }
             }
 
@@ -739,21 +1124,18 @@ public class MapFile extends MapDataStore {
             int wayDataSize = readBuffer.readUnsignedInt();
             if (wayDataSize < 0) {
                 LOGGER.warning("invalid way data size: " + wayDataSize);
-                return null;
+                return false;
             }
-
-            if (queryParameters.useTileBitmask) {
-                // get the way tile bitmask (2 bytes)
-                int tileBitmask = readBuffer.readShort();
-                // check if the way is inside the requested tile
-                if ((queryParameters.queryTileBitmask & tileBitmask) == 0) {
-                    // skip the rest of the way and continue with the next way
-                    readBuffer.skipBytes(wayDataSize - 2);
-                    continue;
-                }
-            } else {
-                // ignore the way tile bitmask (2 bytes)
-                readBuffer.skipBytes(2);
+            int wayDataEnd = readBuffer.getBufferPosition() + wayDataSize;
+
+            // get the way tile bitmask (2 bytes)
+            int tileBitmask = readBuffer.readShort();
+            // check if the way is inside the requested tile
+            if (!unfiltered && queryParameters.useTileBitmask
+                    && (queryParameters.queryTileBitmask & tileBitmask) == 0) {
+                // skip the rest of the way and continue with the next way
+                readBuffer.skipBytes(wayDataSize - 2);
+                continue;
             }
 
             // get the special byte which encodes multiple flags
@@ -767,7 +1149,7 @@ public class MapFile extends MapDataStore {
             // get the tags from IDs (VBE-U)
             List<Tag> tags = readBuffer.readTags(wayTags, numberOfTags);
             if (tags == null) {
-                return null;
+                return false;
             }
 
             // get the feature bitmask (1 byte)
@@ -796,6 +1178,13 @@ public class MapFile extends MapDataStore {
                 tags.add(new Tag(TAG_KEY_REF, readBuffer.readUTF8EncodedString()));
             }
 
+            // check if the way can be rendered at all, the tags are complete at this point
+            if (elementFilter != null && !elementFilter.acceptWay(tags, queryParameters.zoomLevel)) {
+                // skip the rest of the way and continue with the next way
+                readBuffer.setBufferPosition(wayDataEnd);
+                continue;
+            }
+
             int[] labelPosition = null;
             if (featureLabelPosition) {
                 labelPosition = readOptionalLabelPosition(readBuffer);
@@ -804,28 +1193,82 @@ public class MapFile extends MapDataStore {
             int wayDataBlocks = readOptionalWayDataBlocksByte(featureWayDataBlocksByte, readBuffer);
             if (wayDataBlocks < 1) {
                 LOGGER.warning("invalid number of way data blocks: " + wayDataBlocks);
-                return null;
+                return false;
             }
 
+            boolean labelFeature = featureName || featureHouseNumber || featureRef;
             for (int wayDataBlock = 0; wayDataBlock < wayDataBlocks; ++wayDataBlock) {
-                LatLong[][] wayNodes = processWayDataBlock(tileLatitude, tileLongitude, featureWayDoubleDeltaEncoding, readBuffer);
-                if (wayNodes != null) {
-                    if (filterRequired && wayFilterEnabled && !wayFilterBbox.intersectsArea(wayNodes)) {
+                if (processWayDataBlock(tileLatitude, tileLongitude, featureWayDoubleDeltaEncoding, readBuffer, collector)) {
+                    if (filterRequired && wayFilterEnabled
+                            && !wayFilterBbox.intersectsArea(collector.coordinates, collector.getNumberOfCoordinates())) {
                         continue;
                     }
-                    if (Selector.ALL == selector || featureName || featureHouseNumber || featureRef || wayAsLabelTagFilter(tags)) {
-                        LatLong labelLatLong = null;
+                    if (Selector.ALL == selector || labelFeature || wayAsLabelTagFilter(tags)) {
+                        double labelLatitude = Double.NaN;
+                        double labelLongitude = Double.NaN;
                         if (labelPosition != null) {
-                            labelLatLong = new LatLong(wayNodes[0][0].latitude + LatLongUtils.microdegreesToDegrees(labelPosition[1]),
-                                    wayNodes[0][0].longitude + LatLongUtils.microdegreesToDegrees(labelPosition[0]));
+                            labelLatitude = collector.coordinates[0] + LatLongUtils.microdegreesToDegrees(labelPosition[1]);
+                            labelLongitude = collector.coordinates[1] + LatLongUtils.microdegreesToDegrees(labelPosition[0]);
                         }
-                        ways.add(new Way(layer, tags, wayNodes, labelLatLong));
+                        collector.addWay(layer, tags, labelLatitude, labelLongitude, tileBitmask, labelFeature);
                     }
                 }
             }
         }
 
-        return ways;
+        return true;
+    }
+
+    /**
+     * Reads a block from the file and decodes it into the given collector. The elements of the block
+     * are only kept if the whole block could be decoded.
+     *
+     * @return false if the block could not be read from the file, true otherwise.
+     */
+    private boolean readBlock(QueryParameters queryParameters, SubFileParameter subFileParameter,
+                              BoundingBox boundingBox, Selector selector, boolean unfiltered, long row, long column,
+                              long blockPointer, int blockSize, MapDataCollector collector) throws IOException {
+        // seek to the current block in the map file
+        // read the current block into the buffer (or map it, if the file is memory-mapped)
+        ReadBuffer readBuffer = this.readBufferPool.acquire();
+        try {
+            BlockPrefetcher blockPrefetcher = this.blockPrefetcher;
+            long blockOffset = subFileParameter.startAddress + blockPointer;
+            if ((blockPrefetcher == null || !blockPrefetcher.readToBuffer(readBuffer, blockOffset, blockSize))
+                    && !readBuffer.readFromFile(blockOffset, blockSize)) {
+                return false;
+            }
+            readBlock(queryParameters, subFileParameter, boundingBox, selector, unfiltered, row, column,
+                    readBuffer, collector);
+            return true;
+        } finally {
+            this.readBufferPool.release(readBuffer);
+        }
+    }
+
+    /**
+     * Decodes a block that has been read into the given buffer into the given collector.
+     */
+    private void readBlock(QueryParameters queryParameters, SubFileParameter subFileParameter,
+                           BoundingBox boundingBox, Selector selector, boolean unfiltered, long row, long column,
+                           ReadBuffer readBuffer, MapDataCollector collector) {
+
+        // calculate the top-left coordinates of the underlying tile
+        double tileLatitude = MercatorProjection.tileYToLatitude(subFileParameter.boundaryTileTop + row,
+                subFileParameter.baseZoomLevel);
+        double tileLongitude = MercatorProjection.tileXToLongitude(subFileParameter.boundaryTileLeft + column,
+                subFileParameter.baseZoomLevel);
+
+        collector.startBlock();
+        boolean validBlock = false;
+        try {
+            validBlock = processBlock(queryParameters, subFileParameter, boundingBox, tileLatitude, tileLongitude,
+                    selector, unfiltered, readBuffer, collector);
+        } catch (IndexOutOfBoundsException e) {
+            // a corrupt or truncated block, decoding ran beyond its end
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+        }
+        collector.endBlock(validBlock);
     }
 
     /**
@@ -853,6 +1296,20 @@ public class MapFile extends MapDataStore {
         return readMapData(upperLeft, lowerRight, Selector.LABELS);
     }
 
+    /**
+     * Reads only labels for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing the elements to the visitor block by block.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    @Override
+    public void readLabels(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        readMapData(upperLeft, lowerRight, Selector.LABELS, new MapDataVisitorCollector(visitor));
+    }
+
     /**
      * Reads all map data for the area covered by the given tile at the tile zoom level.
      *
@@ -878,7 +1335,34 @@ public class MapFile extends MapDataStore {
         return readMapData(upperLeft, lowerRight, Selector.ALL);
     }
 
+    /**
+     * Reads data for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing the elements to the visitor block by block.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    @Override
+    public void readMapData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        readMapData(upperLeft, lowerRight, Selector.ALL, new MapDataVisitorCollector(visitor));
+    }
+
     private MapReadResult readMapData(Tile upperLeft, Tile lowerRight, Selector selector) {
+        MapReadResultCollector collector = new MapReadResultCollector();
+        if (!readMapData(upperLeft, lowerRight, selector, collector)) {
+            return null;
+        }
+        return collector.mapReadResult;
+    }
+
+    private boolean readMapData(Tile upperLeft, Tile lowerRight, Selector selector, MapDataCollector collector) {
+        return readMapData(upperLeft, lowerRight, selector, null, collector);
+    }
+
+    private boolean readMapData(Tile upperLeft, Tile lowerRight, Selector selector, ElementFilter elementFilter,
+                                MapDataCollector collector) {
         if (upperLeft.tileX > lowerRight.tileX || upperLeft.tileY > lowerRight.tileY) {
             new IllegalArgumentException("upperLeft tile must be above and left of lowerRight tile");
         }
@@ -886,12 +1370,14 @@ public class MapFile extends MapDataStore {
         try {
             QueryParameters queryParameters = new QueryParameters();
             queryParameters.queryZoomLevel = this.mapFileHeader.getQueryZoomLevel(upperLeft.zoomLevel);
+            queryParameters.elementFilter = elementFilter;
+            queryParameters.zoomLevel = upperLeft.zoomLevel;
 
             // get and check the sub-file for the query zoom level
             SubFileParameter subFileParameter = this.mapFileHeader.getSubFileParameter(queryParameters.queryZoomLevel);
             if (subFileParameter == null) {
                 LOGGER.warning("no sub-file for zoom level: " + queryParameters.queryZoomLevel);
-                return null;
+                return false;
             }
 
             queryParameters.calculateBaseTiles(upperLeft, lowerRight, subFileParameter);
@@ -900,11 +1386,53 @@ public class MapFile extends MapDataStore {
             // we enlarge the bounding box for the tile slightly in order to retain any data that
             // lies right on the border, some of this data needs to be drawn as the graphics will
             // overlap onto this tile.
-            return processBlocks(queryParameters, subFileParameter, Tile.getBoundingBox(upperLeft, lowerRight), selector);
+            return processBlocks(queryParameters, subFileParameter, Tile.getBoundingBox(upperLeft, lowerRight), selector, collector);
         } catch (IOException e) {
             LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Reads all map data for the area covered by the given tile at the tile zoom level, without
+     * creating a {@link LatLong} object for every way node. Elements rejected by the filter are
+     * skipped, ways before their coordinates are decoded.
+     *
+     * @param tile   defines area and zoom level of read map data.
+     * @param filter the filter for the elements to be read (may be null).
+     * @return the read map data.
+     */
+    @Override
+    public PackedMapReadResult readMapDataPacked(Tile tile, ElementFilter filter) {
+        PackedMapReadResultCollector collector = new PackedMapReadResultCollector();
+        if (!readMapData(tile, tile, Selector.ALL, filter, collector)) {
             return null;
         }
+        collector.packedMapReadResult.blocksRead = collector.blocksRead;
+        collector.packedMapReadResult.bytesRead = collector.bytesRead;
+        return collector.packedMapReadResult;
+    }
+
+    /**
+     * Reads data for an area defined by the tile in the upper left and the tile in the lower right
+     * corner, without creating a {@link LatLong} object for every way node. Elements rejected by the
+     * filter are skipped, ways before their coordinates are decoded.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param filter     the filter for the elements to be read (may be null).
+     * @return the read map data.
+     */
+    @Override
+    public PackedMapReadResult readMapDataPacked(Tile upperLeft, Tile lowerRight, ElementFilter filter) {
+        PackedMapReadResultCollector collector = new PackedMapReadResultCollector();
+        if (!readMapData(upperLeft, lowerRight, Selector.ALL, filter, collector)) {
+            return null;
+        }
+        collector.packedMapReadResult.blocksRead = collector.blocksRead;
+        collector.packedMapReadResult.bytesRead = collector.bytesRead;
+        return collector.packedMapReadResult;
     }
 
     private int[] readOptionalLabelPosition(ReadBuffer readBuffer) {
@@ -953,6 +1481,20 @@ public class MapFile extends MapDataStore {
         return readMapData(upperLeft, lowerRight, Selector.POIS);
     }
 
+    /**
+     * Reads POI data for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing the elements to the visitor block by block.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    @Override
+    public void readPoiData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        readMapData(upperLeft, lowerRight, Selector.POIS, new MapDataVisitorCollector(visitor));
+    }
+
     private int[][] readZoomTable(SubFileParameter subFileParameter, ReadBuffer readBuffer) {
         int rows = subFileParameter.zoomLevelMax - subFileParameter.zoomLevelMin + 1;
         int[][] zoomTable = new int[rows][2];
@@ -983,6 +1525,55 @@ public class MapFile extends MapDataStore {
         this.zoomLevelMin = minZoom;
     }
 
+    /**
+     * Sets the number of decoded blocks that are cached, 0 (the default) disables the block cache.
+     * <p/>
+     * Above the base zoom level of a sub-file many tiles are served by the same block. With the
+     * block cache, such a block is read and decoded only once and every tile only filters the
+     * cached elements by its tile bitmask and bounding box.
+     *
+     * @param size the maximum number of decoded blocks in the cache.
+     */
+    public void setBlockCacheSize(int size) {
+        BlockCache oldBlockCache = this.blockCache;
+        this.blockCache = size > 0 ? new BlockCache(size) : null;
+        if (oldBlockCache != null) {
+            oldBlockCache.destroy();
+        }
+    }
+
+    /**
+     * Sets the executor used to decode the blocks of a query in parallel, null (the default) decodes
+     * all blocks on the calling thread.
+     * <p/>
+     * Only queries that need more than one block are split up, mostly overview zoom levels and area
+     * queries of the label store. The elements are returned in the same order as without an executor.
+     * The calling thread waits for the decoded blocks, so the executor must not be one whose threads
+     * are themselves blocked by map queries. The executor is not shut down by this map file.
+     *
+     * @param executor the executor for decoding blocks, or null.
+     */
+    public void setDecodingExecutor(ExecutorService executor) {
+        this.decodingExecutor = executor;
+    }
+
+    /**
+     * Sets the number of bytes of blocks kept by {@link #prefetch(Tile, Tile, Tile)}, 0 (the default) disables
+     * prefetching. Prefetching is not needed for memory-mapped files, for them this setting is ignored.
+     * <p/>
+     * On network file systems and spinning disks many small reads are much slower than a few large ones,
+     * prefetching the blocks of upcoming tiles reduces the reads to one per row of blocks.
+     *
+     * @param size the maximum number of bytes of all prefetched blocks.
+     */
+    public void setPrefetchCacheSize(int size) {
+        BlockPrefetcher oldBlockPrefetcher = this.blockPrefetcher;
+        this.blockPrefetcher = size > 0 && this.memoryMappedFile == null ? new BlockPrefetcher(this.inputChannel, size) : null;
+        if (oldBlockPrefetcher != null) {
+            oldBlockPrefetcher.destroy();
+        }
+    }
+
     @Override
     public LatLong startPosition() {
         if (null != getMapFileInfo().startPosition) {
@@ -1014,4 +1605,61 @@ public class MapFile extends MapDataStore {
     private enum Selector {
         ALL, POIS, LABELS
     }
+
+    /**
+     * Reads and decodes a single block of a parallel query.
+     */
+    private final class BlockDecoder implements Callable<BlockCache.Entry> {
+        private final long blockPointer;
+        private final int blockSize;
+        private final BoundingBox boundingBox;
+        private final long column;
+        private final QueryParameters queryParameters;
+        private final long row;
+        private final Selector selector;
+        private final SubFileParameter subFileParameter;
+        private final boolean unfiltered;
+
+        BlockDecoder(QueryParameters queryParameters, SubFileParameter subFileParameter, BoundingBox boundingBox,
+                     Selector selector, boolean unfiltered, long row, long column, long blockPointer, int blockSize) {
+            this.queryParameters = queryParameters;
+            this.subFileParameter = subFileParameter;
+            this.boundingBox = boundingBox;
+            this.selector = selector;
+            this.unfiltered = unfiltered;
+            this.row = row;
+            this.column = column;
+            this.blockPointer = blockPointer;
+            this.blockSize = blockSize;
+        }
+
+        /**
+         * @return the decoded block, or null if the block is invalid.
+         */
+        @Override
+        public BlockCache.Entry call() throws IOException {
+            BlockCacheEntryCollector collector = new BlockCacheEntryCollector();
+            if (!readBlock(this.queryParameters, this.subFileParameter, this.boundingBox, this.selector,
+                    this.unfiltered, this.row, this.column, this.blockPointer, this.blockSize, collector)) {
+                throw new IOException("reading current block has failed: " + this.blockSize);
+            }
+            return collector.getEntry();
+        }
+    }
+
+    /**
+     * A block of a parallel query, either taken from the block cache or still being decoded.
+     */
+    private static final class PendingBlock {
+        final BlockCacheEntryKey blockCacheEntryKey;
+        final BlockCache.Entry blockEntry;
+        final Future<BlockCache.Entry> future;
+
+        PendingBlock(BlockCacheEntryKey blockCacheEntryKey, BlockCache.Entry blockEntry,
+                     Future<BlockCache.Entry> future) {
+            this.blockCacheEntryKey = blockCacheEntryKey;
+            this.blockEntry = blockEntry;
+            this.future = future;
+        }
+    }
 }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.List;
+
+/**
+ * Collects the decoded elements into a {@link MapReadResult}.
+ */
+class MapReadResultCollector extends MapDataCollector {
+    final MapReadResult mapReadResult = new MapReadResult();
+
+    private int blockPois;
+    private int blockWays;
+
+    @Override
+    void add(List<PointOfInterest> pois, List<Way> ways) {
+        this.mapReadResult.pointOfInterests.addAll(pois);
+        this.mapReadResult.ways.addAll(ways);
+    }
+
+    @Override
+    void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude) {
+        this.mapReadResult.pointOfInterests.add(new PointOfInterest(layer, tags, new LatLong(latitude, longitude)));
+    }
+
+    @Override
+    void addWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude, int tileBitmask, boolean labelFeature) {
+        LatLong labelPosition = Double.isNaN(labelLatitude) ? null : new LatLong(labelLatitude, labelLongitude);
+        this.mapReadResult.ways.add(new Way(layer, tags, createLatLongs(), labelPosition));
+    }
+
+    @Override
+    void endBlock(boolean valid) {
+        if (!valid) {
+            List<PointOfInterest> pois = this.mapReadResult.pointOfInterests;
+            pois.subList(this.blockPois, pois.size()).clear();
+            List<Way> ways = this.mapReadResult.ways;
+            ways.subList(this.blockWays, ways.size()).clear();
+        }
+    }
+
+    @Override
+    void startBlock() {
+        this.blockPois = this.mapReadResult.pointOfInterests.size();
+        this.blockWays = this.mapReadResult.ways.size();
+    }
+}
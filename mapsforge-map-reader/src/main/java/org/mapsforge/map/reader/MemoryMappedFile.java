@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.util.Parameters;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * A read-only memory mapping of a map file.
+ * <p/>
+ * A single mapping is limited to 2 GB, so the file is mapped in segments. Each segment overlaps the next one by
+ * {@link Parameters#MAXIMUM_BUFFER_SIZE} bytes, which guarantees that every valid block lies completely inside one
+ * segment and can be decoded without copying.
+ * <p/>
+ * Only absolute reads are performed on the mapped buffers, so one instance can be shared by many threads.
+ */
+class MemoryMappedFile {
+    private static final Logger LOGGER = Logger.getLogger(MemoryMappedFile.class.getName());
+
+    /**
+     * Default distance in bytes between the start addresses of two segments.
+     */
+    static final long SEGMENT_SIZE = 1L << 30;
+
+    private final long fileSize;
+    private final long segmentSize;
+    private final ByteBuffer[] segments;
+
+    /**
+     * @param fileChannel the map file channel to be mapped.
+     * @param fileSize    the size of the map file in bytes.
+     * @throws IOException if the file cannot be mapped.
+     */
+    MemoryMappedFile(FileChannel fileChannel, long fileSize) throws IOException {
+        this(fileChannel, fileSize, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param fileChannel the map file channel to be mapped.
+     * @param fileSize    the size of the map file in bytes.
+     * @param segmentSize the distance in bytes between the start addresses of two segments.
+     * @throws IOException if the file cannot be mapped.
+     */
+    MemoryMappedFile(FileChannel fileChannel, long fileSize, long segmentSize) throws IOException {
+        this.fileSize = fileSize;
+        this.segmentSize = segmentSize;
+
+        int numberOfSegments = (int) Math.max(1, (fileSize + segmentSize - 1) / segmentSize);
+        this.segments = new ByteBuffer[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; ++i) {
+            long segmentStart = i * segmentSize;
+            long segmentLength = Math.min(fileSize - segmentStart, segmentSize + Parameters.MAXIMUM_BUFFER_SIZE);
+            this.segments[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentLength);
+        }
+    }
+
+    /**
+     * Drops the references to the mapped segments, so that the mapping is released once they are garbage
+     * collected. Later reads fail.
+     */
+    void destroy() {
+        for (int i = 0; i < this.segments.length; ++i) {
+            this.segments[i] = null;
+        }
+    }
+
+    /**
+     * Points the given read buffer to a region of the mapped file.
+     *
+     * @param readBuffer the read buffer which should decode the region.
+     * @param offset     the offset of the region, measured in bytes from the beginning of the file.
+     * @param length     the length of the region in bytes.
+     * @return true if the region is completely mapped, false otherwise.
+     */
+    boolean readToBuffer(ReadBuffer readBuffer, long offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > this.fileSize) {
+            LOGGER.warning("invalid mapped read: " + offset + ' ' + length);
+            return false;
+        }
+
+        int segment = (int) (offset / this.segmentSize);
+        int position = (int) (offset - segment * this.segmentSize);
+        ByteBuffer segmentBuffer = this.segments[segment];
+        if (segmentBuffer == null) {
+            LOGGER.warning("mapped file is closed");
+            return false;
+        }
+        if (position + length > segmentBuffer.capacity()) {
+            LOGGER.warning("invalid read length: " + length);
+            return false;
+        }
+
+        readBuffer.setMappedBuffer(segmentBuffer, position, length);
+        return true;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.util.LatLongUtils;
+import org.mapsforge.map.datastore.PackedMapReadResult;
+import org.mapsforge.map.datastore.PointOfInterest;
+import org.mapsforge.map.datastore.Way;
+
+import java.util.List;
+
+/**
+ * Collects the decoded elements into a {@link PackedMapReadResult}, without creating any
+ * intermediate coordinate objects.
+ */
+class PackedMapReadResultCollector extends MapDataCollector {
+    final PackedMapReadResult packedMapReadResult = new PackedMapReadResult();
+
+    private int blockPois;
+    private int blockWays;
+
+    @Override
+    void add(List<PointOfInterest> pois, List<Way> ways) {
+        for (PointOfInterest poi : pois) {
+            this.packedMapReadResult.add(poi);
+        }
+        for (Way way : ways) {
+            this.packedMapReadResult.add(way);
+        }
+    }
+
+    @Override
+    void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude) {
+        // same validation as performed by LatLong
+        LatLongUtils.validateLatitude(latitude);
+        LatLongUtils.validateLongitude(longitude);
+        this.packedMapReadResult.addPointOfInterest(layer, tags, latitude, longitude);
+    }
+
+    @Override
+    void addWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude, int tileBitmask, boolean labelFeature) {
+        int numberOfCoordinates = getNumberOfCoordinates();
+        for (int i = 0; i < numberOfCoordinates; ++i) {
+            LatLongUtils.validateLatitude(this.coordinates[2 * i]);
+            LatLongUtils.validateLongitude(this.coordinates[2 * i + 1]);
+        }
+        this.packedMapReadResult.addWay(layer, tags, this.coordinates, this.segmentLengths, this.segments,
+                labelLatitude, labelLongitude);
+    }
+
+    @Override
+    void endBlock(boolean valid) {
+        if (!valid) {
+            this.packedMapReadResult.truncate(this.blockPois, this.blockWays);
+        }
+    }
+
+    @Override
+    void startBlock() {
+        this.blockPois = this.packedMapReadResult.getNumberOfPois();
+        this.blockWays = this.packedMapReadResult.getNumberOfWays();
+    }
+}
@@ -16,9 +16,11 @@
 package org.mapsforge.map.reader;
 
 import org.mapsforge.core.model.Tile;
+import org.mapsforge.map.datastore.ElementFilter;
 import org.mapsforge.map.reader.header.SubFileParameter;
 
 class QueryParameters {
+    ElementFilter elementFilter;
     long fromBaseTileX;
     long fromBaseTileY;
     long fromBlockX;
@@ -30,6 +32,7 @@ class QueryParameters {
     long toBlockX;
     long toBlockY;
     boolean useTileBitmask;
+    byte zoomLevel;
 
 
     public void calculateBaseTiles(Tile tile, SubFileParameter subFileParameter) {
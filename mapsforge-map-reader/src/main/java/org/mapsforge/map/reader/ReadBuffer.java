@@ -36,17 +36,71 @@ import java.util.logging.Logger;
 public class ReadBuffer {
 
     private static final String CHARSET_UTF8 = "UTF-8";
+    /**
+     * Number of additional tags (name, house number, reference / elevation) that may be added to the tags of an
+     * element after they have been read.
+     */
+    private static final int EXTRA_TAGS = 3;
     private static final Logger LOGGER = Logger.getLogger(ReadBuffer.class.getName());
 
+    /**
+     * The buffer that is currently decoded, either the wrapper of the own byte array or a
+     * memory-mapped region of the file. Its limit is the end of the region, so that decoding
+     * beyond it fails with an {@link IndexOutOfBoundsException}.
+     */
+    private ByteBuffer buffer;
     private byte[] bufferData;
     private int bufferPosition;
+    private int bufferSize;
     private ByteBuffer bufferWrapper;
     private final FileChannel inputChannel;
+    private final MemoryMappedFile memoryMappedFile;
 
-    private final List<Integer> tagIds = new ArrayList<>();
+    private byte[] stringData;
+    private int[] tagIds = new int[16];
 
     ReadBuffer(FileChannel inputChannel) {
+        this(inputChannel, null);
+    }
+
+    /**
+     * @param inputChannel     the file channel to read from.
+     * @param memoryMappedFile the memory mapping of the file used for positional reads (may be null).
+     */
+    ReadBuffer(FileChannel inputChannel, MemoryMappedFile memoryMappedFile) {
         this.inputChannel = inputChannel;
+        this.memoryMappedFile = memoryMappedFile;
+    }
+
+    /**
+     * Ensures that the own byte array can hold the given amount of bytes and makes it the current buffer.
+     *
+     * @return true if the byte array is large enough, false if the length exceeds the maximum buffer size.
+     */
+    private boolean prepareBufferData(int length) {
+        // ensure that the read buffer is large enough
+        if (this.bufferData == null || this.bufferData.length < length) {
+            // ensure that the read buffer is not too large
+            if (length > Parameters.MAXIMUM_BUFFER_SIZE) {
+                LOGGER.warning("invalid read length: " + length);
+                return false;
+            }
+            // the buffer is only ever grown while it is reused, a pooled buffer that grew too large is dropped
+            int capacity = length;
+            if (this.bufferData != null) {
+                capacity = Math.max(length, (int) Math.min(2L * this.bufferData.length, Parameters.MAXIMUM_BUFFER_SIZE));
+            }
+            this.bufferData = new byte[capacity];
+            this.bufferWrapper = ByteBuffer.wrap(this.bufferData);
+        }
+
+        // reset the buffer position
+        this.buffer = this.bufferWrapper;
+        this.bufferPosition = 0;
+        this.bufferSize = length;
+        this.bufferWrapper.clear();
+        this.bufferWrapper.limit(length);
+        return true;
     }
 
     /**
@@ -55,7 +109,7 @@ public class ReadBuffer {
      * @return the byte value.
      */
     public byte readByte() {
-        return this.bufferData[this.bufferPosition++];
+        return this.buffer.get(this.bufferPosition++);
     }
 
     /**
@@ -78,27 +132,19 @@ public class ReadBuffer {
      * @throws IOException if an error occurs while reading the file.
      */
     public boolean readFromFile(int length) throws IOException {
-        // ensure that the read buffer is large enough
-        if (this.bufferData == null || this.bufferData.length < length) {
-            // ensure that the read buffer is not too large
-            if (length > Parameters.MAXIMUM_BUFFER_SIZE) {
-                LOGGER.warning("invalid read length: " + length);
-                return false;
-            }
-            this.bufferData = new byte[length];
-            this.bufferWrapper = ByteBuffer.wrap(this.bufferData, 0, length);
+        if (!prepareBufferData(length)) {
+            return false;
         }
 
-        // reset the buffer position and read the data into the buffer
-        this.bufferPosition = 0;
-        this.bufferWrapper.clear();
-
+        // read the data into the buffer
         return this.inputChannel.read(this.bufferWrapper) == length;
     }
 
     /**
      * Reads the given amount of bytes from the file into the read buffer and resets the internal buffer position. If
      * the capacity of the read buffer is too small, a larger one is created automatically.
+     * <p/>
+     * If the file is memory-mapped, the data is not copied but decoded directly from the mapping.
      *
      * @param offset the offset position, measured in bytes from the beginning of the file, at which to set the file pointer.
      * @param length the amount of bytes to read from the file.
@@ -106,25 +152,22 @@ public class ReadBuffer {
      * @throws IOException if an error occurs while reading the file.
      */
     public boolean readFromFile(long offset, int length) throws IOException {
-        // ensure that the read buffer is large enough
-        if (this.bufferData == null || this.bufferData.length < length) {
-            // ensure that the read buffer is not too large
-            if (length > Parameters.MAXIMUM_BUFFER_SIZE) {
-                LOGGER.warning("invalid read length: " + length);
-                return false;
-            }
-            this.bufferData = new byte[length];
-            this.bufferWrapper = ByteBuffer.wrap(this.bufferData, 0, length);
+        if (this.memoryMappedFile != null) {
+            return this.memoryMappedFile.readToBuffer(this, offset, length);
         }
 
-        // reset the buffer position and read the data into the buffer
-        this.bufferPosition = 0;
-        this.bufferWrapper.clear();
+        if (!prepareBufferData(length)) {
+            return false;
+        }
 
-        synchronized (this.inputChannel) {
-            this.inputChannel.position(offset);
-            return this.inputChannel.read(this.bufferWrapper) == length;
+        // read the data into the buffer, positional reads do not change the channel position
+        // and can be executed concurrently
+        while (this.bufferWrapper.hasRemaining()) {
+            if (this.inputChannel.read(this.bufferWrapper, offset + this.bufferWrapper.position()) < 0) {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
@@ -136,7 +179,7 @@ public class ReadBuffer {
      */
     public int readInt() {
         this.bufferPosition += 4;
-        return Deserializer.getInt(this.bufferData, this.bufferPosition - 4);
+        return this.buffer.getInt(this.bufferPosition - 4);
     }
 
     /**
@@ -148,7 +191,7 @@ public class ReadBuffer {
      */
     public long readLong() {
         this.bufferPosition += 8;
-        return Deserializer.getLong(this.bufferData, this.bufferPosition - 8);
+        return this.buffer.getLong(this.bufferPosition - 8);
     }
 
     /**
@@ -160,7 +203,7 @@ public class ReadBuffer {
      */
     public int readShort() {
         this.bufferPosition += 2;
-        return Deserializer.getShort(this.bufferData, this.bufferPosition - 2);
+        return this.buffer.getShort(this.bufferPosition - 2);
     }
 
     /**
@@ -174,39 +217,44 @@ public class ReadBuffer {
     public int readSignedInt() {
         int variableByteDecode = 0;
         byte variableByteShift = 0;
+        int position = this.bufferPosition;
+        byte current;
 
         // check if the continuation bit is set
-        while ((this.bufferData[this.bufferPosition] & 0x80) != 0) {
-            variableByteDecode |= (this.bufferData[this.bufferPosition++] & 0x7f) << variableByteShift;
+        while (((current = this.buffer.get(position++)) & 0x80) != 0) {
+            variableByteDecode |= (current & 0x7f) << variableByteShift;
             variableByteShift += 7;
         }
+        this.bufferPosition = position;
 
         // read the six data bits from the last byte
-        if ((this.bufferData[this.bufferPosition] & 0x40) != 0) {
+        if ((current & 0x40) != 0) {
             // negative
-            return -(variableByteDecode | ((this.bufferData[this.bufferPosition++] & 0x3f) << variableByteShift));
+            return -(variableByteDecode | ((current & 0x3f) << variableByteShift));
         }
         // positive
-        return variableByteDecode | ((this.bufferData[this.bufferPosition++] & 0x3f) << variableByteShift);
+        return variableByteDecode | ((current & 0x3f) << variableByteShift);
     }
 
     List<Tag> readTags(Tag[] tagsArray, byte numberOfTags) {
-        List<Tag> tags = new ArrayList<>();
-        tagIds.clear();
+        if (this.tagIds.length < numberOfTags) {
+            this.tagIds = new int[numberOfTags];
+        }
 
         int maxTag = tagsArray.length;
 
-        for (byte tagIndex = numberOfTags; tagIndex != 0; --tagIndex) {
+        for (int tagIndex = 0; tagIndex < numberOfTags; ++tagIndex) {
             int tagId = readUnsignedInt();
             if (tagId < 0 || tagId >= maxTag) {
                 LOGGER.warning("invalid tag ID: " + tagId);
                 return null;
             }
-            tagIds.add(tagId);
+            this.tagIds[tagIndex] = tagId;
         }
 
-        for (int tagId : tagIds) {
-            Tag tag = tagsArray[tagId];
+        List<Tag> tags = new ArrayList<>(numberOfTags + EXTRA_TAGS);
+        for (int tagIndex = 0; tagIndex < numberOfTags; ++tagIndex) {
+            Tag tag = tagsArray[this.tagIds[tagIndex]];
             // Decode variable values of tags
             if (tag.value.length() == 2 && tag.value.charAt(0) == '%') {
                 String value = tag.value;
@@ -243,15 +291,18 @@ public class ReadBuffer {
     public int readUnsignedInt() {
         int variableByteDecode = 0;
         byte variableByteShift = 0;
+        int position = this.bufferPosition;
+        byte current;
 
         // check if the continuation bit is set
-        while ((this.bufferData[this.bufferPosition] & 0x80) != 0) {
-            variableByteDecode |= (this.bufferData[this.bufferPosition++] & 0x7f) << variableByteShift;
+        while (((current = this.buffer.get(position++)) & 0x80) != 0) {
+            variableByteDecode |= (current & 0x7f) << variableByteShift;
             variableByteShift += 7;
         }
+        this.bufferPosition = position;
 
         // read the seven data bits from the last byte
-        return variableByteDecode | (this.bufferData[this.bufferPosition++] << variableByteShift);
+        return variableByteDecode | (current << variableByteShift);
     }
 
     /**
@@ -270,10 +321,21 @@ public class ReadBuffer {
      * @return the UTF-8 decoded string (may be null).
      */
     public String readUTF8EncodedString(int stringLength) {
-        if (stringLength > 0 && this.bufferPosition + stringLength <= this.bufferData.length) {
+        if (stringLength > 0 && this.bufferPosition + stringLength <= this.bufferSize) {
+            int position = this.bufferPosition;
             this.bufferPosition += stringLength;
             try {
-                return new String(this.bufferData, this.bufferPosition - stringLength, stringLength, CHARSET_UTF8);
+                if (this.buffer.hasArray()) {
+                    return new String(this.buffer.array(), this.buffer.arrayOffset() + position, stringLength, CHARSET_UTF8);
+                }
+                // memory-mapped buffers have no backing array, so the string bytes need to be copied
+                if (this.stringData == null || this.stringData.length < stringLength) {
+                    this.stringData = new byte[Math.max(stringLength, 64)];
+                }
+                for (int i = 0; i < stringLength; ++i) {
+                    this.stringData[i] = this.buffer.get(position + i);
+                }
+                return new String(this.stringData, 0, stringLength, CHARSET_UTF8);
             } catch (UnsupportedEncodingException e) {
                 throw new IllegalStateException(e);
             }
@@ -293,7 +355,15 @@ public class ReadBuffer {
      * @return the current size of the read buffer.
      */
     int getBufferSize() {
-        return this.bufferData.length;
+        return this.bufferSize;
+    }
+
+    /**
+     * @return the number of bytes held by the own byte arrays of this read buffer.
+     */
+    int getCapacity() {
+        return (this.bufferData == null ? 0 : this.bufferData.length)
+                + (this.stringData == null ? 0 : this.stringData.length);
     }
 
     /**
@@ -313,4 +383,23 @@ public class ReadBuffer {
     void skipBytes(int bytes) {
         this.bufferPosition += bytes;
     }
+
+    /**
+     * Makes the given region of a memory-mapped buffer the current buffer and resets the internal buffer position.
+     * Only the region itself can be decoded, reading beyond its end fails instead of returning the bytes of the
+     * following region.
+     *
+     * @param mappedBuffer the memory-mapped buffer.
+     * @param offset       the offset of the region in the buffer.
+     * @param length       the length of the region in bytes.
+     */
+    void setMappedBuffer(ByteBuffer mappedBuffer, int offset, int length) {
+        // the shared buffer is only read through views, so that its position and limit never change
+        ByteBuffer region = mappedBuffer.duplicate();
+        region.limit(offset + length);
+        region.position(offset);
+        this.buffer = region.slice();
+        this.bufferPosition = 0;
+        this.bufferSize = length;
+    }
 }
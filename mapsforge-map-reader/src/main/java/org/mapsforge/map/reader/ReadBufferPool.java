@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A thread-safe pool of read buffers for the blocks of one map file.
+ * <p/>
+ * Every block is read into a buffer taken from the pool and the buffer is returned afterwards, so
+ * that its byte array is reused by the following reads. The pool keeps a limited number of buffers
+ * and drops buffers that have grown beyond {@link #MAXIMUM_RETAINED_CAPACITY} for an unusually
+ * large block, so that it never holds more than a few megabytes.
+ */
+class ReadBufferPool {
+    /**
+     * Buffers with a larger capacity in bytes are not returned to the pool.
+     */
+    static final int MAXIMUM_RETAINED_CAPACITY = 1024 * 1024;
+
+    private final Deque<ReadBuffer> buffers = new ArrayDeque<>();
+    private boolean destroyed;
+    private final FileChannel inputChannel;
+    private final int maximumSize;
+    private final MemoryMappedFile memoryMappedFile;
+
+    /**
+     * @param inputChannel     the file channel to read from.
+     * @param memoryMappedFile the memory mapping of the file (may be null).
+     * @param maximumSize      the maximum number of buffers kept in the pool.
+     */
+    ReadBufferPool(FileChannel inputChannel, MemoryMappedFile memoryMappedFile, int maximumSize) {
+        this.inputChannel = inputChannel;
+        this.memoryMappedFile = memoryMappedFile;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return a buffer from the pool or a new one if the pool is empty.
+     */
+    ReadBuffer acquire() {
+        ReadBuffer readBuffer;
+        synchronized (this) {
+            readBuffer = this.buffers.pollFirst();
+        }
+        if (readBuffer == null) {
+            readBuffer = new ReadBuffer(this.inputChannel, this.memoryMappedFile);
+        }
+        return readBuffer;
+    }
+
+    /**
+     * Drops all buffers at the end of the lifetime of the map file, buffers released afterwards are
+     * dropped as well.
+     */
+    synchronized void destroy() {
+        this.destroyed = true;
+        this.buffers.clear();
+    }
+
+    /**
+     * @return the number of buffers in the pool.
+     */
+    synchronized int getSize() {
+        return this.buffers.size();
+    }
+
+    /**
+     * Returns a buffer to the pool, unless the pool is full or the buffer has grown too large.
+     *
+     * @param readBuffer the buffer that is no longer used by the caller.
+     */
+    void release(ReadBuffer readBuffer) {
+        if (readBuffer.getCapacity() > MAXIMUM_RETAINED_CAPACITY) {
+            return;
+        }
+        synchronized (this) {
+            if (!this.destroyed && this.buffers.size() < this.maximumSize) {
+                this.buffers.addFirst(readBuffer);
+            }
+        }
+    }
+}
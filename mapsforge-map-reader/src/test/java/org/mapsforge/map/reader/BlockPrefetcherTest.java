@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+public class BlockPrefetcherTest {
+    private static final String MAP_FILE = "src/test/resources/with_data/output.map";
+
+    private static void assertBlockEquals(ReadBuffer fileBuffer, BlockPrefetcher blockPrefetcher,
+                                          ReadBuffer prefetchedBuffer, long offset, int length) throws IOException {
+        Assert.assertTrue(fileBuffer.readFromFile(offset, length));
+        Assert.assertTrue(blockPrefetcher.readToBuffer(prefetchedBuffer, offset, length));
+        Assert.assertEquals(length, prefetchedBuffer.getBufferSize());
+        for (int i = 0; i < length; ++i) {
+            Assert.assertEquals(fileBuffer.readByte(), prefetchedBuffer.readByte());
+        }
+    }
+
+    @Test
+    public void readTest() throws IOException {
+        FileInputStream fileInputStream = new FileInputStream(MAP_FILE);
+        FileChannel fileChannel = fileInputStream.getChannel();
+        try {
+            BlockPrefetcher blockPrefetcher = new BlockPrefetcher(fileChannel, 100);
+            ReadBuffer fileBuffer = new ReadBuffer(fileChannel);
+            ReadBuffer prefetchedBuffer = new ReadBuffer(fileChannel);
+
+            // three contiguous blocks, one of them empty
+            Assert.assertTrue(blockPrefetcher.read(10, new int[]{20, 0, 30}, 3));
+            Assert.assertTrue(blockPrefetcher.contains(10));
+            Assert.assertTrue(blockPrefetcher.contains(30));
+            assertBlockEquals(fileBuffer, blockPrefetcher, prefetchedBuffer, 10, 20);
+            assertBlockEquals(fileBuffer, blockPrefetcher, prefetchedBuffer, 30, 30);
+            Assert.assertEquals(2, blockPrefetcher.getHits());
+
+            // only whole blocks are served
+            Assert.assertFalse(blockPrefetcher.readToBuffer(prefetchedBuffer, 10, 21));
+            Assert.assertFalse(blockPrefetcher.readToBuffer(prefetchedBuffer, 15, 5));
+            Assert.assertEquals(2, blockPrefetcher.getMisses());
+
+            // the least recently used blocks are evicted
+            Assert.assertTrue(blockPrefetcher.read(100, new int[]{40, 30}, 2));
+            Assert.assertTrue(blockPrefetcher.contains(10));
+            Assert.assertFalse(blockPrefetcher.contains(30));
+            Assert.assertTrue(blockPrefetcher.contains(100));
+            Assert.assertTrue(blockPrefetcher.contains(140));
+            assertBlockEquals(fileBuffer, blockPrefetcher, prefetchedBuffer, 140, 30);
+
+            // reads larger than the cache are rejected
+            Assert.assertFalse(blockPrefetcher.read(0, new int[]{101}, 1));
+
+            blockPrefetcher.destroy();
+            Assert.assertFalse(blockPrefetcher.contains(100));
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
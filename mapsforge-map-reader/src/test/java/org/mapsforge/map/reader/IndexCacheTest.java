@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.map.reader.header.MapFileHeader;
+import org.mapsforge.map.reader.header.SubFileParameter;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IndexCacheTest {
+    private static final String MAP_FILE = "src/test/resources/with_data/output.map";
+    private static final int ITERATIONS = 2000;
+    private static final int THREADS = 8;
+
+    private static List<SubFileParameter> getSubFileParameters(MapFileHeader mapFileHeader) {
+        List<SubFileParameter> subFileParameters = new ArrayList<>();
+        for (int zoomLevel = mapFileHeader.getMapFileInfo().zoomLevelMin;
+             zoomLevel <= mapFileHeader.getMapFileInfo().zoomLevelMax; ++zoomLevel) {
+            SubFileParameter subFileParameter = mapFileHeader.getSubFileParameter(zoomLevel);
+            if (!subFileParameters.contains(subFileParameter)) {
+                subFileParameters.add(subFileParameter);
+            }
+        }
+        return subFileParameters;
+    }
+
+    private static MapFileHeader readHeader(FileChannel fileChannel) throws IOException {
+        MapFileHeader mapFileHeader = new MapFileHeader();
+        mapFileHeader.readHeader(new ReadBuffer(fileChannel), fileChannel.size());
+        return mapFileHeader;
+    }
+
+    @Test
+    public void hitMissTest() throws IOException {
+        FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            List<SubFileParameter> subFileParameters = getSubFileParameters(readHeader(fileChannel));
+            IndexCache indexCache = new IndexCache(fileChannel, 64 * IndexCache.SIZE_OF_INDEX_BLOCK);
+
+            SubFileParameter subFileParameter = subFileParameters.get(0);
+            long indexEntry = indexCache.getIndexEntry(subFileParameter, 0);
+            Assert.assertEquals(0, indexCache.getHits());
+            Assert.assertEquals(1, indexCache.getMisses());
+
+            Assert.assertEquals(indexEntry, indexCache.getIndexEntry(subFileParameter, 0));
+            Assert.assertEquals(1, indexCache.getHits());
+            Assert.assertEquals(1, indexCache.getMisses());
+            Assert.assertTrue(indexCache.getSize() > 0);
+
+            indexCache.destroy();
+            Assert.assertEquals(0, indexCache.getSize());
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test
+    public void capacityTest() throws IOException {
+        FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            List<SubFileParameter> subFileParameters = getSubFileParameters(readHeader(fileChannel));
+
+            // a cache without capacity must never keep an index block
+            IndexCache indexCache = new IndexCache(fileChannel, 0);
+            for (SubFileParameter subFileParameter : subFileParameters) {
+                indexCache.getIndexEntry(subFileParameter, 0);
+                indexCache.getIndexEntry(subFileParameter, 0);
+            }
+            Assert.assertEquals(0, indexCache.getSize());
+            Assert.assertEquals(0, indexCache.getHits());
+            Assert.assertEquals(2 * subFileParameters.size(), indexCache.getMisses());
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test
+    public void preloadTest() throws IOException {
+        FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            List<SubFileParameter> subFileParameters = getSubFileParameters(readHeader(fileChannel));
+            IndexCache reference = new IndexCache(fileChannel, 0);
+            IndexCache indexCache = new IndexCache(fileChannel, 0);
+            indexCache.preload(subFileParameters);
+
+            for (SubFileParameter subFileParameter : subFileParameters) {
+                for (long blockNumber = 0; blockNumber < subFileParameter.numberOfBlocks; ++blockNumber) {
+                    Assert.assertEquals(reference.getIndexEntry(subFileParameter, blockNumber),
+                            indexCache.getIndexEntry(subFileParameter, blockNumber));
+                }
+            }
+
+            // preloaded lookups never read from the file
+            Assert.assertEquals(0, indexCache.getMisses());
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test
+    public void concurrentStressTest() throws Exception {
+        final FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            final List<SubFileParameter> subFileParameters = getSubFileParameters(readHeader(fileChannel));
+
+            // expected index entries, read by a single thread
+            final long[] expected = new long[subFileParameters.size()];
+            IndexCache reference = new IndexCache(fileChannel, 0);
+            for (int i = 0; i < expected.length; ++i) {
+                expected[i] = reference.getIndexEntry(subFileParameters.get(i), 0);
+            }
+
+            // a cache that can only hold a few index blocks to force concurrent evictions
+            final IndexCache indexCache = new IndexCache(fileChannel, 16 * IndexCache.SIZE_OF_INDEX_BLOCK);
+            final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; ++t) {
+                final int offset = t;
+                threads[t] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            for (int i = 0; i < ITERATIONS; ++i) {
+                                int index = (i + offset) % expected.length;
+                                long indexEntry = indexCache.getIndexEntry(subFileParameters.get(index), 0);
+                                if (indexEntry != expected[index]) {
+                                    throw new AssertionError("invalid index entry: " + indexEntry);
+                                }
+                            }
+                        } catch (Throwable throwable) {
+                            failure.compareAndSet(null, throwable);
+                        }
+                    }
+                });
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            Assert.assertNull(failure.get());
+            Assert.assertEquals(THREADS * ITERATIONS, indexCache.getHits() + indexCache.getMisses());
+            Assert.assertTrue(indexCache.getSize() <= 16 * IndexCache.SIZE_OF_INDEX_BLOCK);
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
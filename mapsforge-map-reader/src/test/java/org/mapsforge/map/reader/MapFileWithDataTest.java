@@ -20,15 +20,31 @@ import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.Tag;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.core.util.MercatorProjection;
+import org.mapsforge.map.datastore.ElementFilter;
+import org.mapsforge.map.datastore.MapDataVisitor;
 import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PackedMapReadResult;
 import org.mapsforge.map.datastore.PointOfInterest;
 import org.mapsforge.map.datastore.Way;
 import org.mapsforge.map.reader.header.MapFileInfo;
+import org.mapsforge.map.reader.header.SubFileParameter;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class MapFileWithDataTest {
+    private static final int ITERATIONS = 200;
     private static final File MAP_FILE = new File("src/test/resources/with_data/output.map");
+    private static final int THREADS = 8;
     private static final byte ZOOM_LEVEL_MAX = 11;
     private static final int ZOOM_LEVEL_MIN = 6;
 
@@ -48,6 +64,11 @@ public class MapFileWithDataTest {
         }
     }
 
+    private static void assertMapReadResultEquals(MapReadResult expected, MapReadResult actual) {
+        Assert.assertEquals(expected.pointOfInterests, actual.pointOfInterests);
+        Assert.assertEquals(expected.ways, actual.ways);
+    }
+
     private static void checkPointOfInterest(PointOfInterest pointOfInterest) {
         Assert.assertEquals(7, pointOfInterest.layer);
         Assert.assertEquals(0.04, pointOfInterest.position.latitude, 0.000001);
@@ -77,23 +98,362 @@ public class MapFileWithDataTest {
 
     @Test
     public void executeQueryTest() {
+        executeQuery(new MapFile(MAP_FILE));
+    }
+
+    @Test
+    public void executeQueryMemoryMappedTest() {
+        executeQuery(new MapFile(MAP_FILE, null, true));
+    }
+
+    @Test
+    public void executeQueryBlockCacheTest() {
         MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileBlockCache = new MapFile(MAP_FILE);
+        mapFileBlockCache.setBlockCacheSize(16);
 
-        MapFileInfo mapFileInfo = mapFile.getMapFileInfo();
-        Assert.assertTrue(mapFileInfo.debugFile);
+        // the second query is served from the block cache
+        for (int i = 0; i < 2; ++i) {
+            for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= ZOOM_LEVEL_MAX; ++zoomLevel) {
+                checkMapReadResult(mapFileBlockCache.readMapData(getTile(zoomLevel)));
+            }
+        }
 
-        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= ZOOM_LEVEL_MAX; ++zoomLevel) {
-            int tileX = MercatorProjection.longitudeToTileX(0.04, zoomLevel);
-            int tileY = MercatorProjection.latitudeToTileY(0.04, zoomLevel);
-            Tile tile = new Tile(tileX, tileY, zoomLevel, 256);
+        // neighbouring tiles sharing the cached blocks must return the same data as without cache
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            for (int x = center.tileX - 1; x <= center.tileX + 1; ++x) {
+                for (int y = center.tileY - 1; y <= center.tileY + 1; ++y) {
+                    Tile tile = new Tile(x, y, zoomLevel, 256);
+                    assertMapReadResultEquals(mapFile.readMapData(tile), mapFileBlockCache.readMapData(tile));
+                    assertMapReadResultEquals(mapFile.readLabels(tile), mapFileBlockCache.readLabels(tile));
+                    assertMapReadResultEquals(mapFile.readPoiData(tile), mapFileBlockCache.readPoiData(tile));
+                }
+            }
+        }
+
+        mapFile.close();
+        mapFileBlockCache.close();
+    }
+
+    @Test
+    public void executeQueryConcurrentTest() throws InterruptedException {
+        final MapFile mapFile = new MapFile(MAP_FILE);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // many threads sharing one map file
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; ++t) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < ITERATIONS; ++i) {
+                            for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= ZOOM_LEVEL_MAX; ++zoomLevel) {
+                                checkMapReadResult(mapFile.readMapData(getTile(zoomLevel)));
+                            }
+                        }
+                    } catch (Throwable throwable) {
+                        failure.compareAndSet(null, throwable);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        mapFile.close();
+
+        Assert.assertNull(failure.get());
+    }
+
+    @Test
+    public void executeQueryPackedTest() {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileBlockCache = new MapFile(MAP_FILE);
+        mapFileBlockCache.setBlockCacheSize(16);
 
-            MapReadResult mapReadResult = mapFile.readMapData(tile);
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            for (int x = center.tileX - 1; x <= center.tileX + 1; ++x) {
+                for (int y = center.tileY - 1; y <= center.tileY + 1; ++y) {
+                    Tile tile = new Tile(x, y, zoomLevel, 256);
+                    MapReadResult expected = mapFile.readMapData(tile);
+                    assertMapReadResultEquals(expected, mapFile.readMapDataPacked(tile).toMapReadResult());
+                    assertMapReadResultEquals(expected, mapFileBlockCache.readMapDataPacked(tile).toMapReadResult());
+                }
+            }
+        }
+
+        mapFile.close();
+        mapFileBlockCache.close();
+    }
+
+    @Test
+    public void executeQueryStatisticsTest() {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileBlockCache = new MapFile(MAP_FILE);
+        mapFileBlockCache.setBlockCacheSize(16);
 
-            Assert.assertEquals(1, mapReadResult.pointOfInterests.size());
-            Assert.assertEquals(1, mapReadResult.ways.size());
+        // the block of a tile above the base zoom level is read once, then served by the block cache
+        Tile tile = getTile((byte) 18);
+        PackedMapReadResult packedMapReadResult = mapFile.readMapDataPacked(tile);
+        Assert.assertEquals(1, packedMapReadResult.blocksRead);
+        Assert.assertTrue(packedMapReadResult.bytesRead > 0);
+        Assert.assertEquals(packedMapReadResult.bytesRead, mapFile.readMapDataPacked(tile).bytesRead);
+
+        Assert.assertEquals(packedMapReadResult.bytesRead, mapFileBlockCache.readMapDataPacked(tile).bytesRead);
+        packedMapReadResult = mapFileBlockCache.readMapDataPacked(tile);
+        Assert.assertEquals(0, packedMapReadResult.blocksRead);
+        Assert.assertEquals(0, packedMapReadResult.bytesRead);
+
+        mapFile.close();
+        mapFileBlockCache.close();
+    }
+
+    @Test
+    public void executeQueryFilteredTest() {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileBlockCache = new MapFile(MAP_FILE);
+        mapFileBlockCache.setBlockCacheSize(16);
 
-            checkPointOfInterest(mapReadResult.pointOfInterests.get(0));
-            checkWay(mapReadResult.ways.get(0));
+        // accepts the POI of the test map only up to zoom level 12 and the way only below zoom level 10
+        ElementFilter filter = new ElementFilter() {
+            @Override
+            public boolean acceptPointOfInterest(List<Tag> tags, byte zoomLevel) {
+                return zoomLevel <= 12;
+            }
+
+            @Override
+            public boolean acceptWay(List<Tag> tags, byte zoomLevel) {
+                return zoomLevel < 10 || !tags.contains(new Tag("highway=motorway"));
+            }
+        };
+
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            for (int x = center.tileX - 1; x <= center.tileX + 1; ++x) {
+                for (int y = center.tileY - 1; y <= center.tileY + 1; ++y) {
+                    Tile tile = new Tile(x, y, zoomLevel, 256);
+                    MapReadResult expected = new MapReadResult();
+                    for (PointOfInterest pointOfInterest : mapFile.readMapData(tile).pointOfInterests) {
+                        if (filter.acceptPointOfInterest(pointOfInterest.tags, zoomLevel)) {
+                            expected.pointOfInterests.add(pointOfInterest);
+                        }
+                    }
+                    for (Way way : mapFile.readMapData(tile).ways) {
+                        if (filter.acceptWay(way.tags, zoomLevel)) {
+                            expected.ways.add(way);
+                        }
+                    }
+                    assertMapReadResultEquals(expected, mapFile.readMapDataPacked(tile, filter).toMapReadResult());
+                    assertMapReadResultEquals(expected, mapFileBlockCache.readMapDataPacked(tile, filter).toMapReadResult());
+                }
+            }
+        }
+
+        mapFile.close();
+        mapFileBlockCache.close();
+    }
+
+    @Test
+    public void executeQueryParallelTest() {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileParallel = new MapFile(MAP_FILE);
+        mapFileParallel.setDecodingExecutor(executor);
+        MapFile mapFileParallelBlockCache = new MapFile(MAP_FILE);
+        mapFileParallelBlockCache.setDecodingExecutor(executor);
+        mapFileParallelBlockCache.setBlockCacheSize(16);
+
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            Tile upperLeft = new Tile(center.tileX - 1, center.tileY - 1, zoomLevel, 256);
+            Tile lowerRight = new Tile(center.tileX + 1, center.tileY + 1, zoomLevel, 256);
+            for (MapFile file : new MapFile[]{mapFileParallel, mapFileParallelBlockCache}) {
+                assertMapReadResultEquals(mapFile.readMapData(upperLeft, lowerRight),
+                        file.readMapData(upperLeft, lowerRight));
+                assertMapReadResultEquals(mapFile.readLabels(upperLeft, lowerRight),
+                        file.readLabels(upperLeft, lowerRight));
+                assertMapReadResultEquals(mapFile.readPoiData(upperLeft, lowerRight),
+                        file.readPoiData(upperLeft, lowerRight));
+                assertMapReadResultEquals(mapFile.readMapData(center),
+                        file.readMapDataPacked(center).toMapReadResult());
+            }
+        }
+
+        mapFile.close();
+        mapFileParallel.close();
+        mapFileParallelBlockCache.close();
+        executor.shutdown();
+    }
+
+    @Test
+    public void executeQueryPrefetchTest() throws InterruptedException {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFilePrefetch = new MapFile(MAP_FILE);
+        mapFilePrefetch.setPrefetchCacheSize(1000000);
+
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            Tile upperLeft = new Tile(center.tileX - 1, center.tileY - 1, zoomLevel, 256);
+            Tile lowerRight = new Tile(center.tileX + 1, center.tileY + 1, zoomLevel, 256);
+            mapFilePrefetch.prefetch(upperLeft, lowerRight, center);
+            // the results do not depend on whether the prefetch has already finished
+            for (int i = 0; i < 2; ++i) {
+                assertMapReadResultEquals(mapFile.readMapData(upperLeft, lowerRight),
+                        mapFilePrefetch.readMapData(upperLeft, lowerRight));
+                assertMapReadResultEquals(mapFile.readMapData(center), mapFilePrefetch.readMapData(center));
+                Thread.sleep(10);
+            }
+        }
+
+        mapFile.close();
+        mapFilePrefetch.close();
+    }
+
+    @Test
+    public void executeQueryPrefetchCapacityTest() throws InterruptedException {
+        // the base zoom level 14 has 5 rows of 4 blocks, the blocks of the last two rows take 113 and 350 bytes
+        MapFile mapFile = new MapFile(MAP_FILE);
+        mapFile.setPrefetchCacheSize(400);
+        BlockPrefetcher blockPrefetcher = mapFile.getBlockPrefetcher();
+
+        byte zoomLevel = 14;
+        Tile firstTile = new Tile(8192, 8192, zoomLevel, 256);
+        mapFile.prefetch(new Tile(8192, 8188, zoomLevel, 256), new Tile(8195, 8192, zoomLevel, 256), firstTile);
+        final CountDownLatch prefetched = new CountDownLatch(1);
+        blockPrefetcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                prefetched.countDown();
+            }
+        });
+        Assert.assertTrue(prefetched.await(10, TimeUnit.SECONDS));
+
+        // the row of the first tile is read first, the prefetch stops before it would exceed its capacity
+        mapFile.readMapData(firstTile);
+        Assert.assertEquals(1, blockPrefetcher.getHits());
+        mapFile.readMapData(new Tile(8192, 8191, zoomLevel, 256));
+        Assert.assertEquals(2, blockPrefetcher.getHits());
+        mapFile.readMapData(new Tile(8194, 8191, zoomLevel, 256));
+        mapFile.readMapData(new Tile(8192, 8188, zoomLevel, 256));
+        Assert.assertEquals(2, blockPrefetcher.getHits());
+        Assert.assertEquals(2, blockPrefetcher.getMisses());
+
+        mapFile.close();
+    }
+
+    @Test
+    public void executeQueryPreloadedIndexTest() {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        mapFile.preloadIndex();
+        executeQuery(mapFile);
+    }
+
+    @Test
+    public void executeQueryTruncatedBlockTest() throws IOException, InterruptedException {
+        File truncatedFile = File.createTempFile("truncated", ".map");
+        try {
+            Files.copy(MAP_FILE.toPath(), truncatedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            // move the start of the second block of the base zoom level 10 into the first block,
+            // so that the first block is cut off after 40 bytes and decoding runs beyond its end
+            MapFile mapFile = new MapFile(MAP_FILE);
+            SubFileParameter subFileParameter = mapFile.getMapFileHeader().getSubFileParameter(10);
+            mapFile.close();
+            RandomAccessFile randomAccessFile = new RandomAccessFile(truncatedFile, "rw");
+            try {
+                byte[] indexEntry = new byte[5];
+                randomAccessFile.seek(subFileParameter.indexStartAddress);
+                randomAccessFile.readFully(indexEntry);
+                indexEntry[4] += 40;
+                randomAccessFile.seek(subFileParameter.indexStartAddress + indexEntry.length);
+                randomAccessFile.write(indexEntry);
+            } finally {
+                randomAccessFile.close();
+            }
+
+            MapFile mapFileHeap = new MapFile(truncatedFile);
+            MapFile mapFileMapped = new MapFile(truncatedFile, null, true);
+            MapFile mapFilePrefetch = new MapFile(truncatedFile);
+            mapFilePrefetch.setPrefetchCacheSize(1000000);
+
+            Tile tile = getTile((byte) 10);
+            mapFilePrefetch.prefetch(tile, tile, tile);
+            Thread.sleep(10);
+            for (MapFile file : new MapFile[]{mapFileHeap, mapFileMapped, mapFilePrefetch}) {
+                // the truncated block is skipped instead of being completed with the bytes of the next block
+                MapReadResult mapReadResult = file.readMapData(tile);
+                Assert.assertTrue(mapReadResult.pointOfInterests.isEmpty());
+                Assert.assertTrue(mapReadResult.ways.isEmpty());
+                file.close();
+            }
+        } finally {
+            Assert.assertTrue(truncatedFile.delete());
+        }
+    }
+
+    @Test
+    public void executeQueryVisitorTest() {
+        MapFile mapFile = new MapFile(MAP_FILE);
+        MapFile mapFileBlockCache = new MapFile(MAP_FILE);
+        mapFileBlockCache.setBlockCacheSize(16);
+
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= 18; ++zoomLevel) {
+            Tile center = getTile(zoomLevel);
+            Tile upperLeft = new Tile(center.tileX - 1, center.tileY - 1, zoomLevel, 256);
+            Tile lowerRight = new Tile(center.tileX + 1, center.tileY + 1, zoomLevel, 256);
+            for (MapFile file : new MapFile[]{mapFile, mapFileBlockCache}) {
+                final MapReadResult visited = new MapReadResult();
+                MapDataVisitor visitor = new MapDataVisitor() {
+                    @Override
+                    public void visitPointOfInterest(PointOfInterest pointOfInterest) {
+                        visited.pointOfInterests.add(pointOfInterest);
+                    }
+
+                    @Override
+                    public void visitWay(Way way) {
+                        visited.ways.add(way);
+                    }
+                };
+
+                file.readMapData(upperLeft, lowerRight, visitor);
+                file.readLabels(upperLeft, lowerRight, visitor);
+                file.readPoiData(upperLeft, lowerRight, visitor);
+
+                MapReadResult expected = mapFile.readMapData(upperLeft, lowerRight);
+                expected.add(mapFile.readLabels(upperLeft, lowerRight), false);
+                expected.add(mapFile.readPoiData(upperLeft, lowerRight), false);
+                assertMapReadResultEquals(expected, visited);
+            }
+        }
+
+        mapFile.close();
+        mapFileBlockCache.close();
+    }
+
+    private static void checkMapReadResult(MapReadResult mapReadResult) {
+        Assert.assertEquals(1, mapReadResult.pointOfInterests.size());
+        Assert.assertEquals(1, mapReadResult.ways.size());
+
+        checkPointOfInterest(mapReadResult.pointOfInterests.get(0));
+        checkWay(mapReadResult.ways.get(0));
+    }
+
+    private static Tile getTile(byte zoomLevel) {
+        int tileX = MercatorProjection.longitudeToTileX(0.04, zoomLevel);
+        int tileY = MercatorProjection.latitudeToTileY(0.04, zoomLevel);
+        return new Tile(tileX, tileY, zoomLevel, 256);
+    }
+
+    private static void executeQuery(MapFile mapFile) {
+        MapFileInfo mapFileInfo = mapFile.getMapFileInfo();
+        Assert.assertTrue(mapFileInfo.debugFile);
+
+        for (byte zoomLevel = ZOOM_LEVEL_MIN; zoomLevel <= ZOOM_LEVEL_MAX; ++zoomLevel) {
+            checkMapReadResult(mapFile.readMapData(getTile(zoomLevel)));
         }
 
         mapFile.close();
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+public class MemoryMappedFileTest {
+    private static final String MAP_FILE = "src/test/resources/with_data/output.map";
+    private static final long SEGMENT_SIZE = 1000;
+
+    @Test
+    public void readToBufferTest() throws IOException {
+        FileInputStream fileInputStream = new FileInputStream(MAP_FILE);
+        FileChannel fileChannel = fileInputStream.getChannel();
+        try {
+            long fileSize = fileChannel.size();
+            MemoryMappedFile memoryMappedFile = new MemoryMappedFile(fileChannel, fileSize, SEGMENT_SIZE);
+
+            ReadBuffer fileBuffer = new ReadBuffer(fileChannel);
+            ReadBuffer mappedBuffer = new ReadBuffer(fileChannel, memoryMappedFile);
+
+            // regions at the start, across segment boundaries and at the end of the file
+            long[] offsets = {0, 990, 1999, fileSize - 64};
+            for (long offset : offsets) {
+                Assert.assertTrue(fileBuffer.readFromFile(offset, 64));
+                Assert.assertTrue(mappedBuffer.readFromFile(offset, 64));
+                Assert.assertEquals(64, mappedBuffer.getBufferSize());
+                for (int i = 0; i < 64; ++i) {
+                    Assert.assertEquals(fileBuffer.readByte(), mappedBuffer.readByte());
+                }
+            }
+
+            Assert.assertFalse(mappedBuffer.readFromFile(fileSize - 10, 64));
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
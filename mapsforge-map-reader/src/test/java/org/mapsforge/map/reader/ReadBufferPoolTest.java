@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+public class ReadBufferPoolTest {
+    private static final String MAP_FILE = "src/test/resources/with_data/output.map";
+
+    @Test
+    public void destroyTest() throws IOException {
+        FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            ReadBufferPool readBufferPool = new ReadBufferPool(fileChannel, null, 4);
+            ReadBuffer readBuffer1 = readBufferPool.acquire();
+            ReadBuffer readBuffer2 = readBufferPool.acquire();
+            readBufferPool.release(readBuffer1);
+            Assert.assertEquals(1, readBufferPool.getSize());
+
+            readBufferPool.destroy();
+            Assert.assertEquals(0, readBufferPool.getSize());
+
+            // a buffer that was in use while the map file was closed is dropped as well
+            readBufferPool.release(readBuffer2);
+            Assert.assertEquals(0, readBufferPool.getSize());
+        } finally {
+            fileChannel.close();
+        }
+    }
+
+    @Test
+    public void releaseTest() throws IOException {
+        FileChannel fileChannel = new FileInputStream(MAP_FILE).getChannel();
+        try {
+            ReadBufferPool readBufferPool = new ReadBufferPool(fileChannel, null, 2);
+
+            ReadBuffer readBuffer = readBufferPool.acquire();
+            Assert.assertTrue(readBuffer.readFromFile(0, 64));
+            readBufferPool.release(readBuffer);
+            Assert.assertSame(readBuffer, readBufferPool.acquire());
+
+            // the pool is bounded
+            ReadBuffer[] readBuffers = {readBufferPool.acquire(), readBufferPool.acquire(), readBufferPool.acquire()};
+            for (ReadBuffer buffer : readBuffers) {
+                readBufferPool.release(buffer);
+            }
+            Assert.assertEquals(2, readBufferPool.getSize());
+
+            // a buffer that has grown for a large block is not kept
+            ReadBuffer largeBuffer = readBufferPool.acquire();
+            largeBuffer.readFromFile(0, ReadBufferPool.MAXIMUM_RETAINED_CAPACITY + 1);
+            Assert.assertTrue(largeBuffer.getCapacity() > ReadBufferPool.MAXIMUM_RETAINED_CAPACITY);
+            readBufferPool.release(largeBuffer);
+            Assert.assertEquals(1, readBufferPool.getSize());
+        } finally {
+            fileChannel.close();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.queue;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.MapPosition;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.MercatorProjection;
+import org.mapsforge.map.model.FixedTileSizeDisplayModel;
+import org.mapsforge.map.model.MapViewPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the job queue with the former list based queue while panning: the jobs of the visible tiles
+ * are added again and again, a worker takes a job after every few additions and the map position moves
+ * from time to time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JobQueueBenchmark {
+    private static final int ADDS_PER_GET = 8;
+    private static final int ADDS_PER_MOVE = 256;
+    private static final int TILE_SIZE = 256;
+    private static final byte ZOOM_LEVEL = 14;
+
+    /**
+     * The list based queue: a linear membership test on every addition, a full scheduling and sort on
+     * every get after an addition.
+     */
+    private static class ListJobQueue {
+        private final List<Job> assignedJobs = new LinkedList<>();
+        private final MapViewPosition mapViewPosition;
+        private final List<QueueItem<Job>> queueItems = new LinkedList<>();
+        private boolean scheduleNeeded;
+
+        ListJobQueue(MapViewPosition mapViewPosition) {
+            this.mapViewPosition = mapViewPosition;
+        }
+
+        void add(Job job) {
+            if (!this.assignedJobs.contains(job)) {
+                QueueItem<Job> queueItem = new QueueItem<>(job);
+                if (!this.queueItems.contains(queueItem)) {
+                    this.queueItems.add(queueItem);
+                    this.scheduleNeeded = true;
+                }
+            }
+        }
+
+        Job get() {
+            if (this.scheduleNeeded) {
+                this.scheduleNeeded = false;
+                QueueItemScheduler.schedule(this.queueItems, this.mapViewPosition.getMapPosition(), TILE_SIZE);
+                Collections.sort(this.queueItems, QueueItemComparator.INSTANCE);
+                while (this.queueItems.size() > 128) {
+                    this.queueItems.remove(this.queueItems.size() - 1);
+                }
+            }
+            Job job = this.queueItems.remove(0).object;
+            this.assignedJobs.add(job);
+            return job;
+        }
+
+        void remove(Job job) {
+            this.assignedJobs.remove(job);
+        }
+
+        int size() {
+            return this.queueItems.size();
+        }
+    }
+
+    @Param({"1024", "4096"})
+    public int jobs;
+
+    private final List<Job> jobList = new ArrayList<>();
+    private final List<MapPosition> mapPositions = new ArrayList<>();
+
+    @Benchmark
+    public int jobQueue() throws InterruptedException {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(TILE_SIZE));
+        mapViewPosition.setMapPosition(this.mapPositions.get(0));
+        JobQueue<Job> jobQueue = new JobQueue<>(mapViewPosition, new FixedTileSizeDisplayModel(TILE_SIZE));
+        int taken = 0;
+        for (int i = 0; i < this.jobList.size(); ++i) {
+            jobQueue.add(this.jobList.get(i));
+            if (i % ADDS_PER_GET == ADDS_PER_GET - 1) {
+                jobQueue.remove(jobQueue.get());
+                ++taken;
+            }
+            if (i % ADDS_PER_MOVE == ADDS_PER_MOVE - 1) {
+                mapViewPosition.setMapPosition(this.mapPositions.get((i / ADDS_PER_MOVE) % this.mapPositions.size()));
+            }
+        }
+        while (jobQueue.size() > 0) {
+            jobQueue.remove(jobQueue.get());
+            ++taken;
+        }
+        return taken;
+    }
+
+    @Benchmark
+    public int listJobQueue() {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(TILE_SIZE));
+        mapViewPosition.setMapPosition(this.mapPositions.get(0));
+        ListJobQueue jobQueue = new ListJobQueue(mapViewPosition);
+        int taken = 0;
+        for (int i = 0; i < this.jobList.size(); ++i) {
+            jobQueue.add(this.jobList.get(i));
+            if (i % ADDS_PER_GET == ADDS_PER_GET - 1) {
+                jobQueue.remove(jobQueue.get());
+                ++taken;
+            }
+            if (i % ADDS_PER_MOVE == ADDS_PER_MOVE - 1) {
+                mapViewPosition.setMapPosition(this.mapPositions.get((i / ADDS_PER_MOVE) % this.mapPositions.size()));
+            }
+        }
+        while (jobQueue.size() > 0) {
+            jobQueue.remove(jobQueue.get());
+            ++taken;
+        }
+        return taken;
+    }
+
+    @Setup
+    public void setup() {
+        // the jobs of a square of tiles, added in rows as a tile layer does while redrawing
+        int side = (int) Math.sqrt(this.jobs);
+        int tileX = MercatorProjection.longitudeToTileX(13.4, ZOOM_LEVEL);
+        int tileY = MercatorProjection.latitudeToTileY(52.5, ZOOM_LEVEL);
+        for (int y = 0; y < side; ++y) {
+            for (int x = 0; x < side; ++x) {
+                this.jobList.add(new Job(new Tile(tileX + x, tileY + y, ZOOM_LEVEL, TILE_SIZE), false));
+            }
+        }
+        for (int i = 0; i < 8; ++i) {
+            Tile tile = this.jobList.get((i * this.jobList.size()) / 8).tile;
+            this.mapPositions.add(new MapPosition(new LatLong(
+                    MercatorProjection.tileYToLatitude(tile.tileY, ZOOM_LEVEL),
+                    MercatorProjection.tileXToLongitude(tile.tileX, ZOOM_LEVEL)), ZOOM_LEVEL));
+        }
+    }
+}
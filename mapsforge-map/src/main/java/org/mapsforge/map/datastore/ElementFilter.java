@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.mapsforge.core.model.Tag;
+
+import java.util.List;
+
+/**
+ * Decides which elements of a map data query are needed by the consumer, so that a data store
+ * can skip the remaining data of all other elements, most notably the coordinates of ways.
+ * <p/>
+ * The tags passed to the filter are complete, including name, house number and reference. Implementations
+ * must be thread-safe and should be fast, as they are called for every decoded element.
+ */
+public interface ElementFilter {
+    /**
+     * @param tags      the tags of the POI.
+     * @param zoomLevel the zoom level of the query.
+     * @return false if the POI can be skipped, true otherwise.
+     */
+    boolean acceptPointOfInterest(List<Tag> tags, byte zoomLevel);
+
+    /**
+     * @param tags      the tags of the way.
+     * @param zoomLevel the zoom level of the query.
+     * @return false if the way can be skipped, true otherwise.
+     */
+    boolean acceptWay(List<Tag> tags, byte zoomLevel);
+}
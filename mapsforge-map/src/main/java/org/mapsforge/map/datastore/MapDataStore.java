@@ -117,6 +117,20 @@ public abstract class MapDataStore {
      */
     public abstract long getDataTimestamp(Tile tile);
 
+    /**
+     * Hints that data for an area defined by the tile in the upper left and the tile in
+     * the lower right corner will be read soon. Data stores may start reading the data in
+     * the background, beginning near the first tile. This default implementation does nothing.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the area.
+     * @param lowerRight tile that defines the lower right corner of the area.
+     * @param firstTile  the tile of the area whose data is needed first.
+     */
+    public void prefetch(Tile upperLeft, Tile lowerRight, Tile firstTile) {
+        // do nothing
+    }
+
     /**
      * Reads only labels for tile. Labels are pois as well as ways that carry a name tag.
      * It is permissible for the MapDataStore to return more data.
@@ -153,6 +167,22 @@ public abstract class MapDataStore {
         return result;
     }
 
+    /**
+     * Reads only labels for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing every element to the visitor instead of collecting
+     * them. This default implementation visits the elements of
+     * {@link #readLabels(Tile, Tile)}, data stores should override it if they can decode
+     * the elements one by one.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    public void readLabels(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        visit(readLabels(upperLeft, lowerRight), visitor);
+    }
+
     /**
      * Reads data for tile.
      *
@@ -185,6 +215,72 @@ public abstract class MapDataStore {
         return result;
     }
 
+    /**
+     * Reads data for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing every element to the visitor instead of collecting
+     * them. This default implementation visits the elements of
+     * {@link #readMapData(Tile, Tile)}, data stores should override it if they can decode
+     * the elements one by one.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    public void readMapData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        visit(readMapData(upperLeft, lowerRight), visitor);
+    }
+
+    /**
+     * Reads data for tile into a {@link PackedMapReadResult}, which stores all coordinates in primitive
+     * arrays.
+     *
+     * @param tile tile for which data is requested.
+     * @return map data for the tile.
+     */
+    public PackedMapReadResult readMapDataPacked(Tile tile) {
+        return readMapDataPacked(tile, null);
+    }
+
+    /**
+     * Reads data for tile into a {@link PackedMapReadResult}, which stores all coordinates in primitive
+     * arrays. The data store may skip all elements rejected by the filter, but it is not required to.
+     * This default implementation converts the result of {@link #readMapData(Tile)} and ignores the
+     * filter, data stores should override it if they can avoid the intermediate objects.
+     *
+     * @param tile   tile for which data is requested.
+     * @param filter the filter for the elements to be read (may be null).
+     * @return map data for the tile.
+     */
+    public PackedMapReadResult readMapDataPacked(Tile tile, ElementFilter filter) {
+        MapReadResult mapReadResult = readMapData(tile);
+        if (mapReadResult == null) {
+            return null;
+        }
+        return new PackedMapReadResult(mapReadResult);
+    }
+
+    /**
+     * Reads data for an area defined by the tile in the upper left and the tile in the lower right
+     * corner into a {@link PackedMapReadResult}. The data store may skip all elements rejected by the
+     * filter, but it is not required to. This default implementation converts the result of
+     * {@link #readMapData(Tile, Tile)} and ignores the filter, data stores should override it if they
+     * can avoid the intermediate objects.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param filter     the filter for the elements to be read (may be null).
+     * @return map data for the area.
+     */
+    public PackedMapReadResult readMapDataPacked(Tile upperLeft, Tile lowerRight, ElementFilter filter) {
+        MapReadResult mapReadResult = readMapData(upperLeft, lowerRight);
+        if (mapReadResult == null) {
+            return null;
+        }
+        return new PackedMapReadResult(mapReadResult);
+    }
+
     /**
      * Reads only POI data for tile.
      *
@@ -217,6 +313,22 @@ public abstract class MapDataStore {
         return result;
     }
 
+    /**
+     * Reads POI data for an area defined by the tile in the upper left and the tile in
+     * the lower right corner, handing every element to the visitor instead of collecting
+     * them. This default implementation visits the elements of
+     * {@link #readPoiData(Tile, Tile)}, data stores should override it if they can decode
+     * the elements one by one.
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @param upperLeft  tile that defines the upper left corner of the requested area.
+     * @param lowerRight tile that defines the lower right corner of the requested area.
+     * @param visitor    the visitor which receives the elements.
+     */
+    public void readPoiData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        visit(readPoiData(upperLeft, lowerRight), visitor);
+    }
+
     /**
      * Gets the initial map position.
      *
@@ -239,6 +351,21 @@ public abstract class MapDataStore {
      */
     public abstract boolean supportsTile(Tile tile);
 
+    /**
+     * Hands all elements of a read result to a visitor.
+     */
+    private static void visit(MapReadResult mapReadResult, MapDataVisitor visitor) {
+        if (mapReadResult == null) {
+            return;
+        }
+        for (PointOfInterest pointOfInterest : mapReadResult.pointOfInterests) {
+            visitor.visitPointOfInterest(pointOfInterest);
+        }
+        for (Way way : mapReadResult.ways) {
+            visitor.visitWay(way);
+        }
+    }
+
     /**
      * Returns true if a way should be included in the result set for readLabels()
      * By default only ways with names, house numbers or a ref are included in the result set
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.mapsforge.core.model.BoundingBox;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.MercatorProjection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A grid of tiles on a fixed zoom level over the bounding boxes of map data stores, used to find the stores
+ * which may support a tile without asking every store.
+ * <p/>
+ * The index relies on {@link MapDataStore#supportsTile(Tile)} being false for tiles outside of the bounding
+ * box of a store. Stores without bounding box are candidates for every tile. Adding stores is not thread-safe,
+ * lookups are.
+ */
+class MapDataStoreIndex {
+    /**
+     * The zoom level of the grid cells, 64 x 64 cells for the world.
+     */
+    static final byte ZOOM_LEVEL = 6;
+
+    private static int getKey(int tileX, int tileY) {
+        return (tileX << ZOOM_LEVEL) | tileY;
+    }
+
+    private final Map<Integer, List<MapDataStore>> cells = new HashMap<>();
+    private final List<MapDataStore> mapDataStores = new ArrayList<>();
+    private boolean unbounded;
+
+    /**
+     * Adds a store to all cells its bounding box touches, extended by one cell, so that tiles touching the
+     * bounding box from outside find the store as well.
+     */
+    void add(MapDataStore mapDataStore) {
+        this.mapDataStores.add(mapDataStore);
+        BoundingBox boundingBox = mapDataStore.boundingBox();
+        if (boundingBox == null) {
+            this.unbounded = true;
+            return;
+        }
+
+        int maxTile = (1 << ZOOM_LEVEL) - 1;
+        int minX = Math.max(0, MercatorProjection.longitudeToTileX(boundingBox.minLongitude, ZOOM_LEVEL) - 1);
+        int maxX = Math.min(maxTile, MercatorProjection.longitudeToTileX(boundingBox.maxLongitude, ZOOM_LEVEL) + 1);
+        int minY = Math.max(0, MercatorProjection.latitudeToTileY(boundingBox.maxLatitude, ZOOM_LEVEL) - 1);
+        int maxY = Math.min(maxTile, MercatorProjection.latitudeToTileY(boundingBox.minLatitude, ZOOM_LEVEL) + 1);
+        for (int x = minX; x <= maxX; ++x) {
+            for (int y = minY; y <= maxY; ++y) {
+                List<MapDataStore> cell = this.cells.get(getKey(x, y));
+                if (cell == null) {
+                    cell = new ArrayList<>(1);
+                    this.cells.put(getKey(x, y), cell);
+                }
+                cell.add(mapDataStore);
+            }
+        }
+    }
+
+    /**
+     * @return all stores whose bounding box may intersect the tile, in the order they were added.
+     */
+    List<MapDataStore> getCandidates(Tile tile) {
+        if (this.unbounded || tile.zoomLevel < ZOOM_LEVEL) {
+            // tiles below the grid zoom level span several cells, there are only few of them
+            return this.mapDataStores;
+        }
+        int zoomLevelDifference = tile.zoomLevel - ZOOM_LEVEL;
+        List<MapDataStore> cell = this.cells.get(getKey(tile.tileX >>> zoomLevelDifference,
+                tile.tileY >>> zoomLevelDifference));
+        return cell != null ? cell : Collections.<MapDataStore>emptyList();
+    }
+
+    /**
+     * Precondition: upperLeft.tileX <= lowerRight.tileX && upperLeft.tileY <= lowerRight.tileY
+     *
+     * @return all stores whose bounding box may intersect the area, in the order they were added.
+     */
+    List<MapDataStore> getCandidates(Tile upperLeft, Tile lowerRight) {
+        if (this.unbounded || upperLeft.zoomLevel < ZOOM_LEVEL) {
+            return this.mapDataStores;
+        }
+        int zoomLevelDifference = upperLeft.zoomLevel - ZOOM_LEVEL;
+        Set<MapDataStore> candidates = new HashSet<>();
+        for (int x = upperLeft.tileX >>> zoomLevelDifference; x <= lowerRight.tileX >>> zoomLevelDifference; ++x) {
+            for (int y = upperLeft.tileY >>> zoomLevelDifference; y <= lowerRight.tileY >>> zoomLevelDifference; ++y) {
+                List<MapDataStore> cell = this.cells.get(getKey(x, y));
+                if (cell != null) {
+                    candidates.addAll(cell);
+                }
+            }
+        }
+        List<MapDataStore> result = new ArrayList<>(candidates.size());
+        for (MapDataStore mapDataStore : this.mapDataStores) {
+            if (candidates.contains(mapDataStore)) {
+                result.add(mapDataStore);
+            }
+        }
+        return result;
+    }
+}
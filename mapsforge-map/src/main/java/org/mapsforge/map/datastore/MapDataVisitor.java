@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+/**
+ * Receives the elements of a map data query one by one, as an alternative to collecting
+ * them in a {@link MapReadResult}.
+ * <p/>
+ * A data store may deliver POIs and ways in any order. Elements must not be modified by the
+ * visitor, as they may be shared with caches of the data store.
+ */
+public interface MapDataVisitor {
+    /**
+     * Called for every POI of the query.
+     *
+     * @param pointOfInterest the POI.
+     */
+    void visitPointOfInterest(PointOfInterest pointOfInterest);
+
+    /**
+     * Called for every way of the query.
+     *
+     * @param way the way.
+     */
+    void visitWay(Way way);
+}
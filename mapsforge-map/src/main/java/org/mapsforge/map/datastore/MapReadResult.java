@@ -16,7 +16,9 @@
 package org.mapsforge.map.datastore;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * An immutable container for the data returned from a MapDataStore.
@@ -50,21 +52,29 @@ public class MapReadResult {
 
     /**
      * Adds other MapReadResult by combining pois and ways. Optionally, deduplication can
-     * be requested (much more expensive).
+     * be requested (more expensive). Duplicates are found by their hash codes, which
+     * cover tags, layer and coordinates, elements are only compared if their hash codes
+     * are equal.
      *
      * @param other       the MapReadResult to add to this.
      * @param deduplicate true if check for duplicates is required.
      */
     public void add(MapReadResult other, boolean deduplicate) {
         if (deduplicate) {
-            for (PointOfInterest poi : other.pointOfInterests) {
-                if (!this.pointOfInterests.contains(poi)) {
-                    this.pointOfInterests.add(poi);
+            if (!other.pointOfInterests.isEmpty()) {
+                Set<PointOfInterest> pois = new HashSet<>(this.pointOfInterests);
+                for (PointOfInterest poi : other.pointOfInterests) {
+                    if (pois.add(poi)) {
+                        this.pointOfInterests.add(poi);
+                    }
                 }
             }
-            for (Way way : other.ways) {
-                if (!this.ways.contains(way)) {
-                    this.ways.add(way);
+            if (!other.ways.isEmpty()) {
+                Set<Way> ways = new HashSet<>(this.ways);
+                for (Way way : other.ways) {
+                    if (ways.add(way)) {
+                        this.ways.add(way);
+                    }
                 }
             }
         } else {
@@ -20,7 +20,14 @@ import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.Tile;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * A MapDatabase that reads and combines data from multiple map files.
@@ -34,24 +41,111 @@ import java.util.List;
  * suitable when multiple maps cover the different areas, but there is some overlap at boundaries. This
  * is the most expensive operation and often it is actually faster to double paint objects as otherwise
  * all objects have to be compared with all others.
+ * <p/>
+ * Only the map databases whose bounding box is close to a tile are asked whether they support it. If an
+ * executor is set, reads that combine several map databases run in parallel.
  */
 public class MultiMapDataStore extends MapDataStore {
 
+    /**
+     * Passes every element to the wrapped visitor only once, with the same equality
+     * as the deduplication of {@link MapReadResult#add(MapReadResult, boolean)}.
+     */
+    private static class DeduplicatingVisitor implements MapDataVisitor {
+        private final Set<PointOfInterest> pois = new HashSet<>();
+        private final MapDataVisitor visitor;
+        private final Set<Way> ways = new HashSet<>();
+
+        DeduplicatingVisitor(MapDataVisitor visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void visitPointOfInterest(PointOfInterest pointOfInterest) {
+            if (this.pois.add(pointOfInterest)) {
+                this.visitor.visitPointOfInterest(pointOfInterest);
+            }
+        }
+
+        @Override
+        public void visitWay(Way way) {
+            if (this.ways.add(way)) {
+                this.visitor.visitWay(way);
+            }
+        }
+    }
+
+    /**
+     * A read from a single map database, which may run on the executor.
+     */
+    private interface Reader<T> {
+        T read(MapDataStore mapDataStore);
+    }
+
     public enum DataPolicy {
         RETURN_FIRST, // return the first set of data
         RETURN_ALL, // return all data from databases
         DEDUPLICATE // return all data but eliminate duplicates
     }
 
+    private static MapReadResult combine(List<MapReadResult> results, boolean deduplicate) {
+        MapReadResult mapReadResult = new MapReadResult();
+        for (MapReadResult result : results) {
+            if (result == null) {
+                continue;
+            }
+            boolean isWater = mapReadResult.isWater & result.isWater;
+            mapReadResult.isWater = isWater;
+            mapReadResult.add(result, deduplicate);
+        }
+        return mapReadResult;
+    }
+
+    /**
+     * Combines packed results. Deduplication compares way objects, so the results are unpacked for it,
+     * the read counters of all results are summed up in either case.
+     */
+    private static PackedMapReadResult combinePacked(List<PackedMapReadResult> results, boolean deduplicate) {
+        PackedMapReadResult packedMapReadResult;
+        if (deduplicate) {
+            List<MapReadResult> mapReadResults = new ArrayList<>(results.size());
+            for (PackedMapReadResult result : results) {
+                mapReadResults.add(result != null ? result.toMapReadResult() : null);
+            }
+            packedMapReadResult = new PackedMapReadResult(combine(mapReadResults, true));
+            for (PackedMapReadResult result : results) {
+                if (result != null) {
+                    packedMapReadResult.blocksRead += result.blocksRead;
+                    packedMapReadResult.bytesRead += result.bytesRead;
+                }
+            }
+            return packedMapReadResult;
+        }
+
+        packedMapReadResult = new PackedMapReadResult();
+        for (PackedMapReadResult result : results) {
+            if (result == null) {
+                continue;
+            }
+            boolean isWater = packedMapReadResult.isWater & result.isWater;
+            packedMapReadResult.isWater = isWater;
+            packedMapReadResult.add(result);
+        }
+        return packedMapReadResult;
+    }
+
     private BoundingBox boundingBox;
     private final DataPolicy dataPolicy;
+    private volatile ExecutorService executor;
     private final List<MapDataStore> mapDatabases;
+    private final MapDataStoreIndex mapDataStoreIndex;
     private LatLong startPosition;
     private byte startZoomLevel;
 
     public MultiMapDataStore(DataPolicy dataPolicy) {
         this.dataPolicy = dataPolicy;
         this.mapDatabases = new ArrayList<>();
+        this.mapDataStoreIndex = new MapDataStoreIndex();
     }
 
     /**
@@ -67,6 +161,7 @@ public class MultiMapDataStore extends MapDataStore {
             throw new IllegalArgumentException("Duplicate map database");
         }
         this.mapDatabases.add(mapDataStore);
+        this.mapDataStoreIndex.add(mapDataStore);
         if (useStartZoomLevel) {
             this.startZoomLevel = mapDataStore.startZoomLevel();
         }
@@ -104,231 +199,347 @@ public class MultiMapDataStore extends MapDataStore {
     public long getDataTimestamp(Tile tile) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(tile)) {
-                        return mdb.getDataTimestamp(tile);
-                    }
-                }
-                return 0;
+                MapDataStore first = getFirstMapDataStore(tile);
+                return first != null ? first.getDataTimestamp(tile) : 0;
             case RETURN_ALL:
             case DEDUPLICATE:
                 long result = 0;
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(tile)) {
-                        result = Math.max(result, mdb.getDataTimestamp(tile));
-                    }
+                for (MapDataStore mdb : getMapDataStores(tile)) {
+                    result = Math.max(result, mdb.getDataTimestamp(tile));
                 }
                 return result;
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
+    /**
+     * @return the first map database which supports the tile, or null if there is none.
+     */
+    private MapDataStore getFirstMapDataStore(Tile tile) {
+        for (MapDataStore mdb : this.mapDataStoreIndex.getCandidates(tile)) {
+            if (mdb.supportsTile(tile)) {
+                return mdb;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return all map databases which support the tile, in the order they were added.
+     */
+    private List<MapDataStore> getMapDataStores(Tile tile) {
+        List<MapDataStore> candidates = this.mapDataStoreIndex.getCandidates(tile);
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<MapDataStore> mapDataStores = new ArrayList<>(candidates.size());
+        for (MapDataStore mdb : candidates) {
+            if (mdb.supportsTile(tile)) {
+                mapDataStores.add(mdb);
+            }
+        }
+        return mapDataStores;
+    }
+
+    /**
+     * Forwards the prefetch to the map data stores whose bounding box may intersect the area.
+     */
     @Override
-    public MapReadResult readLabels(Tile tile) {
-        switch (this.dataPolicy) {
-            case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(tile)) {
-                        return mdb.readLabels(tile);
+    public void prefetch(Tile upperLeft, Tile lowerRight, Tile firstTile) {
+        for (MapDataStore mdb : this.mapDataStoreIndex.getCandidates(upperLeft, lowerRight)) {
+            mdb.prefetch(upperLeft, lowerRight, firstTile);
+        }
+    }
+
+    /**
+     * Reads from all given map databases, in parallel if an executor is set and more than one map
+     * database is involved. The results are returned in the order of the map databases, so that the
+     * combined result does not depend on the timing of the reads.
+     */
+    private <T> List<T> read(List<MapDataStore> mapDataStores, final Reader<T> reader) {
+        List<T> results = new ArrayList<>(mapDataStores.size());
+        ExecutorService executor = this.executor;
+        if (executor == null || mapDataStores.size() < 2) {
+            for (MapDataStore mdb : mapDataStores) {
+                results.add(reader.read(mdb));
+            }
+            return results;
+        }
+
+        List<Future<T>> futures = new ArrayList<>(mapDataStores.size() - 1);
+        for (int i = 1; i < mapDataStores.size(); ++i) {
+            final MapDataStore mdb = mapDataStores.get(i);
+            futures.add(executor.submit(new Callable<T>() {
+                @Override
+                public T call() {
+                    return reader.read(mdb);
+                }
+            }));
+        }
+
+        boolean interrupted = false;
+        try {
+            // the calling thread reads from the first map database itself
+            results.add(reader.read(mapDataStores.get(0)));
+            for (Future<T> future : futures) {
+                while (true) {
+                    try {
+                        results.add(future.get());
+                        break;
+                    } catch (InterruptedException e) {
+                        // the combined result must be complete, the interrupt is restored below
+                        interrupted = true;
                     }
                 }
-                return null;
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(false);
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public MapReadResult readLabels(final Tile tile) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(tile);
+                return first != null ? first.readLabels(tile) : null;
             case RETURN_ALL:
-                return readLabels(tile, false);
             case DEDUPLICATE:
-                return readLabels(tile, true);
+                return combine(read(getMapDataStores(tile), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readLabels(tile);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
 
     }
 
-    private MapReadResult readLabels(Tile tile, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(tile)) {
-                MapReadResult result = mdb.readLabels(tile);
-                if (result == null) {
-                    continue;
-                }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
+    @Override
+    public MapReadResult readLabels(final Tile upperLeft, final Tile lowerRight) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                return first != null ? first.readLabels(upperLeft, lowerRight) : null;
+            case RETURN_ALL:
+            case DEDUPLICATE:
+                return combine(read(getMapDataStores(upperLeft), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readLabels(upperLeft, lowerRight);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
-        return mapReadResult;
+        throw new IllegalStateException("Invalid data policy for multi map database");
+
     }
 
     @Override
-    public MapReadResult readLabels(Tile upperLeft, Tile lowerRight) {
+    public void readLabels(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(upperLeft)) {
-                        return mdb.readLabels(upperLeft, lowerRight);
-                    }
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                if (first != null) {
+                    first.readLabels(upperLeft, lowerRight, visitor);
                 }
-                return null;
+                return;
             case RETURN_ALL:
-                return readLabels(upperLeft, lowerRight, false);
             case DEDUPLICATE:
-                return readLabels(upperLeft, lowerRight, true);
+                if (this.dataPolicy == DataPolicy.DEDUPLICATE) {
+                    visitor = new DeduplicatingVisitor(visitor);
+                }
+                // visitors are not thread-safe, so the map databases are read one after another
+                for (MapDataStore mdb : getMapDataStores(upperLeft)) {
+                    mdb.readLabels(upperLeft, lowerRight, visitor);
+                }
+                return;
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
-
     }
 
-    private MapReadResult readLabels(Tile upperLeft, Tile lowerRight, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(upperLeft)) {
-                MapReadResult result = mdb.readLabels(upperLeft, lowerRight);
-                if (result == null) {
-                    continue;
-                }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
+    @Override
+    public MapReadResult readMapData(final Tile tile) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(tile);
+                return first != null ? first.readMapData(tile) : null;
+            case RETURN_ALL:
+            case DEDUPLICATE:
+                return combine(read(getMapDataStores(tile), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readMapData(tile);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
-        return mapReadResult;
+        throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
     @Override
-    public MapReadResult readMapData(Tile tile) {
+    public MapReadResult readMapData(final Tile upperLeft, final Tile lowerRight) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(tile)) {
-                        return mdb.readMapData(tile);
-                    }
-                }
-                return null;
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                return first != null ? first.readMapData(upperLeft, lowerRight) : null;
             case RETURN_ALL:
-                return readMapData(tile, false);
             case DEDUPLICATE:
-                return readMapData(tile, true);
+                return combine(read(getMapDataStores(upperLeft), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readMapData(upperLeft, lowerRight);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
-    private MapReadResult readMapData(Tile tile, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(tile)) {
-                MapReadResult result = mdb.readMapData(tile);
-                if (result == null) {
-                    continue;
+    @Override
+    public void readMapData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                if (first != null) {
+                    first.readMapData(upperLeft, lowerRight, visitor);
                 }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
+                return;
+            case RETURN_ALL:
+            case DEDUPLICATE:
+                if (this.dataPolicy == DataPolicy.DEDUPLICATE) {
+                    visitor = new DeduplicatingVisitor(visitor);
+                }
+                // visitors are not thread-safe, so the map databases are read one after another
+                for (MapDataStore mdb : getMapDataStores(upperLeft)) {
+                    mdb.readMapData(upperLeft, lowerRight, visitor);
+                }
+                return;
         }
-        return mapReadResult;
+        throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
     @Override
-    public MapReadResult readMapData(Tile upperLeft, Tile lowerRight) {
+    public PackedMapReadResult readMapDataPacked(final Tile tile, final ElementFilter filter) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(upperLeft)) {
-                        return mdb.readMapData(upperLeft, lowerRight);
-                    }
-                }
-                return null;
+                MapDataStore first = getFirstMapDataStore(tile);
+                return first != null ? first.readMapDataPacked(tile, filter) : null;
             case RETURN_ALL:
-                return readMapData(upperLeft, lowerRight, false);
             case DEDUPLICATE:
-                return readMapData(upperLeft, lowerRight, true);
+                return combinePacked(read(getMapDataStores(tile), new Reader<PackedMapReadResult>() {
+                    @Override
+                    public PackedMapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readMapDataPacked(tile, filter);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
-    private MapReadResult readMapData(Tile upperLeft, Tile lowerRight, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(upperLeft)) {
-                MapReadResult result = mdb.readMapData(upperLeft, lowerRight);
-                if (result == null) {
-                    continue;
-                }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
+    @Override
+    public PackedMapReadResult readMapDataPacked(final Tile upperLeft, final Tile lowerRight, final ElementFilter filter) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                return first != null ? first.readMapDataPacked(upperLeft, lowerRight, filter) : null;
+            case RETURN_ALL:
+            case DEDUPLICATE:
+                return combinePacked(read(getMapDataStores(upperLeft), new Reader<PackedMapReadResult>() {
+                    @Override
+                    public PackedMapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readMapDataPacked(upperLeft, lowerRight, filter);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
-        return mapReadResult;
+        throw new IllegalStateException("Invalid data policy for multi map database");
     }
 
     @Override
-    public MapReadResult readPoiData(Tile tile) {
+    public MapReadResult readPoiData(final Tile tile) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(tile)) {
-                        return mdb.readPoiData(tile);
-                    }
-                }
-                return null;
+                MapDataStore first = getFirstMapDataStore(tile);
+                return first != null ? first.readPoiData(tile) : null;
             case RETURN_ALL:
-                return readPoiData(tile, false);
             case DEDUPLICATE:
-                return readPoiData(tile, true);
+                return combine(read(getMapDataStores(tile), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readPoiData(tile);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
 
     }
 
-    private MapReadResult readPoiData(Tile tile, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(tile)) {
-                MapReadResult result = mdb.readPoiData(tile);
-                if (result == null) {
-                    continue;
-                }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
+    @Override
+    public MapReadResult readPoiData(final Tile upperLeft, final Tile lowerRight) {
+        switch (this.dataPolicy) {
+            case RETURN_FIRST:
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                return first != null ? first.readPoiData(upperLeft, lowerRight) : null;
+            case RETURN_ALL:
+            case DEDUPLICATE:
+                return combine(read(getMapDataStores(upperLeft), new Reader<MapReadResult>() {
+                    @Override
+                    public MapReadResult read(MapDataStore mapDataStore) {
+                        return mapDataStore.readPoiData(upperLeft, lowerRight);
+                    }
+                }), this.dataPolicy == DataPolicy.DEDUPLICATE);
         }
-        return mapReadResult;
+        throw new IllegalStateException("Invalid data policy for multi map database");
+
     }
 
     @Override
-    public MapReadResult readPoiData(Tile upperLeft, Tile lowerRight) {
+    public void readPoiData(Tile upperLeft, Tile lowerRight, MapDataVisitor visitor) {
         switch (this.dataPolicy) {
             case RETURN_FIRST:
-                for (MapDataStore mdb : mapDatabases) {
-                    if (mdb.supportsTile(upperLeft)) {
-                        return mdb.readPoiData(upperLeft, lowerRight);
-                    }
+                MapDataStore first = getFirstMapDataStore(upperLeft);
+                if (first != null) {
+                    first.readPoiData(upperLeft, lowerRight, visitor);
                 }
-                return null;
+                return;
             case RETURN_ALL:
-                return readPoiData(upperLeft, lowerRight, false);
             case DEDUPLICATE:
-                return readPoiData(upperLeft, lowerRight, true);
+                if (this.dataPolicy == DataPolicy.DEDUPLICATE) {
+                    visitor = new DeduplicatingVisitor(visitor);
+                }
+                // visitors are not thread-safe, so the map databases are read one after another
+                for (MapDataStore mdb : getMapDataStores(upperLeft)) {
+                    mdb.readPoiData(upperLeft, lowerRight, visitor);
+                }
+                return;
         }
         throw new IllegalStateException("Invalid data policy for multi map database");
-
     }
 
-    private MapReadResult readPoiData(Tile upperLeft, Tile lowerRight, boolean deduplicate) {
-        MapReadResult mapReadResult = new MapReadResult();
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(upperLeft)) {
-                MapReadResult result = mdb.readPoiData(upperLeft, lowerRight);
-                if (result == null) {
-                    continue;
-                }
-                boolean isWater = mapReadResult.isWater & result.isWater;
-                mapReadResult.isWater = isWater;
-                mapReadResult.add(result, deduplicate);
-            }
-        }
-        return mapReadResult;
+    /**
+     * Sets the executor used to read from several map databases in parallel, null (the default) reads
+     * them one after another on the calling thread. The results are combined in the order in which the
+     * map databases were added.
+     * <p/>
+     * The calling thread waits for the reads, so the executor must not be one whose threads are
+     * themselves blocked by map reads, e.g. the decoding executor of a map file. The executor is not
+     * shut down by this map database.
+     *
+     * @param executor the executor for reading map databases, or null.
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
     }
 
     public void setStartPosition(LatLong startPosition) {
@@ -357,11 +568,6 @@ public class MultiMapDataStore extends MapDataStore {
 
     @Override
     public boolean supportsTile(Tile tile) {
-        for (MapDataStore mdb : mapDatabases) {
-            if (mdb.supportsTile(tile)) {
-                return true;
-            }
-        }
-        return false;
+        return getFirstMapDataStore(tile) != null;
     }
 }
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A container for the data returned from a MapDataStore, which stores the coordinates of all
+ * POIs and ways in flat primitive arrays instead of {@link LatLong} objects.
+ * <p/>
+ * The coordinates of the ways are addressed through two offset tables: the first one maps a way
+ * to its segments, the second one maps a segment to its coordinates. Coordinates are stored as
+ * latitude/longitude pairs in degrees, exactly as they would be stored in a {@link Way}.
+ * <p/>
+ * Apart from the reduced allocation rate, the packed result is equivalent to a {@link MapReadResult},
+ * {@link #getWay(int)} and {@link #getPointOfInterest(int)} create the corresponding objects on demand.
+ */
+public class PackedMapReadResult {
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * The number of blocks read from the map file, blocks served by a cache are not counted.
+     */
+    public int blocksRead;
+
+    /**
+     * The number of bytes read from the map file.
+     */
+    public long bytesRead;
+
+    /**
+     * True if the read area is completely covered by water, false otherwise.
+     */
+    public boolean isWater;
+
+    private int numberOfPois;
+    private double[] poiCoordinates;
+    private byte[] poiLayers;
+    private final List<List<Tag>> poiTags;
+
+    private int numberOfCoordinates;
+    private int numberOfSegments;
+    private int numberOfWays;
+    private double[] wayCoordinates;
+    private double[] wayLabelPositions;
+    private byte[] wayLayers;
+    private int[] waySegments;
+    private final List<List<Tag>> wayTags;
+    private int[] segmentCoordinates;
+
+    public PackedMapReadResult() {
+        this.poiCoordinates = new double[2 * INITIAL_CAPACITY];
+        this.poiLayers = new byte[INITIAL_CAPACITY];
+        this.poiTags = new ArrayList<>();
+
+        this.wayCoordinates = new double[8 * INITIAL_CAPACITY];
+        this.wayLabelPositions = new double[2 * INITIAL_CAPACITY];
+        this.wayLayers = new byte[INITIAL_CAPACITY];
+        this.waySegments = new int[INITIAL_CAPACITY + 1];
+        this.wayTags = new ArrayList<>();
+        this.segmentCoordinates = new int[INITIAL_CAPACITY + 1];
+    }
+
+    /**
+     * Converts a MapReadResult into its packed representation.
+     */
+    public PackedMapReadResult(MapReadResult mapReadResult) {
+        this();
+        this.isWater = mapReadResult.isWater;
+        for (PointOfInterest poi : mapReadResult.pointOfInterests) {
+            add(poi);
+        }
+        for (Way way : mapReadResult.ways) {
+            add(way);
+        }
+    }
+
+    /**
+     * Appends all POIs and ways of another packed result.
+     */
+    public void add(PackedMapReadResult other) {
+        this.blocksRead += other.blocksRead;
+        this.bytesRead += other.bytesRead;
+
+        ensurePoiCapacity(this.numberOfPois + other.numberOfPois);
+        System.arraycopy(other.poiCoordinates, 0, this.poiCoordinates, 2 * this.numberOfPois, 2 * other.numberOfPois);
+        System.arraycopy(other.poiLayers, 0, this.poiLayers, this.numberOfPois, other.numberOfPois);
+        this.poiTags.addAll(other.poiTags);
+        this.numberOfPois += other.numberOfPois;
+
+        ensureWayCapacity(this.numberOfWays + other.numberOfWays);
+        ensureSegmentCapacity(this.numberOfSegments + other.numberOfSegments);
+        ensureCoordinateCapacity(this.numberOfCoordinates + other.numberOfCoordinates);
+        System.arraycopy(other.wayCoordinates, 0, this.wayCoordinates, 2 * this.numberOfCoordinates, 2 * other.numberOfCoordinates);
+        System.arraycopy(other.wayLabelPositions, 0, this.wayLabelPositions, 2 * this.numberOfWays, 2 * other.numberOfWays);
+        System.arraycopy(other.wayLayers, 0, this.wayLayers, this.numberOfWays, other.numberOfWays);
+        this.wayTags.addAll(other.wayTags);
+        for (int i = 1; i <= other.numberOfWays; ++i) {
+            this.waySegments[this.numberOfWays + i] = this.numberOfSegments + other.waySegments[i];
+        }
+        for (int i = 1; i <= other.numberOfSegments; ++i) {
+            this.segmentCoordinates[this.numberOfSegments + i] = this.numberOfCoordinates + other.segmentCoordinates[i];
+        }
+        this.numberOfWays += other.numberOfWays;
+        this.numberOfSegments += other.numberOfSegments;
+        this.numberOfCoordinates += other.numberOfCoordinates;
+    }
+
+    /**
+     * Appends a POI.
+     */
+    public void add(PointOfInterest poi) {
+        addPointOfInterest(poi.layer, poi.tags, poi.position.latitude, poi.position.longitude);
+    }
+
+    /**
+     * Appends a way.
+     */
+    public void add(Way way) {
+        ensureWayCapacity(this.numberOfWays + 1);
+        ensureSegmentCapacity(this.numberOfSegments + way.latLongs.length);
+        for (LatLong[] segment : way.latLongs) {
+            ensureCoordinateCapacity(this.numberOfCoordinates + segment.length);
+            for (LatLong latLong : segment) {
+                this.wayCoordinates[2 * this.numberOfCoordinates] = latLong.latitude;
+                this.wayCoordinates[2 * this.numberOfCoordinates + 1] = latLong.longitude;
+                ++this.numberOfCoordinates;
+            }
+            this.segmentCoordinates[++this.numberOfSegments] = this.numberOfCoordinates;
+        }
+        finishWay(way.layer, way.tags, way.labelPosition != null ? way.labelPosition.latitude : Double.NaN,
+                way.labelPosition != null ? way.labelPosition.longitude : Double.NaN);
+    }
+
+    /**
+     * Appends a POI.
+     *
+     * @param layer     the layer of the POI.
+     * @param tags      the tags of the POI.
+     * @param latitude  the latitude of the POI in degrees.
+     * @param longitude the longitude of the POI in degrees.
+     */
+    public void addPointOfInterest(byte layer, List<Tag> tags, double latitude, double longitude) {
+        ensurePoiCapacity(this.numberOfPois + 1);
+        this.poiCoordinates[2 * this.numberOfPois] = latitude;
+        this.poiCoordinates[2 * this.numberOfPois + 1] = longitude;
+        this.poiLayers[this.numberOfPois] = layer;
+        this.poiTags.add(tags);
+        ++this.numberOfPois;
+    }
+
+    /**
+     * Appends a way whose segments are stored consecutively in a coordinate array.
+     *
+     * @param layer          the layer of the way.
+     * @param tags           the tags of the way.
+     * @param coordinates    the latitude/longitude pairs of all segments in degrees.
+     * @param segmentLengths the number of coordinates of each segment.
+     * @param segments       the number of segments.
+     * @param labelLatitude  the latitude of the label position, or NaN if the way has none.
+     * @param labelLongitude the longitude of the label position, or NaN if the way has none.
+     */
+    public void addWay(byte layer, List<Tag> tags, double[] coordinates, int[] segmentLengths, int segments,
+                       double labelLatitude, double labelLongitude) {
+        ensureWayCapacity(this.numberOfWays + 1);
+        ensureSegmentCapacity(this.numberOfSegments + segments);
+        int length = 0;
+        for (int i = 0; i < segments; ++i) {
+            length += segmentLengths[i];
+            this.segmentCoordinates[this.numberOfSegments + i + 1] = this.numberOfCoordinates + length;
+        }
+        ensureCoordinateCapacity(this.numberOfCoordinates + length);
+        System.arraycopy(coordinates, 0, this.wayCoordinates, 2 * this.numberOfCoordinates, 2 * length);
+        this.numberOfSegments += segments;
+        this.numberOfCoordinates += length;
+        finishWay(layer, tags, labelLatitude, labelLongitude);
+    }
+
+    /**
+     * @return the number of POIs.
+     */
+    public int getNumberOfPois() {
+        return this.numberOfPois;
+    }
+
+    /**
+     * @return the number of ways.
+     */
+    public int getNumberOfWays() {
+        return this.numberOfWays;
+    }
+
+    /**
+     * Creates the POI with the given index.
+     */
+    public PointOfInterest getPointOfInterest(int poi) {
+        return new PointOfInterest(this.poiLayers[poi], this.poiTags.get(poi),
+                new LatLong(getPointOfInterestLatitude(poi), getPointOfInterestLongitude(poi)));
+    }
+
+    public double getPointOfInterestLatitude(int poi) {
+        return this.poiCoordinates[2 * poi];
+    }
+
+    public byte getPointOfInterestLayer(int poi) {
+        return this.poiLayers[poi];
+    }
+
+    public double getPointOfInterestLongitude(int poi) {
+        return this.poiCoordinates[2 * poi + 1];
+    }
+
+    public List<Tag> getPointOfInterestTags(int poi) {
+        return this.poiTags.get(poi);
+    }
+
+    /**
+     * Creates the way with the given index.
+     */
+    public Way getWay(int way) {
+        LatLong[][] latLongs = new LatLong[getWaySegments(way)][];
+        for (int segment = 0; segment < latLongs.length; ++segment) {
+            latLongs[segment] = new LatLong[getWaySegmentLength(way, segment)];
+            for (int i = 0; i < latLongs[segment].length; ++i) {
+                latLongs[segment][i] = new LatLong(getWayLatitude(way, segment, i), getWayLongitude(way, segment, i));
+            }
+        }
+        LatLong labelPosition = null;
+        if (hasWayLabelPosition(way)) {
+            labelPosition = new LatLong(getWayLabelLatitude(way), getWayLabelLongitude(way));
+        }
+        return new Way(this.wayLayers[way], this.wayTags.get(way), latLongs, labelPosition);
+    }
+
+    /**
+     * @return the latitude of the label position, or NaN if the way has none.
+     */
+    public double getWayLabelLatitude(int way) {
+        return this.wayLabelPositions[2 * way];
+    }
+
+    /**
+     * @return the longitude of the label position, or NaN if the way has none.
+     */
+    public double getWayLabelLongitude(int way) {
+        return this.wayLabelPositions[2 * way + 1];
+    }
+
+    public double getWayLatitude(int way, int segment, int coordinate) {
+        return this.wayCoordinates[2 * (this.segmentCoordinates[this.waySegments[way] + segment] + coordinate)];
+    }
+
+    public byte getWayLayer(int way) {
+        return this.wayLayers[way];
+    }
+
+    public double getWayLongitude(int way, int segment, int coordinate) {
+        return this.wayCoordinates[2 * (this.segmentCoordinates[this.waySegments[way] + segment] + coordinate) + 1];
+    }
+
+    /**
+     * @return the number of coordinates of a segment of a way.
+     */
+    public int getWaySegmentLength(int way, int segment) {
+        int index = this.waySegments[way] + segment;
+        return this.segmentCoordinates[index + 1] - this.segmentCoordinates[index];
+    }
+
+    /**
+     * @return the number of segments of a way, the first one is the outer ring of an area.
+     */
+    public int getWaySegments(int way) {
+        return this.waySegments[way + 1] - this.waySegments[way];
+    }
+
+    public List<Tag> getWayTags(int way) {
+        return this.wayTags.get(way);
+    }
+
+    public boolean hasWayLabelPosition(int way) {
+        return !Double.isNaN(this.wayLabelPositions[2 * way]);
+    }
+
+    /**
+     * Same as {@link org.mapsforge.core.util.LatLongUtils#isClosedWay(LatLong[])} for the first segment of a way.
+     */
+    public boolean isClosedWay(int way) {
+        int last = getWaySegmentLength(way, 0) - 1;
+        return Math.hypot(getWayLongitude(way, 0, 0) - getWayLongitude(way, 0, last),
+                getWayLatitude(way, 0, 0) - getWayLatitude(way, 0, last)) < 0.000000001;
+    }
+
+    /**
+     * Creates the equivalent MapReadResult.
+     */
+    public MapReadResult toMapReadResult() {
+        MapReadResult mapReadResult = new MapReadResult();
+        mapReadResult.isWater = this.isWater;
+        for (int i = 0; i < this.numberOfPois; ++i) {
+            mapReadResult.pointOfInterests.add(getPointOfInterest(i));
+        }
+        for (int i = 0; i < this.numberOfWays; ++i) {
+            mapReadResult.ways.add(getWay(i));
+        }
+        return mapReadResult;
+    }
+
+    /**
+     * Removes all POIs and ways that have been added after the given number of POIs and ways,
+     * for example to discard the elements of an invalid block.
+     */
+    public void truncate(int pois, int ways) {
+        if (pois < this.numberOfPois) {
+            this.poiTags.subList(pois, this.numberOfPois).clear();
+            this.numberOfPois = pois;
+        }
+        if (ways < this.numberOfWays) {
+            this.wayTags.subList(ways, this.numberOfWays).clear();
+            this.numberOfWays = ways;
+            this.numberOfSegments = this.waySegments[ways];
+            this.numberOfCoordinates = this.segmentCoordinates[this.numberOfSegments];
+        }
+    }
+
+    private void ensureCoordinateCapacity(int capacity) {
+        if (2 * capacity > this.wayCoordinates.length) {
+            this.wayCoordinates = Arrays.copyOf(this.wayCoordinates, Math.max(2 * capacity, 2 * this.wayCoordinates.length));
+        }
+    }
+
+    private void ensurePoiCapacity(int capacity) {
+        if (capacity > this.poiLayers.length) {
+            int newCapacity = Math.max(capacity, 2 * this.poiLayers.length);
+            this.poiCoordinates = Arrays.copyOf(this.poiCoordinates, 2 * newCapacity);
+            this.poiLayers = Arrays.copyOf(this.poiLayers, newCapacity);
+        }
+    }
+
+    private void ensureSegmentCapacity(int capacity) {
+        if (capacity + 1 > this.segmentCoordinates.length) {
+            this.segmentCoordinates = Arrays.copyOf(this.segmentCoordinates, Math.max(capacity + 1, 2 * this.segmentCoordinates.length));
+        }
+    }
+
+    private void ensureWayCapacity(int capacity) {
+        if (capacity > this.wayLayers.length) {
+            int newCapacity = Math.max(capacity, 2 * this.wayLayers.length);
+            this.wayLabelPositions = Arrays.copyOf(this.wayLabelPositions, 2 * newCapacity);
+            this.wayLayers = Arrays.copyOf(this.wayLayers, newCapacity);
+            this.waySegments = Arrays.copyOf(this.waySegments, newCapacity + 1);
+        }
+    }
+
+    private void finishWay(byte layer, List<Tag> tags, double labelLatitude, double labelLongitude) {
+        this.wayLabelPositions[2 * this.numberOfWays] = labelLatitude;
+        this.wayLabelPositions[2 * this.numberOfWays + 1] = labelLongitude;
+        this.wayLayers[this.numberOfWays] = layer;
+        this.wayTags.add(tags);
+        this.waySegments[++this.numberOfWays] = this.numberOfSegments;
+    }
+}
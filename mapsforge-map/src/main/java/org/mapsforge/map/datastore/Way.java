@@ -45,6 +45,11 @@ public class Way {
      */
     public final List<Tag> tags;
 
+    /**
+     * The lazily computed hash code, as it covers all way nodes.
+     */
+    private int hashCode;
+
     public Way(byte layer, List<Tag> tags, LatLong[][] latLongs, LatLong labelPosition) {
         this.layer = layer;
         this.tags = tags;
@@ -88,13 +93,17 @@ public class Way {
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + layer;
-        result = prime * result + tags.hashCode();
-        result = prime * result + Arrays.deepHashCode(latLongs);
-        if (labelPosition != null) {
-            result = prime * result + labelPosition.hashCode();
+        int result = this.hashCode;
+        if (result == 0) {
+            final int prime = 31;
+            result = 1;
+            result = prime * result + layer;
+            result = prime * result + tags.hashCode();
+            result = prime * result + Arrays.deepHashCode(latLongs);
+            if (labelPosition != null) {
+                result = prime * result + labelPosition.hashCode();
+            }
+            this.hashCode = result;
         }
         return result;
     }
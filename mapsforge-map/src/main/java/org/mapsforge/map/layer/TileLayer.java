@@ -113,6 +113,7 @@ public abstract class TileLayer<T extends Job> extends Layer {
             }
         }
         if (this.hasJobQueue) {
+            this.jobQueue.setMapViewDimension(canvas.getDimension());
             this.jobQueue.notifyWorkers();
         }
     }
@@ -18,7 +18,7 @@ import org.mapsforge.core.graphics.GraphicFactory;
 import org.mapsforge.core.mapelements.MapElementContainer;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.map.datastore.MapDataStore;
-import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.MapDataVisitor;
 import org.mapsforge.map.datastore.PointOfInterest;
 import org.mapsforge.map.datastore.Way;
 import org.mapsforge.map.layer.renderer.CanvasRasterer;
@@ -63,32 +63,32 @@ public class MapDataStoreLabelStore implements LabelStore {
     }
 
     @Override
-    public synchronized List<MapElementContainer> getVisibleItems(Tile upperLeft, Tile lowerRight) {
+    public synchronized List<MapElementContainer> getVisibleItems(final Tile upperLeft, final Tile lowerRight) {
 
         try {
             RendererJob rendererJob = new RendererJob(upperLeft, this.standardRenderer.mapDataStore, this.renderThemeFuture, this.displayModel, this.textScale, true, true);
-            RenderContext renderContext = new RenderContext(rendererJob, new CanvasRasterer(standardRenderer.graphicFactory));
-
-            MapReadResult mapReadResult = standardRenderer.mapDataStore.readLabels(upperLeft, lowerRight);
-
-            if (mapReadResult == null) {
-                return new ArrayList<>();
-            }
-
-            for (PointOfInterest pointOfInterest : mapReadResult.pointOfInterests) {
-                renderContext.setDrawingLayers(pointOfInterest.layer);
-                renderContext.rendererJob.renderThemeFuture.get().matchNode(standardRenderer, renderContext, pointOfInterest);
-            }
-            for (Way way : mapReadResult.ways) {
-                PolylineContainer polylineContainer = new PolylineContainer(way, upperLeft, lowerRight);
-                renderContext.setDrawingLayers(polylineContainer.getLayer());
-
-                if (polylineContainer.isClosedWay()) {
-                    renderContext.renderTheme.matchClosedWay(standardRenderer, renderContext, polylineContainer);
-                } else {
-                    renderContext.renderTheme.matchLinearWay(standardRenderer, renderContext, polylineContainer);
+            final RenderContext renderContext = new RenderContext(rendererJob, new CanvasRasterer(standardRenderer.graphicFactory));
+
+            // the elements are matched while they are read, so the area is never kept in memory as a whole
+            standardRenderer.mapDataStore.readLabels(upperLeft, lowerRight, new MapDataVisitor() {
+                @Override
+                public void visitPointOfInterest(PointOfInterest pointOfInterest) {
+                    renderContext.setDrawingLayers(pointOfInterest.layer);
+                    renderContext.renderTheme.matchNode(standardRenderer, renderContext, pointOfInterest);
                 }
-            }
+
+                @Override
+                public void visitWay(Way way) {
+                    PolylineContainer polylineContainer = new PolylineContainer(way, upperLeft, lowerRight);
+                    renderContext.setDrawingLayers(polylineContainer.getLayer());
+
+                    if (polylineContainer.isClosedWay()) {
+                        renderContext.renderTheme.matchClosedWay(standardRenderer, renderContext, polylineContainer);
+                    } else {
+                        renderContext.renderTheme.matchLinearWay(standardRenderer, renderContext, polylineContainer);
+                    }
+                }
+            });
 
             return renderContext.labels;
         } catch (Exception e) {
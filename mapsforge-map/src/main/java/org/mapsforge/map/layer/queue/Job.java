@@ -22,6 +22,7 @@ import java.io.File;
 
 public class Job {
     public final boolean hasAlpha;
+    private volatile boolean cancelled;
     public final Tile tile;
     private final String key;
 
@@ -43,6 +44,14 @@ public class Job {
         this.key = composeKey(this.tile.zoomLevel, this.tile.tileX, this.tile.tileY);
     }
 
+    /**
+     * Marks this job as obsolete, e.g. because its tile has left the visible area. A job which has already
+     * been taken from the queue should be abandoned at the next opportunity.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
@@ -70,4 +79,11 @@ public class Job {
     public int hashCode() {
         return this.tile.hashCode();
     }
+
+    /**
+     * @return true if this job has been cancelled and its result is no longer needed.
+     */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
 }
@@ -16,22 +16,56 @@
  */
 package org.mapsforge.map.layer.queue;
 
+import org.mapsforge.core.model.Dimension;
+import org.mapsforge.core.model.MapPosition;
+import org.mapsforge.core.model.Tile;
+import org.mapsforge.map.datastore.MapDataStore;
 import org.mapsforge.map.model.DisplayModel;
 import org.mapsforge.map.model.IMapViewPosition;
 
-import java.util.Collections;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A queue of jobs, which hands out the job closest to the current map position first.
+ * <p/>
+ * The queued jobs are indexed by a hash map and ordered by a sorted set, which is used as a double-ended
+ * priority queue: the most important job is taken from its head, the least important jobs are dropped
+ * from its tail. The priority of a new job is calculated when it is first scheduled, the priorities of all
+ * queued jobs are only recalculated when the map position or the tile size has changed since the last
+ * scheduling.
+ * <p/>
+ * When the map position changes, jobs which have already been assigned are {@link Job#cancel() cancelled}
+ * if their tiles are on another zoom level or no longer near the map view: further away from the map position
+ * than half the diagonal of the {@link #setMapViewDimension(Dimension) map view} plus a margin of
+ * {@link #CANCEL_MARGIN} tiles. As long as the dimension of the map view is not known, the penalty for one zoom
+ * level is used as the distance. Workers should check {@link Job#isCancelled()} between the phases of a job
+ * and abandon cancelled jobs.
+ */
 public class JobQueue<T extends Job> {
+    /**
+     * Tiles within this number of tiles around the map view are kept, they are likely to come back into view.
+     */
+    static final int CANCEL_MARGIN = 2;
     private static final int QUEUE_CAPACITY = 128;
 
-    private final List<T> assignedJobs = new LinkedList<>();
+    private final Set<T> assignedJobs = new HashSet<>();
     private final DisplayModel displayModel;
     private boolean isInterrupted;
+    private MapDataStore mapDataStore;
+    private Dimension mapViewDimension;
     private final IMapViewPosition mapViewPosition;
-    private final List<QueueItem<T>> queueItems = new LinkedList<>();
-    private boolean scheduleNeeded;
+    private final List<QueueItem<T>> pendingItems = new ArrayList<>();
+    private final Map<T, QueueItem<T>> queueIndex = new HashMap<>();
+    private final TreeSet<QueueItem<T>> queueItems = new TreeSet<>(QueueItemComparator.INSTANCE);
+    private MapPosition scheduledMapPosition;
+    private int scheduledTileSize;
+    private long sequence;
 
     public JobQueue(IMapViewPosition mapViewPosition, DisplayModel displayModel) {
         this.mapViewPosition = mapViewPosition;
@@ -39,12 +73,27 @@ public class JobQueue<T extends Job> {
     }
 
     public synchronized void add(T job) {
-        if (!this.assignedJobs.contains(job)) {
-            QueueItem<T> queueItem = new QueueItem<>(job);
-            if (!this.queueItems.contains(queueItem)) {
-                this.queueItems.add(queueItem);
-                this.scheduleNeeded = true;
-                this.notifyWorkers();
+        if (!this.assignedJobs.contains(job) && !this.queueIndex.containsKey(job)) {
+            QueueItem<T> queueItem = new QueueItem<>(job, this.sequence++);
+            this.queueIndex.put(job, queueItem);
+            this.pendingItems.add(queueItem);
+            this.notifyWorkers();
+        }
+    }
+
+    /**
+     * Cancels the assigned jobs whose tiles are no longer needed at the given map position.
+     */
+    private void cancelObsoleteJobs(MapPosition mapPosition, int tileSize) {
+        double cutOff = QueueItemScheduler.PENALTY_PER_ZOOM_LEVEL * tileSize;
+        if (this.mapViewDimension != null) {
+            cutOff = Math.hypot(this.mapViewDimension.width, this.mapViewDimension.height) / 2
+                    + CANCEL_MARGIN * tileSize;
+        }
+        for (T job : this.assignedJobs) {
+            if (job.tile.zoomLevel != mapPosition.zoomLevel
+                    || QueueItemScheduler.calculatePriority(job.tile, mapPosition, tileSize) >= cutOff) {
+                job.cancel();
             }
         }
     }
@@ -65,20 +114,19 @@ public class JobQueue<T extends Job> {
      *                    that the scheduling will continue to work.
      */
     public synchronized T get(int maxAssigned) throws InterruptedException {
-        while (this.queueItems.isEmpty() || this.assignedJobs.size() >= maxAssigned) {
+        schedule(this.displayModel.getTileSize());
+        while (this.queueIndex.isEmpty() || this.assignedJobs.size() >= maxAssigned) {
             this.wait(200);
             if (this.isInterrupted) {
                 this.isInterrupted = false;
                 return null;
             }
+            // also while all workers are busy, so that their obsolete jobs are cancelled
+            schedule(this.displayModel.getTileSize());
         }
 
-        if (this.scheduleNeeded) {
-            this.scheduleNeeded = false;
-            schedule(displayModel.getTileSize());
-        }
-
-        T job = this.queueItems.remove(0).object;
+        T job = this.queueItems.pollFirst().object;
+        this.queueIndex.remove(job);
         this.assignedJobs.add(job);
         return job;
     }
@@ -92,29 +140,97 @@ public class JobQueue<T extends Job> {
         this.notifyAll();
     }
 
+    /**
+     * Asks the map data store to prefetch the data for the queued tiles on the zoom level of the most
+     * important tile, so that the data of the following jobs is read ahead in a few large reads.
+     */
+    private void prefetch() {
+        if (this.mapDataStore == null || this.queueItems.isEmpty()) {
+            return;
+        }
+
+        Tile first = this.queueItems.first().object.tile;
+        int minX = first.tileX;
+        int minY = first.tileY;
+        int maxX = first.tileX;
+        int maxY = first.tileY;
+        for (QueueItem<T> queueItem : this.queueItems) {
+            Tile tile = queueItem.object.tile;
+            if (tile.zoomLevel == first.zoomLevel && tile.tileSize == first.tileSize) {
+                minX = Math.min(minX, tile.tileX);
+                minY = Math.min(minY, tile.tileY);
+                maxX = Math.max(maxX, tile.tileX);
+                maxY = Math.max(maxY, tile.tileY);
+            }
+        }
+        this.mapDataStore.prefetch(new Tile(minX, minY, first.zoomLevel, first.tileSize),
+                new Tile(maxX, maxY, first.zoomLevel, first.tileSize), first);
+    }
+
     public synchronized void remove(T job) {
         this.assignedJobs.remove(job);
         this.notifyWorkers();
     }
 
+    /**
+     * Brings the queue up to date with the current map position. The priorities of all queued items are
+     * only recalculated if the map position or the tile size has changed, otherwise only the items added
+     * since the last scheduling are inserted.
+     */
     private void schedule(int tileSize) {
-        QueueItemScheduler.schedule(this.queueItems, this.mapViewPosition.getMapPosition(), tileSize);
-        Collections.sort(this.queueItems, QueueItemComparator.INSTANCE);
+        MapPosition mapPosition = this.mapViewPosition.getMapPosition();
+        if (!mapPosition.equals(this.scheduledMapPosition) || tileSize != this.scheduledTileSize) {
+            this.scheduledMapPosition = mapPosition;
+            this.scheduledTileSize = tileSize;
+            cancelObsoleteJobs(mapPosition, tileSize);
+            this.pendingItems.clear();
+            this.queueItems.clear();
+            QueueItemScheduler.schedule(this.queueIndex.values(), mapPosition, tileSize);
+            this.queueItems.addAll(this.queueIndex.values());
+        } else if (!this.pendingItems.isEmpty()) {
+            QueueItemScheduler.schedule(this.pendingItems, mapPosition, tileSize);
+            this.queueItems.addAll(this.pendingItems);
+            this.pendingItems.clear();
+        } else {
+            return;
+        }
         trimToSize();
+        prefetch();
+    }
+
+    /**
+     * Sets the dimension of the map view, which determines how far away from the map position the tiles of
+     * assigned jobs may be before the jobs are cancelled.
+     *
+     * @param mapViewDimension the dimension of the area shown by the map view, or null if it is unknown.
+     */
+    public synchronized void setMapViewDimension(Dimension mapViewDimension) {
+        this.mapViewDimension = mapViewDimension;
+    }
+
+    /**
+     * Sets the map data store which is asked to prefetch the data of the queued tiles whenever
+     * the queue is scheduled, see {@link MapDataStore#prefetch(Tile, Tile, Tile)}.
+     *
+     * @param mapDataStore the map data store of the jobs, or null.
+     */
+    public synchronized void setMapDataStore(MapDataStore mapDataStore) {
+        this.mapDataStore = mapDataStore;
     }
 
     /**
      * @return the current number of entries in this queue.
      */
     public synchronized int size() {
-        return this.queueItems.size();
+        return this.queueIndex.size();
     }
 
+    /**
+     * Removes the least important items if this queue holds more than {@link #QUEUE_CAPACITY} items.
+     */
     private void trimToSize() {
-        int queueSize = this.queueItems.size();
-
-        while (queueSize > QUEUE_CAPACITY) {
-            this.queueItems.remove(--queueSize);
+        while (this.queueItems.size() > QUEUE_CAPACITY) {
+            this.queueIndex.remove(this.queueItems.pollLast().object);
         }
     }
 }
@@ -17,9 +17,18 @@ package org.mapsforge.map.layer.queue;
 class QueueItem<T extends Job> {
     final T object;
     private double priority;
+    final long sequence;
 
     QueueItem(T object) {
+        this(object, 0);
+    }
+
+    /**
+     * @param sequence the insertion order of the item, which breaks ties between equal priorities.
+     */
+    QueueItem(T object, long sequence) {
         this.object = object;
+        this.sequence = sequence;
     }
 
     @Override
@@ -31,6 +31,10 @@ final class QueueItemComparator implements Comparator<QueueItem<?>>, Serializabl
             return -1;
         } else if (queueItem1.getPriority() > queueItem2.getPriority()) {
             return 1;
+        } else if (queueItem1.sequence < queueItem2.sequence) {
+            return -1;
+        } else if (queueItem1.sequence > queueItem2.sequence) {
+            return 1;
         }
         return 0;
     }
@@ -31,7 +31,10 @@ final class QueueItemScheduler {
         }
     }
 
-    private static double calculatePriority(Tile tile, MapPosition mapPosition, int tileSize) {
+    /**
+     * @return the priority of the given tile, lower values are more important.
+     */
+    static double calculatePriority(Tile tile, MapPosition mapPosition, int tileSize) {
         double tileLatitude = MercatorProjection.tileYToLatitude(tile.tileY, tile.zoomLevel);
         double tileLongitude = MercatorProjection.tileXToLongitude(tile.tileX, tile.zoomLevel);
 
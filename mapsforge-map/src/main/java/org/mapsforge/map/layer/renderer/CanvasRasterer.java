@@ -29,6 +29,7 @@ import org.mapsforge.core.mapelements.MapElementContainer;
 import org.mapsforge.core.model.Point;
 import org.mapsforge.core.model.Rectangle;
 import org.mapsforge.core.model.Tile;
+import org.mapsforge.core.util.Parameters;
 import org.mapsforge.map.rendertheme.RenderContext;
 
 import java.util.ArrayList;
@@ -51,7 +52,12 @@ public class CanvasRasterer {
         this.canvas.destroy();
     }
 
+    void drawBitmap(Bitmap bitmap, int left, int top) {
+        this.canvas.drawBitmap(bitmap, left, top);
+    }
+
     void drawWays(RenderContext renderContext) {
+        boolean pathBatching = Parameters.PATH_BATCHING;
         int levelsPerLayer = renderContext.ways.get(0).size();
 
         for (int layer = 0, layers = renderContext.ways.size(); layer < layers; ++layer) {
@@ -60,6 +66,10 @@ public class CanvasRasterer {
             for (int level = 0; level < levelsPerLayer; ++level) {
                 List<ShapePaintContainer> wayList = shapePaintContainers.get(level);
 
+                if (pathBatching) {
+                    drawShapePaintContainersBatched(wayList);
+                    continue;
+                }
                 for (int index = wayList.size() - 1; index >= 0; --index) {
                     drawShapePaintContainer(wayList.get(index));
                 }
@@ -119,19 +129,7 @@ public class CanvasRasterer {
         this.canvas.setBitmap(bitmap);
     }
 
-    private void drawCircleContainer(ShapePaintContainer shapePaintContainer) {
-        CircleContainer circleContainer = (CircleContainer) shapePaintContainer.shapeContainer;
-        Point point = circleContainer.point;
-        this.canvas.drawCircle((int) point.x, (int) point.y, (int) circleContainer.radius, shapePaintContainer.paint);
-    }
-
-    private void drawHillshading(HillshadingContainer container) {
-        canvas.shadeBitmap(container.bitmap, container.hillsRect, container.tileRect, container.magnitude);
-    }
-
-    private void drawPath(ShapePaintContainer shapePaintContainer, Point[][] coordinates, float dy) {
-        this.path.clear();
-
+    private void addToPath(Point[][] coordinates, float dy) {
         for (Point[] innerList : coordinates) {
             Point[] points;
             if (dy != 0f) {
@@ -148,7 +146,21 @@ public class CanvasRasterer {
                 }
             }
         }
+    }
+
+    private void drawCircleContainer(ShapePaintContainer shapePaintContainer) {
+        CircleContainer circleContainer = (CircleContainer) shapePaintContainer.shapeContainer;
+        Point point = circleContainer.point;
+        this.canvas.drawCircle((int) point.x, (int) point.y, (int) circleContainer.radius, shapePaintContainer.paint);
+    }
+
+    private void drawHillshading(HillshadingContainer container) {
+        canvas.shadeBitmap(container.bitmap, container.hillsRect, container.tileRect, container.magnitude);
+    }
 
+    private void drawPath(ShapePaintContainer shapePaintContainer, Point[][] coordinates, float dy) {
+        this.path.clear();
+        addToPath(coordinates, dy);
         this.canvas.drawPath(this.path, shapePaintContainer.paint);
     }
 
@@ -169,4 +181,47 @@ public class CanvasRasterer {
                 break;
         }
     }
+
+    /**
+     * Draws the shapes of one level in the same order as {@link #drawShapePaintContainer}, but collects
+     * consecutive polylines with the same opaque paint and offset into one path, which is drawn with one call.
+     * <p/>
+     * The shapes of an area alternate between its fill and its stroke, so in practice only lines are
+     * batched. Lines with a translucent paint are drawn one by one: where they cross, every line has to
+     * be blended over the other, while one path would be blended only once. Where opaque lines of a batch
+     * overlap, anti-aliased edges may differ slightly from drawing them one by one.
+     */
+    private void drawShapePaintContainersBatched(List<ShapePaintContainer> wayList) {
+        ShapePaintContainer batch = null;
+        for (int index = wayList.size() - 1; index >= 0; --index) {
+            ShapePaintContainer shapePaintContainer = wayList.get(index);
+            boolean batchable = isBatchable(shapePaintContainer);
+            if (batch != null && (!batchable || shapePaintContainer.paint != batch.paint
+                    || shapePaintContainer.dy != batch.dy)) {
+                this.canvas.drawPath(this.path, batch.paint);
+                batch = null;
+            }
+            if (!batchable) {
+                drawShapePaintContainer(shapePaintContainer);
+                continue;
+            }
+            if (batch == null) {
+                this.path.clear();
+                batch = shapePaintContainer;
+            }
+            PolylineContainer polylineContainer = (PolylineContainer) shapePaintContainer.shapeContainer;
+            addToPath(polylineContainer.getCoordinatesRelativeToOrigin(), shapePaintContainer.dy);
+        }
+        if (batch != null) {
+            this.canvas.drawPath(this.path, batch.paint);
+        }
+    }
+
+    /**
+     * @return true if the shape is a polyline with an opaque paint, which can be drawn as part of a batch.
+     */
+    private static boolean isBatchable(ShapePaintContainer shapePaintContainer) {
+        return shapePaintContainer.shapeContainer.getShapeType() == ShapeType.POLYLINE
+                && (shapePaintContainer.paint.getColor() >>> 24) == 0xff;
+    }
 }
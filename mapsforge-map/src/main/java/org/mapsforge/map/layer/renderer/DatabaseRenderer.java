@@ -21,30 +21,44 @@ import org.mapsforge.core.graphics.Color;
 import org.mapsforge.core.graphics.GraphicFactory;
 import org.mapsforge.core.graphics.TileBitmap;
 import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.mapelements.MapElementGrid;
 import org.mapsforge.core.model.Rectangle;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.map.datastore.MapDataStore;
-import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PackedMapReadResult;
 import org.mapsforge.map.layer.cache.TileCache;
 import org.mapsforge.map.layer.hills.HillsRenderConfig;
 import org.mapsforge.map.layer.labels.TileBasedLabelStore;
 import org.mapsforge.map.rendertheme.RenderContext;
 import org.mapsforge.map.util.LayerUtil;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Logger;
 
 /**
  * The DatabaseRenderer renders map tiles by reading from a {@link org.mapsforge.map.datastore.MapDataStore}.
+ * <p/>
+ * Tiles can also be rendered in metatiles of N×N tiles, see {@link #executeMetaTileJob(RendererJob)}:
+ * the map data is read, matched and labelled once for the whole metatile, which saves work and
+ * avoids clipped labels at the seams between its tiles.
+ * <p/>
+ * A job is rendered in three {@link RenderStage stages}, read, match and draw, which the
+ * {@link RenderExecutor} runs on threads of their own; {@link #executeJob(RendererJob)} and
+ * {@link #executeMetaTileJob(RendererJob)} run them one after the other on the calling thread.
  */
 public class DatabaseRenderer extends StandardRenderer {
     private static final Logger LOGGER = Logger.getLogger(DatabaseRenderer.class.getName());
 
     private final TileBasedLabelStore labelStore;
+    private volatile int metaTileSize;
     private final boolean renderLabels;
+    private volatile RenderListener renderListener;
     private final TileCache tileCache;
     private final TileDependencies tileDependencies;
 
@@ -70,6 +84,7 @@ public class DatabaseRenderer extends StandardRenderer {
         this.tileCache = tileCache;
         this.labelStore = labelStore;
         this.renderLabels = renderLabels;
+        this.metaTileSize = 1;
         if (!renderLabels) {
             this.tileDependencies = null;
         } else {
@@ -79,69 +94,318 @@ public class DatabaseRenderer extends StandardRenderer {
 
     /**
      * Called when a job needs to be executed.
+     * <p/>
+     * A {@link RendererJob#isCancelled() cancelled} job is abandoned after reading the map data, after matching
+     * it against the render theme or after drawing the ways, but not once its labels have been placed.
      *
      * @param rendererJob the job that should be executed.
+     * @return the bitmap of the tile, or null if rendering failed or the job was cancelled.
      */
     public TileBitmap executeJob(RendererJob rendererJob) {
-        RenderContext renderContext = null;
-        try {
-            renderContext = new RenderContext(rendererJob, new CanvasRasterer(graphicFactory));
+        return execute(rendererJob, false).get(rendererJob);
+    }
 
-            if (renderBitmap(renderContext)) {
-                TileBitmap bitmap = null;
+    /**
+     * Called when a job needs to be executed as part of a metatile: the tiles of the metatile which
+     * contains the tile of the job are read with one query, labelled with one placement pass and
+     * rendered onto one canvas, which is then sliced into the individual tiles.
+     * <p/>
+     * Jobs that only retrieve labels, jobs with hillshading and all jobs with a metatile size of 1
+     * are executed as single tiles like {@link #executeJob(RendererJob)}.
+     *
+     * @param rendererJob the job that should be executed.
+     * @return the bitmaps of the rendered tiles of the metatile keyed by their jobs (empty if rendering failed
+     * or the job was cancelled).
+     */
+    public Map<RendererJob, TileBitmap> executeMetaTileJob(RendererJob rendererJob) {
+        return execute(rendererJob, true);
+    }
 
-                if (this.mapDataStore != null) {
-                    MapReadResult mapReadResult = this.mapDataStore.readMapData(rendererJob.tile);
-                    processReadMapData(renderContext, mapReadResult);
-                }
+    public MapDataStore getMapDatabase() {
+        return this.mapDataStore;
+    }
 
-                if (!rendererJob.labelsOnly) {
-                    renderContext.renderTheme.matchHillShadings(this, renderContext);
-                    bitmap = this.graphicFactory.createTileBitmap(rendererJob.tile.tileSize, rendererJob.hasAlpha);
-                    bitmap.setTimestamp(rendererJob.mapDataStore.getDataTimestamp(rendererJob.tile));
-                    renderContext.canvasRasterer.setCanvasBitmap(bitmap);
-                    if (!rendererJob.hasAlpha && rendererJob.displayModel.getBackgroundColor() != renderContext.renderTheme.getMapBackground()) {
-                        renderContext.canvasRasterer.fill(renderContext.renderTheme.getMapBackground());
-                    }
-                    renderContext.canvasRasterer.drawWays(renderContext);
+    /**
+     * @return the number of tiles along each side of a metatile.
+     */
+    public int getMetaTileSize() {
+        return this.metaTileSize;
+    }
+
+    /**
+     * @return the listener which receives the statistics of every rendered job (may be null).
+     */
+    public RenderListener getRenderListener() {
+        return this.renderListener;
+    }
+
+    /**
+     * Sets the number of tiles along each side of the metatiles rendered by
+     * {@link #executeMetaTileJob(RendererJob)}, 1 renders single tiles.
+     *
+     * @param metaTileSize the number of tiles along each side of a metatile.
+     */
+    public void setMetaTileSize(int metaTileSize) {
+        if (metaTileSize < 1) {
+            throw new IllegalArgumentException("invalid metaTileSize: " + metaTileSize);
+        }
+        this.metaTileSize = metaTileSize;
+    }
+
+    /**
+     * Sets a listener which receives the {@link RenderStatistics} of every job rendered from now on, null
+     * disables the statistics. Without a listener, no statistics are collected.
+     *
+     * @param renderListener the listener to be set (may be null).
+     */
+    public void setRenderListener(RenderListener renderListener) {
+        this.renderListener = renderListener;
+    }
+
+    /**
+     * @return the tile in the lower right corner of the metatile which contains the given tile.
+     */
+    static Tile getMetaTileLowerRight(Tile tile, int metaTileSize) {
+        int maxTileNumber = Tile.getMaxTileNumber(tile.zoomLevel);
+        int tileX = Math.min(tile.tileX - tile.tileX % metaTileSize + metaTileSize - 1, maxTileNumber);
+        int tileY = Math.min(tile.tileY - tile.tileY % metaTileSize + metaTileSize - 1, maxTileNumber);
+        return new Tile(tileX, tileY, tile.zoomLevel, tile.tileSize);
+    }
+
+    /**
+     * @return the tile in the upper left corner of the metatile which contains the given tile.
+     */
+    static Tile getMetaTileUpperLeft(Tile tile, int metaTileSize) {
+        return new Tile(tile.tileX - tile.tileX % metaTileSize, tile.tileY - tile.tileY % metaTileSize,
+                tile.zoomLevel, tile.tileSize);
+    }
+
+    private static RendererJob getJob(RendererJob rendererJob, Tile tile) {
+        return tile.equals(rendererJob.tile) ? rendererJob : rendererJob.otherTile(tile);
+    }
+
+    private static List<Tile> getTiles(Tile upperLeft, Tile lowerRight) {
+        List<Tile> tiles = new ArrayList<>();
+        for (int y = upperLeft.tileY; y <= lowerRight.tileY; ++y) {
+            for (int x = upperLeft.tileX; x <= lowerRight.tileX; ++x) {
+                tiles.add(new Tile(x, y, upperLeft.zoomLevel, upperLeft.tileSize));
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * The last stage of a job, see {@link RenderStage#DRAW}: draws the ways onto the canvas of the tile or
+     * metatile, places and draws the labels and slices a metatile into its tiles.
+     *
+     * @return the bitmaps of the rendered tiles keyed by their jobs (empty if rendering failed or the job was
+     * cancelled).
+     */
+    Map<RendererJob, TileBitmap> draw(RenderTask renderTask) {
+        Map<RendererJob, TileBitmap> bitmaps = new LinkedHashMap<>();
+        RendererJob rendererJob = renderTask.rendererJob;
+        RenderContext renderContext = renderTask.renderContext;
+        Tile upperLeft = renderContext.rendererJob.tile;
+        Tile lowerRight = renderContext.lowerRight;
+        List<Tile> tiles = getTiles(upperLeft, lowerRight);
+        RenderStatistics statistics = renderTask.renderStatistics;
+        if (statistics != null) {
+            statistics.tiles = tiles.size();
+        }
+        TileBitmap canvasBitmap = null;
+        try {
+            if (!renderTask.renderBitmap) {
+                // outside of map area with background defined:
+                for (Tile tile : tiles) {
+                    bitmaps.put(getJob(rendererJob, tile), createBackgroundBitmap(renderContext, statistics));
                 }
+                return bitmaps;
+            }
 
-                if (this.renderLabels) {
-                    Set<MapElementContainer> labelsToDraw = processLabels(renderContext);
-                    // now draw the ways and the labels
-                    renderContext.canvasRasterer.drawMapElements(labelsToDraw, rendererJob.tile);
+            int tileSize = upperLeft.tileSize;
+            if (!rendererJob.labelsOnly) {
+                int columns = lowerRight.tileX - upperLeft.tileX + 1;
+                int rows = lowerRight.tileY - upperLeft.tileY + 1;
+                canvasBitmap = createTileBitmap(Math.max(columns, rows) * tileSize, rendererJob.hasAlpha, statistics);
+                canvasBitmap.setTimestamp(rendererJob.mapDataStore.getDataTimestamp(upperLeft));
+                long start = statistics != null ? System.nanoTime() : 0;
+                renderContext.canvasRasterer.setCanvasBitmap(canvasBitmap);
+                if (!rendererJob.hasAlpha && rendererJob.displayModel.getBackgroundColor() != renderContext.renderTheme.getMapBackground()) {
+                    renderContext.canvasRasterer.fill(renderContext.renderTheme.getMapBackground());
                 }
-                if (this.labelStore != null) {
-                    // store elements for this tile in the label cache
-                    this.labelStore.storeMapItems(rendererJob.tile, renderContext.labels);
+                renderContext.canvasRasterer.drawWays(renderContext);
+                if (statistics != null) {
+                    statistics.drawTime += System.nanoTime() - start;
                 }
+            }
+            if (rendererJob.isCancelled()) {
+                // last chance to abandon the job, placed labels are relied upon by the neighbouring tiles
+                return bitmaps;
+            }
 
-                if (!rendererJob.labelsOnly && renderContext.renderTheme.hasMapBackgroundOutside()) {
-                    // blank out all areas outside of map
-                    Rectangle insideArea = this.mapDataStore.boundingBox().getPositionRelativeToTile(rendererJob.tile);
-                    if (!rendererJob.hasAlpha) {
-                        renderContext.canvasRasterer.fillOutsideAreas(renderContext.renderTheme.getMapBackgroundOutside(), insideArea);
-                    } else {
-                        renderContext.canvasRasterer.fillOutsideAreas(Color.TRANSPARENT, insideArea);
+            long start = statistics != null ? System.nanoTime() : 0;
+            if (this.renderLabels) {
+                Set<MapElementContainer> labelsToDraw = processLabels(renderContext);
+                // now draw the ways and the labels
+                renderContext.canvasRasterer.drawMapElements(labelsToDraw, upperLeft);
+                if (statistics != null) {
+                    statistics.labels = labelsToDraw.size();
+                }
+            }
+            if (this.labelStore != null) {
+                // store the elements of every tile in the label cache
+                if (tiles.size() == 1) {
+                    this.labelStore.storeMapItems(upperLeft, renderContext.labels);
+                } else {
+                    for (Tile tile : tiles) {
+                        List<MapElementContainer> labels = new ArrayList<>();
+                        for (MapElementContainer label : renderContext.labels) {
+                            if (label.intersects(tile.getBoundaryAbsolute())) {
+                                labels.add(label);
+                            }
+                        }
+                        this.labelStore.storeMapItems(tile, labels);
                     }
                 }
-                return bitmap;
             }
-            // outside of map area with background defined:
-            return createBackgroundBitmap(renderContext);
+            if (statistics != null) {
+                statistics.labelTime += System.nanoTime() - start;
+            }
+            if (rendererJob.labelsOnly) {
+                return bitmaps;
+            }
+
+            if (renderContext.renderTheme.hasMapBackgroundOutside()) {
+                // blank out all areas outside of map
+                Rectangle insideArea = this.mapDataStore.boundingBox().getPositionRelativeToTile(upperLeft);
+                if (!rendererJob.hasAlpha) {
+                    renderContext.canvasRasterer.fillOutsideAreas(renderContext.renderTheme.getMapBackgroundOutside(), insideArea);
+                } else {
+                    renderContext.canvasRasterer.fillOutsideAreas(Color.TRANSPARENT, insideArea);
+                }
+            }
+
+            if (tiles.size() == 1) {
+                bitmaps.put(rendererJob, canvasBitmap);
+                canvasBitmap = null;
+                return bitmaps;
+            }
+            // slice the metatile into its tiles
+            for (Tile tile : tiles) {
+                TileBitmap bitmap = createTileBitmap(tileSize, rendererJob.hasAlpha, statistics);
+                bitmap.setTimestamp(rendererJob.mapDataStore.getDataTimestamp(tile));
+                start = statistics != null ? System.nanoTime() : 0;
+                renderContext.canvasRasterer.setCanvasBitmap(bitmap);
+                renderContext.canvasRasterer.drawBitmap(canvasBitmap, (upperLeft.tileX - tile.tileX) * tileSize,
+                        (upperLeft.tileY - tile.tileY) * tileSize);
+                bitmaps.put(getJob(rendererJob, tile), bitmap);
+                if (statistics != null) {
+                    statistics.drawTime += System.nanoTime() - start;
+                }
+            }
+            return bitmaps;
         } catch (Exception e) {
             // #1049: message can be null?
             LOGGER.warning("Exception: " + e.getMessage());
-            return null;
+            for (TileBitmap bitmap : bitmaps.values()) {
+                bitmap.decrementRefCount();
+            }
+            bitmaps.clear();
+            return bitmaps;
         } finally {
-            if (renderContext != null) {
-                renderContext.destroy();
+            if (canvasBitmap != null) {
+                canvasBitmap.decrementRefCount();
             }
         }
     }
 
-    public MapDataStore getMapDatabase() {
-        return this.mapDataStore;
+    /**
+     * The second stage of a job, see {@link RenderStage#MATCH}: matches the map data against the render theme,
+     * which collects the shapes and labels to draw in the render context.
+     *
+     * @return false if the job failed or was cancelled.
+     */
+    boolean match(RenderTask renderTask) {
+        try {
+            RenderContext renderContext = renderTask.renderContext;
+            RenderStatistics statistics = renderTask.renderStatistics;
+            long start = statistics != null ? System.nanoTime() : 0;
+            if (renderTask.renderBitmap) {
+                processReadMapData(renderContext, renderTask.packedMapReadResult);
+                if (!renderTask.rendererJob.labelsOnly) {
+                    renderContext.renderTheme.matchHillShadings(this, renderContext);
+                }
+            }
+            renderTask.packedMapReadResult = null;
+            if (statistics != null) {
+                statistics.matchTime = System.nanoTime() - start;
+            }
+            return !renderTask.rendererJob.isCancelled();
+        } catch (Exception e) {
+            // #1049: message can be null?
+            LOGGER.warning("Exception: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * The first stage of a job, see {@link RenderStage#READ}: creates the render context of the tile or metatile
+     * which is rendered for the job and reads its map data.
+     * <p/>
+     * The returned task must be {@link RenderTask#destroy() destroyed} after its last stage.
+     *
+     * @param rendererJob the job that should be executed.
+     * @param metaTile    true to render the metatile which contains the tile of the job.
+     * @return the task for the following stages, or null if the job failed or was cancelled.
+     */
+    RenderTask read(RendererJob rendererJob, boolean metaTile) {
+        Tile upperLeft = rendererJob.tile;
+        Tile lowerRight = rendererJob.tile;
+        int metaTileSize = this.metaTileSize;
+        if (metaTile && !rendererJob.labelsOnly && this.hillsRenderConfig == null) {
+            upperLeft = getMetaTileUpperLeft(rendererJob.tile, metaTileSize);
+            lowerRight = getMetaTileLowerRight(rendererJob.tile, metaTileSize);
+        }
+
+        RenderTask renderTask = null;
+        try {
+            RenderContext renderContext = new RenderContext(getJob(rendererJob, upperLeft), lowerRight,
+                    new CanvasRasterer(this.graphicFactory));
+            renderTask = new RenderTask(rendererJob, renderContext, renderBitmap(renderContext), this.renderListener);
+            if (renderTask.renderBitmap && this.mapDataStore != null) {
+                RenderStatistics statistics = renderTask.renderStatistics;
+                long start = statistics != null ? System.nanoTime() : 0;
+                // the render theme acts as element filter, so that elements it cannot render are skipped
+                if (upperLeft.equals(lowerRight)) {
+                    renderTask.packedMapReadResult = this.mapDataStore.readMapDataPacked(upperLeft, renderContext.renderTheme);
+                } else {
+                    renderTask.packedMapReadResult = this.mapDataStore.readMapDataPacked(upperLeft, lowerRight,
+                            renderContext.renderTheme);
+                }
+                if (statistics != null) {
+                    statistics.readTime = System.nanoTime() - start;
+                    PackedMapReadResult packedMapReadResult = renderTask.packedMapReadResult;
+                    if (packedMapReadResult != null) {
+                        statistics.blocksRead = packedMapReadResult.blocksRead;
+                        statistics.bytesRead = packedMapReadResult.bytesRead;
+                        statistics.pois = packedMapReadResult.getNumberOfPois();
+                        statistics.ways = packedMapReadResult.getNumberOfWays();
+                    }
+                }
+            }
+            if (rendererJob.isCancelled()) {
+                renderTask.destroy();
+                return null;
+            }
+            return renderTask;
+        } catch (Exception e) {
+            // #1049: message can be null?
+            LOGGER.warning("Exception: " + e.getMessage());
+            if (renderTask != null) {
+                renderTask.destroy();
+            }
+            return null;
+        }
     }
 
     void removeTileInProgress(Tile tile) {
@@ -154,10 +418,11 @@ public class DatabaseRenderer extends StandardRenderer {
      * Draws a bitmap just with outside colour, used for bitmaps outside of map area.
      *
      * @param renderContext the RenderContext
+     * @param statistics    the statistics of the job (may be null).
      * @return bitmap drawn in single colour.
      */
-    private TileBitmap createBackgroundBitmap(RenderContext renderContext) {
-        TileBitmap bitmap = this.graphicFactory.createTileBitmap(renderContext.rendererJob.tile.tileSize, renderContext.rendererJob.hasAlpha);
+    private TileBitmap createBackgroundBitmap(RenderContext renderContext, RenderStatistics statistics) {
+        TileBitmap bitmap = createTileBitmap(renderContext.rendererJob.tile.tileSize, renderContext.rendererJob.hasAlpha, statistics);
         renderContext.canvasRasterer.setCanvasBitmap(bitmap);
         if (!renderContext.rendererJob.hasAlpha) {
             renderContext.canvasRasterer.fill(renderContext.renderTheme.getMapBackgroundOutside());
@@ -166,20 +431,63 @@ public class DatabaseRenderer extends StandardRenderer {
 
     }
 
-    private Set<MapElementContainer> processLabels(RenderContext renderContext) {
+    /**
+     * Creates a tile bitmap and adds the time spent to the statistics, if any.
+     */
+    private TileBitmap createTileBitmap(int tileSize, boolean isTransparent, RenderStatistics statistics) {
+        if (statistics == null) {
+            return this.graphicFactory.createTileBitmap(tileSize, isTransparent);
+        }
+        long start = System.nanoTime();
+        TileBitmap bitmap = this.graphicFactory.createTileBitmap(tileSize, isTransparent);
+        statistics.bitmapTime += System.nanoTime() - start;
+        return bitmap;
+    }
+
+    /**
+     * Runs all stages of a job on the calling thread.
+     */
+    private Map<RendererJob, TileBitmap> execute(RendererJob rendererJob, boolean metaTile) {
+        RenderTask renderTask = read(rendererJob, metaTile);
+        if (renderTask == null) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            if (!match(renderTask)) {
+                return new LinkedHashMap<>();
+            }
+            return draw(renderTask);
+        } finally {
+            renderTask.destroy();
+        }
+    }
+
+    Set<MapElementContainer> processLabels(RenderContext renderContext) throws InterruptedException {
         // if we are drawing the labels per tile, we need to establish which tile-overlapping
         // elements need to be drawn.
         Set<MapElementContainer> labelsToDraw = new HashSet<>();
+        // a metatile is labelled as a whole, its neighbours are the neighbours of its tiles outside of it
+        List<Tile> tiles = getTiles(renderContext.rendererJob.tile, renderContext.lowerRight);
+        Set<Tile> neighbours = new HashSet<>();
+        for (Tile tile : tiles) {
+            neighbours.addAll(tile.getNeighbours());
+        }
+        neighbours.removeAll(tiles);
 
-        synchronized (tileDependencies) {
+        // only the dependencies of these tiles are accessed, other tiles can be labelled meanwhile
+        Set<Tile> neighbourhood = new HashSet<>(neighbours);
+        neighbourhood.addAll(tiles);
+        tileDependencies.acquire(neighbourhood);
+        try {
             // first we need to get the labels from the adjacent tiles if they have already been drawn
             // as those overlapping items must also be drawn on the current tile. They must be drawn regardless
             // of priority clashes as a part of them has alread been drawn.
-            Set<Tile> neighbours = renderContext.rendererJob.tile.getNeighbours();
             Iterator<Tile> tileIterator = neighbours.iterator();
             Set<MapElementContainer> undrawableElements = new HashSet<>();
 
-            tileDependencies.addTileInProgress(renderContext.rendererJob.tile);
+            for (Tile tile : tiles) {
+                tileDependencies.addTileInProgress(tile);
+            }
             while (tileIterator.hasNext()) {
                 Tile neighbour = tileIterator.next();
 
@@ -189,7 +497,9 @@ public class DatabaseRenderer extends StandardRenderer {
                     // need to be drawn onto this tile. For the multi-threaded renderer we also need to take
                     // those tiles into account that are not yet in the TileCache: this is taken care of by the
                     // set of tilesInProgress inside the TileDependencies.
-                    labelsToDraw.addAll(tileDependencies.getOverlappingElements(neighbour, renderContext.rendererJob.tile));
+                    for (Tile tile : tiles) {
+                        labelsToDraw.addAll(tileDependencies.getOverlappingElements(neighbour, tile));
+                    }
 
                     // but we need to remove the labels for this tile that overlap onto a tile that has been drawn
                     for (MapElementContainer current : renderContext.labels) {
@@ -216,14 +526,12 @@ public class DatabaseRenderer extends StandardRenderer {
             List<MapElementContainer> currentElementsOrdered = LayerUtil.collisionFreeOrdered(renderContext.labels);
 
             // now we go through this list, ordered by priority, to see which can be drawn without clashing.
+            MapElementGrid labelsToDrawGrid = new MapElementGrid();
+            labelsToDrawGrid.addAll(labelsToDraw);
             Iterator<MapElementContainer> currentMapElementsIterator = currentElementsOrdered.iterator();
             while (currentMapElementsIterator.hasNext()) {
-                MapElementContainer current = currentMapElementsIterator.next();
-                for (MapElementContainer label : labelsToDraw) {
-                    if (label.clashesWith(current)) {
-                        currentMapElementsIterator.remove();
-                        break;
-                    }
+                if (labelsToDrawGrid.clashesWith(currentMapElementsIterator.next())) {
+                    currentMapElementsIterator.remove();
                 }
             }
 
@@ -231,14 +539,21 @@ public class DatabaseRenderer extends StandardRenderer {
 
             // update dependencies, add to the dependencies list all the elements that overlap to the
             // neighbouring tiles, first clearing out the cache for this relation.
-            for (Tile tile : neighbours) {
-                tileDependencies.removeTileData(renderContext.rendererJob.tile, tile);
-                for (MapElementContainer element : labelsToDraw) {
-                    if (element.intersects(tile.getBoundaryAbsolute())) {
-                        tileDependencies.addOverlappingElement(renderContext.rendererJob.tile, tile, element);
+            for (Tile tile : tiles) {
+                for (Tile neighbour : tile.getNeighbours()) {
+                    if (!neighbours.contains(neighbour)) {
+                        continue;
+                    }
+                    tileDependencies.removeTileData(tile, neighbour);
+                    for (MapElementContainer element : labelsToDraw) {
+                        if (element.intersects(neighbour.getBoundaryAbsolute())) {
+                            tileDependencies.addOverlappingElement(tile, neighbour, element);
+                        }
                     }
                 }
             }
+        } finally {
+            tileDependencies.release(neighbourhood);
         }
         return labelsToDraw;
     }
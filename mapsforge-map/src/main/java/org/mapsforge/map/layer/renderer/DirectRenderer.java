@@ -22,6 +22,7 @@ import org.mapsforge.core.graphics.Color;
 import org.mapsforge.core.graphics.GraphicFactory;
 import org.mapsforge.core.graphics.TileBitmap;
 import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.mapelements.MapElementGrid;
 import org.mapsforge.core.model.Rectangle;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.map.datastore.MapDataStore;
@@ -129,13 +130,17 @@ public class DirectRenderer extends StandardRenderer {
         }
     }
 
-    private Set<MapElementContainer> processLabels(RenderContext renderContext) {
-        synchronized (tileDependencies) {
+    private Set<MapElementContainer> processLabels(RenderContext renderContext) throws InterruptedException {
+        Set<Tile> neighbours = renderContext.rendererJob.tile.getNeighbours();
+        // only the dependencies of these tiles are accessed, other tiles can be labelled meanwhile
+        Set<Tile> neighbourhood = new HashSet<>(neighbours);
+        neighbourhood.add(renderContext.rendererJob.tile);
+        tileDependencies.acquire(neighbourhood);
+        try {
             // if we are drawing the labels per tile, we need to establish which tile-overlapping
             // elements need to be drawn.
             Set<MapElementContainer> labelsToDraw = new HashSet<>();
 
-            Set<Tile> neighbours = renderContext.rendererJob.tile.getNeighbours();
             for (Tile neighbour : neighbours) {
                 labelsToDraw.addAll(tileDependencies.getOverlappingElements(neighbour, renderContext.rendererJob.tile));
             }
@@ -147,14 +152,12 @@ public class DirectRenderer extends StandardRenderer {
             List<MapElementContainer> currentElementsOrdered = LayerUtil.collisionFreeOrdered(renderContext.labels);
 
             // now we go through this list, ordered by priority, to see which can be drawn without clashing.
+            MapElementGrid labelsToDrawGrid = new MapElementGrid();
+            labelsToDrawGrid.addAll(labelsToDraw);
             Iterator<MapElementContainer> currentMapElementsIterator = currentElementsOrdered.iterator();
             while (currentMapElementsIterator.hasNext()) {
-                MapElementContainer current = currentMapElementsIterator.next();
-                for (MapElementContainer label : labelsToDraw) {
-                    if (label.clashesWith(current)) {
-                        currentMapElementsIterator.remove();
-                        break;
-                    }
+                if (labelsToDrawGrid.clashesWith(currentMapElementsIterator.next())) {
+                    currentMapElementsIterator.remove();
                 }
             }
 
@@ -181,6 +184,8 @@ public class DirectRenderer extends StandardRenderer {
                 }
             }
             return labelsToDraw;
+        } finally {
+            tileDependencies.release(neighbourhood);
         }
     }
 
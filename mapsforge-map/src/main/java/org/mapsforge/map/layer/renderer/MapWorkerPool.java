@@ -18,11 +18,15 @@
 package org.mapsforge.map.layer.renderer;
 
 import org.mapsforge.core.graphics.TileBitmap;
-import org.mapsforge.core.util.Parameters;
+import org.mapsforge.core.model.Tile;
 import org.mapsforge.map.layer.Layer;
 import org.mapsforge.map.layer.cache.TileCache;
 import org.mapsforge.map.layer.queue.JobQueue;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
@@ -45,31 +49,59 @@ public class MapWorkerPool implements Runnable {
     private boolean inShutdown, isRunning;
     private final JobQueue<RendererJob> jobQueue;
     private final Layer layer;
-    private ExecutorService self, workers;
+    private final Set<Tile> metaTilesInProgress = Collections.newSetFromMap(new ConcurrentHashMap<Tile, Boolean>());
+    private volatile int priority;
+    private final RenderExecutor renderExecutor;
+    private ExecutorService self;
     private final TileCache tileCache;
 
     public MapWorkerPool(TileCache tileCache, JobQueue<RendererJob> jobQueue, DatabaseRenderer databaseRenderer, Layer layer) {
+        this(tileCache, jobQueue, databaseRenderer, layer, RenderExecutor.getDefault());
+    }
+
+    /**
+     * @param renderExecutor the render threads, which may be shared with other worker pools.
+     */
+    public MapWorkerPool(TileCache tileCache, JobQueue<RendererJob> jobQueue, DatabaseRenderer databaseRenderer, Layer layer,
+                         RenderExecutor renderExecutor) {
         super();
         this.tileCache = tileCache;
         this.jobQueue = jobQueue;
         this.databaseRenderer = databaseRenderer;
         this.layer = layer;
+        this.renderExecutor = renderExecutor;
+        this.priority = 1;
         this.inShutdown = false;
         this.isRunning = false;
     }
 
+    /**
+     * @return the priority of this pool for the threads of its render executor.
+     */
+    public int getPriority() {
+        return this.priority;
+    }
+
     @Override
     public void run() {
         try {
             while (!inShutdown) {
-                RendererJob rendererJob = this.jobQueue.get(Parameters.NUMBER_OF_THREADS);
+                RendererJob rendererJob = this.jobQueue.get(this.renderExecutor.getMaximumJobs());
                 if (rendererJob == null) {
                     continue;
                 }
-                if (!this.tileCache.containsKey(rendererJob) || rendererJob.labelsOnly) {
-                    workers.execute(new MapWorker(rendererJob));
-                } else {
+                if (rendererJob.labelsOnly) {
+                    execute(rendererJob, null);
+                } else if (this.tileCache.containsKey(rendererJob)) {
                     jobQueue.remove(rendererJob);
+                } else {
+                    Tile metaTile = DatabaseRenderer.getMetaTileUpperLeft(rendererJob.tile, this.databaseRenderer.getMetaTileSize());
+                    if (this.metaTilesInProgress.add(metaTile)) {
+                        execute(rendererJob, metaTile);
+                    } else {
+                        // the tile will be put into the cache together with the other tiles of its metatile
+                        jobQueue.remove(rendererJob);
+                    }
                 }
             }
         } catch (InterruptedException e) {
@@ -79,13 +111,26 @@ public class MapWorkerPool implements Runnable {
         }
     }
 
+    /**
+     * Sets the priority of this pool for the threads of its render executor: while several pools have jobs
+     * waiting, the places in the render pipeline are divided among them in proportion to their priorities.
+     *
+     * @param priority the priority, 1 by default.
+     */
+    public void setPriority(int priority) {
+        if (priority < 1) {
+            throw new IllegalArgumentException("invalid priority: " + priority);
+        }
+        this.priority = priority;
+    }
+
     public synchronized void start() {
         if (this.isRunning) {
             return;
         }
         this.inShutdown = false;
+        this.renderExecutor.register(this);
         this.self = Executors.newSingleThreadExecutor();
-        this.workers = Executors.newFixedThreadPool(Parameters.NUMBER_OF_THREADS);
         this.self.execute(this);
         this.isRunning = true;
     }
@@ -97,9 +142,8 @@ public class MapWorkerPool implements Runnable {
         this.inShutdown = true;
         this.jobQueue.interrupt();
 
-        // Shutdown executors
+        // Shutdown executor, the running workers notice the shutdown on their own
         this.self.shutdown();
-        this.workers.shutdown();
 
         try {
             if (!this.self.awaitTermination(100, TimeUnit.MILLISECONDS)) {
@@ -112,66 +156,113 @@ public class MapWorkerPool implements Runnable {
             LOGGER.log(Level.SEVERE, "Shutdown self executor interrupted", e);
         }
 
+        this.renderExecutor.unregister(this);
+        this.isRunning = false;
+    }
+
+    /**
+     * Waits for a place in the pipeline of the render executor and starts the job.
+     */
+    private void execute(RendererJob rendererJob, Tile metaTile) throws InterruptedException {
         try {
-            if (!this.workers.awaitTermination(100, TimeUnit.MILLISECONDS)) {
-                this.workers.shutdownNow();
-                if (!this.workers.awaitTermination(100, TimeUnit.MILLISECONDS)) {
-                    LOGGER.warning("Shutdown workers executor failed");
-                }
-            }
+            this.renderExecutor.execute(this, new MapWorker(rendererJob, metaTile));
         } catch (InterruptedException e) {
-            LOGGER.log(Level.SEVERE, "Shutdown workers executor interrupted", e);
+            rendererJob.renderThemeFuture.decrementRefCount();
+            if (metaTile != null) {
+                this.metaTilesInProgress.remove(metaTile);
+            }
+            this.jobQueue.remove(rendererJob);
+            throw e;
         }
-
-        this.isRunning = false;
     }
 
-    class MapWorker implements Runnable {
+    /**
+     * Renders a job in the stages of the render executor.
+     */
+    class MapWorker implements RenderExecutor.StagedJob {
+        private Map<RendererJob, TileBitmap> bitmaps;
+        private final Tile metaTile;
+        private RenderTask renderTask;
         private final RendererJob rendererJob;
+        private long start;
 
-        MapWorker(RendererJob rendererJob) {
+        /**
+         * @param metaTile the upper left tile of the metatile which is rendered for the job, null if the job
+         *                 only retrieves labels.
+         */
+        MapWorker(RendererJob rendererJob, Tile metaTile) {
             this.rendererJob = rendererJob;
+            this.metaTile = metaTile;
             this.rendererJob.renderThemeFuture.incrementRefCount();
         }
 
         @Override
-        public void run() {
-            TileBitmap bitmap = null;
-            try {
-                long start = 0;
-                if (inShutdown) {
-                    return;
-                }
-                if (DEBUG_TIMING) {
-                    start = System.currentTimeMillis();
-                    LOGGER.info("ConcurrentJobs " + concurrentJobs.incrementAndGet());
-                }
-                bitmap = MapWorkerPool.this.databaseRenderer.executeJob(rendererJob);
-                if (inShutdown) {
-                    return;
-                }
-
-                if (!rendererJob.labelsOnly && bitmap != null) {
-                    MapWorkerPool.this.tileCache.put(rendererJob, bitmap);
-                    MapWorkerPool.this.databaseRenderer.removeTileInProgress(rendererJob.tile);
+        public void finish() {
+            this.rendererJob.renderThemeFuture.decrementRefCount();
+            if (this.renderTask != null) {
+                this.renderTask.destroy();
+            }
+            if (this.metaTile != null) {
+                metaTilesInProgress.remove(this.metaTile);
+            }
+            jobQueue.remove(this.rendererJob);
+            if (this.bitmaps != null) {
+                for (TileBitmap bitmap : this.bitmaps.values()) {
+                    bitmap.decrementRefCount();
                 }
+            }
+            if (this.rendererJob.isCancelled() && (this.bitmaps == null || this.bitmaps.isEmpty()) && !inShutdown) {
+                // the tiles of an abandoned metatile may be visible again, so let the layer queue them anew
                 MapWorkerPool.this.layer.requestRedraw();
+            }
+        }
 
-                if (DEBUG_TIMING) {
-                    long end = System.currentTimeMillis();
-                    long te = totalExecutions.incrementAndGet();
-                    long tt = totalTime.addAndGet(end - start);
-                    if (te % 10 == 0) {
-                        LOGGER.info("TIMING " + Long.toString(te) + " " + Double.toString(tt / te));
+        @Override
+        public boolean run(RenderStage stage) {
+            if (inShutdown || this.rendererJob.isCancelled()) {
+                return false;
+            }
+            switch (stage) {
+                case READ:
+                    if (DEBUG_TIMING) {
+                        this.start = System.currentTimeMillis();
+                        LOGGER.info("ConcurrentJobs " + concurrentJobs.incrementAndGet());
                     }
-                    concurrentJobs.decrementAndGet();
-                }
-            } finally {
-                this.rendererJob.renderThemeFuture.decrementRefCount();
-                jobQueue.remove(rendererJob);
-                if (bitmap != null) {
-                    bitmap.decrementRefCount();
-                }
+                    this.renderTask = MapWorkerPool.this.databaseRenderer.read(this.rendererJob, this.metaTile != null);
+                    return this.renderTask != null;
+                case MATCH:
+                    return MapWorkerPool.this.databaseRenderer.match(this.renderTask);
+                case DRAW:
+                    this.bitmaps = MapWorkerPool.this.databaseRenderer.draw(this.renderTask);
+                    if (inShutdown) {
+                        return false;
+                    }
+
+                    if (!this.rendererJob.labelsOnly) {
+                        RenderStatistics statistics = this.renderTask.renderStatistics;
+                        for (Map.Entry<RendererJob, TileBitmap> entry : this.bitmaps.entrySet()) {
+                            long start = statistics != null ? System.nanoTime() : 0;
+                            MapWorkerPool.this.tileCache.put(entry.getKey(), entry.getValue());
+                            if (statistics != null) {
+                                statistics.cachePutTime += System.nanoTime() - start;
+                            }
+                            MapWorkerPool.this.databaseRenderer.removeTileInProgress(entry.getKey().tile);
+                        }
+                    }
+                    MapWorkerPool.this.layer.requestRedraw();
+
+                    if (DEBUG_TIMING) {
+                        long end = System.currentTimeMillis();
+                        long te = totalExecutions.incrementAndGet();
+                        long tt = totalTime.addAndGet(end - this.start);
+                        if (te % 10 == 0) {
+                            LOGGER.info("TIMING " + Long.toString(te) + " " + Double.toString(tt / te));
+                        }
+                        concurrentJobs.decrementAndGet();
+                    }
+                    return true;
+                default:
+                    return false;
             }
         }
     }
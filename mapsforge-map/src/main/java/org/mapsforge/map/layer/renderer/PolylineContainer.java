@@ -21,6 +21,8 @@ import org.mapsforge.core.model.Tag;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.core.util.LatLongUtils;
 import org.mapsforge.core.util.MercatorProjection;
+import org.mapsforge.core.util.Parameters;
+import org.mapsforge.map.datastore.PackedMapReadResult;
 import org.mapsforge.map.datastore.Way;
 
 import java.util.List;
@@ -44,7 +46,9 @@ public class PolylineContainer implements ShapeContainer {
     private final Tile upperLeft;
     private final Tile lowerRight;
     private final boolean isClosedWay;
+    private PackedMapReadResult packedMapReadResult;
     private Way way;
+    private final int wayIndex;
 
     public PolylineContainer(Way way, Tile upperLeft, Tile lowerRight) {
         this.coordinatesAbsolute = null;
@@ -54,12 +58,34 @@ public class PolylineContainer implements ShapeContainer {
         this.lowerRight = lowerRight;
         this.layer = way.layer;
         this.way = way;
+        this.wayIndex = -1;
         this.isClosedWay = LatLongUtils.isClosedWay(way.latLongs[0]);
         if (this.way.labelPosition != null) {
             this.center = MercatorProjection.getPixelAbsolute(this.way.labelPosition, this.upperLeft.mapSize);
         }
     }
 
+    /**
+     * Creates a container for a way of a packed read result, the pixel coordinates are computed
+     * directly from the packed coordinates.
+     */
+    public PolylineContainer(PackedMapReadResult packedMapReadResult, int wayIndex, Tile upperLeft, Tile lowerRight) {
+        this.coordinatesAbsolute = null;
+        this.coordinatesRelativeToTile = null;
+        this.tags = packedMapReadResult.getWayTags(wayIndex);
+        this.upperLeft = upperLeft;
+        this.lowerRight = lowerRight;
+        this.layer = packedMapReadResult.getWayLayer(wayIndex);
+        this.packedMapReadResult = packedMapReadResult;
+        this.wayIndex = wayIndex;
+        this.isClosedWay = packedMapReadResult.isClosedWay(wayIndex);
+        if (packedMapReadResult.hasWayLabelPosition(wayIndex)) {
+            this.center = new Point(
+                    MercatorProjection.longitudeToPixelX(packedMapReadResult.getWayLabelLongitude(wayIndex), this.upperLeft.mapSize),
+                    MercatorProjection.latitudeToPixelY(packedMapReadResult.getWayLabelLatitude(wayIndex), this.upperLeft.mapSize));
+        }
+    }
+
     public PolylineContainer(Point[] coordinates, final Tile upperLeft, final Tile lowerRight, List<Tag> tags) {
         this.coordinatesAbsolute = new Point[1][];
         this.coordinatesRelativeToTile = null;
@@ -69,6 +95,7 @@ public class PolylineContainer implements ShapeContainer {
         this.upperLeft = upperLeft;
         this.lowerRight = lowerRight;
         this.layer = 0;
+        this.wayIndex = -1;
         isClosedWay = coordinates[0].equals(coordinates[coordinates.length - 1]);
     }
 
@@ -82,7 +109,18 @@ public class PolylineContainer implements ShapeContainer {
     public Point[][] getCoordinatesAbsolute() {
         // deferred evaluation as some PolyLineContainers will never be drawn. However,
         // to save memory, after computing the absolute coordinates, the way is released.
-        if (coordinatesAbsolute == null) {
+        if (coordinatesAbsolute == null && packedMapReadResult != null) {
+            coordinatesAbsolute = new Point[packedMapReadResult.getWaySegments(wayIndex)][];
+            for (int i = 0; i < coordinatesAbsolute.length; ++i) {
+                coordinatesAbsolute[i] = new Point[packedMapReadResult.getWaySegmentLength(wayIndex, i)];
+                for (int j = 0; j < coordinatesAbsolute[i].length; ++j) {
+                    coordinatesAbsolute[i][j] = new Point(
+                            MercatorProjection.longitudeToPixelX(packedMapReadResult.getWayLongitude(wayIndex, i, j), upperLeft.mapSize),
+                            MercatorProjection.latitudeToPixelY(packedMapReadResult.getWayLatitude(wayIndex, i, j), upperLeft.mapSize));
+                }
+            }
+            this.packedMapReadResult = null;
+        } else if (coordinatesAbsolute == null) {
             coordinatesAbsolute = new Point[way.latLongs.length][];
             for (int i = 0; i < way.latLongs.length; ++i) {
                 coordinatesAbsolute[i] = new Point[way.latLongs[i].length];
@@ -95,15 +133,29 @@ public class PolylineContainer implements ShapeContainer {
         return coordinatesAbsolute;
     }
 
+    /**
+     * Returns the coordinates relative to the origin of the upper left tile, as they are drawn.
+     * <p/>
+     * If {@link Parameters#SIMPLIFICATION_TOLERANCE} is set, the coordinates are simplified at that tolerance and
+     * the parts of the way outside of the tiles plus {@link Parameters#SIMPLIFICATION_MARGIN} are collapsed.
+     */
     public Point[][] getCoordinatesRelativeToOrigin() {
         if (coordinatesRelativeToTile == null) {
             Point tileOrigin = upperLeft.getOrigin();
+            float tolerance = Parameters.SIMPLIFICATION_TOLERANCE;
+            int margin = Parameters.SIMPLIFICATION_MARGIN;
+            int width = (lowerRight.tileX - upperLeft.tileX + 1) * upperLeft.tileSize;
+            int height = (lowerRight.tileY - upperLeft.tileY + 1) * upperLeft.tileSize;
             coordinatesRelativeToTile = new Point[getCoordinatesAbsolute().length][];
             for (int i = 0; i < coordinatesRelativeToTile.length; ++i) {
                 coordinatesRelativeToTile[i] = new Point[coordinatesAbsolute[i].length];
                 for (int j = 0; j < coordinatesRelativeToTile[i].length; ++j) {
                     coordinatesRelativeToTile[i][j] = coordinatesAbsolute[i][j].offset(-tileOrigin.x, -tileOrigin.y);
                 }
+                if (tolerance > 0) {
+                    coordinatesRelativeToTile[i] = RendererUtils.simplify(coordinatesRelativeToTile[i], tolerance,
+                            -margin, -margin, width + margin, height + margin);
+                }
             }
         }
         return coordinatesRelativeToTile;
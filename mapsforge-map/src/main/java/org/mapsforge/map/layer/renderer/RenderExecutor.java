@@ -0,0 +1,332 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.mapsforge.core.util.Parameters;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The render threads shared by the {@link MapWorkerPool}s of all tile renderer layers.
+ * <p/>
+ * Jobs run through the {@link RenderStage stages} of a pipeline, every stage has threads of its own: a job
+ * waiting for map data does not keep a thread of the other stages idle. The number of threads of a stage
+ * follows the demand: a thread is started for every job handed to the stage while fewer than its maximum
+ * number of threads are busy, idle threads end after a while. The maximum of the {@link #getDefault() default}
+ * executor is the number of processors.
+ * <p/>
+ * The number of jobs in the pipeline is limited to the largest maximum number of threads of a stage, which also
+ * bounds the queues between the stages. Every job holds its render context and bitmaps, so this limit and not the
+ * number of threads determines the memory used for rendering. While several worker pools have jobs waiting, the places
+ * in the pipeline are divided among them in proportion to their {@link MapWorkerPool#setPriority(int)
+ * priorities}, so that a layer with many jobs cannot starve the others.
+ */
+public class RenderExecutor {
+    private static final long KEEP_ALIVE_SECONDS = 10;
+    private static final Logger LOGGER = Logger.getLogger(RenderExecutor.class.getName());
+    private static final RenderStage[] STAGES = RenderStage.values();
+
+    private static RenderExecutor defaultInstance;
+    private static int defaultNumberOfThreads;
+
+    /**
+     * Returns the executor shared by all layers which have not been given their own.
+     * <p/>
+     * Its maximum number of threads is the deprecated {@link Parameters#NUMBER_OF_THREADS} if that has been set
+     * to a positive value, otherwise the number of processors. The parameter is checked on every call, which
+     * happens whenever a tile renderer layer is created: a changed value then replaces the maximum number of
+     * threads of every stage, including one set through {@link #setMaximumThreads(int)}.
+     *
+     * @return the executor shared by all layers which have not been given their own.
+     */
+    @SuppressWarnings("deprecation")
+    public static synchronized RenderExecutor getDefault() {
+        int numberOfThreads = Parameters.NUMBER_OF_THREADS;
+        if (defaultInstance == null) {
+            defaultInstance = new RenderExecutor(getDefaultMaximumThreads(numberOfThreads));
+            defaultNumberOfThreads = numberOfThreads;
+        } else if (numberOfThreads != defaultNumberOfThreads) {
+            defaultInstance.setMaximumThreads(getDefaultMaximumThreads(numberOfThreads));
+            defaultNumberOfThreads = numberOfThreads;
+        }
+        return defaultInstance;
+    }
+
+    private static int getDefaultMaximumThreads(int numberOfThreads) {
+        return numberOfThreads > 0 ? numberOfThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The jobs of a worker pool, guarded by the monitor of the executor.
+     */
+    private static class Share {
+        int running;
+        int waiting;
+    }
+
+    /**
+     * A job which runs through the stages of the executor.
+     */
+    interface StagedJob {
+        /**
+         * Runs one stage of this job.
+         *
+         * @return false to skip the remaining stages.
+         */
+        boolean run(RenderStage stage);
+
+        /**
+         * Called once after the last stage of this job, also if stages were skipped or failed.
+         */
+        void finish();
+    }
+
+    private final ThreadPoolExecutor[] executors = new ThreadPoolExecutor[STAGES.length];
+    private int maximumJobs;
+    private int runningJobs;
+    private final Map<MapWorkerPool, Share> shares = new HashMap<>();
+    private final AtomicLong[] stageCounts = new AtomicLong[STAGES.length];
+    private final AtomicLong[] stageTimes = new AtomicLong[STAGES.length];
+
+    /**
+     * @param maximumThreads the maximum number of threads of every stage.
+     */
+    public RenderExecutor(int maximumThreads) {
+        if (maximumThreads < 1) {
+            throw new IllegalArgumentException("invalid maximumThreads: " + maximumThreads);
+        }
+        for (final RenderStage stage : STAGES) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maximumThreads, maximumThreads, KEEP_ALIVE_SECONDS,
+                    TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger threadNumber = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "RenderExecutor-" + stage.name().toLowerCase(Locale.ENGLISH)
+                            + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+            this.executors[stage.ordinal()] = executor;
+            this.stageCounts[stage.ordinal()] = new AtomicLong();
+            this.stageTimes[stage.ordinal()] = new AtomicLong();
+        }
+        this.maximumJobs = maximumThreads;
+    }
+
+    /**
+     * @return the maximum number of jobs in the pipeline, the largest maximum number of threads of a stage.
+     */
+    public synchronized int getMaximumJobs() {
+        return this.maximumJobs;
+    }
+
+    /**
+     * @return the maximum number of threads of the given stage.
+     */
+    public int getMaximumThreads(RenderStage stage) {
+        return this.executors[stage.ordinal()].getMaximumPoolSize();
+    }
+
+    /**
+     * @return the number of threads of all stages which currently exist, busy or idle.
+     */
+    public int getPoolSize() {
+        int poolSize = 0;
+        for (ThreadPoolExecutor executor : this.executors) {
+            poolSize += executor.getPoolSize();
+        }
+        return poolSize;
+    }
+
+    /**
+     * @return the number of jobs currently in the pipeline.
+     */
+    public synchronized int getRunningJobs() {
+        return this.runningJobs;
+    }
+
+    /**
+     * @return the number of times the given stage has been run.
+     */
+    public long getStageCount(RenderStage stage) {
+        return this.stageCounts[stage.ordinal()].get();
+    }
+
+    /**
+     * @return the total time spent in the given stage in nanoseconds.
+     */
+    public long getStageTime(RenderStage stage) {
+        return this.stageTimes[stage.ordinal()].get();
+    }
+
+    /**
+     * @return the share of the places in the pipeline which is currently taken, between 0 and 1.
+     */
+    public synchronized float getUtilization() {
+        return (float) this.runningJobs / this.maximumJobs;
+    }
+
+    /**
+     * Sets the maximum number of threads of every stage, which applies to the jobs started from now on.
+     *
+     * @param maximumThreads the maximum number of threads of every stage.
+     */
+    public synchronized void setMaximumThreads(int maximumThreads) {
+        for (RenderStage stage : STAGES) {
+            setMaximumThreads(stage, maximumThreads);
+        }
+    }
+
+    /**
+     * Sets the maximum number of threads of the given stage, which applies to the jobs started from now on.
+     *
+     * @param stage          the stage.
+     * @param maximumThreads the maximum number of threads of the stage.
+     */
+    public synchronized void setMaximumThreads(RenderStage stage, int maximumThreads) {
+        if (maximumThreads < 1) {
+            throw new IllegalArgumentException("invalid maximumThreads: " + maximumThreads);
+        }
+        ThreadPoolExecutor executor = this.executors[stage.ordinal()];
+        if (maximumThreads > executor.getMaximumPoolSize()) {
+            executor.setMaximumPoolSize(maximumThreads);
+            executor.setCorePoolSize(maximumThreads);
+        } else {
+            executor.setCorePoolSize(maximumThreads);
+            executor.setMaximumPoolSize(maximumThreads);
+        }
+        this.maximumJobs = 0;
+        for (ThreadPoolExecutor stageExecutor : this.executors) {
+            this.maximumJobs = Math.max(this.maximumJobs, stageExecutor.getMaximumPoolSize());
+        }
+        this.notifyAll();
+    }
+
+    /**
+     * Waits until there is a place in the pipeline for a job of the given worker pool and starts the job.
+     * <p/>
+     * A pool gets its turn if no other waiting pool has fewer jobs in the pipeline relative to its priority.
+     *
+     * @throws InterruptedException if the thread was interrupted while waiting, the job is not started then.
+     */
+    void execute(MapWorkerPool mapWorkerPool, StagedJob job) throws InterruptedException {
+        submit(STAGES[0], acquire(mapWorkerPool), job);
+    }
+
+    synchronized void register(MapWorkerPool mapWorkerPool) {
+        if (!this.shares.containsKey(mapWorkerPool)) {
+            this.shares.put(mapWorkerPool, new Share());
+        }
+    }
+
+    synchronized void unregister(MapWorkerPool mapWorkerPool) {
+        // jobs which are still running release their share on their own
+        this.shares.remove(mapWorkerPool);
+        this.notifyAll();
+    }
+
+    private synchronized Share acquire(MapWorkerPool mapWorkerPool) throws InterruptedException {
+        Share share = this.shares.get(mapWorkerPool);
+        if (share == null) {
+            throw new IllegalStateException("worker pool is not registered");
+        }
+        ++share.waiting;
+        try {
+            while (this.runningJobs >= this.maximumJobs || !hasTurn(mapWorkerPool, share)) {
+                this.wait();
+            }
+        } catch (InterruptedException e) {
+            // another pool may have its turn now
+            this.notifyAll();
+            throw e;
+        } finally {
+            --share.waiting;
+        }
+        ++share.running;
+        ++this.runningJobs;
+        return share;
+    }
+
+    private void finish(Share share, StagedJob job) {
+        try {
+            job.finish();
+        } finally {
+            release(share);
+        }
+    }
+
+    private boolean hasTurn(MapWorkerPool mapWorkerPool, Share share) {
+        for (Map.Entry<MapWorkerPool, Share> entry : this.shares.entrySet()) {
+            Share other = entry.getValue();
+            if (other != share && other.waiting > 0
+                    && (long) other.running * mapWorkerPool.getPriority() < (long) share.running * entry.getKey().getPriority()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized void release(Share share) {
+        --share.running;
+        --this.runningJobs;
+        this.notifyAll();
+    }
+
+    private void run(RenderStage stage, Share share, StagedJob job) {
+        boolean proceed = false;
+        long start = System.nanoTime();
+        try {
+            proceed = job.run(stage);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+        } finally {
+            this.stageCounts[stage.ordinal()].incrementAndGet();
+            this.stageTimes[stage.ordinal()].addAndGet(System.nanoTime() - start);
+            if (proceed && stage.ordinal() + 1 < STAGES.length) {
+                submit(STAGES[stage.ordinal() + 1], share, job);
+            } else {
+                finish(share, job);
+            }
+        }
+    }
+
+    private void submit(final RenderStage stage, final Share share, final StagedJob job) {
+        try {
+            this.executors[stage.ordinal()].execute(new Runnable() {
+                @Override
+                public void run() {
+                    RenderExecutor.this.run(stage, share, job);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.log(Level.SEVERE, "RenderExecutor rejected", e);
+            finish(share, job);
+        }
+    }
+}
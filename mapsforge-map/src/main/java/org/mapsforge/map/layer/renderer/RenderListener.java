@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+/**
+ * Receives the {@link RenderStatistics} of every job rendered by a {@link DatabaseRenderer}, see
+ * {@link DatabaseRenderer#setRenderListener(RenderListener)}.
+ * <p/>
+ * The listener is called on the render threads, possibly concurrently, so it must be thread-safe and
+ * should return quickly.
+ */
+public interface RenderListener {
+    /**
+     * Called once a job has been rendered, failed or been cancelled, see {@link RendererJob#isCancelled()}.
+     * For a job rendered as part of a metatile, the statistics cover the whole metatile.
+     *
+     * @param rendererJob the job as it was requested.
+     * @param statistics  the statistics of the job, phases which have not been reached are zero.
+     */
+    void onJobRendered(RendererJob rendererJob, RenderStatistics statistics);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+/**
+ * The stages a render job runs through, each on the threads of its own stage of the {@link RenderExecutor}.
+ */
+public enum RenderStage {
+    /**
+     * Reads and decodes the map data, mostly waiting for I/O.
+     */
+    READ,
+
+    /**
+     * Matches the map data against the render theme and builds the shapes and labels to draw.
+     */
+    MATCH,
+
+    /**
+     * Draws the shapes, places and draws the labels and slices a metatile into its tiles.
+     */
+    DRAW
+}
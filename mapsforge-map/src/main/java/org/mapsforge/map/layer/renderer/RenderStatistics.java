@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+/**
+ * The time spent in the phases of rendering a job and the amount of data processed, reported to a
+ * {@link RenderListener}. All times are in nanoseconds.
+ */
+public class RenderStatistics {
+    /**
+     * The time spent allocating tile bitmaps.
+     */
+    public long bitmapTime;
+
+    /**
+     * The number of blocks read from map files, zero if the map data store does not read map files.
+     */
+    public int blocksRead;
+
+    /**
+     * The number of bytes read from map files, zero if the map data store does not read map files.
+     */
+    public long bytesRead;
+
+    /**
+     * The time spent putting the rendered tiles into the tile cache.
+     */
+    public long cachePutTime;
+
+    /**
+     * The time spent drawing the ways, areas and symbols below the labels and slicing a metatile into its
+     * tiles.
+     */
+    public long drawTime;
+
+    /**
+     * The time spent placing, drawing and storing the labels.
+     */
+    public long labelTime;
+
+    /**
+     * The number of labels drawn.
+     */
+    public int labels;
+
+    /**
+     * The time spent matching the map data against the render theme.
+     */
+    public long matchTime;
+
+    /**
+     * The number of POIs read.
+     */
+    public int pois;
+
+    /**
+     * The time spent reading and decoding the map data.
+     */
+    public long readTime;
+
+    /**
+     * The number of tiles rendered, more than one for a metatile.
+     */
+    public int tiles;
+
+    /**
+     * The number of ways read.
+     */
+    public int ways;
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        stringBuilder.append("tiles=").append(this.tiles);
+        stringBuilder.append(", readTime=").append(this.readTime);
+        stringBuilder.append(", blocksRead=").append(this.blocksRead);
+        stringBuilder.append(", bytesRead=").append(this.bytesRead);
+        stringBuilder.append(", pois=").append(this.pois);
+        stringBuilder.append(", ways=").append(this.ways);
+        stringBuilder.append(", matchTime=").append(this.matchTime);
+        stringBuilder.append(", drawTime=").append(this.drawTime);
+        stringBuilder.append(", labelTime=").append(this.labelTime);
+        stringBuilder.append(", labels=").append(this.labels);
+        stringBuilder.append(", bitmapTime=").append(this.bitmapTime);
+        stringBuilder.append(", cachePutTime=").append(this.cachePutTime);
+        return stringBuilder.toString();
+    }
+}
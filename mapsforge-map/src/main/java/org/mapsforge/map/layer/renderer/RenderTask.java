@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.mapsforge.map.datastore.PackedMapReadResult;
+import org.mapsforge.map.rendertheme.RenderContext;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A job on its way through the {@link RenderStage stages} of a {@link DatabaseRenderer}.
+ */
+class RenderTask {
+    private static final Logger LOGGER = Logger.getLogger(RenderTask.class.getName());
+
+    private boolean destroyed;
+    PackedMapReadResult packedMapReadResult;
+    final RenderContext renderContext;
+    final boolean renderBitmap;
+    private final RenderListener renderListener;
+    /**
+     * The statistics of the job, null if no listener is set.
+     */
+    final RenderStatistics renderStatistics;
+    final RendererJob rendererJob;
+
+    /**
+     * @param rendererJob    the job as it was requested.
+     * @param renderContext  the render context of the tile or metatile which is rendered for the job.
+     * @param renderBitmap   false if the tiles are outside of the map area and are filled with the background.
+     * @param renderListener the listener to report the statistics of the job to (may be null).
+     */
+    RenderTask(RendererJob rendererJob, RenderContext renderContext, boolean renderBitmap,
+               RenderListener renderListener) {
+        this.rendererJob = rendererJob;
+        this.renderContext = renderContext;
+        this.renderBitmap = renderBitmap;
+        this.renderListener = renderListener;
+        this.renderStatistics = renderListener != null ? new RenderStatistics() : null;
+    }
+
+    /**
+     * Releases the render context and reports the statistics of the job, may be called more than once.
+     */
+    void destroy() {
+        if (!this.destroyed) {
+            this.destroyed = true;
+            this.packedMapReadResult = null;
+            this.renderContext.destroy();
+            if (this.renderListener != null) {
+                try {
+                    this.renderListener.onJobRendered(this.rendererJob, this.renderStatistics);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -55,6 +55,145 @@ class RendererUtils {
         return h;
     }
 
+    /**
+     * Simplifies the coordinates of a way before it is drawn, in three steps:
+     * <ol>
+     * <li>runs of consecutive points which are all on the same side outside of the clip rectangle are collapsed
+     * into their first and last point, the chord between them stays on that side, so that neither the stroke
+     * nor the filled area within the rectangle changes;</li>
+     * <li>points closer to their predecessor than the tolerance are dropped;</li>
+     * <li>the remaining points are reduced with the Douglas-Peucker algorithm, so that no dropped point is
+     * farther than the tolerance from the simplified line.</li>
+     * </ol>
+     * The first and the last point are always kept, so closed ways remain closed.
+     *
+     * @param points    the coordinates of the way.
+     * @param tolerance the tolerance in pixels.
+     * @return the simplified coordinates, the given array if no point was dropped.
+     */
+    static Point[] simplify(Point[] points, double tolerance, double left, double top, double right, double bottom) {
+        int n = points.length;
+        if (n <= 2) {
+            return points;
+        }
+
+        // collapse the runs outside of the clip rectangle
+        Point[] clipped = new Point[n];
+        int count = 0;
+        int i = 0;
+        while (i < n) {
+            clipped[count++] = points[i];
+            int common = outcode(points[i], left, top, right, bottom);
+            int j = i;
+            while (common != 0 && j + 1 < n) {
+                int next = common & outcode(points[j + 1], left, top, right, bottom);
+                if (next == 0) {
+                    break;
+                }
+                common = next;
+                ++j;
+            }
+            if (j > i) {
+                clipped[count++] = points[j];
+            }
+            i = j + 1;
+        }
+
+        // drop the points within the tolerance of their predecessor, the last point is always kept
+        double toleranceSquared = tolerance * tolerance;
+        Point[] reduced = new Point[count];
+        int reducedCount = 1;
+        reduced[0] = clipped[0];
+        for (i = 1; i < count - 1; ++i) {
+            Point previous = reduced[reducedCount - 1];
+            double dx = clipped[i].x - previous.x;
+            double dy = clipped[i].y - previous.y;
+            if (dx * dx + dy * dy >= toleranceSquared) {
+                reduced[reducedCount++] = clipped[i];
+            }
+        }
+        reduced[reducedCount++] = clipped[count - 1];
+
+        // Douglas-Peucker with an explicit stack, ways may have tens of thousands of points
+        boolean[] keep = new boolean[reducedCount];
+        keep[0] = true;
+        keep[reducedCount - 1] = true;
+        int[] stack = new int[2 * reducedCount];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = reducedCount - 1;
+        int kept = 2;
+        while (stackSize > 0) {
+            int last = stack[--stackSize];
+            int first = stack[--stackSize];
+            double maxDistanceSquared = toleranceSquared;
+            int index = -1;
+            for (i = first + 1; i < last; ++i) {
+                double distanceSquared = distanceSquared(reduced[i], reduced[first], reduced[last]);
+                if (distanceSquared > maxDistanceSquared) {
+                    maxDistanceSquared = distanceSquared;
+                    index = i;
+                }
+            }
+            if (index >= 0) {
+                keep[index] = true;
+                ++kept;
+                stack[stackSize++] = first;
+                stack[stackSize++] = index;
+                stack[stackSize++] = index;
+                stack[stackSize++] = last;
+            }
+        }
+
+        if (kept == n) {
+            return points;
+        }
+        Point[] simplified = new Point[kept];
+        count = 0;
+        for (i = 0; i < reducedCount; ++i) {
+            if (keep[i]) {
+                simplified[count++] = reduced[i];
+            }
+        }
+        return simplified;
+    }
+
+    /**
+     * @return the squared distance of a point from the segment between start and end.
+     */
+    private static double distanceSquared(Point point, Point start, Point end) {
+        double dx = end.x - start.x;
+        double dy = end.y - start.y;
+        double lengthSquared = dx * dx + dy * dy;
+        double t = 0;
+        if (lengthSquared > 0) {
+            t = ((point.x - start.x) * dx + (point.y - start.y) * dy) / lengthSquared;
+            t = Math.max(0, Math.min(1, t));
+        }
+        double x = point.x - (start.x + t * dx);
+        double y = point.y - (start.y + t * dy);
+        return x * x + y * y;
+    }
+
+    /**
+     * @return the Cohen-Sutherland outcode of a point: one bit for each side of the rectangle the point is
+     * outside of, 0 if it is inside.
+     */
+    private static int outcode(Point point, double left, double top, double right, double bottom) {
+        int outcode = 0;
+        if (point.x < left) {
+            outcode |= 1;
+        } else if (point.x > right) {
+            outcode |= 2;
+        }
+        if (point.y < top) {
+            outcode |= 4;
+        } else if (point.y > bottom) {
+            outcode |= 8;
+        }
+        return outcode;
+    }
+
     private RendererUtils() {
         throw new IllegalStateException();
     }
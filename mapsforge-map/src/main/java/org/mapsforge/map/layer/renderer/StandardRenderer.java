@@ -25,10 +25,13 @@ import org.mapsforge.core.graphics.Position;
 import org.mapsforge.core.mapelements.SymbolContainer;
 import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.Point;
+import org.mapsforge.core.model.Rectangle;
 import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
 import org.mapsforge.core.util.MercatorProjection;
 import org.mapsforge.map.datastore.MapDataStore;
 import org.mapsforge.map.datastore.MapReadResult;
+import org.mapsforge.map.datastore.PackedMapReadResult;
 import org.mapsforge.map.datastore.PointOfInterest;
 import org.mapsforge.map.datastore.Way;
 import org.mapsforge.map.layer.hills.HillsRenderConfig;
@@ -174,7 +177,18 @@ public class StandardRenderer implements RenderCallback {
     }
 
     boolean renderBitmap(RenderContext renderContext) {
-        return !renderContext.renderTheme.hasMapBackgroundOutside() || this.mapDataStore.supportsTile(renderContext.rendererJob.tile);
+        if (!renderContext.renderTheme.hasMapBackgroundOutside()) {
+            return true;
+        }
+        Tile upperLeft = renderContext.rendererJob.tile;
+        for (int x = upperLeft.tileX; x <= renderContext.lowerRight.tileX; ++x) {
+            for (int y = upperLeft.tileY; y <= renderContext.lowerRight.tileY; ++y) {
+                if (this.mapDataStore.supportsTile(new Tile(x, y, upperLeft.zoomLevel, upperLeft.tileSize))) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     protected void renderPointOfInterest(final RenderContext renderContext, PointOfInterest pointOfInterest) {
@@ -184,12 +198,8 @@ public class StandardRenderer implements RenderCallback {
 
     protected void renderWaterBackground(final RenderContext renderContext) {
         renderContext.setDrawingLayers((byte) 0);
-        Point[] coordinates = getTilePixelCoordinates(renderContext.rendererJob.tile.tileSize);
-        Point tileOrigin = renderContext.rendererJob.tile.getOrigin();
-        for (int i = 0; i < coordinates.length; i++) {
-            coordinates[i] = coordinates[i].offset(tileOrigin.x, tileOrigin.y);
-        }
-        PolylineContainer way = new PolylineContainer(coordinates, renderContext.rendererJob.tile, renderContext.rendererJob.tile, Collections.singletonList(TAG_NATURAL_WATER));
+        Point[] coordinates = getTilePixelCoordinates(Tile.getBoundaryAbsolute(renderContext.rendererJob.tile, renderContext.lowerRight));
+        PolylineContainer way = new PolylineContainer(coordinates, renderContext.rendererJob.tile, renderContext.lowerRight, Collections.singletonList(TAG_NATURAL_WATER));
         renderContext.renderTheme.matchClosedWay(this, renderContext, way);
     }
 
@@ -213,7 +223,7 @@ public class StandardRenderer implements RenderCallback {
         }
 
         for (Way way : mapReadResult.ways) {
-            renderWay(renderContext, new PolylineContainer(way, renderContext.rendererJob.tile, renderContext.rendererJob.tile));
+            renderWay(renderContext, new PolylineContainer(way, renderContext.rendererJob.tile, renderContext.lowerRight));
         }
 
         if (mapReadResult.isWater) {
@@ -221,12 +231,30 @@ public class StandardRenderer implements RenderCallback {
         }
     }
 
-    private static Point[] getTilePixelCoordinates(int tileSize) {
+    protected void processReadMapData(final RenderContext renderContext, PackedMapReadResult packedMapReadResult) {
+        if (packedMapReadResult == null) {
+            return;
+        }
+
+        for (int i = 0; i < packedMapReadResult.getNumberOfPois(); ++i) {
+            renderPointOfInterest(renderContext, packedMapReadResult.getPointOfInterest(i));
+        }
+
+        for (int i = 0; i < packedMapReadResult.getNumberOfWays(); ++i) {
+            renderWay(renderContext, new PolylineContainer(packedMapReadResult, i, renderContext.rendererJob.tile, renderContext.lowerRight));
+        }
+
+        if (packedMapReadResult.isWater) {
+            renderWaterBackground(renderContext);
+        }
+    }
+
+    private static Point[] getTilePixelCoordinates(Rectangle boundary) {
         Point[] result = new Point[5];
-        result[0] = new Point(0, 0);
-        result[1] = new Point(tileSize, 0);
-        result[2] = new Point(tileSize, tileSize);
-        result[3] = new Point(0, tileSize);
+        result[0] = new Point(boundary.left, boundary.top);
+        result[1] = new Point(boundary.right, boundary.top);
+        result[2] = new Point(boundary.right, boundary.bottom);
+        result[3] = new Point(boundary.left, boundary.bottom);
         result[4] = result[0];
         return result;
     }
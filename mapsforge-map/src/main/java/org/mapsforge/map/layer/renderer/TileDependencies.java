@@ -3,10 +3,13 @@ package org.mapsforge.map.layer.renderer;
 import org.mapsforge.core.mapelements.MapElementContainer;
 import org.mapsforge.core.model.Tile;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The TileDependecies class tracks the dependencies between tiles for labels.
@@ -18,16 +21,40 @@ import java.util.Set;
  * For every tile drawn we must therefore enquire which labels from neighbouring tiles
  * overlap onto it and these labels must be drawn regardless of priority as part of the
  * label has already been drawn.
+ * <p/>
+ * A thread labelling a tile only reads and writes the data of the tile and its neighbours, so it
+ * holds only these tiles with {@link #acquire(Collection)} instead of locking all dependencies:
+ * threads labelling tiles that are further apart never wait for each other. The data of a tile
+ * must only be accessed while it is held.
  */
 public class TileDependencies {
     Map<Tile, Map<Tile, Set<MapElementContainer>>> overlapData;
+    // the tiles held by threads which label them or their neighbours
+    private final Set<Tile> heldTiles;
     // for the multithreaded renderer we also need to keep track of tiles that are in progress
     // and not yet in the TileCache to avoid truncated labels.
     Set<Tile> tilesInProgress;
 
     TileDependencies() {
-        overlapData = new HashMap<Tile, Map<Tile, Set<MapElementContainer>>>();
-        tilesInProgress = new HashSet<Tile>();
+        overlapData = new ConcurrentHashMap<Tile, Map<Tile, Set<MapElementContainer>>>();
+        heldTiles = new HashSet<Tile>();
+        tilesInProgress = Collections.newSetFromMap(new ConcurrentHashMap<Tile, Boolean>());
+    }
+
+    /**
+     * Blocks until none of the given tiles is held by another thread, then holds all of them
+     * until they are released with {@link #release(Collection)}.
+     *
+     * @param tiles the tiles whose data will be accessed.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    void acquire(Collection<Tile> tiles) throws InterruptedException {
+        synchronized (heldTiles) {
+            while (!Collections.disjoint(heldTiles, tiles)) {
+                heldTiles.wait();
+            }
+            heldTiles.addAll(tiles);
+        }
     }
 
     /**
@@ -85,15 +112,27 @@ public class TileDependencies {
 
     }
 
-    synchronized boolean isTileInProgress(Tile tile) {
+    /**
+     * Releases tiles held with {@link #acquire(Collection)}.
+     *
+     * @param tiles the tiles that were acquired.
+     */
+    void release(Collection<Tile> tiles) {
+        synchronized (heldTiles) {
+            heldTiles.removeAll(tiles);
+            heldTiles.notifyAll();
+        }
+    }
+
+    boolean isTileInProgress(Tile tile) {
         return tilesInProgress.contains(tile);
     }
 
-    synchronized void addTileInProgress(Tile tileInProgress) {
+    void addTileInProgress(Tile tileInProgress) {
         tilesInProgress.add(tileInProgress);
     }
 
-    synchronized void removeTileInProgress(Tile tileFinished) {
+    void removeTileInProgress(Tile tileFinished) {
         tilesInProgress.remove(tileFinished);
     }
 }
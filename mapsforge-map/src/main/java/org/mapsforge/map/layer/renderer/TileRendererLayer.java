@@ -39,6 +39,7 @@ public class TileRendererLayer extends TileLayer<RendererJob> implements Observe
     private final GraphicFactory graphicFactory;
     private final MapDataStore mapDataStore;
     private MapWorkerPool mapWorkerPool;
+    private int renderPriority;
     private RenderThemeFuture renderThemeFuture;
     private float textScale;
     private final TileBasedLabelStore tileBasedLabelStore;
@@ -102,6 +103,7 @@ public class TileRendererLayer extends TileLayer<RendererJob> implements Observe
             this.tileBasedLabelStore = null;
         }
         this.databaseRenderer = new DatabaseRenderer(this.mapDataStore, graphicFactory, tileCache, tileBasedLabelStore, renderLabels, cacheLabels, hillsRenderConfig);
+        this.renderPriority = 1;
         this.textScale = 1;
     }
 
@@ -118,6 +120,27 @@ public class TileRendererLayer extends TileLayer<RendererJob> implements Observe
         return mapDataStore;
     }
 
+    /**
+     * @return the number of tiles along each side of the metatiles in which tiles are rendered.
+     */
+    public int getMetaTileSize() {
+        return this.databaseRenderer.getMetaTileSize();
+    }
+
+    /**
+     * @return the listener which receives the statistics of the tiles rendered for this layer (may be null).
+     */
+    public RenderListener getRenderListener() {
+        return this.databaseRenderer.getRenderListener();
+    }
+
+    /**
+     * @return the priority of this layer for the shared render threads.
+     */
+    public int getRenderPriority() {
+        return this.renderPriority;
+    }
+
     public float getTextScale() {
         return this.textScale;
     }
@@ -135,9 +158,11 @@ public class TileRendererLayer extends TileLayer<RendererJob> implements Observe
     public synchronized void setDisplayModel(DisplayModel displayModel) {
         super.setDisplayModel(displayModel);
         if (displayModel != null) {
+            this.jobQueue.setMapDataStore(this.mapDataStore);
             compileRenderTheme();
             if (this.mapWorkerPool == null) {
                 this.mapWorkerPool = new MapWorkerPool(this.tileCache, this.jobQueue, this.databaseRenderer, this);
+                this.mapWorkerPool.setPriority(this.renderPriority);
             }
             this.mapWorkerPool.start();
         } else {
@@ -148,6 +173,44 @@ public class TileRendererLayer extends TileLayer<RendererJob> implements Observe
         }
     }
 
+    /**
+     * Renders tiles in metatiles of the given number of tiles along each side, 1 (the default) renders
+     * single tiles. The map data of a metatile is read and labelled only once, so larger metatiles cut
+     * the work per tile, but every job takes longer until its tiles appear.
+     *
+     * @param metaTileSize the number of tiles along each side of a metatile.
+     */
+    public void setMetaTileSize(int metaTileSize) {
+        this.databaseRenderer.setMetaTileSize(metaTileSize);
+    }
+
+    /**
+     * Sets a listener which receives the {@link RenderStatistics} of the tiles rendered for this layer, null
+     * disables the statistics.
+     *
+     * @param renderListener the listener to be set (may be null).
+     */
+    public void setRenderListener(RenderListener renderListener) {
+        this.databaseRenderer.setRenderListener(renderListener);
+    }
+
+    /**
+     * Sets the priority of this layer for the render threads, which are shared by all tile renderer layers,
+     * see {@link RenderExecutor}. While several layers have tiles to render, the threads are divided among them
+     * in proportion to their priorities.
+     *
+     * @param renderPriority the priority, 1 by default.
+     */
+    public void setRenderPriority(int renderPriority) {
+        if (renderPriority < 1) {
+            throw new IllegalArgumentException("invalid renderPriority: " + renderPriority);
+        }
+        this.renderPriority = renderPriority;
+        if (this.mapWorkerPool != null) {
+            this.mapWorkerPool.setPriority(renderPriority);
+        }
+    }
+
     public void setTextScale(float textScale) {
         this.textScale = textScale;
     }
@@ -14,7 +14,10 @@
  */
 package org.mapsforge.map.rendertheme;
 
+import org.mapsforge.core.graphics.GraphicFactory;
+import org.mapsforge.core.graphics.Paint;
 import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.model.Point;
 import org.mapsforge.core.model.Tile;
 import org.mapsforge.map.layer.renderer.CanvasRasterer;
 import org.mapsforge.map.layer.renderer.RendererJob;
@@ -22,8 +25,10 @@ import org.mapsforge.map.layer.renderer.ShapePaintContainer;
 import org.mapsforge.map.rendertheme.rule.RenderTheme;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -39,29 +44,77 @@ public class RenderContext {
     public final RendererJob rendererJob;
     public final RenderTheme renderTheme;
 
+    /**
+     * The tile in the lower right corner of the rendered area, the tile of the job is in the upper
+     * left corner. Both are the same unless a metatile is rendered.
+     */
+    public final Tile lowerRight;
+
+    /**
+     * The factor by which render instructions scale stroke widths on the zoom level of the job.
+     */
+    public final float strokeScale;
+
+    /**
+     * The factor by which render instructions scale text sizes.
+     */
+    public final float textScale;
+
     // Configuration that drives the rendering
     public final CanvasRasterer canvasRasterer;
 
     // Data generated for the rendering process
     private List<List<ShapePaintContainer>> drawingLayers;
     public final List<MapElementContainer> labels;
+    private final Map<Paint, Paint> shiftedPaints;
     public final List<List<List<ShapePaintContainer>>> ways;
 
 
     public RenderContext(RendererJob rendererJob, CanvasRasterer canvasRasterer) throws InterruptedException, ExecutionException {
+        this(rendererJob, rendererJob.tile, canvasRasterer);
+    }
+
+    /**
+     * Creates a RenderContext for the area from the tile of the job to the given lower right tile.
+     */
+    public RenderContext(RendererJob rendererJob, Tile lowerRight, CanvasRasterer canvasRasterer) throws InterruptedException, ExecutionException {
         this.rendererJob = rendererJob;
+        this.lowerRight = lowerRight;
         this.labels = new LinkedList<>();
+        this.shiftedPaints = new IdentityHashMap<>();
         this.canvasRasterer = canvasRasterer;
         this.renderTheme = rendererJob.renderThemeFuture.get();
-        this.renderTheme.scaleTextSize(rendererJob.textScale, rendererJob.tile.zoomLevel);
+        this.strokeScale = getStrokeScale(rendererJob.tile.zoomLevel) * this.renderTheme.getBaseStrokeWidth();
+        this.textScale = rendererJob.textScale * this.renderTheme.getBaseTextSize();
         this.ways = createWayLists();
-        setScaleStrokeWidth(this.rendererJob.tile.zoomLevel);
     }
 
     public void destroy() {
         this.canvasRasterer.destroy();
     }
 
+    /**
+     * Returns a copy of the given paint with its bitmap shader shifted to the origin of the rendered area.
+     * <p/>
+     * The paints of render instructions are shared by all tiles that are rendered at the same time, but
+     * the shift depends on the tile and the ways are only drawn after all of them have been matched.
+     * Every render context therefore shifts its own copy, which it creates once and reuses for all ways.
+     *
+     * @param paint          the paint of a render instruction, with a bitmap shader.
+     * @param origin         the origin of the rendered area.
+     * @param graphicFactory the factory that copies the paint.
+     * @return the shifted copy of the paint.
+     */
+    public Paint getShiftedPaint(Paint paint, Point origin, GraphicFactory graphicFactory) {
+        Paint shiftedPaint = this.shiftedPaints.get(paint);
+        if (shiftedPaint == null) {
+            shiftedPaint = graphicFactory.createPaint(paint);
+            shiftedPaint.setBitmapShaderShift(origin);
+            this.shiftedPaints.put(paint, shiftedPaint);
+        }
+        return shiftedPaint;
+    }
+
     public void setDrawingLayers(byte layer) {
         if (layer < 0) {
             layer = 0;
@@ -101,13 +154,12 @@ public class RenderContext {
     }
 
     /**
-     * Sets the scale stroke factor for the given zoom level.
-     *
-     * @param zoomLevel the zoom level for which the scale stroke factor should be set.
+     * @param zoomLevel the zoom level for which the scale stroke factor should be returned.
+     * @return the scale stroke factor for the given zoom level.
      */
-    private void setScaleStrokeWidth(byte zoomLevel) {
+    private static float getStrokeScale(byte zoomLevel) {
         int zoomLevelDiff = Math.max(zoomLevel - STROKE_MIN_ZOOM_LEVEL, 0);
-        this.renderTheme.scaleStrokeWidth((float) Math.pow(STROKE_INCREASE, zoomLevelDiff), this.rendererJob.tile.zoomLevel);
+        return (float) Math.pow(STROKE_INCREASE, zoomLevelDiff);
     }
 
 }
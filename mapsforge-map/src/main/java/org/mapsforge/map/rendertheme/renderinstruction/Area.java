@@ -32,22 +32,20 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents a closed polygon on the map.
  */
 public class Area extends RenderInstruction {
-    private boolean bitmapInvalid;
+    private volatile boolean bitmapInvalid;
     private final Paint fill;
     private final int level;
     private final String relativePathPrefix;
     private Scale scale = Scale.STROKE;
-    private Bitmap shaderBitmap;
+    private volatile Bitmap shaderBitmap;
     private String src;
     private final Paint stroke;
-    private final Map<Byte, Paint> strokes;
+    private final ZoomTable<Paint> strokes;
     private float strokeWidth;
 
     public Area(GraphicFactory graphicFactory, DisplayModel displayModel, String elementName,
@@ -67,11 +65,39 @@ public class Area extends RenderInstruction {
         this.stroke.setStyle(Style.STROKE);
         this.stroke.setStrokeCap(Cap.ROUND);
 
-        this.strokes = new HashMap<>();
+        this.strokes = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                if (scale == Scale.NONE) {
+                    scaleFactor = 1;
+                }
+                Paint paint = Area.this.graphicFactory.createPaint(stroke);
+                paint.setStrokeWidth(strokeWidth * scaleFactor);
+                return paint;
+            }
+        };
 
         extractValues(elementName, pullParser);
     }
 
+    private synchronized void createShaderBitmap() {
+        if (shaderBitmap == null && !bitmapInvalid) {
+            try {
+                Bitmap bitmap = createBitmap(relativePathPrefix, src);
+                if (bitmap == null) {
+                    bitmapInvalid = true;
+                    return;
+                }
+                this.fill.setBitmapShader(bitmap);
+                bitmap.decrementRefCount();
+                // published after the shader of the fill paint has been set
+                shaderBitmap = bitmap;
+            } catch (IOException ioException) {
+                bitmapInvalid = true;
+            }
+        }
+    }
+
     @Override
     public void destroy() {
         // no-op
@@ -113,12 +139,8 @@ public class Area extends RenderInstruction {
         return this.fill;
     }
 
-    private Paint getStrokePaint(byte zoomLevel) {
-        Paint paint = strokes.get(zoomLevel);
-        if (paint == null) {
-            paint = this.stroke;
-        }
-        return paint;
+    private Paint getStrokePaint(RenderContext renderContext) {
+        return this.strokes.get(renderContext.rendererJob.tile.zoomLevel, renderContext.strokeScale);
     }
 
     @Override
@@ -128,42 +150,20 @@ public class Area extends RenderInstruction {
 
     @Override
     public void renderWay(RenderCallback renderCallback, final RenderContext renderContext, PolylineContainer way) {
-        synchronized (this) {
-            // this needs to be synchronized as we potentially set a shift in the shader and
-            // the shift is particular to the tile when rendered in multi-thread mode
-            Paint fillPaint = getFillPaint();
-            if (shaderBitmap == null && !bitmapInvalid) {
-                try {
-                    shaderBitmap = createBitmap(relativePathPrefix, src);
-                    if (shaderBitmap != null) {
-                        fillPaint.setBitmapShader(shaderBitmap);
-                        shaderBitmap.decrementRefCount();
-                    }
-                } catch (IOException ioException) {
-                    bitmapInvalid = true;
-                }
-            }
-
-            fillPaint.setBitmapShaderShift(way.getUpperLeft().getOrigin());
-
-            renderCallback.renderArea(renderContext, fillPaint, getStrokePaint(renderContext.rendererJob.tile.zoomLevel), this.level, way);
+        Paint fillPaint = getFillPaint();
+        if (this.src == null || this.src.isEmpty() || this.bitmapInvalid) {
+            // no shader, the paints are not modified
+            renderCallback.renderArea(renderContext, fillPaint, getStrokePaint(renderContext), this.level, way);
+            return;
         }
-    }
 
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (this.stroke != null) {
-            if (this.scale == Scale.NONE) {
-                scaleFactor = 1;
-            }
-            Paint paint = graphicFactory.createPaint(this.stroke);
-            paint.setStrokeWidth(this.strokeWidth * scaleFactor);
-            this.strokes.put(zoomLevel, paint);
+        if (shaderBitmap == null && !bitmapInvalid) {
+            createShaderBitmap();
         }
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        // do nothing
+        if (shaderBitmap != null) {
+            // the shift of the shader is particular to the tile, so it is set on a copy of the shared paint
+            fillPaint = renderContext.getShiftedPaint(fillPaint, way.getUpperLeft().getOrigin(), this.graphicFactory);
+        }
+        renderCallback.renderArea(renderContext, fillPaint, getStrokePaint(renderContext), this.level, way);
     }
 }
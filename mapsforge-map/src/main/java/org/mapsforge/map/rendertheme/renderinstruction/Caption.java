@@ -35,7 +35,6 @@ import org.mapsforge.map.rendertheme.XmlUtils;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -50,16 +49,15 @@ public class Caption extends RenderInstruction {
     private Bitmap bitmap;
     private Display display;
     private float dy;
-    private final Map<Byte, Float> dyScaled;
     private final Paint fill;
-    private final Map<Byte, Paint> fills;
+    private final ZoomTable<Paint> fills;
     private float fontSize;
     private final float gap;
     private final int maxTextWidth;
     private Position position;
     private int priority;
     private final Paint stroke;
-    private final Map<Byte, Paint> strokes;
+    private final ZoomTable<Paint> strokes;
     private String symbolId;
     private TextKey textKey;
 
@@ -69,13 +67,26 @@ public class Caption extends RenderInstruction {
         this.fill = graphicFactory.createPaint();
         this.fill.setColor(Color.BLACK);
         this.fill.setStyle(Style.FILL);
-        this.fills = new HashMap<>();
+        this.fills = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                Paint paint = Caption.this.graphicFactory.createPaint(fill);
+                paint.setTextSize(fontSize * scaleFactor);
+                return paint;
+            }
+        };
 
         this.stroke = graphicFactory.createPaint();
         this.stroke.setColor(Color.BLACK);
         this.stroke.setStyle(Style.STROKE);
-        this.strokes = new HashMap<>();
-        this.dyScaled = new HashMap<>();
+        this.strokes = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                Paint paint = Caption.this.graphicFactory.createPaint(stroke);
+                paint.setTextSize(fontSize * scaleFactor);
+                return paint;
+            }
+        };
 
 
         this.display = Display.IFSPACE;
@@ -144,8 +155,8 @@ public class Caption extends RenderInstruction {
         return 0;
     }
 
-    private float computeVerticalOffset(byte zoomLevel) {
-        float verticalOffset = this.dyScaled.get(zoomLevel);
+    private float computeVerticalOffset(RenderContext renderContext) {
+        float verticalOffset = this.dy * renderContext.textScale;
 
         if (Position.ABOVE == this.position
                 || Position.ABOVE_LEFT == this.position
@@ -210,20 +221,12 @@ public class Caption extends RenderInstruction {
         XmlUtils.checkMandatoryAttribute(elementName, K, this.textKey);
     }
 
-    private Paint getFillPaint(byte zoomLevel) {
-        Paint paint = fills.get(zoomLevel);
-        if (paint == null) {
-            paint = this.fill;
-        }
-        return paint;
+    private Paint getFillPaint(RenderContext renderContext) {
+        return this.fills.get(renderContext.rendererJob.tile.zoomLevel, renderContext.textScale);
     }
 
-    private Paint getStrokePaint(byte zoomLevel) {
-        Paint paint = strokes.get(zoomLevel);
-        if (paint == null) {
-            paint = this.stroke;
-        }
-        return paint;
+    private Paint getStrokePaint(RenderContext renderContext) {
+        return this.strokes.get(renderContext.rendererJob.tile.zoomLevel, renderContext.textScale);
     }
 
     @Override
@@ -239,18 +242,15 @@ public class Caption extends RenderInstruction {
 
         float horizontalOffset = 0f;
 
-        Float verticalOffset = this.dyScaled.get(renderContext.rendererJob.tile.zoomLevel);
-        if (verticalOffset == null) {
-            verticalOffset = this.dy;
-        }
+        float verticalOffset = this.dy * renderContext.textScale;
 
         if (this.bitmap != null) {
             horizontalOffset = computeHorizontalOffset();
-            verticalOffset = computeVerticalOffset(renderContext.rendererJob.tile.zoomLevel);
+            verticalOffset = computeVerticalOffset(renderContext);
         }
 
         renderCallback.renderPointOfInterestCaption(renderContext, this.display, this.priority, caption, horizontalOffset, verticalOffset,
-                getFillPaint(renderContext.rendererJob.tile.zoomLevel), getStrokePaint(renderContext.rendererJob.tile.zoomLevel), this.position, this.maxTextWidth, poi);
+                getFillPaint(renderContext), getStrokePaint(renderContext), this.position, this.maxTextWidth, poi);
     }
 
     @Override
@@ -265,35 +265,14 @@ public class Caption extends RenderInstruction {
         }
 
         float horizontalOffset = 0f;
-        Float verticalOffset = this.dyScaled.get(renderContext.rendererJob.tile.zoomLevel);
-        if (verticalOffset == null) {
-            verticalOffset = this.dy;
-        }
+        float verticalOffset = this.dy * renderContext.textScale;
 
         if (this.bitmap != null) {
             horizontalOffset = computeHorizontalOffset();
-            verticalOffset = computeVerticalOffset(renderContext.rendererJob.tile.zoomLevel);
+            verticalOffset = computeVerticalOffset(renderContext);
         }
 
         renderCallback.renderAreaCaption(renderContext, this.display, this.priority, caption, horizontalOffset, verticalOffset,
-                getFillPaint(renderContext.rendererJob.tile.zoomLevel), getStrokePaint(renderContext.rendererJob.tile.zoomLevel), this.position, this.maxTextWidth, way);
-    }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        Paint f = graphicFactory.createPaint(this.fill);
-        f.setTextSize(this.fontSize * scaleFactor);
-        this.fills.put(zoomLevel, f);
-
-        Paint s = graphicFactory.createPaint(this.stroke);
-        s.setTextSize(this.fontSize * scaleFactor);
-        this.strokes.put(zoomLevel, s);
-
-        this.dyScaled.put(zoomLevel, this.dy * scaleFactor);
+                getFillPaint(renderContext), getStrokePaint(renderContext), this.position, this.maxTextWidth, way);
     }
 }
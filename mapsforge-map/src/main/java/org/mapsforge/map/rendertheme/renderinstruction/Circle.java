@@ -29,22 +29,17 @@ import org.mapsforge.map.rendertheme.XmlUtils;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * Represents a round area on the map.
  */
 public class Circle extends RenderInstruction {
     private final Paint fill;
-    private final Map<Byte, Paint> fills;
     private final int level;
     private float radius;
     private float renderRadius;
-    private final Map<Byte, Float> renderRadiusScaled;
     private boolean scaleRadius;
     private final Paint stroke;
-    private final Map<Byte, Paint> strokes;
+    private final ZoomTable<Paint> strokes;
     private float strokeWidth;
 
     public Circle(GraphicFactory graphicFactory, DisplayModel displayModel, String elementName,
@@ -55,13 +50,18 @@ public class Circle extends RenderInstruction {
         this.fill = graphicFactory.createPaint();
         this.fill.setColor(Color.TRANSPARENT);
         this.fill.setStyle(Style.FILL);
-        this.fills = new HashMap<>();
 
         this.stroke = graphicFactory.createPaint();
         this.stroke.setColor(Color.TRANSPARENT);
         this.stroke.setStyle(Style.STROKE);
-        this.strokes = new HashMap<>();
-        this.renderRadiusScaled = new HashMap<>();
+        this.strokes = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                Paint paint = Circle.this.graphicFactory.createPaint(stroke);
+                paint.setStrokeWidth(strokeWidth * scaleFactor);
+                return paint;
+            }
+        };
 
         extractValues(graphicFactory, displayModel, elementName, pullParser);
 
@@ -102,54 +102,27 @@ public class Circle extends RenderInstruction {
         XmlUtils.checkMandatoryAttribute(elementName, RADIUS, this.radius);
     }
 
-    private Paint getFillPaint(byte zoomLevel) {
-        Paint paint = fills.get(zoomLevel);
-        if (paint == null) {
-            paint = this.fill;
-        }
-        return paint;
-    }
-
-    private float getRenderRadius(byte zoomLevel) {
-        Float radius = renderRadiusScaled.get(zoomLevel);
-        if (radius == null) {
-            radius = this.renderRadius;
+    private float getRenderRadius(RenderContext renderContext) {
+        if (this.scaleRadius) {
+            return this.radius * renderContext.strokeScale;
         }
-        return radius;
+        return this.renderRadius;
     }
 
-    private Paint getStrokePaint(byte zoomLevel) {
-        Paint paint = strokes.get(zoomLevel);
-        if (paint == null) {
-            paint = this.stroke;
+    private Paint getStrokePaint(RenderContext renderContext) {
+        if (this.scaleRadius) {
+            return this.strokes.get(renderContext.rendererJob.tile.zoomLevel, renderContext.strokeScale);
         }
-        return paint;
+        return this.stroke;
     }
 
     @Override
     public void renderNode(RenderCallback renderCallback, final RenderContext renderContext, PointOfInterest poi) {
-        renderCallback.renderPointOfInterestCircle(renderContext, getRenderRadius(renderContext.rendererJob.tile.zoomLevel), getFillPaint(renderContext.rendererJob.tile.zoomLevel), getStrokePaint(renderContext.rendererJob.tile.zoomLevel), this.level, poi);
+        renderCallback.renderPointOfInterestCircle(renderContext, getRenderRadius(renderContext), this.fill, getStrokePaint(renderContext), this.level, poi);
     }
 
     @Override
     public void renderWay(RenderCallback renderCallback, final RenderContext renderContext, PolylineContainer way) {
         // do nothing
     }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (this.scaleRadius) {
-            this.renderRadiusScaled.put(zoomLevel, this.radius * scaleFactor);
-            if (this.stroke != null) {
-                Paint paint = graphicFactory.createPaint(stroke);
-                paint.setStrokeWidth(this.strokeWidth * scaleFactor);
-                strokes.put(zoomLevel, paint);
-            }
-        }
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
 }
@@ -33,8 +33,6 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -43,9 +41,8 @@ import java.util.regex.Pattern;
 public class Line extends RenderInstruction {
     private static final Pattern SPLIT_PATTERN = Pattern.compile(",");
 
-    private boolean bitmapCreated;
+    private volatile boolean bitmapCreated;
     private float dy;
-    private final Map<Byte, Float> dyScaled;
     private final int level;
     private final String relativePathPrefix;
     private Scale scale = Scale.STROKE;
@@ -53,7 +50,7 @@ public class Line extends RenderInstruction {
     private String src;
     private final Paint stroke;
     private float[] strokeDasharray;
-    private final Map<Byte, Paint> strokes;
+    private final ZoomTable<Paint> strokes;
     private float strokeWidth;
 
     public Line(GraphicFactory graphicFactory, DisplayModel displayModel, String elementName,
@@ -67,8 +64,24 @@ public class Line extends RenderInstruction {
         this.stroke.setStyle(Style.STROKE);
         this.stroke.setStrokeCap(Cap.ROUND);
         this.stroke.setStrokeJoin(Join.ROUND);
-        this.strokes = new HashMap<>();
-        this.dyScaled = new HashMap<>();
+        this.strokes = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                if (scale == Scale.NONE) {
+                    scaleFactor = 1;
+                }
+                Paint paint = Line.this.graphicFactory.createPaint(stroke);
+                paint.setStrokeWidth(strokeWidth * scaleFactor);
+                if (scale == Scale.ALL && strokeDasharray != null) {
+                    float[] strokeDasharrayScaled = new float[strokeDasharray.length];
+                    for (int i = 0; i < strokeDasharray.length; i++) {
+                        strokeDasharrayScaled[i] = strokeDasharray[i] * scaleFactor;
+                    }
+                    paint.setDashPathEffect(strokeDasharrayScaled);
+                }
+                return paint;
+            }
+        };
 
         extractValues(graphicFactory, displayModel, elementName, pullParser);
     }
@@ -78,6 +91,21 @@ public class Line extends RenderInstruction {
         // no.op
     }
 
+    private synchronized void createShaderBitmap() {
+        if (!bitmapCreated) {
+            try {
+                shaderBitmap = createBitmap(relativePathPrefix, src);
+                if (shaderBitmap != null) {
+                    // the stroke paints of all zoom levels are copied from this one and inherit its shader
+                    this.stroke.setBitmapShader(shaderBitmap);
+                }
+            } catch (IOException ioException) {
+                // no-op
+            }
+            bitmapCreated = true;
+        }
+    }
+
     private void extractValues(GraphicFactory graphicFactory, DisplayModel displayModel, String elementName,
                                XmlPullParser pullParser) throws IOException, XmlPullParserException {
         for (int i = 0; i < pullParser.getAttributeCount(); ++i) {
@@ -120,12 +148,12 @@ public class Line extends RenderInstruction {
         }
     }
 
-    private Paint getStrokePaint(byte zoomLevel) {
-        Paint paint = strokes.get(zoomLevel);
-        if (paint == null) {
-            paint = this.stroke;
-        }
-        return paint;
+    private float getDy(RenderContext renderContext) {
+        return this.scale == Scale.NONE ? this.dy : this.dy * renderContext.strokeScale;
+    }
+
+    private Paint getStrokePaint(RenderContext renderContext) {
+        return this.strokes.get(renderContext.rendererJob.tile.zoomLevel, renderContext.strokeScale);
     }
 
     private static float[] parseFloatArray(String name, String dashString) throws XmlPullParserException {
@@ -143,53 +171,18 @@ public class Line extends RenderInstruction {
     }
 
     @Override
-    public synchronized void renderWay(RenderCallback renderCallback, final RenderContext renderContext, PolylineContainer way) {
+    public void renderWay(RenderCallback renderCallback, final RenderContext renderContext, PolylineContainer way) {
         if (!bitmapCreated) {
-            try {
-                shaderBitmap = createBitmap(relativePathPrefix, src);
-            } catch (IOException ioException) {
-                // no-op
-            }
-            bitmapCreated = true;
+            createShaderBitmap();
         }
 
-        Paint strokePaint = getStrokePaint(renderContext.rendererJob.tile.zoomLevel);
+        Paint strokePaint = getStrokePaint(renderContext);
+        float dyScale = getDy(renderContext);
 
         if (shaderBitmap != null) {
-            strokePaint.setBitmapShader(shaderBitmap);
-            strokePaint.setBitmapShaderShift(way.getUpperLeft().getOrigin());
-        }
-
-        Float dyScale = this.dyScaled.get(renderContext.rendererJob.tile.zoomLevel);
-        if (dyScale == null) {
-            dyScale = this.dy;
+            // the shift of the shader is particular to the tile, so it is set on a copy of the shared paint
+            strokePaint = renderContext.getShiftedPaint(strokePaint, way.getUpperLeft().getOrigin(), this.graphicFactory);
         }
         renderCallback.renderWay(renderContext, strokePaint, dyScale, this.level, way);
     }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (this.scale == Scale.NONE) {
-            scaleFactor = 1;
-        }
-        if (this.stroke != null) {
-            Paint paint = graphicFactory.createPaint(stroke);
-            paint.setStrokeWidth(this.strokeWidth * scaleFactor);
-            if (this.scale == Scale.ALL) {
-                float[] strokeDasharrayScaled = new float[this.strokeDasharray.length];
-                for (int i = 0; i < strokeDasharray.length; i++) {
-                    strokeDasharrayScaled[i] = this.strokeDasharray[i] * scaleFactor;
-                }
-                paint.setDashPathEffect(strokeDasharrayScaled);
-            }
-            strokes.put(zoomLevel, paint);
-        }
-
-        this.dyScaled.put(zoomLevel, this.dy * scaleFactor);
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
 }
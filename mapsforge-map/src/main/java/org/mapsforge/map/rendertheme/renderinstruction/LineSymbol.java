@@ -29,8 +29,6 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents an icon along a polyline on the map.
@@ -40,11 +38,10 @@ public class LineSymbol extends RenderInstruction {
     private static final float REPEAT_START_DEFAULT = 30f;
 
     private boolean alignCenter;
-    private Bitmap bitmap;
-    private boolean bitmapInvalid;
+    private volatile Bitmap bitmap;
+    private volatile boolean bitmapInvalid;
     private Display display;
     private float dy;
-    private final Map<Byte, Float> dyScaled;
     private int priority;
     private final String relativePathPrefix;
     private boolean repeat;
@@ -61,7 +58,6 @@ public class LineSymbol extends RenderInstruction {
         this.display = Display.IFSPACE;
         this.rotate = true;
         this.relativePathPrefix = relativePathPrefix;
-        this.dyScaled = new HashMap<>();
 
         extractValues(elementName, pullParser);
     }
@@ -129,34 +125,23 @@ public class LineSymbol extends RenderInstruction {
         }
 
         if (this.bitmap == null && !this.bitmapInvalid) {
-            try {
-                this.bitmap = createBitmap(relativePathPrefix, src);
-            } catch (IOException ioException) {
-                this.bitmapInvalid = true;
+            synchronized (this) {
+                // several renderer threads may need the bitmap first at the same time
+                if (this.bitmap == null && !this.bitmapInvalid) {
+                    try {
+                        this.bitmap = createBitmap(relativePathPrefix, src);
+                    } catch (IOException ioException) {
+                        this.bitmapInvalid = true;
+                    }
+                }
             }
         }
 
-        Float dyScale = this.dyScaled.get(renderContext.rendererJob.tile.zoomLevel);
-        if (dyScale == null) {
-            dyScale = this.dy;
-        }
+        float dyScale = this.scale == Scale.NONE ? this.dy : this.dy * renderContext.strokeScale;
 
         if (this.bitmap != null) {
             renderCallback.renderWaySymbol(renderContext, this.display, this.priority, this.bitmap, dyScale, this.alignCenter,
                     this.repeat, this.repeatGap, this.repeatStart, this.rotate, way);
         }
     }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (this.scale == Scale.NONE) {
-            scaleFactor = 1;
-        }
-        this.dyScaled.put(zoomLevel, this.dy * scaleFactor);
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
 }
@@ -33,8 +33,6 @@ import org.mapsforge.map.rendertheme.XmlUtils;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
-import java.util.HashMap;
-import java.util.Map;
 
 /**
  * Represents a text along a polyline on the map.
@@ -45,14 +43,13 @@ public class PathText extends RenderInstruction {
 
     private Display display;
     private float dy;
-    private final Map<Byte, Float> dyScaled;
     private final Paint fill;
-    private final Map<Byte, Paint> fills;
+    private final ZoomTable<Paint> fills;
     private float fontSize;
     private int priority;
     private Scale scale = Scale.STROKE;
     private final Paint stroke;
-    private final Map<Byte, Paint> strokes;
+    private final ZoomTable<Paint> strokes;
     private boolean repeat;
     private float repeatGap;
     private float repeatStart;
@@ -66,7 +63,14 @@ public class PathText extends RenderInstruction {
         this.fill.setColor(Color.BLACK);
         this.fill.setStyle(Style.FILL);
         this.fill.setTextAlign(Align.CENTER);
-        this.fills = new HashMap<>();
+        this.fills = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                Paint paint = PathText.this.graphicFactory.createPaint(fill);
+                paint.setTextSize(fontSize * scaleFactor);
+                return paint;
+            }
+        };
         this.rotate = true;
         this.repeat = true;
 
@@ -74,8 +78,14 @@ public class PathText extends RenderInstruction {
         this.stroke.setColor(Color.BLACK);
         this.stroke.setStyle(Style.STROKE);
         this.stroke.setTextAlign(Align.CENTER);
-        this.strokes = new HashMap<>();
-        this.dyScaled = new HashMap<>();
+        this.strokes = new ZoomTable<Paint>() {
+            @Override
+            Paint create(float scaleFactor) {
+                Paint paint = PathText.this.graphicFactory.createPaint(stroke);
+                paint.setTextSize(fontSize * scaleFactor);
+                return paint;
+            }
+        };
         this.display = Display.IFSPACE;
 
         extractValues(graphicFactory, displayModel, elementName, pullParser);
@@ -141,20 +151,12 @@ public class PathText extends RenderInstruction {
         XmlUtils.checkMandatoryAttribute(elementName, K, this.textKey);
     }
 
-    private Paint getFillPaint(byte zoomLevel) {
-        Paint paint = fills.get(zoomLevel);
-        if (paint == null) {
-            paint = this.fill;
-        }
-        return paint;
+    private Paint getFillPaint(RenderContext renderContext) {
+        return this.fills.get(renderContext.rendererJob.tile.zoomLevel, renderContext.textScale);
     }
 
-    private Paint getStrokePaint(byte zoomLevel) {
-        Paint paint = strokes.get(zoomLevel);
-        if (paint == null) {
-            paint = this.stroke;
-        }
-        return paint;
+    private Paint getStrokePaint(RenderContext renderContext) {
+        return this.strokes.get(renderContext.rendererJob.tile.zoomLevel, renderContext.textScale);
     }
 
     @Override
@@ -173,34 +175,12 @@ public class PathText extends RenderInstruction {
             return;
         }
 
-        Float dyScale = this.dyScaled.get(renderContext.rendererJob.tile.zoomLevel);
-        if (dyScale == null) {
-            dyScale = this.dy;
-        }
+        float dyScale = this.scale == Scale.NONE ? this.dy : this.dy * renderContext.strokeScale;
 
         renderCallback.renderWayText(renderContext, this.display, this.priority, caption, dyScale,
-                getFillPaint(renderContext.rendererJob.tile.zoomLevel),
-                getStrokePaint(renderContext.rendererJob.tile.zoomLevel),
+                getFillPaint(renderContext),
+                getStrokePaint(renderContext),
                 this.repeat, this.repeatGap, this.repeatStart, this.rotate,
                 way);
     }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (this.scale == Scale.NONE) {
-            scaleFactor = 1;
-        }
-        this.dyScaled.put(zoomLevel, this.dy * scaleFactor);
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        Paint zlPaint = graphicFactory.createPaint(this.fill);
-        zlPaint.setTextSize(this.fontSize * scaleFactor);
-        this.fills.put(zoomLevel, zlPaint);
-
-        Paint zlStroke = graphicFactory.createPaint(this.stroke);
-        zlStroke.setTextSize(this.fontSize * scaleFactor);
-        this.strokes.put(zoomLevel, zlStroke);
-    }
 }
@@ -126,13 +126,21 @@ public abstract class RenderInstruction {
      * Scales the stroke width of this RenderInstruction by the given factor.
      *
      * @param scaleFactor the factor by which the stroke width should be scaled.
+     * @deprecated has no effect, stroke widths are scaled per job with {@link RenderContext#strokeScale}.
      */
-    public abstract void scaleStrokeWidth(float scaleFactor, byte zoomLevel);
+    @Deprecated
+    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
+        // no-op
+    }
 
     /**
      * Scales the text size of this RenderInstruction by the given factor.
      *
      * @param scaleFactor the factor by which the text size should be scaled.
+     * @deprecated has no effect, text sizes are scaled per job with {@link RenderContext#textScale}.
      */
-    public abstract void scaleTextSize(float scaleFactor, byte zoomLevel);
+    @Deprecated
+    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
+        // no-op
+    }
 }
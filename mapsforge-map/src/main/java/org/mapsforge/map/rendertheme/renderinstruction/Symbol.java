@@ -34,8 +34,8 @@ import java.io.IOException;
  * Represents an icon on the map.
  */
 public class Symbol extends RenderInstruction {
-    private Bitmap bitmap;
-    private boolean bitmapInvalid;
+    private volatile Bitmap bitmap;
+    private volatile boolean bitmapInvalid;
     private Display display;
     private String id;
     private int priority;
@@ -88,10 +88,15 @@ public class Symbol extends RenderInstruction {
 
     public Bitmap getBitmap() {
         if (this.bitmap == null && !bitmapInvalid) {
-            try {
-                this.bitmap = createBitmap(relativePathPrefix, src);
-            } catch (IOException ioException) {
-                this.bitmapInvalid = true;
+            synchronized (this) {
+                // several renderer threads may need the bitmap first at the same time
+                if (this.bitmap == null && !bitmapInvalid) {
+                    try {
+                        this.bitmap = createBitmap(relativePathPrefix, src);
+                    } catch (IOException ioException) {
+                        this.bitmapInvalid = true;
+                    }
+                }
             }
         }
         return this.bitmap;
@@ -122,14 +127,4 @@ public class Symbol extends RenderInstruction {
             renderCallback.renderAreaSymbol(renderContext, this.display, this.priority, this.bitmap, way);
         }
     }
-
-    @Override
-    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
-
-    @Override
-    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        // do nothing
-    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.renderinstruction;
+
+import java.util.Arrays;
+
+/**
+ * The values of a render instruction which depend on the zoom level, e.g. paints with a scaled stroke width.
+ * <p/>
+ * A value is created on first use for a zoom level and scale factor and never modified afterwards. The table is
+ * replaced as a whole when a value is added, so renderer threads share it without locking, also while they
+ * render different zoom levels.
+ */
+abstract class ZoomTable<V> {
+    private static final class Entry<V> {
+        final float scaleFactor;
+        final V value;
+
+        Entry(float scaleFactor, V value) {
+            this.scaleFactor = scaleFactor;
+            this.value = value;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private volatile Entry<V>[] entries = (Entry<V>[]) new Entry<?>[0];
+
+    /**
+     * @return the value for a zoom level, created with the given scale factor.
+     */
+    V get(byte zoomLevel, float scaleFactor) {
+        Entry<V>[] entries = this.entries;
+        Entry<V> entry = zoomLevel < entries.length ? entries[zoomLevel] : null;
+        if (entry == null || entry.scaleFactor != scaleFactor) {
+            entry = new Entry<>(scaleFactor, create(scaleFactor));
+            // a concurrently added value may get lost, it is created again when needed
+            Entry<V>[] copy = Arrays.copyOf(entries, Math.max(entries.length, zoomLevel + 1));
+            copy[zoomLevel] = entry;
+            this.entries = copy;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Creates the value for a scale factor, must not modify shared state.
+     */
+    abstract V create(float scaleFactor);
+}
@@ -26,6 +26,10 @@ class KeyMatcher implements AttributeMatcher {
         this.keys = keys;
     }
 
+    List<String> getKeys() {
+        return this.keys;
+    }
+
     @Override
     public boolean isCoveredBy(AttributeMatcher attributeMatcher) {
         if (attributeMatcher == this) {
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded cache for the results of matching tags against the rules of a {@link RenderTheme}.
+ * <p/>
+ * Lookups do not lock, so that all renderer threads can match at the same time. When the cache
+ * is full, arbitrary entries are evicted instead of the least recently used ones, as tracking
+ * the access order would need exclusive access on every lookup.
+ */
+class MatchingCache<V> {
+    private final int capacity;
+    private final ConcurrentMap<MatchingCacheKey, V> map;
+    private final AtomicInteger size = new AtomicInteger();
+
+    MatchingCache(int capacity) {
+        this.capacity = capacity;
+        this.map = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+    }
+
+    void clear() {
+        for (MatchingCacheKey key : this.map.keySet()) {
+            if (this.map.remove(key) != null) {
+                this.size.decrementAndGet();
+            }
+        }
+    }
+
+    V get(MatchingCacheKey key) {
+        return this.map.get(key);
+    }
+
+    /**
+     * Adds a value unless another thread has added one for the same key before.
+     *
+     * @return the value in the cache for the key.
+     */
+    V put(MatchingCacheKey key, V value) {
+        V previous = this.map.putIfAbsent(key, value);
+        if (previous != null) {
+            return previous;
+        }
+        if (this.size.incrementAndGet() > this.capacity) {
+            evict();
+        }
+        return value;
+    }
+
+    int size() {
+        return this.size.get();
+    }
+
+    private void evict() {
+        Iterator<MatchingCacheKey> iterator = this.map.keySet().iterator();
+        while (this.size.get() > this.capacity && iterator.hasNext()) {
+            MatchingCacheKey key = iterator.next();
+            if (this.map.remove(key) != null) {
+                this.size.decrementAndGet();
+            }
+        }
+    }
+}
@@ -17,7 +17,8 @@
  */
 package org.mapsforge.map.rendertheme.rule;
 
-import org.mapsforge.core.util.LRUCache;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.datastore.ElementFilter;
 import org.mapsforge.map.datastore.PointOfInterest;
 import org.mapsforge.map.layer.renderer.PolylineContainer;
 import org.mapsforge.map.layer.renderer.StandardRenderer;
@@ -27,14 +28,20 @@ import org.mapsforge.map.rendertheme.renderinstruction.Hillshading;
 import org.mapsforge.map.rendertheme.renderinstruction.RenderInstruction;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * A RenderTheme defines how ways and nodes are drawn.
+ * <p/>
+ * As an {@link ElementFilter} a RenderTheme accepts only the elements for which at least one rule
+ * has a render instruction, so that map data stores can skip all others while reading.
+ * <p/>
+ * Matching does not lock the RenderTheme, so that all renderer threads can match elements at the
+ * same time. The rules are immutable after the theme is complete, only the matching caches are
+ * shared between threads. On a cache miss, a {@link RuleIndex} compiled from the rules finds the
+ * matching render instructions without evaluating every rule.
  */
-public class RenderTheme {
+public class RenderTheme implements ElementFilter {
     private static final int MATCHING_CACHE_SIZE = 1024;
 
     private final float baseStrokeWidth;
@@ -43,14 +50,14 @@ public class RenderTheme {
     private int levels;
     private final int mapBackground;
     private final int mapBackgroundOutside;
-    private final LRUCache<MatchingCacheKey, List<RenderInstruction>> wayMatchingCache;
-    private final LRUCache<MatchingCacheKey, List<RenderInstruction>> poiMatchingCache;
+    private final MatchingCache<List<RenderInstruction>> wayMatchingCache;
+    private final MatchingCache<List<RenderInstruction>> poiMatchingCache;
+    private final MatchingCache<Boolean> poiRenderingCache;
+    private final MatchingCache<Boolean> wayRenderingCache;
+    private RuleIndex ruleIndex;
     private final ArrayList<Rule> rulesList; // NOPMD we need specific interface
     private ArrayList<Hillshading> hillShadings = new ArrayList<>(); // NOPMD specific interface for trimToSize
 
-    private final Map<Byte, Float> strokeScales = new HashMap<>();
-    private final Map<Byte, Float> textScales = new HashMap<>();
-
     RenderTheme(RenderThemeBuilder renderThemeBuilder) {
         this.baseStrokeWidth = renderThemeBuilder.baseStrokeWidth;
         this.baseTextSize = renderThemeBuilder.baseTextSize;
@@ -58,8 +65,43 @@ public class RenderTheme {
         this.mapBackground = renderThemeBuilder.mapBackground;
         this.mapBackgroundOutside = renderThemeBuilder.mapBackgroundOutside;
         this.rulesList = new ArrayList<>();
-        this.poiMatchingCache = new LRUCache<>(MATCHING_CACHE_SIZE);
-        this.wayMatchingCache = new LRUCache<>(MATCHING_CACHE_SIZE);
+        this.poiMatchingCache = new MatchingCache<>(MATCHING_CACHE_SIZE);
+        this.wayMatchingCache = new MatchingCache<>(MATCHING_CACHE_SIZE);
+        this.poiRenderingCache = new MatchingCache<>(MATCHING_CACHE_SIZE);
+        this.wayRenderingCache = new MatchingCache<>(MATCHING_CACHE_SIZE);
+    }
+
+    /**
+     * @return true if at least one rule renders a node with the given tags on the given zoom level.
+     */
+    @Override
+    public boolean acceptPointOfInterest(List<Tag> tags, byte zoomLevel) {
+        MatchingCacheKey matchingCacheKey = new MatchingCacheKey(tags, zoomLevel, null);
+        Boolean cached = this.poiRenderingCache.get(matchingCacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean renders = this.ruleIndex.rendersNode(tags, zoomLevel);
+        this.poiRenderingCache.put(matchingCacheKey, renders);
+        return renders;
+    }
+
+    /**
+     * @return true if at least one rule renders a closed or linear way with the given tags on the given zoom level.
+     */
+    @Override
+    public boolean acceptWay(List<Tag> tags, byte zoomLevel) {
+        MatchingCacheKey matchingCacheKey = new MatchingCacheKey(tags, zoomLevel, null);
+        Boolean cached = this.wayRenderingCache.get(matchingCacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        boolean renders = this.ruleIndex.rendersWay(tags, zoomLevel, Closed.YES)
+                || this.ruleIndex.rendersWay(tags, zoomLevel, Closed.NO);
+        this.wayRenderingCache.put(matchingCacheKey, renders);
+        return renders;
     }
 
     /**
@@ -68,11 +110,27 @@ public class RenderTheme {
     public void destroy() {
         this.poiMatchingCache.clear();
         this.wayMatchingCache.clear();
+        this.poiRenderingCache.clear();
+        this.wayRenderingCache.clear();
         for (Rule r : this.rulesList) {
             r.destroy();
         }
     }
 
+    /**
+     * @return the factor by which this RenderTheme scales all stroke widths.
+     */
+    public float getBaseStrokeWidth() {
+        return this.baseStrokeWidth;
+    }
+
+    /**
+     * @return the factor by which this RenderTheme scales all text sizes.
+     */
+    public float getBaseTextSize() {
+        return this.baseTextSize;
+    }
+
     /**
      * @return the number of distinct drawing levels required by this RenderTheme.
      */
@@ -130,25 +188,18 @@ public class RenderTheme {
      * @param renderContext
      * @param poi            the point of interest.
      */
-    public synchronized void matchNode(RenderCallback renderCallback, final RenderContext renderContext, PointOfInterest poi) {
+    public void matchNode(RenderCallback renderCallback, final RenderContext renderContext, PointOfInterest poi) {
         MatchingCacheKey matchingCacheKey = new MatchingCacheKey(poi.tags, renderContext.rendererJob.tile.zoomLevel, Closed.NO);
 
         List<RenderInstruction> matchingList = this.poiMatchingCache.get(matchingCacheKey);
-        if (matchingList != null) {
-            // cache hit
-            for (int i = 0, n = matchingList.size(); i < n; ++i) {
-                matchingList.get(i).renderNode(renderCallback, renderContext, poi);
-            }
-            return;
+        if (matchingList == null) {
+            // cache miss
+            matchingList = this.ruleIndex.matchNode(poi.tags, renderContext.rendererJob.tile.zoomLevel);
+            this.poiMatchingCache.put(matchingCacheKey, matchingList);
         }
-
-        // cache miss
-        matchingList = new ArrayList<RenderInstruction>();
-
-        for (int i = 0, n = this.rulesList.size(); i < n; ++i) {
-            this.rulesList.get(i).matchNode(renderCallback, renderContext, matchingList, poi);
+        for (int i = 0, n = matchingList.size(); i < n; ++i) {
+            matchingList.get(i).renderNode(renderCallback, renderContext, poi);
         }
-        this.poiMatchingCache.put(matchingCacheKey, matchingList);
     }
 
     /**
@@ -156,17 +207,11 @@ public class RenderTheme {
      *
      * @param scaleFactor the factor by which the stroke width should be scaled.
      * @param zoomLevel   the zoom level to which this is applied.
+     * @deprecated has no effect, stroke widths are scaled per job with {@link RenderContext#strokeScale}.
      */
-    public synchronized void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        if (!strokeScales.containsKey(zoomLevel) || scaleFactor != strokeScales.get(zoomLevel)) {
-            for (int i = 0, n = this.rulesList.size(); i < n; ++i) {
-                Rule rule = this.rulesList.get(i);
-                if (rule.zoomMin <= zoomLevel && rule.zoomMax >= zoomLevel) {
-                    rule.scaleStrokeWidth(scaleFactor * this.baseStrokeWidth, zoomLevel);
-                }
-            }
-            strokeScales.put(zoomLevel, scaleFactor);
-        }
+    @Deprecated
+    public void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
+        // no-op
     }
 
     /**
@@ -174,17 +219,11 @@ public class RenderTheme {
      *
      * @param scaleFactor the factor by which the text size should be scaled.
      * @param zoomLevel   the zoom level to which this is applied.
+     * @deprecated has no effect, text sizes are scaled per job with {@link RenderContext#textScale}.
      */
-    public synchronized void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        if (!textScales.containsKey(zoomLevel) || scaleFactor != textScales.get(zoomLevel)) {
-            for (int i = 0, n = this.rulesList.size(); i < n; ++i) {
-                Rule rule = this.rulesList.get(i);
-                if (rule.zoomMin <= zoomLevel && rule.zoomMax >= zoomLevel) {
-                    rule.scaleTextSize(scaleFactor * this.baseTextSize, zoomLevel);
-                }
-            }
-            textScales.put(zoomLevel, scaleFactor);
-        }
+    @Deprecated
+    public void scaleTextSize(float scaleFactor, byte zoomLevel) {
+        // no-op
     }
 
     void addRule(Rule rule) {
@@ -201,31 +240,25 @@ public class RenderTheme {
         for (int i = 0, n = this.rulesList.size(); i < n; ++i) {
             this.rulesList.get(i).onComplete();
         }
+        this.ruleIndex = new RuleIndex(this.rulesList);
     }
 
     void setLevels(int levels) {
         this.levels = levels;
     }
 
-    private synchronized void matchWay(RenderCallback renderCallback, final RenderContext renderContext, Closed closed, PolylineContainer way) {
+    private void matchWay(RenderCallback renderCallback, final RenderContext renderContext, Closed closed, PolylineContainer way) {
         MatchingCacheKey matchingCacheKey = new MatchingCacheKey(way.getTags(), way.getUpperLeft().zoomLevel, closed);
 
         List<RenderInstruction> matchingList = this.wayMatchingCache.get(matchingCacheKey);
-        if (matchingList != null) {
-            // cache hit
-            for (int i = 0, n = matchingList.size(); i < n; ++i) {
-                matchingList.get(i).renderWay(renderCallback, renderContext, way);
-            }
-            return;
+        if (matchingList == null) {
+            // cache miss
+            matchingList = this.ruleIndex.matchWay(way.getTags(), way.getUpperLeft().zoomLevel, closed);
+            this.wayMatchingCache.put(matchingCacheKey, matchingList);
         }
-
-        // cache miss
-        matchingList = new ArrayList<RenderInstruction>();
-        for (int i = 0, n = this.rulesList.size(); i < n; ++i) {
-            this.rulesList.get(i).matchWay(renderCallback, way, way.getUpperLeft(), closed, matchingList, renderContext);
+        for (int i = 0, n = matchingList.size(); i < n; ++i) {
+            matchingList.get(i).renderWay(renderCallback, renderContext, way);
         }
-
-        this.wayMatchingCache.put(matchingCacheKey, matchingList);
     }
 
     public void traverseRules(Rule.RuleVisitor visitor) {
@@ -17,11 +17,6 @@
 package org.mapsforge.map.rendertheme.rule;
 
 import org.mapsforge.core.model.Tag;
-import org.mapsforge.core.model.Tile;
-import org.mapsforge.map.datastore.PointOfInterest;
-import org.mapsforge.map.layer.renderer.PolylineContainer;
-import org.mapsforge.map.rendertheme.RenderCallback;
-import org.mapsforge.map.rendertheme.RenderContext;
 import org.mapsforge.map.rendertheme.renderinstruction.RenderInstruction;
 
 import java.util.ArrayList;
@@ -86,31 +81,6 @@ public abstract class Rule {
 
     abstract boolean matchesWay(List<Tag> tags, byte zoomLevel, Closed closed);
 
-    void matchNode(RenderCallback renderCallback, final RenderContext renderContext, List<RenderInstruction> matchingList, PointOfInterest pointOfInterest) {
-        if (matchesNode(pointOfInterest.tags, renderContext.rendererJob.tile.zoomLevel)) {
-            for (int i = 0, n = this.renderInstructions.size(); i < n; ++i) {
-                this.renderInstructions.get(i).renderNode(renderCallback, renderContext, pointOfInterest);
-                matchingList.add(this.renderInstructions.get(i));
-            }
-            for (int i = 0, n = this.subRules.size(); i < n; ++i) {
-                this.subRules.get(i).matchNode(renderCallback, renderContext, matchingList, pointOfInterest);
-            }
-        }
-    }
-
-    void matchWay(RenderCallback renderCallback, PolylineContainer way, Tile tile, Closed closed,
-                  List<RenderInstruction> matchingList, final RenderContext renderContext) {
-        if (matchesWay(way.getTags(), tile.zoomLevel, closed)) {
-            for (int i = 0, n = this.renderInstructions.size(); i < n; ++i) {
-                this.renderInstructions.get(i).renderWay(renderCallback, renderContext, way);
-                matchingList.add(this.renderInstructions.get(i));
-            }
-            for (int i = 0, n = this.subRules.size(); i < n; ++i) {
-                this.subRules.get(i).matchWay(renderCallback, way, tile, closed, matchingList, renderContext);
-            }
-        }
-    }
-
     void onComplete() {
         MATCHERS_CACHE_KEY.clear();
         MATCHERS_CACHE_VALUE.clear();
@@ -121,22 +91,4 @@ public abstract class Rule {
             this.subRules.get(i).onComplete();
         }
     }
-
-    void scaleStrokeWidth(float scaleFactor, byte zoomLevel) {
-        for (int i = 0, n = this.renderInstructions.size(); i < n; ++i) {
-            this.renderInstructions.get(i).scaleStrokeWidth(scaleFactor, zoomLevel);
-        }
-        for (int i = 0, n = this.subRules.size(); i < n; ++i) {
-            this.subRules.get(i).scaleStrokeWidth(scaleFactor, zoomLevel);
-        }
-    }
-
-    void scaleTextSize(float scaleFactor, byte zoomLevel) {
-        for (int i = 0, n = this.renderInstructions.size(); i < n; ++i) {
-            this.renderInstructions.get(i).scaleTextSize(scaleFactor, zoomLevel);
-        }
-        for (int i = 0, n = this.subRules.size(); i < n; ++i) {
-            this.subRules.get(i).scaleTextSize(scaleFactor, zoomLevel);
-        }
-    }
 }
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.rule;
+
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.map.rendertheme.renderinstruction.RenderInstruction;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index over the rules of a {@link RenderTheme}, compiled when the theme is complete, to find the render
+ * instructions for the tags of an element without evaluating every rule.
+ * <p/>
+ * Every rule with render instructions becomes an entry, numbered in the order in which a walk of the rule tree
+ * reaches it. For each kind of element and zoom level, the entries are indexed by a tag key or value that an
+ * element must have to match the rule and all its parents. A lookup evaluates only the candidate entries for
+ * the tags, in entry order, so the result is identical to walking the whole rule tree.
+ */
+final class RuleIndex {
+    /**
+     * The entries which may match an element of one kind on one zoom level.
+     */
+    private static final class Candidates {
+        final int[] always;
+        final Map<String, int[]> keys;
+        final Map<String, int[]> values;
+
+        Candidates(List<Integer> always, Map<String, List<Integer>> keys, Map<String, List<Integer>> values) {
+            this.always = toArray(always);
+            this.keys = toArrays(keys);
+            this.values = toArrays(values);
+        }
+    }
+
+    /**
+     * A rule with render instructions, and the rules which must match for it to be reached.
+     */
+    private static final class Entry {
+        /**
+         * The tag keys of which an element must have at least one, or null.
+         */
+        final List<String> keys;
+        final Rule[] path;
+        final RenderInstruction[] renderInstructions;
+        /**
+         * The tag values of which an element must have at least one, or null.
+         */
+        final List<String> values;
+        final byte zoomMax;
+        final byte zoomMin;
+
+        Entry(Rule[] path) {
+            this.path = path;
+            Rule rule = path[path.length - 1];
+            this.renderInstructions = rule.renderInstructions.toArray(new RenderInstruction[rule.renderInstructions.size()]);
+
+            byte zoomMin = 0;
+            byte zoomMax = Byte.MAX_VALUE;
+            for (Rule r : path) {
+                zoomMin = (byte) Math.max(zoomMin, r.zoomMin);
+                zoomMax = (byte) Math.min(zoomMax, r.zoomMax);
+            }
+            this.zoomMin = zoomMin;
+            this.zoomMax = zoomMax;
+
+            // the innermost condition is usually the most selective one
+            List<String> keys = null;
+            List<String> values = null;
+            for (int i = path.length - 1; i >= 0 && keys == null && values == null; --i) {
+                if (path[i] instanceof PositiveRule) {
+                    PositiveRule positiveRule = (PositiveRule) path[i];
+                    if (positiveRule.valueMatcher instanceof ValueMatcher) {
+                        values = ((ValueMatcher) positiveRule.valueMatcher).getValues();
+                    } else if (positiveRule.keyMatcher instanceof KeyMatcher) {
+                        keys = ((KeyMatcher) positiveRule.keyMatcher).getKeys();
+                    }
+                }
+            }
+            this.keys = keys;
+            this.values = values;
+        }
+
+        boolean accepts(int kind) {
+            for (Rule rule : this.path) {
+                if (kind == NODE) {
+                    if (!rule.elementMatcher.matches(Element.NODE)) {
+                        return false;
+                    }
+                } else if (!rule.elementMatcher.matches(Element.WAY) || !rule.closedMatcher.matches(getClosed(kind))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean matches(int kind, List<Tag> tags, byte zoomLevel) {
+            for (Rule rule : this.path) {
+                if (kind == NODE ? !rule.matchesNode(tags, zoomLevel) : !rule.matchesWay(tags, zoomLevel, getClosed(kind))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final int CLOSED_WAY = 1;
+    private static final int KINDS = 3;
+    private static final int LINEAR_WAY = 2;
+    private static final int NODE = 0;
+
+    private static void add(Map<String, List<Integer>> map, List<String> strings, int index) {
+        for (String string : strings) {
+            List<Integer> list = map.get(string);
+            if (list == null) {
+                list = new ArrayList<>();
+                map.put(string, list);
+            }
+            list.add(index);
+        }
+    }
+
+    private static void addEntries(Rule rule, List<Rule> path, List<Entry> entries) {
+        path.add(rule);
+        if (!rule.renderInstructions.isEmpty()) {
+            entries.add(new Entry(path.toArray(new Rule[path.size()])));
+        }
+        for (Rule subRule : rule.subRules) {
+            addEntries(subRule, path, entries);
+        }
+        path.remove(path.size() - 1);
+    }
+
+    private static void addTo(BitSet candidates, int[] entries) {
+        if (entries != null) {
+            for (int entry : entries) {
+                candidates.set(entry);
+            }
+        }
+    }
+
+    private static Closed getClosed(int kind) {
+        return kind == CLOSED_WAY ? Closed.YES : Closed.NO;
+    }
+
+    private static int getKind(Closed closed) {
+        return closed == Closed.YES ? CLOSED_WAY : LINEAR_WAY;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; ++i) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> map) {
+        Map<String, int[]> arrays = new HashMap<>(map.size() * 4 / 3 + 1);
+        for (Map.Entry<String, List<Integer>> entry : map.entrySet()) {
+            arrays.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        return arrays;
+    }
+
+    /**
+     * The candidates by kind of element and zoom level.
+     */
+    private final Candidates[][] candidates;
+    private final Entry[] entries;
+    /**
+     * The zoom level from which on the same entries apply to all higher zoom levels.
+     */
+    private final byte maxZoomLevel;
+
+    RuleIndex(List<Rule> rules) {
+        List<Entry> entryList = new ArrayList<>();
+        List<Rule> path = new ArrayList<>();
+        for (Rule rule : rules) {
+            addEntries(rule, path, entryList);
+        }
+        this.entries = entryList.toArray(new Entry[entryList.size()]);
+
+        int maxZoomLevel = 0;
+        for (Entry entry : this.entries) {
+            maxZoomLevel = Math.max(maxZoomLevel, entry.zoomMin);
+            if (entry.zoomMax < Byte.MAX_VALUE) {
+                maxZoomLevel = Math.max(maxZoomLevel, entry.zoomMax + 1);
+            }
+        }
+        this.maxZoomLevel = (byte) maxZoomLevel;
+
+        this.candidates = new Candidates[KINDS][maxZoomLevel + 1];
+        for (int kind = 0; kind < KINDS; ++kind) {
+            for (int zoomLevel = 0; zoomLevel <= maxZoomLevel; ++zoomLevel) {
+                List<Integer> always = new ArrayList<>();
+                Map<String, List<Integer>> keys = new HashMap<>();
+                Map<String, List<Integer>> values = new HashMap<>();
+                for (int i = 0; i < this.entries.length; ++i) {
+                    Entry entry = this.entries[i];
+                    if (entry.zoomMin > zoomLevel || entry.zoomMax < zoomLevel || !entry.accepts(kind)) {
+                        continue;
+                    }
+                    if (entry.values != null) {
+                        add(values, entry.values, i);
+                    } else if (entry.keys != null) {
+                        add(keys, entry.keys, i);
+                    } else {
+                        always.add(i);
+                    }
+                }
+                this.candidates[kind][zoomLevel] = new Candidates(always, keys, values);
+            }
+        }
+    }
+
+    /**
+     * @return the render instructions of all rules matching a node, in the order of the rule tree.
+     */
+    List<RenderInstruction> matchNode(List<Tag> tags, byte zoomLevel) {
+        return match(NODE, tags, zoomLevel);
+    }
+
+    /**
+     * @return the render instructions of all rules matching a way, in the order of the rule tree.
+     */
+    List<RenderInstruction> matchWay(List<Tag> tags, byte zoomLevel, Closed closed) {
+        return match(getKind(closed), tags, zoomLevel);
+    }
+
+    /**
+     * @return true if at least one rule has a render instruction for a node.
+     */
+    boolean rendersNode(List<Tag> tags, byte zoomLevel) {
+        return renders(NODE, tags, zoomLevel);
+    }
+
+    /**
+     * @return true if at least one rule has a render instruction for a way.
+     */
+    boolean rendersWay(List<Tag> tags, byte zoomLevel, Closed closed) {
+        return renders(getKind(closed), tags, zoomLevel);
+    }
+
+    private BitSet getCandidates(int kind, List<Tag> tags, byte zoomLevel) {
+        Candidates candidates = this.candidates[kind][Math.max(0, Math.min(zoomLevel, this.maxZoomLevel))];
+        BitSet bitSet = new BitSet(this.entries.length);
+        addTo(bitSet, candidates.always);
+        for (int i = 0, n = tags.size(); i < n; ++i) {
+            Tag tag = tags.get(i);
+            addTo(bitSet, candidates.keys.get(tag.key));
+            addTo(bitSet, candidates.values.get(tag.value));
+        }
+        return bitSet;
+    }
+
+    private List<RenderInstruction> match(int kind, List<Tag> tags, byte zoomLevel) {
+        List<RenderInstruction> matchingList = new ArrayList<>();
+        BitSet candidates = getCandidates(kind, tags, zoomLevel);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Entry entry = this.entries[i];
+            if (entry.matches(kind, tags, zoomLevel)) {
+                for (RenderInstruction renderInstruction : entry.renderInstructions) {
+                    matchingList.add(renderInstruction);
+                }
+            }
+        }
+        return matchingList;
+    }
+
+    private boolean renders(int kind, List<Tag> tags, byte zoomLevel) {
+        BitSet candidates = getCandidates(kind, tags, zoomLevel);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (this.entries[i].matches(kind, tags, zoomLevel)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -26,6 +26,10 @@ class ValueMatcher implements AttributeMatcher {
         this.values = values;
     }
 
+    List<String> getValues() {
+        return this.values;
+    }
+
     @Override
     public boolean isCoveredBy(AttributeMatcher attributeMatcher) {
         if (attributeMatcher == this) {
@@ -16,6 +16,7 @@
 package org.mapsforge.map.util;
 
 import org.mapsforge.core.mapelements.MapElementContainer;
+import org.mapsforge.core.mapelements.MapElementGrid;
 import org.mapsforge.core.model.BoundingBox;
 import org.mapsforge.core.model.Point;
 import org.mapsforge.core.model.Tile;
@@ -120,18 +121,13 @@ public final class LayerUtil {
         // sort items by priority (highest first)
         Collections.sort(input, Collections.reverseOrder());
         // in order of priority, see if an item can be drawn, i.e. none of the items
-        // in the currentItemsToDraw list clashes with it.
+        // in the currentItemsToDraw list clashes with it. The grid only tests the items nearby.
         List<MapElementContainer> output = new LinkedList<MapElementContainer>();
+        MapElementGrid outputGrid = new MapElementGrid();
         for (MapElementContainer item : input) {
-            boolean hasSpace = true;
-            for (MapElementContainer outputElement : output) {
-                if (outputElement.clashesWith(item)) {
-                    hasSpace = false;
-                    break;
-                }
-            }
-            if (hasSpace) {
+            if (!outputGrid.clashesWith(item)) {
                 output.add(item);
+                outputGrid.add(item);
             }
         }
         return output;
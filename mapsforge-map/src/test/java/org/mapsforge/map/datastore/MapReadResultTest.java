@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+
+import java.util.Collections;
+import java.util.List;
+
+public class MapReadResultTest {
+    private static PointOfInterest createPointOfInterest(int i) {
+        List<Tag> tags = Collections.singletonList(new Tag("name", Integer.toString(i)));
+        return new PointOfInterest((byte) 5, tags, new LatLong(i * 0.1, i * 0.2));
+    }
+
+    private static Way createWay(int i) {
+        List<Tag> tags = Collections.singletonList(new Tag("name", Integer.toString(i)));
+        LatLong[][] latLongs = new LatLong[][]{{new LatLong(i * 0.1, 0), new LatLong(i * 0.1, 1)}};
+        return new Way((byte) 5, tags, latLongs, null);
+    }
+
+    @Test
+    public void addDeduplicateTest() {
+        MapReadResult mapReadResult1 = new MapReadResult();
+        MapReadResult mapReadResult2 = new MapReadResult();
+        for (int i = 0; i < 10; ++i) {
+            mapReadResult1.pointOfInterests.add(createPointOfInterest(i));
+            mapReadResult1.ways.add(createWay(i));
+        }
+        for (int i = 15; i >= 5; --i) {
+            // equal, but not identical elements
+            mapReadResult2.pointOfInterests.add(createPointOfInterest(i));
+            mapReadResult2.ways.add(createWay(i));
+        }
+        mapReadResult2.ways.add(createWay(12));
+
+        MapReadResult result = new MapReadResult();
+        result.add(mapReadResult1, true);
+        result.add(mapReadResult2, true);
+
+        // the first occurrence is kept in order
+        Assert.assertEquals(16, result.pointOfInterests.size());
+        Assert.assertEquals(16, result.ways.size());
+        for (int i = 0; i < 10; ++i) {
+            Assert.assertEquals(createPointOfInterest(i), result.pointOfInterests.get(i));
+            Assert.assertEquals(createWay(i), result.ways.get(i));
+        }
+        for (int i = 10; i < 16; ++i) {
+            Assert.assertEquals(createPointOfInterest(25 - i), result.pointOfInterests.get(i));
+            Assert.assertEquals(createWay(25 - i), result.ways.get(i));
+        }
+
+        result.add(mapReadResult2, false);
+        Assert.assertEquals(27, result.pointOfInterests.size());
+        Assert.assertEquals(28, result.ways.size());
+    }
+
+    @Test
+    public void wayHashCodeTest() {
+        Way way = createWay(1);
+        Assert.assertEquals(way.hashCode(), way.hashCode());
+        Assert.assertEquals(createWay(1).hashCode(), way.hashCode());
+        Assert.assertNotEquals(createWay(2).hashCode(), way.hashCode());
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.model.BoundingBox;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+import org.mapsforge.core.model.Tile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MultiMapDataStoreTest {
+    private static class TestMapDataStore extends MapDataStore {
+        private final BoundingBox boundingBox;
+        private final String name;
+        final AtomicInteger prefetches = new AtomicInteger();
+        private final Random random = new Random(42);
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger supportsTileCalls = new AtomicInteger();
+
+        TestMapDataStore(String name, BoundingBox boundingBox) {
+            this.name = name;
+            this.boundingBox = boundingBox;
+        }
+
+        @Override
+        public BoundingBox boundingBox() {
+            return this.boundingBox;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public long getDataTimestamp(Tile tile) {
+            return 0;
+        }
+
+        @Override
+        public void prefetch(Tile upperLeft, Tile lowerRight, Tile firstTile) {
+            this.prefetches.incrementAndGet();
+        }
+
+        @Override
+        public MapReadResult readMapData(Tile tile) {
+            this.reads.incrementAndGet();
+            try {
+                int delay;
+                synchronized (this.random) {
+                    delay = this.random.nextInt(5);
+                }
+                // makes the order in which parallel reads finish random
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            MapReadResult mapReadResult = new MapReadResult();
+            List<Tag> tags = Collections.singletonList(new Tag("name", this.name));
+            mapReadResult.pointOfInterests.add(new PointOfInterest((byte) 0, tags, tile.getBoundingBox().getCenterPoint()));
+            return mapReadResult;
+        }
+
+        @Override
+        public PackedMapReadResult readMapDataPacked(Tile tile, ElementFilter filter) {
+            PackedMapReadResult packedMapReadResult = super.readMapDataPacked(tile, filter);
+            packedMapReadResult.blocksRead = 1;
+            packedMapReadResult.bytesRead = 100;
+            return packedMapReadResult;
+        }
+
+        @Override
+        public MapReadResult readPoiData(Tile tile) {
+            return readMapData(tile);
+        }
+
+        @Override
+        public LatLong startPosition() {
+            return this.boundingBox.getCenterPoint();
+        }
+
+        @Override
+        public Byte startZoomLevel() {
+            return 14;
+        }
+
+        @Override
+        public boolean supportsTile(Tile tile) {
+            this.supportsTileCalls.incrementAndGet();
+            return tile.getBoundingBox().intersects(this.boundingBox);
+        }
+    }
+
+    private static List<String> getNames(MapReadResult mapReadResult) {
+        List<String> names = new ArrayList<>();
+        for (PointOfInterest pointOfInterest : mapReadResult.pointOfInterests) {
+            names.add(pointOfInterest.tags.get(0).value);
+        }
+        return names;
+    }
+
+    @Test
+    public void candidateTest() {
+        MultiMapDataStore multiMapDataStore = new MultiMapDataStore(MultiMapDataStore.DataPolicy.RETURN_ALL);
+        TestMapDataStore berlin = new TestMapDataStore("berlin", new BoundingBox(52.3, 13.0, 52.7, 13.8));
+        TestMapDataStore sydney = new TestMapDataStore("sydney", new BoundingBox(-34.2, 150.5, -33.5, 151.5));
+        multiMapDataStore.addMapDataStore(berlin, false, false);
+        multiMapDataStore.addMapDataStore(sydney, false, false);
+
+        Tile tile = new Tile(8800, 5373, (byte) 14, 256);
+        Assert.assertTrue(multiMapDataStore.supportsTile(tile));
+        Assert.assertEquals(Collections.singletonList("berlin"), getNames(multiMapDataStore.readMapData(tile)));
+        // stores far away from the tile are not even asked
+        Assert.assertEquals(0, sydney.supportsTileCalls.get());
+        Assert.assertEquals(0, sydney.reads.get());
+
+        Tile ocean = new Tile(0, 0, (byte) 14, 256);
+        Assert.assertFalse(multiMapDataStore.supportsTile(ocean));
+        Assert.assertTrue(multiMapDataStore.readMapData(ocean).pointOfInterests.isEmpty());
+        Assert.assertEquals(1, berlin.reads.get());
+
+        // low zoom levels span many grid cells, all stores are candidates
+        Tile world = new Tile(0, 0, (byte) 0, 256);
+        Assert.assertEquals(2, multiMapDataStore.readMapData(world).pointOfInterests.size());
+    }
+
+    @Test
+    public void packedReadTest() {
+        MultiMapDataStore.DataPolicy[] dataPolicies = {MultiMapDataStore.DataPolicy.RETURN_ALL,
+                MultiMapDataStore.DataPolicy.DEDUPLICATE};
+        int[] expectedPois = {2, 1};
+        for (int i = 0; i < dataPolicies.length; ++i) {
+            MultiMapDataStore multiMapDataStore = new MultiMapDataStore(dataPolicies[i]);
+            // two stores with the same data
+            multiMapDataStore.addMapDataStore(new TestMapDataStore("berlin",
+                    new BoundingBox(52.3, 13.0, 52.7, 13.8)), false, false);
+            multiMapDataStore.addMapDataStore(new TestMapDataStore("berlin",
+                    new BoundingBox(52.3, 13.0, 52.7, 13.8)), false, false);
+
+            Tile tile = new Tile(8800, 5373, (byte) 14, 256);
+            PackedMapReadResult packedMapReadResult = multiMapDataStore.readMapDataPacked(tile, null);
+            Assert.assertEquals(expectedPois[i], packedMapReadResult.getNumberOfPois());
+            // the read counters of all stores are summed up
+            Assert.assertEquals(2, packedMapReadResult.blocksRead);
+            Assert.assertEquals(200, packedMapReadResult.bytesRead);
+
+            packedMapReadResult = multiMapDataStore.readMapDataPacked(tile, tile, null);
+            Assert.assertEquals(expectedPois[i], packedMapReadResult.getNumberOfPois());
+        }
+    }
+
+    @Test
+    public void parallelReadTest() {
+        MultiMapDataStore multiMapDataStore = new MultiMapDataStore(MultiMapDataStore.DataPolicy.RETURN_ALL);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            // overlapping stores around Berlin
+            double offset = i * 0.01;
+            multiMapDataStore.addMapDataStore(new TestMapDataStore("store" + i,
+                    new BoundingBox(52.3 + offset, 13.0 + offset, 52.7, 13.8)), false, false);
+            expected.add("store" + i);
+        }
+
+        Tile tile = new Tile(8800, 5373, (byte) 14, 256);
+        Assert.assertEquals(expected, getNames(multiMapDataStore.readMapData(tile)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            multiMapDataStore.setExecutor(executor);
+            for (int i = 0; i < 20; ++i) {
+                // the results are combined in the order the stores were added, independent of timing
+                Assert.assertEquals(expected, getNames(multiMapDataStore.readMapData(tile)));
+                Assert.assertEquals(expected, getNames(multiMapDataStore.readPoiData(tile)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void prefetchTest() {
+        MultiMapDataStore multiMapDataStore = new MultiMapDataStore(MultiMapDataStore.DataPolicy.RETURN_ALL);
+        TestMapDataStore berlin = new TestMapDataStore("berlin", new BoundingBox(52.3, 13.0, 52.7, 13.8));
+        TestMapDataStore sydney = new TestMapDataStore("sydney", new BoundingBox(-34.2, 150.5, -33.5, 151.5));
+        multiMapDataStore.addMapDataStore(berlin, false, false);
+        multiMapDataStore.addMapDataStore(sydney, false, false);
+
+        // only the stores near the area prefetch
+        Tile upperLeft = new Tile(8798, 5371, (byte) 14, 256);
+        Tile lowerRight = new Tile(8802, 5375, (byte) 14, 256);
+        multiMapDataStore.prefetch(upperLeft, lowerRight, new Tile(8800, 5373, (byte) 14, 256));
+        Assert.assertEquals(1, berlin.prefetches.get());
+        Assert.assertEquals(0, sydney.prefetches.get());
+
+        Tile world = new Tile(0, 0, (byte) 0, 256);
+        multiMapDataStore.prefetch(world, world, world);
+        Assert.assertEquals(2, berlin.prefetches.get());
+        Assert.assertEquals(1, sydney.prefetches.get());
+    }
+}
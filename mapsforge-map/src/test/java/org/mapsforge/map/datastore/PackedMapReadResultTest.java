@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.datastore;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.Tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class PackedMapReadResultTest {
+    private static MapReadResult createMapReadResult(int numberOfElements) {
+        MapReadResult mapReadResult = new MapReadResult();
+        for (int i = 0; i < numberOfElements; ++i) {
+            List<Tag> tags = Collections.singletonList(new Tag("name", Integer.toString(i)));
+            mapReadResult.pointOfInterests.add(new PointOfInterest((byte) (i % 11), tags, new LatLong(i * 0.1, i * 0.2)));
+
+            LatLong[][] latLongs = new LatLong[1 + i % 3][];
+            for (int segment = 0; segment < latLongs.length; ++segment) {
+                latLongs[segment] = new LatLong[2 + (i + segment) % 7];
+                for (int j = 0; j < latLongs[segment].length; ++j) {
+                    latLongs[segment][j] = new LatLong(i * 0.01 + j, segment * 0.5 + j * 0.25);
+                }
+            }
+            LatLong labelPosition = i % 2 == 0 ? new LatLong(i * 0.3, i * 0.4) : null;
+            mapReadResult.ways.add(new Way((byte) (i % 11), tags, latLongs, labelPosition));
+        }
+        return mapReadResult;
+    }
+
+    @Test
+    public void addTest() {
+        MapReadResult mapReadResult1 = createMapReadResult(20);
+        MapReadResult mapReadResult2 = createMapReadResult(30);
+
+        PackedMapReadResult packedMapReadResult = new PackedMapReadResult(mapReadResult1);
+        packedMapReadResult.add(new PackedMapReadResult(mapReadResult2));
+
+        mapReadResult1.add(mapReadResult2, false);
+        MapReadResult unpacked = packedMapReadResult.toMapReadResult();
+        Assert.assertEquals(mapReadResult1.pointOfInterests, unpacked.pointOfInterests);
+        Assert.assertEquals(mapReadResult1.ways, unpacked.ways);
+    }
+
+    @Test
+    public void closedWayTest() {
+        LatLong[][] latLongs = new LatLong[][]{{new LatLong(1, 1), new LatLong(1, 2), new LatLong(2, 2), new LatLong(1, 1)}};
+        PackedMapReadResult packedMapReadResult = new PackedMapReadResult();
+        packedMapReadResult.add(new Way((byte) 0, new ArrayList<Tag>(), latLongs, null));
+        packedMapReadResult.add(new Way((byte) 0, new ArrayList<Tag>(), new LatLong[][]{{latLongs[0][0], latLongs[0][1]}}, null));
+
+        Assert.assertTrue(packedMapReadResult.isClosedWay(0));
+        Assert.assertFalse(packedMapReadResult.isClosedWay(1));
+        Assert.assertFalse(packedMapReadResult.hasWayLabelPosition(0));
+    }
+
+    @Test
+    public void packTest() {
+        MapReadResult mapReadResult = createMapReadResult(100);
+        PackedMapReadResult packedMapReadResult = new PackedMapReadResult(mapReadResult);
+
+        Assert.assertEquals(100, packedMapReadResult.getNumberOfPois());
+        Assert.assertEquals(100, packedMapReadResult.getNumberOfWays());
+        MapReadResult unpacked = packedMapReadResult.toMapReadResult();
+        Assert.assertEquals(mapReadResult.pointOfInterests, unpacked.pointOfInterests);
+        Assert.assertEquals(mapReadResult.ways, unpacked.ways);
+    }
+
+    @Test
+    public void truncateTest() {
+        MapReadResult mapReadResult = createMapReadResult(10);
+        PackedMapReadResult packedMapReadResult = new PackedMapReadResult(createMapReadResult(5));
+        packedMapReadResult.add(new PackedMapReadResult(createMapReadResult(7)));
+        packedMapReadResult.truncate(5, 5);
+        packedMapReadResult.add(new PackedMapReadResult(mapReadResult));
+
+        mapReadResult = createMapReadResult(5);
+        mapReadResult.add(createMapReadResult(10), false);
+        MapReadResult unpacked = packedMapReadResult.toMapReadResult();
+        Assert.assertEquals(mapReadResult.pointOfInterests, unpacked.pointOfInterests);
+        Assert.assertEquals(mapReadResult.ways, unpacked.ways);
+    }
+}
@@ -17,14 +17,111 @@ package org.mapsforge.map.layer.queue;
 
 import org.junit.Assert;
 import org.junit.Test;
+import org.mapsforge.core.model.BoundingBox;
+import org.mapsforge.core.model.Dimension;
+import org.mapsforge.core.model.LatLong;
+import org.mapsforge.core.model.MapPosition;
 import org.mapsforge.core.model.Tile;
+import org.mapsforge.map.datastore.MapDataStore;
+import org.mapsforge.map.datastore.MapReadResult;
 import org.mapsforge.map.model.FixedTileSizeDisplayModel;
 import org.mapsforge.map.model.MapViewPosition;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class JobQueueTest {
 
     private static final int TILE_SIZE = 256;
 
+    @Test
+    public void cancelTest() throws InterruptedException {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(60, -120), (byte) 2));
+        JobQueue<Job> jobQueue = new JobQueue<Job>(mapViewPosition, new FixedTileSizeDisplayModel(256));
+
+        Job near = new Job(new Tile(0, 1, (byte) 2, TILE_SIZE), false);
+        Job far = new Job(new Tile(3, 2, (byte) 2, TILE_SIZE), false);
+        jobQueue.add(near);
+        jobQueue.add(far);
+        Assert.assertEquals(near, jobQueue.get());
+        Assert.assertEquals(far, jobQueue.get());
+
+        // moving within the zoom level keeps the assigned jobs of nearby tiles
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(-60, 120), (byte) 2));
+        jobQueue.add(new Job(new Tile(2, 2, (byte) 2, TILE_SIZE), false));
+        jobQueue.get();
+        Assert.assertFalse(near.isCancelled());
+        Assert.assertFalse(far.isCancelled());
+
+        // after zooming in the assigned jobs of the previous zoom level are obsolete, even while all
+        // workers are busy: the worker which abandons its job frees the queue
+        jobQueue.remove(near);
+        final MapViewPosition position = mapViewPosition;
+        final JobQueue<Job> queue = jobQueue;
+        final Job assigned = far;
+        Thread worker = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                    position.setMapPosition(new MapPosition(new LatLong(-60, 120), (byte) 4));
+                    for (int i = 0; i < 100 && !assigned.isCancelled(); ++i) {
+                        Thread.sleep(20);
+                    }
+                } catch (InterruptedException e) {
+                    // fall through
+                }
+                if (assigned.isCancelled()) {
+                    queue.remove(assigned);
+                } else {
+                    queue.interrupt();
+                }
+            }
+        };
+        worker.start();
+        Job job = new Job(new Tile(13, 10, (byte) 4, TILE_SIZE), false);
+        jobQueue.add(job);
+        Assert.assertEquals(job, jobQueue.get(2));
+        worker.join();
+        Assert.assertFalse(near.isCancelled());
+        Assert.assertTrue(far.isCancelled());
+    }
+
+    @Test
+    public void cancelWideMapViewTest() throws InterruptedException {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(0, 0), (byte) 10));
+        JobQueue<Job> jobQueue = new JobQueue<Job>(mapViewPosition, new FixedTileSizeDisplayModel(256));
+        // a map view 30 tiles wide, its edges are further away than the penalty for one zoom level
+        jobQueue.setMapViewDimension(new Dimension(30 * TILE_SIZE, 4 * TILE_SIZE));
+
+        Job center = new Job(new Tile(512, 511, (byte) 10, TILE_SIZE), false);
+        Job edge = new Job(new Tile(526, 511, (byte) 10, TILE_SIZE), false);
+        Job outside = new Job(new Tile(540, 511, (byte) 10, TILE_SIZE), false);
+        jobQueue.add(center);
+        jobQueue.add(edge);
+        jobQueue.add(outside);
+        Assert.assertEquals(center, jobQueue.get());
+        Assert.assertEquals(edge, jobQueue.get());
+        Assert.assertEquals(outside, jobQueue.get());
+
+        // the visible tiles at the edge of the map view are still needed after a small move
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(0, -0.01), (byte) 10));
+        jobQueue.add(new Job(new Tile(511, 511, (byte) 10, TILE_SIZE), false));
+        jobQueue.get();
+        Assert.assertFalse(center.isCancelled());
+        Assert.assertFalse(edge.isCancelled());
+        Assert.assertTrue(outside.isCancelled());
+
+        // the tiles of another zoom level are obsolete regardless of the size of the map view
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(0, -0.01), (byte) 11));
+        jobQueue.add(new Job(new Tile(1023, 1023, (byte) 11, TILE_SIZE), false));
+        jobQueue.get();
+        Assert.assertTrue(center.isCancelled());
+        Assert.assertTrue(edge.isCancelled());
+    }
+
     @Test
     public void jobQueueTest() throws InterruptedException {
         MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
@@ -59,4 +156,130 @@ public class JobQueueTest {
         jobQueue.remove(job3);
 
     }
+
+    @Test
+    public void prefetchTest() throws InterruptedException {
+        final List<Tile> prefetched = new ArrayList<>();
+        final List<Tile> firstTiles = new ArrayList<>();
+        MapDataStore mapDataStore = new MapDataStore() {
+            @Override
+            public BoundingBox boundingBox() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public long getDataTimestamp(Tile tile) {
+                return 0;
+            }
+
+            @Override
+            public void prefetch(Tile upperLeft, Tile lowerRight, Tile firstTile) {
+                prefetched.add(upperLeft);
+                prefetched.add(lowerRight);
+                firstTiles.add(firstTile);
+            }
+
+            @Override
+            public MapReadResult readMapData(Tile tile) {
+                return null;
+            }
+
+            @Override
+            public MapReadResult readPoiData(Tile tile) {
+                return null;
+            }
+
+            @Override
+            public LatLong startPosition() {
+                return null;
+            }
+
+            @Override
+            public Byte startZoomLevel() {
+                return null;
+            }
+
+            @Override
+            public boolean supportsTile(Tile tile) {
+                return true;
+            }
+        };
+
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
+        JobQueue<Job> jobQueue = new JobQueue<Job>(mapViewPosition, new FixedTileSizeDisplayModel(256));
+        jobQueue.setMapDataStore(mapDataStore);
+
+        jobQueue.add(new Job(new Tile(0, 0, (byte) 0, TILE_SIZE), false));
+        jobQueue.add(new Job(new Tile(2, 1, (byte) 2, TILE_SIZE), false));
+        jobQueue.add(new Job(new Tile(0, 3, (byte) 2, TILE_SIZE), false));
+        jobQueue.add(new Job(new Tile(1, 2, (byte) 2, TILE_SIZE), false));
+        jobQueue.get();
+
+        // only the tiles on the zoom level of the most important job
+        Assert.assertEquals(2, prefetched.size());
+        Assert.assertEquals(new Tile(0, 0, (byte) 0, TILE_SIZE), prefetched.get(0));
+        Assert.assertEquals(new Tile(0, 0, (byte) 0, TILE_SIZE), prefetched.get(1));
+        Assert.assertEquals(new Tile(0, 0, (byte) 0, TILE_SIZE), firstTiles.get(0));
+
+        jobQueue.add(new Job(new Tile(3, 3, (byte) 2, TILE_SIZE), false));
+        jobQueue.get();
+        Assert.assertEquals(4, prefetched.size());
+        Assert.assertEquals(new Tile(0, 1, (byte) 2, TILE_SIZE), prefetched.get(2));
+        Assert.assertEquals(new Tile(3, 3, (byte) 2, TILE_SIZE), prefetched.get(3));
+        // the most important job on that zoom level
+        Tile firstTile = firstTiles.get(1);
+        Assert.assertEquals(2, firstTile.zoomLevel);
+        Assert.assertTrue(firstTile.tileY >= 1 && firstTile.tileY <= 3);
+    }
+
+    @Test
+    public void rescheduleTest() throws InterruptedException {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(60, -120), (byte) 2));
+        JobQueue<Job> jobQueue = new JobQueue<Job>(mapViewPosition, new FixedTileSizeDisplayModel(256));
+
+        for (int x = 0; x < 4; ++x) {
+            for (int y = 0; y < 4; ++y) {
+                jobQueue.add(new Job(new Tile(x, y, (byte) 2, TILE_SIZE), false));
+            }
+        }
+        Assert.assertEquals(new Tile(0, 1, (byte) 2, TILE_SIZE), jobQueue.get().tile);
+
+        // the queued jobs must be rescheduled without any new job being added
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(-60, 120), (byte) 2));
+        Assert.assertEquals(new Tile(3, 2, (byte) 2, TILE_SIZE), jobQueue.get().tile);
+        Assert.assertEquals(14, jobQueue.size());
+
+        // jobs which are assigned or already queued are not queued again
+        jobQueue.add(new Job(new Tile(0, 1, (byte) 2, TILE_SIZE), false));
+        jobQueue.add(new Job(new Tile(0, 0, (byte) 2, TILE_SIZE), false));
+        Assert.assertEquals(14, jobQueue.size());
+    }
+
+    @Test
+    public void trimToSizeTest() throws InterruptedException {
+        MapViewPosition mapViewPosition = new MapViewPosition(new FixedTileSizeDisplayModel(256));
+        mapViewPosition.setMapPosition(new MapPosition(new LatLong(0, 0), (byte) 4));
+        JobQueue<Job> jobQueue = new JobQueue<Job>(mapViewPosition, new FixedTileSizeDisplayModel(256));
+
+        for (int x = 0; x < 16; ++x) {
+            for (int y = 0; y < 16; ++y) {
+                jobQueue.add(new Job(new Tile(x, y, (byte) 4, TILE_SIZE), false));
+            }
+        }
+        Assert.assertEquals(256, jobQueue.size());
+
+        Tile tile = jobQueue.get().tile;
+        Assert.assertTrue(tile.tileX == 7 || tile.tileX == 8);
+        Assert.assertTrue(tile.tileY == 7 || tile.tileY == 8);
+        Assert.assertEquals(127, jobQueue.size());
+
+        // the least important jobs have been dropped and can be queued again
+        jobQueue.add(new Job(new Tile(0, 0, (byte) 4, TILE_SIZE), false));
+        Assert.assertEquals(128, jobQueue.size());
+    }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.util.Parameters;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class RenderExecutorTest {
+    /**
+     * A job which blocks in its read stage until it is released.
+     */
+    private static class Job implements RenderExecutor.StagedJob {
+        final CountDownLatch finished = new CountDownLatch(1);
+        final CountDownLatch read = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+
+        @Override
+        public void finish() {
+            this.finished.countDown();
+        }
+
+        @Override
+        public boolean run(RenderStage stage) {
+            if (stage == RenderStage.READ) {
+                this.started.countDown();
+                try {
+                    this.read.await();
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static Thread execute(final RenderExecutor renderExecutor, final MapWorkerPool mapWorkerPool,
+                                  final RenderExecutor.StagedJob job) {
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    renderExecutor.execute(mapWorkerPool, job);
+                } catch (InterruptedException e) {
+                    // test ends
+                }
+            }
+        };
+        thread.start();
+        return thread;
+    }
+
+    private static void waitForRunningJobs(RenderExecutor renderExecutor, int runningJobs) throws InterruptedException {
+        for (int i = 0; i < 100 && renderExecutor.getRunningJobs() != runningJobs; ++i) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(runningJobs, renderExecutor.getRunningJobs());
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void defaultTest() {
+        int numberOfThreads = Parameters.NUMBER_OF_THREADS;
+        try {
+            // an explicit single thread is kept, also if it is set after the default executor was created
+            Parameters.NUMBER_OF_THREADS = 1;
+            RenderExecutor renderExecutor = RenderExecutor.getDefault();
+            Assert.assertEquals(1, renderExecutor.getMaximumThreads(RenderStage.READ));
+            Assert.assertEquals(1, renderExecutor.getMaximumJobs());
+
+            Parameters.NUMBER_OF_THREADS = 0;
+            Assert.assertSame(renderExecutor, RenderExecutor.getDefault());
+            int processors = Runtime.getRuntime().availableProcessors();
+            Assert.assertEquals(processors, renderExecutor.getMaximumThreads(RenderStage.DRAW));
+            Assert.assertEquals(processors, renderExecutor.getMaximumJobs());
+        } finally {
+            Parameters.NUMBER_OF_THREADS = numberOfThreads;
+            RenderExecutor.getDefault();
+        }
+    }
+
+    @Test
+    public void fairnessTest() throws InterruptedException {
+        RenderExecutor renderExecutor = new RenderExecutor(2);
+        MapWorkerPool busyPool = new MapWorkerPool(null, null, null, null, renderExecutor);
+        MapWorkerPool otherPool = new MapWorkerPool(null, null, null, null, renderExecutor);
+        renderExecutor.register(busyPool);
+        renderExecutor.register(otherPool);
+
+        // the busy pool fills the pipeline and has more jobs waiting
+        Job[] jobs = new Job[2];
+        for (int i = 0; i < jobs.length; ++i) {
+            jobs[i] = new Job();
+            renderExecutor.execute(busyPool, jobs[i]);
+        }
+        Assert.assertTrue(jobs[1].started.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(1, renderExecutor.getUtilization(), 0);
+
+        Thread busyThread = execute(renderExecutor, busyPool, new Job());
+        Thread.sleep(50);
+        Thread otherThread = execute(renderExecutor, otherPool, new Job());
+        Thread.sleep(50);
+
+        // the free place goes to the pool with fewer jobs in the pipeline, even though it asked later
+        jobs[0].read.countDown();
+        Assert.assertTrue(jobs[0].finished.await(1, TimeUnit.SECONDS));
+        otherThread.join(1000);
+        Assert.assertFalse(otherThread.isAlive());
+        Assert.assertTrue(busyThread.isAlive());
+
+        jobs[1].read.countDown();
+        busyThread.join(1000);
+        Assert.assertFalse(busyThread.isAlive());
+    }
+
+    @Test
+    public void stagesTest() throws InterruptedException {
+        RenderExecutor renderExecutor = new RenderExecutor(1);
+        MapWorkerPool mapWorkerPool = new MapWorkerPool(null, null, null, null, renderExecutor);
+        renderExecutor.register(mapWorkerPool);
+        Assert.assertEquals(1, renderExecutor.getMaximumJobs());
+        Assert.assertEquals(0, renderExecutor.getPoolSize());
+
+        // the number of jobs is limited by the largest stage, not by the sum of all stages
+        renderExecutor.setMaximumThreads(RenderStage.DRAW, 2);
+        Assert.assertEquals(2, renderExecutor.getMaximumJobs());
+
+        // a job waiting in the read stage blocks only the other jobs to read
+        Job job1 = new Job();
+        Job job2 = new Job();
+        renderExecutor.execute(mapWorkerPool, job1);
+        renderExecutor.execute(mapWorkerPool, job2);
+        Assert.assertTrue(job1.started.await(1, TimeUnit.SECONDS));
+        Assert.assertFalse(job2.started.await(100, TimeUnit.MILLISECONDS));
+
+        renderExecutor.setMaximumThreads(RenderStage.READ, 2);
+        Assert.assertEquals(2, renderExecutor.getMaximumJobs());
+        Assert.assertEquals(2, renderExecutor.getMaximumThreads(RenderStage.READ));
+        Assert.assertTrue(job2.started.await(1, TimeUnit.SECONDS));
+        Assert.assertEquals(2, renderExecutor.getRunningJobs());
+
+        job1.read.countDown();
+        job2.read.countDown();
+        Assert.assertTrue(job1.finished.await(1, TimeUnit.SECONDS));
+        Assert.assertTrue(job2.finished.await(1, TimeUnit.SECONDS));
+
+        // a job which skips its remaining stages is finished all the same
+        RenderExecutor.StagedJob failing = new Job() {
+            @Override
+            public boolean run(RenderStage stage) {
+                return false;
+            }
+        };
+        renderExecutor.execute(mapWorkerPool, failing);
+        Assert.assertTrue(((Job) failing).finished.await(1, TimeUnit.SECONDS));
+        waitForRunningJobs(renderExecutor, 0);
+        Assert.assertEquals(0, renderExecutor.getUtilization(), 0);
+        Assert.assertEquals(3, renderExecutor.getStageCount(RenderStage.READ));
+        Assert.assertEquals(2, renderExecutor.getStageCount(RenderStage.MATCH));
+        Assert.assertEquals(2, renderExecutor.getStageCount(RenderStage.DRAW));
+        Assert.assertTrue(renderExecutor.getStageTime(RenderStage.READ) >= renderExecutor.getStageTime(RenderStage.DRAW));
+
+        renderExecutor.setMaximumThreads(RenderStage.DRAW, 1);
+        Assert.assertEquals(2, renderExecutor.getMaximumJobs());
+        renderExecutor.setMaximumThreads(1);
+        Assert.assertEquals(1, renderExecutor.getMaximumJobs());
+
+        try {
+            renderExecutor.setMaximumThreads(0);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(true);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.layer.renderer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mapsforge.core.model.Point;
+
+public class RendererUtilsTest {
+    private static Point[] points(double... coordinates) {
+        Point[] points = new Point[coordinates.length / 2];
+        for (int i = 0; i < points.length; ++i) {
+            points[i] = new Point(coordinates[2 * i], coordinates[2 * i + 1]);
+        }
+        return points;
+    }
+
+    private static Point[] simplify(Point[] points, double tolerance) {
+        return RendererUtils.simplify(points, tolerance, 0, 0, 256, 256);
+    }
+
+    @Test
+    public void simplifyClipTest() {
+        // a run left of the rectangle is collapsed into its first and last point
+        Point[] points = points(128, 128, -10, 100, -50, 60, -20, 30, -30, 0, 128, 10);
+        Assert.assertArrayEquals(points(128, 128, -10, 100, -30, 0, 128, 10), simplify(points, 0));
+
+        // a run around a corner is only collapsed as long as its points share a side
+        points = points(128, 128, -10, 100, -20, -20, 100, -10, 128, 128);
+        Assert.assertArrayEquals(points, simplify(points, 0));
+        points = points(128, 128, -10, 100, -20, -20, -10, -30, 100, -10, 128, 128);
+        Assert.assertArrayEquals(points(128, 128, -10, 100, -10, -30, 100, -10, 128, 128), simplify(points, 0));
+
+        // a closed way entirely outside of the rectangle on one side
+        points = points(300, 10, 400, 10, 400, 50, 300, 50, 300, 10);
+        Assert.assertArrayEquals(points(300, 10, 300, 10), simplify(points, 0));
+    }
+
+    @Test
+    public void simplifyTest() {
+        // nothing to drop
+        Point[] points = points(0, 0, 100, 0, 100, 100);
+        Assert.assertSame(points, simplify(points, 0.5));
+        points = points(0, 0, 100, 0);
+        Assert.assertSame(points, simplify(points, 0.5));
+
+        // points closer than the tolerance to their predecessor, but the last point is kept
+        points = points(0, 0, 0.2, 0.1, 0.3, 0.4, 100, 0, 100, 100, 100.6, 100);
+        Assert.assertArrayEquals(points(0, 0, 100, 0, 100, 100, 100.6, 100), simplify(points, 0.5));
+        points = points(0, 0, 100, 0, 100, 100, 100.1, 100);
+        Assert.assertArrayEquals(points(0, 0, 100, 0, 100.1, 100), simplify(points, 0.5));
+
+        // points within the tolerance of the line between their neighbours
+        points = points(0, 0, 10, 0.4, 20, -0.4, 30, 0.3, 40, 0);
+        Assert.assertArrayEquals(points(0, 0, 40, 0), simplify(points, 0.5));
+        Assert.assertArrayEquals(points, simplify(points, 0.2));
+
+        // a closed way remains closed
+        points = points(10, 10, 50, 10, 50, 10.2, 50, 50, 10, 50, 10, 10);
+        Assert.assertArrayEquals(points(10, 10, 50, 10, 50, 50, 10, 50, 10, 10), simplify(points, 0.5));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 mapsforge.org
+ *
+ * This program is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU Lesser General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.mapsforge.map.rendertheme.renderinstruction;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ZoomTableTest {
+    private static class CountingZoomTable extends ZoomTable<Float> {
+        final AtomicInteger created = new AtomicInteger();
+
+        @Override
+        Float create(float scaleFactor) {
+            this.created.incrementAndGet();
+            return 10 * scaleFactor;
+        }
+    }
+
+    @Test
+    public void getTest() {
+        CountingZoomTable zoomTable = new CountingZoomTable();
+
+        Assert.assertEquals(15f, zoomTable.get((byte) 14, 1.5f), 0);
+        Assert.assertEquals(15f, zoomTable.get((byte) 14, 1.5f), 0);
+        Assert.assertEquals(1, zoomTable.created.get());
+
+        // other zoom levels do not affect each other
+        Assert.assertEquals(20f, zoomTable.get((byte) 8, 2f), 0);
+        Assert.assertEquals(15f, zoomTable.get((byte) 14, 1.5f), 0);
+        Assert.assertEquals(20f, zoomTable.get((byte) 8, 2f), 0);
+        Assert.assertEquals(2, zoomTable.created.get());
+
+        // a new scale factor creates a new value
+        Assert.assertEquals(30f, zoomTable.get((byte) 14, 3f), 0);
+        Assert.assertEquals(3, zoomTable.created.get());
+    }
+
+    @Test
+    public void mixedZoomLevelsTest() throws InterruptedException {
+        final CountingZoomTable zoomTable = new CountingZoomTable();
+        final AtomicInteger errors = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; ++t) {
+            final int offset = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 10000; ++i) {
+                        byte zoomLevel = (byte) ((i + offset) % 22);
+                        if (zoomTable.get(zoomLevel, zoomLevel) != 10f * zoomLevel) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, errors.get());
+    }
+}
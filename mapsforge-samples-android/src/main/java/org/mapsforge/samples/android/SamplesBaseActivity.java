@@ -38,13 +38,13 @@ import org.mapsforge.core.model.Dimension;
 import org.mapsforge.core.model.LatLong;
 import org.mapsforge.core.model.MapPosition;
 import org.mapsforge.core.util.LatLongUtils;
-import org.mapsforge.core.util.Parameters;
 import org.mapsforge.map.android.graphics.AndroidGraphicFactory;
 import org.mapsforge.map.android.input.MapZoomControls.Orientation;
 import org.mapsforge.map.android.util.AndroidUtil;
 import org.mapsforge.map.android.util.MapViewerTemplate;
 import org.mapsforge.map.layer.cache.TileCache;
 import org.mapsforge.map.layer.renderer.MapWorkerPool;
+import org.mapsforge.map.layer.renderer.RenderExecutor;
 import org.mapsforge.map.layer.renderer.TileRendererLayer;
 import org.mapsforge.map.model.DisplayModel;
 import org.mapsforge.map.model.IMapViewPosition;
@@ -306,7 +306,7 @@ public abstract class SamplesBaseActivity extends MapViewerTemplate implements S
             MapWorkerPool.DEBUG_TIMING = preferences.getBoolean(SamplesApplication.SETTING_DEBUG_TIMING, false);
         }
         if (SamplesApplication.SETTING_RENDERING_THREADS.equals(key)) {
-            Parameters.NUMBER_OF_THREADS = preferences.getInt(SamplesApplication.SETTING_RENDERING_THREADS, 1);
+            RenderExecutor.getDefault().setMaximumThreads(preferences.getInt(SamplesApplication.SETTING_RENDERING_THREADS, 1));
             AndroidUtil.restartActivity(this);
         }
         if (SamplesApplication.SETTING_WAYFILTERING_DISTANCE.equals(key) ||
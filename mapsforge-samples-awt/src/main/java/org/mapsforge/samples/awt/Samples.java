@@ -41,6 +41,7 @@ import org.mapsforge.map.layer.download.tilesource.TileSource;
 import org.mapsforge.map.layer.hills.DiffuseLightShadingAlgorithm;
 import org.mapsforge.map.layer.hills.HillsRenderConfig;
 import org.mapsforge.map.layer.hills.MemoryCachingHgtReaderTileSource;
+import org.mapsforge.map.layer.renderer.RenderExecutor;
 import org.mapsforge.map.layer.renderer.TileRendererLayer;
 import org.mapsforge.map.model.IMapViewPosition;
 import org.mapsforge.map.model.Model;
@@ -77,7 +78,7 @@ public final class Samples {
      */
     public static void main(String[] args) {
         // Multithreaded map rendering
-        Parameters.NUMBER_OF_THREADS = 2;
+        RenderExecutor.getDefault().setMaximumThreads(2);
 
         // Square frame buffer
         Parameters.SQUARE_FRAME_BUFFER = false;